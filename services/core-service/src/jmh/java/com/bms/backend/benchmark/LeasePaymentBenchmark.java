@@ -0,0 +1,178 @@
+package com.bms.backend.benchmark;
+
+import com.bms.backend.dto.response.LeasePaymentScheduleDto;
+import com.bms.backend.dto.response.LeasePaymentScheduleResponse;
+import com.bms.backend.dto.response.LeasePaymentSummaryDto;
+import com.bms.backend.dto.response.UrgentPaymentDto;
+import com.bms.backend.entity.PaymentTransaction;
+import com.bms.backend.entity.TenantPropertyConnection;
+import com.bms.backend.entity.User;
+import com.bms.backend.enums.UserRole;
+import com.bms.backend.repository.PaymentTransactionRepository;
+import com.bms.backend.repository.TenantPropertyConnectionRepository;
+import com.bms.backend.service.LeaseService;
+import com.bms.backend.service.TenantService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Rent schedule, summary and urgent-payment computation for one lease with {@code years} of monthly
+ * payment history. Repositories are replaced by in-memory stubs, so only the Java-side work
+ * (date conversion, per-month matching, BigDecimal math, DTO building) is measured.
+ *
+ * Run the default set (throughput plus gc.alloc.rate.norm per call) with
+ *   mvn -Pbenchmarks test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeasePaymentBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int years;
+
+    private LeaseService leaseService;
+    private TenantService tenantService;
+    private User manager;
+    private User tenant;
+    private TenantPropertyConnection lease;
+    private YearMonth historyStart;
+    private YearMonth historyEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        manager = user(UserRole.PROPERTY_MANAGER);
+        tenant = user(UserRole.TENANT);
+
+        LocalDate start = today.minusYears(years).withDayOfMonth(1);
+        lease = new TenantPropertyConnection(tenant, manager, "Benchmark Towers", start, today.plusYears(1), 1850.0);
+        lease.setId(UUID.randomUUID());
+        lease.setPaymentFrequency("MONTHLY");
+
+        historyStart = YearMonth.from(start);
+        historyEnd = YearMonth.from(today).plusMonths(2);
+        List<PaymentTransaction> history = history(lease, historyStart, historyEnd, YearMonth.from(today));
+
+        PaymentTransactionRepository payments = stub(PaymentTransactionRepository.class, Map.of(
+                "findByConnectionOrderByCreatedAtDesc", args -> history,
+                "saveAll", args -> toList((Iterable<?>) args[0])));
+        TenantPropertyConnectionRepository connections = stub(TenantPropertyConnectionRepository.class, Map.of(
+                "findById", args -> Optional.of(lease),
+                "findByTenantAndIsActive", args -> List.of(lease)));
+
+        leaseService = new LeaseService();
+        ReflectionTestUtils.setField(leaseService, "connectionRepository", connections);
+        ReflectionTestUtils.setField(leaseService, "paymentTransactionRepository", payments);
+
+        tenantService = new TenantService();
+        ReflectionTestUtils.setField(tenantService, "connectionRepository", connections);
+        ReflectionTestUtils.setField(tenantService, "paymentTransactionRepository", payments);
+        ReflectionTestUtils.setField(tenantService, "leaseService", leaseService);
+    }
+
+    /** Whole-lease schedule: one item per month of history. */
+    @Benchmark
+    public List<LeasePaymentScheduleDto> fullSchedule() {
+        return leaseService.generatePaymentSchedule(lease, historyStart, historyEnd);
+    }
+
+    /** Default three-month window the apps request, which still scans the whole history. */
+    @Benchmark
+    public LeasePaymentScheduleResponse scheduleWindow() {
+        return leaseService.getLeasePaymentSchedule(manager, lease.getId(), null, null, 3);
+    }
+
+    @Benchmark
+    public LeasePaymentSummaryDto summary() {
+        return leaseService.getLeasePaymentSummary(manager, lease.getId());
+    }
+
+    @Benchmark
+    public UrgentPaymentDto mostUrgentPayment() {
+        return tenantService.getMostUrgentPayment(tenant);
+    }
+
+    // One record per month; everything before the last three months is paid
+    private static List<PaymentTransaction> history(TenantPropertyConnection lease, YearMonth from, YearMonth to,
+                                                    YearMonth current) {
+        ZoneId utc = ZoneId.of("UTC");
+        BigDecimal rent = BigDecimal.valueOf(lease.getMonthlyRent());
+        List<PaymentTransaction> payments = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            PaymentTransaction.PaymentStatus status = month.isBefore(current.minusMonths(2))
+                    ? PaymentTransaction.PaymentStatus.PAID
+                    : PaymentTransaction.PaymentStatus.PENDING;
+            PaymentTransaction payment = new PaymentTransaction(lease.getTenant(), lease, rent, "USD", status);
+            payment.setId(UUID.randomUUID());
+            payment.setDueDate(month.atDay(1).atStartOfDay(utc).toInstant());
+            if (status == PaymentTransaction.PaymentStatus.PAID) {
+                payment.setPaymentDate(month.atDay(3).atStartOfDay(utc).toInstant());
+            }
+            payments.add(payment);
+        }
+        // Repository returns newest first
+        Collections.reverse(payments);
+        return Collections.unmodifiableList(payments);
+    }
+
+    private static List<Object> toList(Iterable<?> items) {
+        List<Object> list = new ArrayList<>();
+        items.forEach(list::add);
+        return list;
+    }
+
+    private static User user(UserRole role) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setFirstName("Bench");
+        user.setLastName(role.name());
+        user.setRole(role);
+        return user;
+    }
+
+    // Interface stub answering only the named methods; lighter and more predictable than a mock under JMH
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return method.getName().equals("hashCode") ? System.identityHashCode(proxy)
+                        : method.getName().equals("equals") ? proxy == args[0]
+                        : type.getSimpleName() + "Stub";
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        });
+    }
+}
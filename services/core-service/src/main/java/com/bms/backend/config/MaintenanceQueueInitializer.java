@@ -0,0 +1,55 @@
+package com.bms.backend.config;
+
+import com.bms.backend.repository.MaintenanceRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Assigns a work-queue rank to open maintenance requests that predate the queue_rank column.
+ * The entity keeps the rank current on every later write, so this only ever touches legacy rows.
+ *
+ * On PostgreSQL it also builds the open-queue index. The index is partial on {@code queue_rank IS NOT NULL}, the
+ * predicate every queue query carries, so it holds only open requests and the queue page and its counts never
+ * read through closed history. Hibernate's schema update cannot declare partial indexes.
+ */
+@Component
+public class MaintenanceQueueInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceQueueInitializer.class);
+
+    private static final String QUEUE_INDEX = "idx_maintenance_requests_open_queue";
+
+    // Full index from earlier schema updates; it also covered every closed request
+    private static final String LEGACY_QUEUE_INDEX = "idx_maintenance_requests_queue";
+
+    @Autowired
+    private MaintenanceRequestRepository maintenanceRequestRepository;
+
+    @Autowired
+    private PostgresIndexes postgresIndexes;
+
+    @Override
+    public void run(String... args) {
+        try {
+            int updated = maintenanceRequestRepository.backfillQueueRanks();
+            if (updated > 0) {
+                logger.info("Assigned work-queue ranks to {} open maintenance requests", updated);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not backfill maintenance work-queue ranks: {}", e.getMessage());
+        }
+        if (!postgresIndexes.isPostgres()) {
+            return;
+        }
+        try {
+            postgresIndexes.createConcurrently(QUEUE_INDEX,
+                    "ON maintenance_requests (queue_rank, created_at, id) WHERE queue_rank IS NOT NULL");
+            postgresIndexes.dropConcurrently(LEGACY_QUEUE_INDEX);
+        } catch (Exception e) {
+            logger.warn("Failed to create maintenance queue index {}: {}", QUEUE_INDEX, e.getMessage());
+        }
+    }
+}
@@ -8,6 +8,9 @@ import org.springframework.web.multipart.MultipartResolver;
 import org.springframework.web.multipart.support.StandardServletMultipartResolver;
 
 import jakarta.servlet.MultipartConfigElement;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.regex.Pattern;
 
 @Configuration
 public class MultipartConfig {
@@ -20,8 +23,24 @@ public class MultipartConfig {
         return factory.createMultipartConfig();
     }
 
+    // Parsed by the controller itself as the body arrives; resolving it here would spool the whole upload first
+    public static final String STREAMING_UPLOAD_PATH = "/api/v1/files/uploads/stream";
+
+    // Unit document uploads are streamed the same way
+    private static final Pattern DOCUMENT_UPLOAD_PATH = Pattern.compile("/api/v1/apartments/[^/]+/documents/?");
+
     @Bean
     public MultipartResolver multipartResolver() {
-        return new StandardServletMultipartResolver();
+        return new StandardServletMultipartResolver() {
+            @Override
+            public boolean isMultipart(HttpServletRequest request) {
+                String path = request.getRequestURI().substring(request.getContextPath().length());
+                return !isStreamingUpload(path) && super.isMultipart(request);
+            }
+        };
+    }
+
+    static boolean isStreamingUpload(String path) {
+        return STREAMING_UPLOAD_PATH.equals(path) || DOCUMENT_UPLOAD_PATH.matcher(path).matches();
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.bms.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * Builds PostgreSQL indexes that Hibernate's schema update cannot declare (expression, GIN and partial indexes).
+ *
+ * Indexes are created concurrently so existing tables stay writable. A concurrent build that failed earlier leaves
+ * an invalid index behind that IF NOT EXISTS would keep; such an index is dropped and built again.
+ */
+@Component
+class PostgresIndexes {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresIndexes.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (Exception e) {
+            logger.warn("Could not determine database product: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Creates {@code name} with the given {@code ON ...} definition, rebuilding it if an earlier build left it invalid.
+     */
+    void createConcurrently(String name, String definition) {
+        if (isInvalid(name)) {
+            logger.warn("Index {} is invalid from an earlier failed build, rebuilding it", name);
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        }
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " " + definition);
+    }
+
+    void dropConcurrently(String name) {
+        jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+    }
+
+    void execute(String sql) {
+        jdbcTemplate.execute(sql);
+    }
+
+    private boolean isInvalid(String indexName) {
+        List<Boolean> valid = jdbcTemplate.queryForList(
+                "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)", Boolean.class, indexName);
+        return valid.contains(Boolean.FALSE);
+    }
+}
@@ -0,0 +1,64 @@
+package com.bms.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates trigram GIN indexes for the search queries on PostgreSQL.
+ *
+ * The search queries filter with {@code LOWER(column) LIKE pattern}; an index on the same expression with
+ * {@code gin_trgm_ops} serves both substring and prefix patterns. Hibernate's schema update cannot declare
+ * expression or GIN indexes, so {@link PostgresIndexes} builds them concurrently.
+ * On other databases the search falls back to scanning.
+ */
+@Component
+public class SearchIndexInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexInitializer.class);
+
+    private static final String[][] TRIGRAM_INDEXES = {
+            {"idx_apartments_unit_number_trgm", "apartments", "lower(unit_number)"},
+            {"idx_apartments_tenant_name_trgm", "apartments", "lower(tenant_name)"},
+            {"idx_apartments_tenant_email_trgm", "apartments", "lower(tenant_email)"},
+            {"idx_property_buildings_name_trgm", "property_buildings", "lower(name)"},
+            {"idx_property_buildings_address_trgm", "property_buildings", "lower(address)"},
+            {"idx_tenant_property_connections_property_name_trgm", "tenant_property_connections", "lower(property_name)"},
+            {"idx_users_first_name_trgm", "users", "lower(first_name)"},
+            {"idx_users_last_name_trgm", "users", "lower(last_name)"},
+            {"idx_users_email_trgm", "users", "lower(email)"},
+            {"idx_users_phone_trgm", "users", "phone"},
+            {"idx_maintenance_requests_title_trgm", "maintenance_requests", "lower(title)"},
+            {"idx_maintenance_requests_description_trgm", "maintenance_requests", "lower(description)"},
+    };
+
+    @Autowired
+    private PostgresIndexes postgresIndexes;
+
+    @Value("${app.search.trigram-indexes.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled || !postgresIndexes.isPostgres()) {
+            return;
+        }
+        try {
+            postgresIndexes.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        } catch (Exception e) {
+            logger.warn("pg_trgm is not available, search will not be index-assisted: {}", e.getMessage());
+            return;
+        }
+        for (String[] index : TRIGRAM_INDEXES) {
+            try {
+                postgresIndexes.createConcurrently(index[0],
+                        "ON " + index[1] + " USING gin (" + index[2] + " gin_trgm_ops)");
+            } catch (Exception e) {
+                logger.warn("Failed to create search index {}: {}", index[0], e.getMessage());
+            }
+        }
+    }
+}
@@ -57,12 +57,13 @@ public class ApartmentController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<Apartment>>> searchMyApartments(@RequestParam String searchText) {
+    public ResponseEntity<ApiResponse<List<Apartment>>> searchMyApartments(@RequestParam String searchText,
+                                                                         @RequestParam(required = false) Integer limit) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User user = (User) authentication.getPrincipal();
 
-            List<Apartment> apartments = apartmentService.searchApartmentsByManager(user, searchText);
+            List<Apartment> apartments = apartmentService.searchApartmentsByManager(user, searchText, limit);
             return ResponseEntity.ok(new ApiResponse<>(true, apartments, "Apartments search completed"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
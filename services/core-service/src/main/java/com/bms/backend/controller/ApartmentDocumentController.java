@@ -0,0 +1,122 @@
+package com.bms.backend.controller;
+
+import com.bms.backend.dto.response.ApartmentDocumentResponse;
+import com.bms.backend.dto.response.ApiResponse;
+import com.bms.backend.entity.User;
+import com.bms.backend.service.ApartmentDocumentService;
+import com.bms.backend.service.FileProxyService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/apartments/{apartmentId}/documents")
+public class ApartmentDocumentController {
+
+    @Autowired
+    private ApartmentDocumentService apartmentDocumentService;
+
+    // Metadata only; open a document through /{documentId}/content
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<ApartmentDocumentResponse>>> getDocuments(@PathVariable UUID apartmentId) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User user = (User) authentication.getPrincipal();
+
+            List<ApartmentDocumentResponse> documents = apartmentDocumentService.listDocuments(apartmentId, user);
+            return ResponseEntity.ok(new ApiResponse<>(true, documents, "Documents retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to retrieve documents: " + e.getMessage()));
+        }
+    }
+
+    // Multipart body parsed as it arrives; the documentType and description fields must be sent before the file field
+    @PostMapping
+    public ResponseEntity<ApiResponse<ApartmentDocumentResponse>> uploadDocument(@PathVariable UUID apartmentId,
+                                                                                 HttpServletRequest request) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User user = (User) authentication.getPrincipal();
+
+            ApartmentDocumentResponse document = apartmentDocumentService.uploadDocument(apartmentId,
+                    request.getContentType(), request.getInputStream(), user);
+            return ResponseEntity.ok(new ApiResponse<>(true, document, "Document uploaded successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to upload document: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{documentId}")
+    public ResponseEntity<ApiResponse<ApartmentDocumentResponse>> getDocument(@PathVariable UUID apartmentId,
+                                                                              @PathVariable UUID documentId) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User user = (User) authentication.getPrincipal();
+
+            Optional<ApartmentDocumentResponse> document = apartmentDocumentService.getDocument(apartmentId, documentId, user);
+            if (document.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse<>(false, null, "Document not found"));
+            }
+            return ResponseEntity.ok(new ApiResponse<>(true, document.get(), "Document retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to retrieve document: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{documentId}/content")
+    public ResponseEntity<?> getDocumentContent(@PathVariable UUID apartmentId,
+                                                @PathVariable UUID documentId,
+                                                @RequestParam(defaultValue = "false") boolean redirect,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User user = (User) authentication.getPrincipal();
+
+            ApartmentDocumentService.DocumentContent content = apartmentDocumentService.getContent(apartmentId,
+                    documentId, user, redirect, ifNoneMatch, range);
+            if (content == null) {
+                return ResponseEntity.notFound().build();
+            }
+            if (content.getRedirectUrl() != null) {
+                return ResponseEntity.status(HttpStatus.FOUND)
+                        .location(URI.create(content.getRedirectUrl()))
+                        .build();
+            }
+
+            FileProxyService.ProxiedFile file = content.getFile();
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(file.getStatus()).headers(file.getHeaders());
+            return file.getBody() == null ? response.build() : response.body(file.getBody());
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to download document: " + e.getMessage()));
+        }
+    }
+}
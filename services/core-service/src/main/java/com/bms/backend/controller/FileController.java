@@ -1,32 +1,53 @@
 package com.bms.backend.controller;
 
 import com.bms.backend.dto.request.FileUploadRequest;
+import com.bms.backend.dto.request.PresignedUploadRequest;
+import com.bms.backend.dto.request.UploadCompletionRequest;
 import com.bms.backend.dto.response.ApiResponse;
+import com.bms.backend.dto.response.FileDownloadUrlResponse;
+import com.bms.backend.dto.response.FileListPageResponse;
 import com.bms.backend.dto.response.FileUploadResponse;
+import com.bms.backend.dto.response.PresignedUploadResponse;
 import com.bms.backend.entity.User;
+import com.bms.backend.service.FileProxyService;
 import com.bms.backend.service.S3Service;
+import com.bms.backend.service.StreamingUploadService;
+import com.bms.backend.service.storage.ObjectInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
-import java.util.List;
+import java.net.URI;
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/api/v1/files")
 public class FileController {
 
+    // Servlet request attributes Tomcat uses for sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private S3Service s3Service;
 
+    @Autowired
+    private FileProxyService fileProxyService;
+
+    @Autowired
+    private StreamingUploadService streamingUploadService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -77,42 +98,136 @@ public class FileController {
         }
     }
 
+    // Same as /upload, but the body is parsed as it arrives and the file is piped to storage without being spooled;
+    // the uploadRequest field must be sent before the file field
+    @PostMapping("/uploads/stream")
+    public ResponseEntity<ApiResponse<FileUploadResponse>> uploadFileStreaming(HttpServletRequest request) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User user = (User) authentication.getPrincipal();
+
+            FileUploadResponse response = streamingUploadService.upload(request.getContentType(),
+                    request.getInputStream(), user);
+
+            return ResponseEntity.ok(new ApiResponse<>(true, response, "File uploaded successfully"));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to upload file: " + e.getMessage()));
+        }
+    }
+
+    // Step one of a direct upload: the client PUTs the file to the returned URL, then calls /uploads/complete
+    @PostMapping("/uploads/presign")
+    public ResponseEntity<ApiResponse<PresignedUploadResponse>> presignUpload(@Valid @RequestBody PresignedUploadRequest request) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User user = (User) authentication.getPrincipal();
+
+            S3Service.FileType fileType = parseFileType(request.getFileType());
+            PresignedUploadResponse response = s3Service.presignUpload(user.getId(), fileType, request.getFileName(),
+                    request.getContentType(), request.getContentLength());
+
+            return ResponseEntity.ok(new ApiResponse<>(true, response, "Upload URL issued successfully"));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to issue upload URL: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/uploads/complete")
+    public ResponseEntity<ApiResponse<FileUploadResponse>> completeUpload(@Valid @RequestBody UploadCompletionRequest request) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User user = (User) authentication.getPrincipal();
+
+            S3Service.FileType fileType = parseFileType(request.getFileType());
+            ObjectInfo stored = s3Service.verifyUpload(user.getId(), fileType, request.getKey());
+
+            FileUploadResponse response = new FileUploadResponse(
+                    s3Service.getFileUrl(request.getKey()),
+                    request.getFileName(),
+                    request.getFileType(),
+                    stored.getContentLength(),
+                    stored.getContentType(),
+                    user.getId(),
+                    request.getDescription(),
+                    request.getCategory()
+            );
+
+            return ResponseEntity.ok(new ApiResponse<>(true, response, "File uploaded successfully"));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to complete upload: " + e.getMessage()));
+        }
+    }
+
+    // CDN or presigned URL so the client reads the file from storage instead of through /image
+    @GetMapping("/download-url")
+    public ResponseEntity<ApiResponse<FileDownloadUrlResponse>> getDownloadUrl(@RequestParam String fileUrl) {
+        try {
+            FileDownloadUrlResponse response = s3Service.getDownloadUrl(fileUrl);
+            return ResponseEntity.ok(new ApiResponse<>(true, response, "Download URL issued successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to issue download URL: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/image")
-    public ResponseEntity<?> downloadImage(@RequestParam String fileUrl) {
+    public ResponseEntity<?> downloadImage(@RequestParam String fileUrl,
+                                           @RequestParam(defaultValue = "false") boolean redirect,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                           @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                           HttpServletRequest request) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User user = (User) authentication.getPrincipal();
 
-            // Validate that the file exists
-            if (!s3Service.fileExists(fileUrl)) {
-                return ResponseEntity.notFound().build();
+            // Send the client to storage instead of streaming the bytes through this server
+            if (redirect) {
+                FileDownloadUrlResponse direct = s3Service.getDownloadUrl(fileUrl);
+                return ResponseEntity.status(HttpStatus.FOUND)
+                        .location(URI.create(direct.getUrl()))
+                        .build();
             }
 
-            // Download file
-            InputStream fileStream = s3Service.downloadFile(fileUrl);
-
-            // Determine content type based on file extension
-            String contentType = "application/octet-stream";
-            if (fileUrl.toLowerCase().contains(".jpg") || fileUrl.toLowerCase().contains(".jpeg")) {
-                contentType = "image/jpeg";
-            } else if (fileUrl.toLowerCase().contains(".png")) {
-                contentType = "image/png";
-            } else if (fileUrl.toLowerCase().contains(".gif")) {
-                contentType = "image/gif";
-            } else if (fileUrl.toLowerCase().contains(".webp")) {
-                contentType = "image/webp";
-            } else if (fileUrl.toLowerCase().contains(".pdf")) {
-                contentType = "application/pdf";
+            // One conditional GET upstream; 304 and Range are answered here
+            FileProxyService.ProxiedFile file = fileProxyService.fetch(fileUrl, ifNoneMatch, range);
+            if (file == null) {
+                return ResponseEntity.notFound().build();
             }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(contentType));
-            headers.setCacheControl("max-age=3600"); // Cache for 1 hour
-
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(new InputStreamResource(fileStream));
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(file.getStatus()).headers(file.getHeaders());
+            if (file.getBody() == null) {
+                return response.build();
+            }
+            if (file.getLocalFile() != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                // Tomcat writes the file region itself once the headers are committed
+                request.setAttribute(SENDFILE_FILENAME, file.getLocalFile().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, file.getStart());
+                request.setAttribute(SENDFILE_END, file.getStart() + file.getLength());
+                return response.build();
+            }
+            return response.body(file.getBody());
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse<>(false, null, "Failed to download file: " + e.getMessage()));
@@ -138,31 +253,41 @@ public class FileController {
     }
 
     @GetMapping("/list")
-    public ResponseEntity<ApiResponse<List<String>>> listUserFiles(
-            @RequestParam String fileType) {
+    public ResponseEntity<ApiResponse<FileListPageResponse>> listUserFiles(
+            @RequestParam String fileType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(defaultValue = "false") boolean includeMetadata) {
 
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User user = (User) authentication.getPrincipal();
 
-            S3Service.FileType type;
-            try {
-                type = S3Service.FileType.valueOf(fileType.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                return ResponseEntity.badRequest()
-                        .body(new ApiResponse<>(false, null, "Invalid file type. Allowed: profile, maintenance, property, document, other"));
-            }
-
-            List<String> files = s3Service.listUserFiles(user.getId(), type);
+            S3Service.FileType type = parseFileType(fileType);
+            FileListPageResponse page = s3Service.listUserFiles(user.getId(), type, cursor, limit,
+                    startDate, endDate, includeMetadata);
 
-            return ResponseEntity.ok(new ApiResponse<>(true, files, "Files listed successfully"));
+            return ResponseEntity.ok(new ApiResponse<>(true, page, "Files listed successfully"));
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse<>(false, null, "Failed to list files: " + e.getMessage()));
         }
     }
 
+    private S3Service.FileType parseFileType(String fileType) {
+        try {
+            return S3Service.FileType.valueOf(fileType.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid file type. Allowed: profile, maintenance, property, document, other");
+        }
+    }
+
     @GetMapping("/health")
     public ResponseEntity<ApiResponse<String>> healthCheck() {
         return ResponseEntity.ok(new ApiResponse<>(true, "File service is running", "File service is healthy"));
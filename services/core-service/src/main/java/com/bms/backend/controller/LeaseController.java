@@ -1,26 +1,39 @@
 package com.bms.backend.controller;
 
+import com.bms.backend.dto.request.BatchPaymentScheduleRequest;
 import com.bms.backend.dto.request.LeaseUpdateRequest;
 import com.bms.backend.dto.response.ApiResponse;
 import com.bms.backend.dto.response.LeaseDetailsDto;
 import com.bms.backend.dto.response.LeaseListingDto;
+import com.bms.backend.dto.response.LeasePaymentBatchItemDto;
 import com.bms.backend.dto.response.LeasePaymentDetailsDto;
 import com.bms.backend.dto.response.LeasePaymentScheduleResponse;
 import com.bms.backend.dto.response.LeasePaymentSummaryDto;
 import com.bms.backend.entity.TenantPropertyConnection;
 import com.bms.backend.entity.User;
 import com.bms.backend.service.LeaseService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,9 +43,15 @@ import java.util.UUID;
 @Tag(name = "Lease Management", description = "APIs for managing leases and lease payments")
 public class LeaseController {
 
+    private static final int BATCH_FLUSH_INTERVAL = 25;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
     @Autowired
     private LeaseService leaseService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // CREATE operation is handled by /tenants/connect endpoint
 
     // READ - Get all leases (Manager view)
@@ -133,12 +152,13 @@ public class LeaseController {
 
     // SEARCH - Search leases
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<LeaseListingDto>>> searchLeases(@RequestParam String searchText) {
+    public ResponseEntity<ApiResponse<List<LeaseListingDto>>> searchLeases(@RequestParam String searchText,
+                                                                        @RequestParam(required = false) Integer limit) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User user = (User) authentication.getPrincipal();
 
-            List<LeaseListingDto> leases = leaseService.searchLeases(user, searchText);
+            List<LeaseListingDto> leases = leaseService.searchLeases(user, searchText, limit);
             return ResponseEntity.ok(new ApiResponse<>(true, leases, "Lease search completed successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -277,4 +297,57 @@ public class LeaseController {
                     .body(new ApiResponse<>(false, null, "Failed to retrieve payment summary: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // Get payment schedules and summaries for many leases in one call
+    @PostMapping("/payment-schedules/batch")
+    @Operation(
+            summary = "Get payment schedules for many leases",
+            description = "Returns the payment schedule (and summary unless includeSummary is false) for up to " +
+                    BatchPaymentScheduleRequest.MAX_LEASES + " leases in one streamed response. " +
+                    "Uses the same startMonth/endMonth/limit window rules as /{id}/payment-schedule. " +
+                    "Leases that are missing or not accessible are returned with an error field."
+    )
+    public ResponseEntity<?> getLeasePaymentSchedulesBatch(@Valid @RequestBody BatchPaymentScheduleRequest request) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User user = (User) authentication.getPrincipal();
+
+            List<LeasePaymentBatchItemDto> items = leaseService.getLeasePaymentSchedules(user, request);
+            StreamingResponseBody body = outputStream -> writeBatch(outputStream, items);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to retrieve payment schedules: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Write the batch in the ApiResponse envelope one lease at a time, flushing periodically
+     * so the client can start parsing before the whole body is serialized.
+     */
+    private void writeBatch(OutputStream outputStream, List<LeasePaymentBatchItemDto> items) throws IOException {
+        ObjectWriter itemWriter = objectMapper.writerFor(LeasePaymentBatchItemDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeBooleanField("success", true);
+            generator.writeArrayFieldStart("data");
+            int written = 0;
+            for (LeasePaymentBatchItemDto item : items) {
+                itemWriter.writeValue(generator, item);
+                if (++written % BATCH_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeStringField("message", "Payment schedules retrieved successfully");
+            generator.writeStringField("timestamp", LocalDateTime.now().format(TIMESTAMP_FORMAT));
+            generator.writeEndObject();
+        }
+    }
+}
@@ -6,26 +6,33 @@ import com.bms.backend.dto.request.MaintenanceUpdateRequest;
 import com.bms.backend.dto.request.MaintenanceStatusUpdateRequest;
 import com.bms.backend.dto.request.BulkMaintenanceRequestCreateRequest;
 import com.bms.backend.dto.response.ApiResponse;
+import com.bms.backend.dto.response.MaintenanceCountsResponse;
 import com.bms.backend.dto.response.MaintenanceDetailsResponse;
+import com.bms.backend.dto.response.MaintenancePhotoPageResponse;
+import com.bms.backend.dto.response.MaintenanceRequestPageResponse;
+import com.bms.backend.dto.response.MaintenanceTimelineResponse;
+import com.bms.backend.dto.response.MaintenanceWorkQueueResponse;
 import com.bms.backend.dto.response.MaintenanceProgressResponse;
-import com.bms.backend.dto.response.MaintenanceRequestResponse;
 import com.bms.backend.dto.response.BulkMaintenanceRequestResponse;
 import com.bms.backend.entity.*;
 import com.bms.backend.enums.UserRole;
+import com.bms.backend.repository.MaintenanceListCriteria;
+import com.bms.backend.service.MaintenanceEventService;
 import com.bms.backend.service.MaintenanceRequestService;
 import com.bms.backend.service.ServiceCategoryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/maintenance")
@@ -37,6 +44,9 @@ public class MaintenanceController {
     @Autowired
     private ServiceCategoryService serviceCategoryService;
 
+    @Autowired
+    private MaintenanceEventService maintenanceEventService;
+
     @PostMapping("/requests")
     public ResponseEntity<ApiResponse<MaintenanceRequest>> createMaintenanceRequest(@Valid @RequestBody MaintenanceRequestCreateRequest request) {
         try {
@@ -44,7 +54,18 @@ public class MaintenanceController {
             User user = (User) authentication.getPrincipal();
 
             MaintenanceRequest maintenanceRequest = maintenanceRequestService.createMaintenanceRequest(request, user);
-            return ResponseEntity.ok(new ApiResponse<>(true, maintenanceRequest, "Maintenance request created successfully"));
+            String message;
+            if (maintenanceRequest.isMergedDuplicate()) {
+                message = "An open request for this issue already exists; your report was added to it";
+            } else if (maintenanceRequest.getPossibleDuplicateOfId() != null) {
+                message = "Maintenance request created successfully; it may duplicate an open request";
+            } else {
+                message = "Maintenance request created successfully";
+            }
+            return ResponseEntity.ok(new ApiResponse<>(true, maintenanceRequest, message));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse<>(false, null, "Failed to create maintenance request: " + e.getMessage()));
@@ -76,133 +97,139 @@ public class MaintenanceController {
     }
 
     @GetMapping("/requests")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequestResponse>>> getMyMaintenanceRequests() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User user = (User) authentication.getPrincipal();
-
-            List<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByManager(user);
-            List<MaintenanceRequestResponse> responses = requests.stream()
-                    .map(MaintenanceRequestResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(new ApiResponse<>(true, responses, "Maintenance requests retrieved successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to retrieve maintenance requests: " + e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> getMyMaintenanceRequests(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+
+        return listRequests(MaintenanceListCriteria.forManager(user), cursor, limit,
+                "Maintenance requests retrieved successfully", "Failed to retrieve maintenance requests: ");
     }
 
     @GetMapping("/requests/tenant")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequest>>> getMaintenanceRequestsByTenant(@RequestParam String tenantEmail) {
-        try {
-            List<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByTenant(tenantEmail);
-            return ResponseEntity.ok(new ApiResponse<>(true, requests, "Tenant maintenance requests retrieved successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to retrieve tenant maintenance requests: " + e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> getMaintenanceRequestsByTenant(
+            @RequestParam String tenantEmail,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return listRequests(MaintenanceListCriteria.forParticipant(tenantEmail), cursor, limit,
+                "Tenant maintenance requests retrieved successfully", "Failed to retrieve tenant maintenance requests: ");
     }
 
     @GetMapping("/requests/status/{status}")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequestResponse>>> getMaintenanceRequestsByStatus(@PathVariable MaintenanceRequest.Status status) {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User user = (User) authentication.getPrincipal();
-
-            List<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByStatus(status, user);
-            List<MaintenanceRequestResponse> responses = requests.stream()
-                    .map(MaintenanceRequestResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(new ApiResponse<>(true, responses, "Maintenance requests by status retrieved successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to retrieve maintenance requests by status: " + e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> getMaintenanceRequestsByStatus(
+            @PathVariable MaintenanceRequest.Status status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+
+        MaintenanceListCriteria criteria = MaintenanceListCriteria.forManager(user);
+        criteria.setStatus(status);
+        return listRequests(criteria, cursor, limit,
+                "Maintenance requests by status retrieved successfully", "Failed to retrieve maintenance requests by status: ");
     }
 
     @GetMapping("/requests/priority/{priority}")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequestResponse>>> getMaintenanceRequestsByPriority(@PathVariable MaintenanceRequest.Priority priority) {
+    public ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> getMaintenanceRequestsByPriority(
+            @PathVariable MaintenanceRequest.Priority priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+
+        MaintenanceListCriteria criteria = MaintenanceListCriteria.forManager(user);
+        criteria.setPriority(priority);
+        return listRequests(criteria, cursor, limit,
+                "Maintenance requests by priority retrieved successfully", "Failed to retrieve maintenance requests by priority: ");
+    }
+
+    // Dashboard counters by status, priority and category, served from memory
+    @GetMapping("/requests/counts")
+    public ResponseEntity<ApiResponse<MaintenanceCountsResponse>> getMaintenanceCounts() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User user = (User) authentication.getPrincipal();
 
-            List<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByPriority(priority, user);
-            List<MaintenanceRequestResponse> responses = requests.stream()
-                    .map(MaintenanceRequestResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(new ApiResponse<>(true, responses, "Maintenance requests by priority retrieved successfully"));
+            MaintenanceCountsResponse counts = maintenanceRequestService.getManagerMaintenanceCounts(user);
+            return ResponseEntity.ok(new ApiResponse<>(true, counts, "Maintenance request counts retrieved successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to retrieve maintenance requests by priority: " + e.getMessage()));
+                    .body(new ApiResponse<>(false, null, "Failed to retrieve maintenance request counts: " + e.getMessage()));
         }
     }
 
-    @GetMapping("/requests/category/{categoryId}")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequestResponse>>> getMaintenanceRequestsByCategory(@PathVariable UUID categoryId) {
+    // Triage queue of open requests by priority then age, with SLA age bucket counts on the first page
+    @GetMapping("/requests/queue")
+    public ResponseEntity<ApiResponse<MaintenanceWorkQueueResponse>> getMaintenanceWorkQueue(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User user = (User) authentication.getPrincipal();
 
-            List<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByServiceCategory(categoryId, user);
-            List<MaintenanceRequestResponse> responses = requests.stream()
-                    .map(MaintenanceRequestResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(new ApiResponse<>(true, responses, "Maintenance requests by category retrieved successfully"));
+            MaintenanceWorkQueueResponse queue = maintenanceRequestService.getMaintenanceWorkQueue(user, cursor, limit);
+            return ResponseEntity.ok(new ApiResponse<>(true, queue, "Maintenance work queue retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to retrieve maintenance requests by category: " + e.getMessage()));
+                    .body(new ApiResponse<>(false, null, "Failed to retrieve maintenance work queue: " + e.getMessage()));
         }
     }
 
-    @GetMapping("/requests/apartment/{apartmentId}")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequestResponse>>> getMaintenanceRequestsByApartment(@PathVariable UUID apartmentId) {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User user = (User) authentication.getPrincipal();
+    @GetMapping("/requests/category/{categoryId}")
+    public ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> getMaintenanceRequestsByCategory(
+            @PathVariable UUID categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+
+        MaintenanceListCriteria criteria = MaintenanceListCriteria.forManager(user);
+        criteria.setServiceCategoryId(categoryId);
+        return listRequests(criteria, cursor, limit,
+                "Maintenance requests by category retrieved successfully", "Failed to retrieve maintenance requests by category: ");
+    }
 
-            List<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByApartment(apartmentId, user);
-            List<MaintenanceRequestResponse> responses = requests.stream()
-                    .map(MaintenanceRequestResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(new ApiResponse<>(true, responses, "Maintenance requests by apartment retrieved successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to retrieve maintenance requests by apartment: " + e.getMessage()));
-        }
+    @GetMapping("/requests/apartment/{apartmentId}")
+    public ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> getMaintenanceRequestsByApartment(
+            @PathVariable UUID apartmentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+
+        MaintenanceListCriteria criteria = MaintenanceListCriteria.forManager(user);
+        criteria.setApartmentId(apartmentId);
+        return listRequests(criteria, cursor, limit,
+                "Maintenance requests by apartment retrieved successfully", "Failed to retrieve maintenance requests by apartment: ");
     }
 
     @GetMapping("/requests/assigned")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequestResponse>>> getAssignedMaintenanceRequests() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User user = (User) authentication.getPrincipal();
-
-            List<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByAssignee(user);
-            List<MaintenanceRequestResponse> responses = requests.stream()
-                    .map(MaintenanceRequestResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(new ApiResponse<>(true, responses, "Assigned maintenance requests retrieved successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to retrieve assigned maintenance requests: " + e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> getAssignedMaintenanceRequests(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+
+        return listRequests(MaintenanceListCriteria.forAssignee(user), cursor, limit,
+                "Assigned maintenance requests retrieved successfully", "Failed to retrieve assigned maintenance requests: ");
     }
 
     @GetMapping("/requests/search")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequestResponse>>> searchMaintenanceRequests(@RequestParam String searchText) {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User user = (User) authentication.getPrincipal();
-
-            List<MaintenanceRequest> requests = maintenanceRequestService.searchMaintenanceRequests(searchText, user);
-            List<MaintenanceRequestResponse> responses = requests.stream()
-                    .map(MaintenanceRequestResponse::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(new ApiResponse<>(true, responses, "Maintenance requests search completed"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to search maintenance requests: " + e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> searchMaintenanceRequests(
+            @RequestParam String searchText,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+
+        MaintenanceListCriteria criteria = MaintenanceListCriteria.forManager(user);
+        criteria.setSearchText(searchText);
+        return listRequests(criteria, cursor, limit,
+                "Maintenance requests search completed", "Failed to search maintenance requests: ");
     }
 
     @GetMapping("/requests/{id}")
@@ -250,21 +277,27 @@ public class MaintenanceController {
     }
 
     @GetMapping("/requests/{id}/updates")
-    public ResponseEntity<ApiResponse<List<MaintenanceUpdate>>> getUpdatesForMaintenanceRequest(@PathVariable UUID id) {
-        try {
-            List<MaintenanceUpdate> updates = maintenanceRequestService.getUpdatesForMaintenanceRequest(id);
-            return ResponseEntity.ok(new ApiResponse<>(true, updates, "Updates retrieved successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to retrieve updates: " + e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<MaintenanceTimelineResponse>> getUpdatesForMaintenanceRequest(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return timeline(id, cursor, limit, "Updates retrieved successfully", "Failed to retrieve updates: ");
     }
 
     @GetMapping("/requests/{id}/photos")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequestPhoto>>> getPhotosForMaintenanceRequest(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<MaintenancePhotoPageResponse>> getPhotosForMaintenanceRequest(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<MaintenanceRequestPhoto> photos = maintenanceRequestService.getPhotosForMaintenanceRequest(id);
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User user = (User) authentication.getPrincipal();
+
+            MaintenancePhotoPageResponse photos = maintenanceRequestService.getPhotosForMaintenanceRequest(id, user, page, size);
             return ResponseEntity.ok(new ApiResponse<>(true, photos, "Photos retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse<>(false, null, "Failed to retrieve photos: " + e.getMessage()));
@@ -338,20 +371,12 @@ public class MaintenanceController {
     }
 
     @GetMapping("/requests/{id}/progress")
-    public ResponseEntity<ApiResponse<List<MaintenanceProgressResponse>>> getMaintenanceRequestProgress(@PathVariable UUID id) {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User user = (User) authentication.getPrincipal();
-
-            List<MaintenanceProgressResponse> progress = maintenanceRequestService.getMaintenanceRequestProgress(id, user);
-            return ResponseEntity.ok(new ApiResponse<>(true, progress, "Maintenance request progress retrieved successfully"));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ApiResponse<>(false, null, e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to retrieve maintenance request progress: " + e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<MaintenanceTimelineResponse>> getMaintenanceRequestProgress(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return timeline(id, cursor, limit, "Maintenance request progress retrieved successfully",
+                "Failed to retrieve maintenance request progress: ");
     }
 
     @PutMapping("/requests/{id}/status")
@@ -378,4 +403,69 @@ public class MaintenanceController {
                     .body(new ApiResponse<>(false, null, "Failed to update maintenance request status: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Server-sent event stream of progress updates on the caller's maintenance requests.
+     * Each "maintenance-update" event carries a MaintenanceProgressResponse; reconnecting with the
+     * Last-Event-ID header (or lastEventId parameter) replays what was missed, or sends "resync".
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMaintenanceEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        Long resumeAfter = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                resumeAfter = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                // Unknown id: start live, the client reloads on its own
+            }
+        }
+        return maintenanceEventService.subscribe(user.getId(), resumeAfter);
+    }
+
+    private ResponseEntity<ApiResponse<MaintenanceTimelineResponse>> timeline(UUID id, String cursor, Integer limit,
+                                                                              String successMessage,
+                                                                              String errorPrefix) {
+        try {
+            maintenanceRequestService.validateTimelineCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        }
+
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User user = (User) authentication.getPrincipal();
+
+            MaintenanceTimelineResponse timeline = maintenanceRequestService.getMaintenanceTimeline(id, user, cursor, limit);
+            return ResponseEntity.ok(new ApiResponse<>(true, timeline, successMessage));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, errorPrefix + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> listRequests(MaintenanceListCriteria criteria,
+                                                                                     String cursor, Integer limit,
+                                                                                     String successMessage,
+                                                                                     String errorPrefix) {
+        try {
+            MaintenanceRequestPageResponse page = maintenanceRequestService.listMaintenanceRequests(criteria, cursor, limit);
+            return ResponseEntity.ok(new ApiResponse<>(true, page, successMessage));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, errorPrefix + e.getMessage()));
+        }
+    }
+}
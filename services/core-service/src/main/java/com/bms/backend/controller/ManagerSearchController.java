@@ -0,0 +1,46 @@
+package com.bms.backend.controller;
+
+import com.bms.backend.dto.response.ApiResponse;
+import com.bms.backend.dto.response.PortfolioSearchHit;
+import com.bms.backend.entity.User;
+import com.bms.backend.service.PortfolioSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/manager/search")
+@PreAuthorize("hasRole('PROPERTY_MANAGER')")
+public class ManagerSearchController {
+
+    @Autowired
+    private PortfolioSearchService portfolioSearchService;
+
+    // Typeahead across buildings, units, tenants and maintenance requests, answered from memory
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<PortfolioSearchHit>>> search(@RequestParam String q,
+                                                                        @RequestParam(required = false) Integer limit) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User manager = (User) authentication.getPrincipal();
+
+            List<PortfolioSearchHit> hits = portfolioSearchService.search(manager.getId(), q, limit);
+            String message = portfolioSearchService.isReady()
+                    ? "Search completed"
+                    : "Search index is still being built; results may be incomplete";
+            return ResponseEntity.ok(new ApiResponse<>(true, hits, message));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to search portfolio: " + e.getMessage()));
+        }
+    }
+}
@@ -3,24 +3,34 @@ package com.bms.backend.controller;
 import com.bms.backend.dto.request.PaymentSearchRequest;
 import com.bms.backend.dto.request.RecordPaymentRequest;
 import com.bms.backend.dto.response.ApiResponse;
+import com.bms.backend.dto.response.PaymentSearchResponse;
 import com.bms.backend.dto.response.PaymentTransactionDto;
 import com.bms.backend.entity.PaymentTransaction;
 import com.bms.backend.entity.User;
+import com.bms.backend.repository.PaymentExportCriteria;
+import com.bms.backend.service.PaymentExportService;
 import com.bms.backend.service.PaymentTransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/api/v1/payments")
@@ -31,63 +41,47 @@ public class PaymentTransactionController {
     @Autowired
     private PaymentTransactionService paymentService;
 
+    @Autowired
+    private PaymentExportService exportService;
+
+    // Exports of large ranges outlive the default async timeout; only this endpoint gets the longer one
+    @Value("${app.payments.export.timeout-ms:600000}")
+    private long exportTimeoutMs;
+
     /**
-     * Get all payment transactions for the logged-in tenant
-     * Supports filtering by status and date range
+     * Search payment transactions for the logged-in tenant
+     * Supports filtering by status, date range and lease, with keyset pagination via cursor
      */
     @PostMapping("/search")
     @Operation(
             summary = "Search payment transactions",
-            description = "Get all payment transactions for a tenant with optional filters (status, date range)"
+            description = "Search payment transactions for a tenant with optional filters (status, date range, lease). " +
+                    "Returns one page plus a nextCursor; totals by status are included with the first page."
     )
-    public ResponseEntity<ApiResponse<List<PaymentTransactionDto>>> searchPayments(
+    public ResponseEntity<ApiResponse<PaymentSearchResponse>> searchPayments(
             @RequestBody(required = false) PaymentSearchRequest searchRequest) {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User user = (User) authentication.getPrincipal();
-
-            List<PaymentTransactionDto> payments = paymentService.getTenantPayments(user, searchRequest);
-            return ResponseEntity.ok(new ApiResponse<>(true, payments,
-                    "Payment transactions retrieved successfully"));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ApiResponse<>(false, null, e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null,
-                            "Failed to retrieve payment transactions: " + e.getMessage()));
-        }
+        return search(searchRequest, "Payment transactions retrieved successfully",
+                "Failed to retrieve payment transactions: ");
     }
 
     /**
-     * Get all payment transactions for the logged-in tenant (simple GET version)
+     * Get payment transactions for the logged-in tenant (simple GET version)
      */
     @GetMapping
     @Operation(
             summary = "Get all payment transactions",
-            description = "Get all payment transactions for the logged-in tenant"
+            description = "Get payment transactions for the logged-in tenant (keyset-paginated)"
     )
-    public ResponseEntity<ApiResponse<List<PaymentTransactionDto>>> getAllPayments(
+    public ResponseEntity<ApiResponse<PaymentSearchResponse>> getAllPayments(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
-            @RequestParam(required = false, defaultValue = "ALL") String status) {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User user = (User) authentication.getPrincipal();
-
-            PaymentSearchRequest searchRequest = new PaymentSearchRequest(startDate, endDate, status, null);
-
-            List<PaymentTransactionDto> payments = paymentService.getTenantPayments(user, searchRequest);
-            return ResponseEntity.ok(new ApiResponse<>(true, payments,
-                    "Payment transactions retrieved successfully"));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ApiResponse<>(false, null, e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null,
-                            "Failed to retrieve payment transactions: " + e.getMessage()));
-        }
+            @RequestParam(required = false, defaultValue = "ALL") String status,
+            @RequestParam(required = false) UUID connectionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return search(buildSearchRequest(startDate, endDate, status, connectionId, cursor, limit),
+                "Payment transactions retrieved successfully",
+                "Failed to retrieve payment transactions: ");
     }
 
     /**
@@ -96,26 +90,17 @@ public class PaymentTransactionController {
     @GetMapping("/paid")
     @Operation(
             summary = "Get paid transactions",
-            description = "Get all paid payment transactions for the logged-in tenant"
+            description = "Get paid payment transactions for the logged-in tenant (keyset-paginated)"
     )
-    public ResponseEntity<ApiResponse<List<PaymentTransactionDto>>> getPaidPayments(
+    public ResponseEntity<ApiResponse<PaymentSearchResponse>> getPaidPayments(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate) {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User user = (User) authentication.getPrincipal();
-
-            List<PaymentTransactionDto> payments = paymentService.getPaidPayments(user, startDate, endDate);
-            return ResponseEntity.ok(new ApiResponse<>(true, payments,
-                    "Paid transactions retrieved successfully"));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ApiResponse<>(false, null, e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null,
-                            "Failed to retrieve paid transactions: " + e.getMessage()));
-        }
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false) UUID connectionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return search(buildSearchRequest(startDate, endDate, "PAID", connectionId, cursor, limit),
+                "Paid transactions retrieved successfully",
+                "Failed to retrieve paid transactions: ");
     }
 
     /**
@@ -124,26 +109,17 @@ public class PaymentTransactionController {
     @GetMapping("/pending")
     @Operation(
             summary = "Get pending transactions",
-            description = "Get all pending payment transactions for the logged-in tenant"
+            description = "Get pending payment transactions for the logged-in tenant (keyset-paginated)"
     )
-    public ResponseEntity<ApiResponse<List<PaymentTransactionDto>>> getPendingPayments(
+    public ResponseEntity<ApiResponse<PaymentSearchResponse>> getPendingPayments(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate) {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User user = (User) authentication.getPrincipal();
-
-            List<PaymentTransactionDto> payments = paymentService.getPendingPayments(user, startDate, endDate);
-            return ResponseEntity.ok(new ApiResponse<>(true, payments,
-                    "Pending transactions retrieved successfully"));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ApiResponse<>(false, null, e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null,
-                            "Failed to retrieve pending transactions: " + e.getMessage()));
-        }
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false) UUID connectionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return search(buildSearchRequest(startDate, endDate, "PENDING", connectionId, cursor, limit),
+                "Pending transactions retrieved successfully",
+                "Failed to retrieve pending transactions: ");
     }
 
     /**
@@ -152,31 +128,17 @@ public class PaymentTransactionController {
     @GetMapping("/overdue")
     @Operation(
             summary = "Get overdue transactions",
-            description = "Get all overdue payment transactions for the logged-in tenant"
+            description = "Get overdue payment transactions for the logged-in tenant (keyset-paginated)"
     )
-    public ResponseEntity<ApiResponse<List<PaymentTransactionDto>>> getOverduePayments(
+    public ResponseEntity<ApiResponse<PaymentSearchResponse>> getOverduePayments(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate) {
-        System.out.println("🎯 CONTROLLER: /api/v1/payments/overdue endpoint called!");
-        System.out.println("   startDate: " + startDate + ", endDate: " + endDate);
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User user = (User) authentication.getPrincipal();
-
-            List<PaymentTransactionDto> payments = paymentService.getOverduePayments(user, startDate, endDate);
-            System.out.println("   Returning " + payments.size() + " overdue payments to UI");
-            return ResponseEntity.ok(new ApiResponse<>(true, payments,
-                    "Overdue transactions retrieved successfully"));
-        } catch (IllegalArgumentException e) {
-            System.out.println("   ❌ ERROR: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ApiResponse<>(false, null, e.getMessage()));
-        } catch (Exception e) {
-            System.out.println("   ❌ ERROR: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null,
-                            "Failed to retrieve overdue transactions: " + e.getMessage()));
-        }
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false) UUID connectionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return search(buildSearchRequest(startDate, endDate, "OVERDUE", connectionId, cursor, limit),
+                "Overdue transactions retrieved successfully",
+                "Failed to retrieve overdue transactions: ");
     }
 
     /**
@@ -206,6 +168,75 @@ public class PaymentTransactionController {
         }
     }
 
+    /**
+     * Stream the logged-in manager's payment history as CSV or NDJSON
+     */
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export payment history",
+            description = "Stream all payments on the manager's leases with a due date in [startDate, endDate) " +
+                    "(default: last 12 months), optionally for one building. Rows are written as they are read, " +
+                    "so any range can be exported; concurrent exports are limited and excess requests get 429."
+    )
+    public Object exportPayments(
+            @RequestParam(required = false, defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false) UUID buildingId,
+            HttpServletResponse response) {
+        PaymentExportService.ExportFormat exportFormat;
+        PaymentExportCriteria criteria;
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User user = (User) authentication.getPrincipal();
+
+            exportFormat = PaymentExportService.ExportFormat.fromParam(format);
+            criteria = exportService.buildCriteria(user, buildingId, startDate, endDate);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        }
+
+        if (!exportService.tryAcquireSlot()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(new ApiResponse<>(false, null, "Too many exports in progress, please retry shortly"));
+        }
+
+        // Whichever side claims the slot first releases it: the export once it ends, or the completion callback
+        // when async processing ends (timeout, client abort, dispatch error) before the export started
+        AtomicBoolean claimed = new AtomicBoolean();
+        try {
+            String filename = "payments-" + LocalDate.ofInstant(criteria.getStartDate(), ZoneOffset.UTC) + "-to-"
+                    + LocalDate.ofInstant(criteria.getEndDate(), ZoneOffset.UTC) + "." + exportFormat.getExtension();
+            WebAsyncTask<Void> export = new WebAsyncTask<>(exportTimeoutMs, () -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    response.setContentType(exportFormat.getContentType());
+                    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+                    exportService.writeExport(criteria, exportFormat, response.getOutputStream());
+                    return null;
+                } finally {
+                    exportService.releaseSlot();
+                }
+            });
+            export.onCompletion(() -> {
+                if (claimed.compareAndSet(false, true)) {
+                    exportService.releaseSlot();
+                }
+            });
+            return export;
+        } catch (RuntimeException e) {
+            if (claimed.compareAndSet(false, true)) {
+                exportService.releaseSlot();
+            }
+            throw e;
+        }
+    }
+
     /**
      * Get a specific payment transaction by ID
      */
@@ -239,12 +270,14 @@ public class PaymentTransactionController {
     @PostMapping("/record")
     @Operation(
             summary = "Record payment transaction",
-            description = "Record a payment transaction from payment service webhook"
+            description = "Record a payment transaction from payment service webhook. Idempotent: retries with the same " +
+                    "Idempotency-Key header (or the same Stripe intent and status) return the stored record unchanged."
     )
     public ResponseEntity<ApiResponse<PaymentTransaction>> recordPayment(
-            @Valid @RequestBody RecordPaymentRequest request) {
+            @Valid @RequestBody RecordPaymentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            PaymentTransaction payment = paymentService.recordPayment(request);
+            PaymentTransaction payment = paymentService.recordPayment(request, idempotencyKey);
             return ResponseEntity.ok(new ApiResponse<>(true, payment,
                     "Payment transaction recorded successfully"));
         } catch (IllegalArgumentException e) {
@@ -256,4 +289,31 @@ public class PaymentTransactionController {
                             "Failed to record payment transaction: " + e.getMessage()));
         }
     }
+
+    private ResponseEntity<ApiResponse<PaymentSearchResponse>> search(PaymentSearchRequest searchRequest,
+                                                                      String successMessage,
+                                                                      String failurePrefix) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User user = (User) authentication.getPrincipal();
+
+            PaymentSearchResponse payments = paymentService.searchPayments(user, searchRequest);
+            return ResponseEntity.ok(new ApiResponse<>(true, payments, successMessage));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, failurePrefix + e.getMessage()));
+        }
+    }
+
+    private PaymentSearchRequest buildSearchRequest(Instant startDate, Instant endDate, String status,
+                                                    UUID connectionId, String cursor, Integer limit) {
+        PaymentSearchRequest searchRequest = new PaymentSearchRequest(startDate, endDate, status, null);
+        searchRequest.setConnectionId(connectionId);
+        searchRequest.setCursor(cursor);
+        searchRequest.setLimit(limit);
+        return searchRequest;
+    }
 }
@@ -53,12 +53,13 @@ public class PropertyBuildingController {
     }
 
     @GetMapping("/buildings/search")
-    public ResponseEntity<ApiResponse<List<PropertyBuilding>>> searchMyProperties(@RequestParam String searchText) {
+    public ResponseEntity<ApiResponse<List<PropertyBuilding>>> searchMyProperties(@RequestParam String searchText,
+                                                                                 @RequestParam(required = false) Integer limit) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User user = (User) authentication.getPrincipal();
 
-            List<PropertyBuilding> properties = propertyBuildingService.searchPropertiesByManager(user, searchText);
+            List<PropertyBuilding> properties = propertyBuildingService.searchPropertiesByManager(user, searchText, limit);
             return ResponseEntity.ok(new ApiResponse<>(true, properties, "Properties search completed"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -78,9 +79,10 @@ public class PropertyBuildingController {
     }
 
     @GetMapping("/buildings/search/global")
-    public ResponseEntity<ApiResponse<List<PropertyBuilding>>> globalSearchProperties(@RequestParam String searchText) {
+    public ResponseEntity<ApiResponse<List<PropertyBuilding>>> globalSearchProperties(@RequestParam String searchText,
+                                                                                     @RequestParam(required = false) Integer limit) {
         try {
-            List<PropertyBuilding> properties = propertyBuildingService.searchAllProperties(searchText);
+            List<PropertyBuilding> properties = propertyBuildingService.searchAllProperties(searchText, limit);
             return ResponseEntity.ok(new ApiResponse<>(true, properties, "Global search completed"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -73,13 +73,14 @@ public class TenantController {
 
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<TenantPropertyConnection>>> searchTenants(
-            @RequestParam(required = false) String searchText) {
+            @RequestParam(required = false) String searchText,
+            @RequestParam(required = false) Integer limit) {
 
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User manager = (User) authentication.getPrincipal();
 
-            List<TenantPropertyConnection> connections = tenantService.searchTenants(manager, searchText);
+            List<TenantPropertyConnection> connections = tenantService.searchTenants(manager, searchText, limit);
             return ResponseEntity.ok(ApiResponse.success(connections, "Tenants retrieved successfully"));
 
         } catch (IllegalArgumentException e) {
@@ -93,13 +94,14 @@ public class TenantController {
 
     @GetMapping("/search/global")
     public ResponseEntity<ApiResponse<List<UserDto>>> searchTenantsGlobal(
-            @RequestParam(required = false) String searchText) {
+            @RequestParam(required = false) String searchText,
+            @RequestParam(required = false) Integer limit) {
 
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User manager = (User) authentication.getPrincipal();
 
-            List<User> tenants = tenantService.searchTenantsGlobal(manager, searchText);
+            List<User> tenants = tenantService.searchTenantsGlobal(manager, searchText, limit);
             List<UserDto> tenantDtos = tenants.stream().map(UserDto::from).toList();
             return ResponseEntity.ok(ApiResponse.success(tenantDtos, "Global tenant search completed successfully"));
 
@@ -1,8 +1,13 @@
 package com.bms.backend.controller;
 
 import com.bms.backend.dto.response.ApiResponse;
+import com.bms.backend.dto.response.MaintenancePhotoPageResponse;
+import com.bms.backend.dto.response.MaintenanceRequestPageResponse;
 import com.bms.backend.dto.response.MaintenanceRequestResponse;
+import com.bms.backend.dto.response.MaintenanceSummaryResponse;
+import com.bms.backend.dto.response.MaintenanceTimelineResponse;
 import com.bms.backend.entity.*;
+import com.bms.backend.repository.MaintenanceListCriteria;
 import com.bms.backend.service.MaintenanceRequestService;
 import com.bms.backend.service.ServiceCategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +22,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/tenant/dashboard")
@@ -31,57 +35,40 @@ public class TenantDashboardController {
     private ServiceCategoryService serviceCategoryService;
 
     @GetMapping("/maintenance/my-requests")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequestResponse>>> getMyMaintenanceRequests() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User tenant = (User) authentication.getPrincipal();
-
-            List<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByTenant(tenant.getEmail());
-            List<MaintenanceRequestResponse> responses = requests.stream()
-                    .map(MaintenanceRequestResponse::new)
-                    .collect(Collectors.toList());
-                    
-            return ResponseEntity.ok(new ApiResponse<>(true, responses, "My maintenance requests retrieved successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to retrieve maintenance requests: " + e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> getMyMaintenanceRequests(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User tenant = (User) authentication.getPrincipal();
+
+        return listMyRequests(MaintenanceListCriteria.forParticipant(tenant.getEmail()), cursor, limit,
+                "My maintenance requests retrieved successfully");
     }
 
     @GetMapping("/maintenance/my-requests/status/{status}")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequestResponse>>> getMyMaintenanceRequestsByStatus(@PathVariable MaintenanceRequest.Status status) {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User tenant = (User) authentication.getPrincipal();
-
-            List<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByTenantAndStatus(tenant.getEmail(), status);
-            List<MaintenanceRequestResponse> responses = requests.stream()
-                    .map(MaintenanceRequestResponse::new)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(new ApiResponse<>(true, responses, "My maintenance requests by status retrieved successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to retrieve maintenance requests: " + e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> getMyMaintenanceRequestsByStatus(
+            @PathVariable MaintenanceRequest.Status status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User tenant = (User) authentication.getPrincipal();
+
+        MaintenanceListCriteria criteria = MaintenanceListCriteria.forParticipant(tenant.getEmail());
+        criteria.setStatus(status);
+        return listMyRequests(criteria, cursor, limit, "My maintenance requests by status retrieved successfully");
     }
 
     @GetMapping("/maintenance/my-requests/priority/{priority}")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequestResponse>>> getMyMaintenanceRequestsByPriority(@PathVariable MaintenanceRequest.Priority priority) {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            User tenant = (User) authentication.getPrincipal();
-
-            List<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByTenantAndPriority(tenant.getEmail(), priority);
-            List<MaintenanceRequestResponse> responses = requests.stream()
-                    .map(MaintenanceRequestResponse::new)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(new ApiResponse<>(true, responses, "My maintenance requests by priority retrieved successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, null, "Failed to retrieve maintenance requests: " + e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> getMyMaintenanceRequestsByPriority(
+            @PathVariable MaintenanceRequest.Priority priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User tenant = (User) authentication.getPrincipal();
+
+        MaintenanceListCriteria criteria = MaintenanceListCriteria.forParticipant(tenant.getEmail());
+        criteria.setPriority(priority);
+        return listMyRequests(criteria, cursor, limit, "My maintenance requests by priority retrieved successfully");
     }
 
     @GetMapping("/maintenance/my-requests/{id}")
@@ -105,20 +92,26 @@ public class TenantDashboardController {
     }
 
     @GetMapping("/maintenance/my-requests/{id}/updates")
-    public ResponseEntity<ApiResponse<List<MaintenanceUpdate>>> getMyMaintenanceRequestUpdates(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<MaintenanceTimelineResponse>> getMyMaintenanceRequestUpdates(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            maintenanceRequestService.validateTimelineCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        }
+
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User tenant = (User) authentication.getPrincipal();
 
-            // First verify the request belongs to this tenant
-            MaintenanceRequest request = maintenanceRequestService.getMaintenanceRequestByIdAndTenant(id, tenant.getEmail());
-            if (request == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(new ApiResponse<>(false, null, "Maintenance request not found or not authorized"));
-            }
-
-            List<MaintenanceUpdate> updates = maintenanceRequestService.getUpdatesForMaintenanceRequest(id);
+            MaintenanceTimelineResponse updates = maintenanceRequestService.getMaintenanceTimeline(id, tenant, cursor, limit);
             return ResponseEntity.ok(new ApiResponse<>(true, updates, "Maintenance request updates retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, null, "Maintenance request not found or not authorized"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse<>(false, null, "Failed to retrieve updates: " + e.getMessage()));
@@ -126,20 +119,19 @@ public class TenantDashboardController {
     }
 
     @GetMapping("/maintenance/my-requests/{id}/photos")
-    public ResponseEntity<ApiResponse<List<MaintenanceRequestPhoto>>> getMyMaintenanceRequestPhotos(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<MaintenancePhotoPageResponse>> getMyMaintenanceRequestPhotos(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User tenant = (User) authentication.getPrincipal();
 
-            // First verify the request belongs to this tenant
-            MaintenanceRequest request = maintenanceRequestService.getMaintenanceRequestByIdAndTenant(id, tenant.getEmail());
-            if (request == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(new ApiResponse<>(false, null, "Maintenance request not found or not authorized"));
-            }
-
-            List<MaintenanceRequestPhoto> photos = maintenanceRequestService.getPhotosForMaintenanceRequest(id);
+            MaintenancePhotoPageResponse photos = maintenanceRequestService.getPhotosForMaintenanceRequest(id, tenant, page, size);
             return ResponseEntity.ok(new ApiResponse<>(true, photos, "Maintenance request photos retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, null, "Maintenance request not found or not authorized"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse<>(false, null, "Failed to retrieve photos: " + e.getMessage()));
@@ -147,34 +139,12 @@ public class TenantDashboardController {
     }
 
     @GetMapping("/maintenance/summary")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getMaintenanceSummary() {
+    public ResponseEntity<ApiResponse<MaintenanceSummaryResponse>> getMaintenanceSummary() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User tenant = (User) authentication.getPrincipal();
 
-            List<MaintenanceRequest> allRequests = maintenanceRequestService.getMaintenanceRequestsByTenant(tenant.getEmail());
-            
-            Map<String, Object> summary = new HashMap<>();
-            summary.put("totalRequests", allRequests.size());
-            
-            // Count by status
-            Map<String, Long> statusCounts = allRequests.stream()
-                    .collect(Collectors.groupingBy(req -> req.getStatus().toString(), Collectors.counting()));
-            summary.put("statusBreakdown", statusCounts);
-            
-            // Count by priority
-            Map<String, Long> priorityCounts = allRequests.stream()
-                    .collect(Collectors.groupingBy(req -> req.getPriority().toString(), Collectors.counting()));
-            summary.put("priorityBreakdown", priorityCounts);
-            
-            // Recent requests (last 5)
-            List<MaintenanceRequestResponse> recentRequests = allRequests.stream()
-                    .sorted((r1, r2) -> r2.getCreatedAt().compareTo(r1.getCreatedAt()))
-                    .limit(5)
-                    .map(MaintenanceRequestResponse::new)
-                    .collect(Collectors.toList());
-            summary.put("recentRequests", recentRequests);
-
+            MaintenanceSummaryResponse summary = maintenanceRequestService.getTenantMaintenanceSummary(tenant);
             return ResponseEntity.ok(new ApiResponse<>(true, summary, "Maintenance summary retrieved successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -189,6 +159,8 @@ public class TenantDashboardController {
             User tenant = (User) authentication.getPrincipal();
 
             List<MaintenanceUpdate> updates = maintenanceRequestService.getRecentUpdatesByTenant(tenant.getEmail(), limit);
+            // Reading the update feed clears the unread badge
+            maintenanceRequestService.markUpdatesRead(tenant);
             return ResponseEntity.ok(new ApiResponse<>(true, updates, "Recent maintenance updates retrieved successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -213,12 +185,8 @@ public class TenantDashboardController {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User tenant = (User) authentication.getPrincipal();
 
-            // Count maintenance requests with recent updates (could be new notifications)
-            List<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByTenant(tenant.getEmail());
-            long unreadMaintenanceCount = requests.stream()
-                    .filter(req -> req.getStatus() == MaintenanceRequest.Status.IN_PROGRESS || 
-                                  req.getStatus() == MaintenanceRequest.Status.SUBMITTED)
-                    .count();
+            // Maintained counter (one row per user), bumped whenever someone else posts an update
+            int unreadMaintenanceCount = maintenanceRequestService.getUnreadUpdateCount(tenant);
 
             Map<String, Object> notificationCounts = new HashMap<>();
             notificationCounts.put("maintenanceUpdates", unreadMaintenanceCount);
@@ -230,4 +198,33 @@ public class TenantDashboardController {
                     .body(new ApiResponse<>(false, null, "Failed to retrieve notification counts: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/notifications/mark-read")
+    public ResponseEntity<ApiResponse<Void>> markNotificationsRead() {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            User tenant = (User) authentication.getPrincipal();
+
+            maintenanceRequestService.markUpdatesRead(tenant);
+            return ResponseEntity.ok(new ApiResponse<>(true, null, "Notifications marked as read"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to mark notifications as read: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<ApiResponse<MaintenanceRequestPageResponse>> listMyRequests(MaintenanceListCriteria criteria,
+                                                                                       String cursor, Integer limit,
+                                                                                       String successMessage) {
+        try {
+            MaintenanceRequestPageResponse page = maintenanceRequestService.listMaintenanceRequests(criteria, cursor, limit);
+            return ResponseEntity.ok(new ApiResponse<>(true, page, successMessage));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to retrieve maintenance requests: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.bms.backend.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BatchPaymentScheduleRequest {
+
+    public static final int MAX_LEASES = 300;
+
+    @NotEmpty(message = "At least one lease ID is required")
+    @Size(max = MAX_LEASES, message = "At most " + MAX_LEASES + " leases can be requested at once")
+    private List<UUID> leaseIds;
+
+    private String startMonth; // YYYY-MM, defaults to current month
+
+    private String endMonth; // YYYY-MM, defaults to startMonth + limit - 1
+
+    private Integer limit; // Number of months from startMonth when endMonth is not given (default 3)
+
+    private boolean includeSummary = true;
+
+    // Default constructor
+    public BatchPaymentScheduleRequest() {}
+
+    // Getters and setters
+    public List<UUID> getLeaseIds() {
+        return leaseIds;
+    }
+
+    public void setLeaseIds(List<UUID> leaseIds) {
+        this.leaseIds = leaseIds;
+    }
+
+    public String getStartMonth() {
+        return startMonth;
+    }
+
+    public void setStartMonth(String startMonth) {
+        this.startMonth = startMonth;
+    }
+
+    public String getEndMonth() {
+        return endMonth;
+    }
+
+    public void setEndMonth(String endMonth) {
+        this.endMonth = endMonth;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public boolean isIncludeSummary() {
+        return includeSummary;
+    }
+
+    public void setIncludeSummary(boolean includeSummary) {
+        this.includeSummary = includeSummary;
+    }
+}
@@ -24,6 +24,8 @@ public class MaintenanceRequestCreateRequest {
     
     private List<String> photos; // Base64 encoded images or URLs
 
+    private Boolean allowDuplicate; // Skip duplicate detection, e.g. after the client confirmed a new issue
+
     // Default constructor
     public MaintenanceRequestCreateRequest() {}
 
@@ -75,4 +77,12 @@ public class MaintenanceRequestCreateRequest {
     public void setPhotos(List<String> photos) {
         this.photos = photos;
     }
-}
\ No newline at end of file
+
+    public Boolean getAllowDuplicate() {
+        return allowDuplicate;
+    }
+
+    public void setAllowDuplicate(Boolean allowDuplicate) {
+        this.allowDuplicate = allowDuplicate;
+    }
+}
@@ -1,6 +1,7 @@
 package com.bms.backend.dto.request;
 
 import java.time.Instant;
+import java.util.UUID;
 
 public class PaymentSearchRequest {
 
@@ -8,6 +9,9 @@ public class PaymentSearchRequest {
     private Instant endDate;
     private String status; // ALL, PAID, PENDING, OVERDUE
     private String searchQuery;
+    private UUID connectionId; // Optional lease filter
+    private String cursor; // Opaque keyset cursor returned as nextCursor by the previous page
+    private Integer limit; // Page size (default 20, max 100)
 
     // Constructors
     public PaymentSearchRequest() {}
@@ -51,4 +55,28 @@ public class PaymentSearchRequest {
     public void setSearchQuery(String searchQuery) {
         this.searchQuery = searchQuery;
     }
+
+    public UUID getConnectionId() {
+        return connectionId;
+    }
+
+    public void setConnectionId(UUID connectionId) {
+        this.connectionId = connectionId;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
 }
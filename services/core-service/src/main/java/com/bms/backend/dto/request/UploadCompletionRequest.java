@@ -0,0 +1,58 @@
+package com.bms.backend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class UploadCompletionRequest {
+
+    @NotBlank(message = "Key is required")
+    private String key;
+
+    @NotBlank(message = "File type is required")
+    private String fileType; // profile, maintenance, property, document, other
+
+    private String fileName;
+    private String description;
+    private String category;
+
+    public UploadCompletionRequest() {}
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getFileType() {
+        return fileType;
+    }
+
+    public void setFileType(String fileType) {
+        this.fileType = fileType;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+}
@@ -0,0 +1,139 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "Metadata of one unit document; the content is fetched separately by id")
+public class ApartmentDocumentResponse {
+
+    @Schema(description = "Document ID")
+    private UUID id;
+
+    @Schema(description = "Original file name", example = "lease-2024.pdf")
+    private String documentName;
+
+    @Schema(description = "Document type", example = "lease")
+    private String documentType;
+
+    @Schema(description = "MIME type", example = "application/pdf")
+    private String mimeType;
+
+    @Schema(description = "Size in bytes", example = "204800")
+    private Long fileSize;
+
+    @Schema(description = "SHA-256 of the content, hex encoded")
+    private String contentHash;
+
+    @Schema(description = "Optional description")
+    private String description;
+
+    @Schema(description = "Storage URL; absent for documents not yet moved to storage")
+    private String documentUrl;
+
+    @Schema(description = "ID of the user who uploaded the document")
+    private UUID uploadedBy;
+
+    @Schema(description = "Upload time")
+    private Instant uploadedAt;
+
+    // Constructors
+    public ApartmentDocumentResponse() {}
+
+    public ApartmentDocumentResponse(UUID id, String documentName, String documentType, String mimeType,
+                                     Long fileSize, String contentHash, String description, String documentUrl,
+                                     UUID uploadedBy, Instant uploadedAt) {
+        this.id = id;
+        this.documentName = documentName;
+        this.documentType = documentType;
+        this.mimeType = mimeType;
+        this.fileSize = fileSize;
+        this.contentHash = contentHash;
+        this.description = description;
+        this.documentUrl = documentUrl;
+        this.uploadedBy = uploadedBy;
+        this.uploadedAt = uploadedAt;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getDocumentName() {
+        return documentName;
+    }
+
+    public void setDocumentName(String documentName) {
+        this.documentName = documentName;
+    }
+
+    public String getDocumentType() {
+        return documentType;
+    }
+
+    public void setDocumentType(String documentType) {
+        this.documentType = documentType;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public void setMimeType(String mimeType) {
+        this.mimeType = mimeType;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getDocumentUrl() {
+        return documentUrl;
+    }
+
+    public void setDocumentUrl(String documentUrl) {
+        this.documentUrl = documentUrl;
+    }
+
+    public UUID getUploadedBy() {
+        return uploadedBy;
+    }
+
+    public void setUploadedBy(UUID uploadedBy) {
+        this.uploadedBy = uploadedBy;
+    }
+
+    public Instant getUploadedAt() {
+        return uploadedAt;
+    }
+
+    public void setUploadedAt(Instant uploadedAt) {
+        this.uploadedAt = uploadedAt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "URL the client can read a stored file from directly")
+public class FileDownloadUrlResponse {
+
+    @Schema(description = "CDN URL, or a short-lived presigned storage URL")
+    private String url;
+
+    @Schema(description = "Time after which a presigned URL stops working; null for CDN URLs")
+    private Instant expiresAt;
+
+    // Constructors
+    public FileDownloadUrlResponse() {}
+
+    public FileDownloadUrlResponse(String url, Instant expiresAt) {
+        this.url = url;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
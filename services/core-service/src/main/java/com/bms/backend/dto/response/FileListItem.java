@@ -0,0 +1,52 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "One stored file in a listing")
+public class FileListItem {
+
+    @Schema(description = "File URL, as returned by the upload endpoints")
+    private String url;
+
+    @Schema(description = "Size in bytes; only when metadata was requested", example = "204800")
+    private Long size;
+
+    @Schema(description = "Last modification time; only when metadata was requested")
+    private Instant lastModified;
+
+    // Constructors
+    public FileListItem() {}
+
+    public FileListItem(String url, Long size, Instant lastModified) {
+        this.url = url;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    // Getters and Setters
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+}
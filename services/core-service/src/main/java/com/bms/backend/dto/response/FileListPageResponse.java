@@ -0,0 +1,52 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Cursor-paginated listing of a user's files in one folder")
+public class FileListPageResponse {
+
+    @Schema(description = "Files on this page, in key order (oldest upload first)")
+    private List<FileListItem> files;
+
+    @Schema(description = "Cursor to pass back for the next page (null when the listing is complete)")
+    private String nextCursor;
+
+    @Schema(description = "Whether another page is available", example = "true")
+    private boolean hasMore;
+
+    // Constructors
+    public FileListPageResponse() {}
+
+    public FileListPageResponse(List<FileListItem> files, String nextCursor) {
+        this.files = files;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    // Getters and Setters
+    public List<FileListItem> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<FileListItem> files) {
+        this.files = files;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
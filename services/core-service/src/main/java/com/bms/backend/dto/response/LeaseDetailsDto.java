@@ -69,6 +69,8 @@ public class LeaseDetailsDto {
         private UUID imageId;
         private String imageUrl;
         private String imageData; // base64 if no URL
+        private String thumbnailUrl; // small variant, falls back to imageUrl
+        private String mediumUrl; // web-optimized variant, falls back to imageUrl
         private String imageName;
         private String description;
         private boolean isPrimary;
@@ -109,6 +111,12 @@ public class LeaseDetailsDto {
         
         public Integer getDisplayOrder() { return displayOrder; }
         public void setDisplayOrder(Integer displayOrder) { this.displayOrder = displayOrder; }
+
+        public String getThumbnailUrl() { return thumbnailUrl; }
+        public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
+        public String getMediumUrl() { return mediumUrl; }
+        public void setMediumUrl(String mediumUrl) { this.mediumUrl = mediumUrl; }
     }
     
     // Default constructor
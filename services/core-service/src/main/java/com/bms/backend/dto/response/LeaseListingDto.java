@@ -78,18 +78,18 @@ public class LeaseListingDto {
                 this.propertyId = apartment.getProperty().getId();
                 this.propertyAddress = apartment.getProperty().getAddress();
 
-                // Get primary image or first image from property images
+                // Thumbnail of the primary image, or of the first image; the original until the thumbnail exists
                 if (apartment.getProperty().getImages() != null &&
                     !apartment.getProperty().getImages().isEmpty()) {
                     // Try to find primary image first
                     this.propertyImage = apartment.getProperty().getImages().stream()
                         .filter(img -> img.getIsPrimary() != null && img.getIsPrimary())
-                        .map(img -> img.getImageUrl())
+                        .map(img -> img.getThumbnailUrl() != null ? img.getThumbnailUrl() : img.getImageUrl())
                         .findFirst()
                         .orElseGet(() ->
                             // If no primary image, get first image URL
                             apartment.getProperty().getImages().stream()
-                                .map(img -> img.getImageUrl())
+                                .map(img -> img.getThumbnailUrl() != null ? img.getThumbnailUrl() : img.getImageUrl())
                                 .filter(url -> url != null && !url.isEmpty())
                                 .findFirst()
                                 .orElse(null)
@@ -0,0 +1,64 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Payment schedule and summary for one lease of a batch request")
+public class LeasePaymentBatchItemDto {
+
+    @Schema(description = "Lease/Connection ID", example = "04fc37d0-e819-4488-9849-4f237f9b45c1")
+    private UUID leaseId;
+
+    @Schema(description = "Payment schedule for the requested month window")
+    private LeasePaymentScheduleResponse schedule;
+
+    @Schema(description = "Payment summary (omitted when includeSummary is false)")
+    private LeasePaymentSummaryDto summary;
+
+    @Schema(description = "Why this lease could not be returned (not found or no access)", example = "Lease not found")
+    private String error;
+
+    // Constructors
+    public LeasePaymentBatchItemDto() {}
+
+    public static LeasePaymentBatchItemDto failed(UUID leaseId, String error) {
+        LeasePaymentBatchItemDto item = new LeasePaymentBatchItemDto();
+        item.setLeaseId(leaseId);
+        item.setError(error);
+        return item;
+    }
+
+    // Getters and Setters
+    public UUID getLeaseId() {
+        return leaseId;
+    }
+
+    public void setLeaseId(UUID leaseId) {
+        this.leaseId = leaseId;
+    }
+
+    public LeasePaymentScheduleResponse getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(LeasePaymentScheduleResponse schedule) {
+        this.schedule = schedule;
+    }
+
+    public LeasePaymentSummaryDto getSummary() {
+        return summary;
+    }
+
+    public void setSummary(LeasePaymentSummaryDto summary) {
+        this.summary = summary;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
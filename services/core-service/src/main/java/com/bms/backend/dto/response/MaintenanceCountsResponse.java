@@ -0,0 +1,65 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Maintenance request counts across a manager's properties")
+public class MaintenanceCountsResponse {
+
+    @Schema(description = "Total number of maintenance requests", example = "42")
+    private long totalRequests;
+
+    @Schema(description = "Request count per status")
+    private Map<String, Long> byStatus;
+
+    @Schema(description = "Request count per priority")
+    private Map<String, Long> byPriority;
+
+    @Schema(description = "Request count per service category id")
+    private Map<String, Long> byCategory;
+
+    // Constructors
+    public MaintenanceCountsResponse() {}
+
+    public MaintenanceCountsResponse(long totalRequests, Map<String, Long> byStatus, Map<String, Long> byPriority,
+                                     Map<String, Long> byCategory) {
+        this.totalRequests = totalRequests;
+        this.byStatus = byStatus;
+        this.byPriority = byPriority;
+        this.byCategory = byCategory;
+    }
+
+    // Getters and Setters
+    public long getTotalRequests() {
+        return totalRequests;
+    }
+
+    public void setTotalRequests(long totalRequests) {
+        this.totalRequests = totalRequests;
+    }
+
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<String, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public Map<String, Long> getByPriority() {
+        return byPriority;
+    }
+
+    public void setByPriority(Map<String, Long> byPriority) {
+        this.byPriority = byPriority;
+    }
+
+    public Map<String, Long> getByCategory() {
+        return byCategory;
+    }
+
+    public void setByCategory(Map<String, Long> byCategory) {
+        this.byCategory = byCategory;
+    }
+}
@@ -57,6 +57,7 @@ public class MaintenanceDetailsResponse {
 
     private List<MaintenancePhotoResponse> photos;
     private List<MaintenanceProgressResponse> progressHistory;
+    private String progressNextCursor; // Timeline cursor for updates older than progressHistory (null if none)
 
     // Default constructor
     public MaintenanceDetailsResponse() {}
@@ -384,4 +385,12 @@ public class MaintenanceDetailsResponse {
     public void setPropertyAddress(String propertyAddress) {
         this.propertyAddress = propertyAddress;
     }
-}
\ No newline at end of file
+
+    public String getProgressNextCursor() {
+        return progressNextCursor;
+    }
+
+    public void setProgressNextCursor(String progressNextCursor) {
+        this.progressNextCursor = progressNextCursor;
+    }
+}
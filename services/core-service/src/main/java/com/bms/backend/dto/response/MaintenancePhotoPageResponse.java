@@ -0,0 +1,76 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of photos for a maintenance request")
+public class MaintenancePhotoPageResponse {
+
+    @Schema(description = "Photos on this page, oldest first")
+    private List<MaintenancePhotoResponse> photos;
+
+    @Schema(description = "Zero-based page number", example = "0")
+    private int page;
+
+    @Schema(description = "Page size", example = "10")
+    private int size;
+
+    @Schema(description = "Total number of photos on the request", example = "3")
+    private long totalPhotos;
+
+    @Schema(description = "Whether another page is available", example = "false")
+    private boolean hasMore;
+
+    // Constructors
+    public MaintenancePhotoPageResponse() {}
+
+    public MaintenancePhotoPageResponse(List<MaintenancePhotoResponse> photos, int page, int size, long totalPhotos) {
+        this.photos = photos;
+        this.page = page;
+        this.size = size;
+        this.totalPhotos = totalPhotos;
+        this.hasMore = (long) (page + 1) * size < totalPhotos;
+    }
+
+    // Getters and Setters
+    public List<MaintenancePhotoResponse> getPhotos() {
+        return photos;
+    }
+
+    public void setPhotos(List<MaintenancePhotoResponse> photos) {
+        this.photos = photos;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalPhotos() {
+        return totalPhotos;
+    }
+
+    public void setTotalPhotos(long totalPhotos) {
+        this.totalPhotos = totalPhotos;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -7,6 +7,7 @@ import java.util.UUID;
 public class MaintenancePhotoResponse {
 
     private UUID id;
+    private String photoUrl;
     private String photoData;
     private String fileName;
     private String contentType;
@@ -18,6 +19,7 @@ public class MaintenancePhotoResponse {
     // Constructor from entity
     public MaintenancePhotoResponse(MaintenanceRequestPhoto photo) {
         this.id = photo.getId();
+        this.photoUrl = photo.getPhotoUrl();
         this.photoData = photo.getPhotoData();
         // MaintenanceRequestPhoto doesn't have fileName, contentType, description fields
         this.fileName = null;
@@ -34,6 +36,14 @@ public class MaintenancePhotoResponse {
         this.id = id;
     }
 
+    public String getPhotoUrl() {
+        return photoUrl;
+    }
+
+    public void setPhotoUrl(String photoUrl) {
+        this.photoUrl = photoUrl;
+    }
+
     public String getPhotoData() {
         return photoData;
     }
@@ -1,6 +1,8 @@
 package com.bms.backend.dto.response;
 
+import com.bms.backend.entity.MaintenanceRequest;
 import com.bms.backend.entity.MaintenanceUpdate;
+import com.bms.backend.enums.UserRole;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import java.time.Instant;
@@ -44,6 +46,26 @@ public class MaintenanceProgressResponse {
         }
     }
 
+    // Constructor for timeline query projections
+    public MaintenanceProgressResponse(UUID id, UUID maintenanceRequestId, MaintenanceUpdate.UpdateType updateType,
+                                       MaintenanceRequest.Status currentStatus, String message, String notes,
+                                       UUID updatedById, String updatedByFirstName, String updatedByLastName,
+                                       String updatedByEmail, UserRole updatedByRole, Instant timestamp) {
+        this.id = id;
+        this.maintenanceRequestId = maintenanceRequestId;
+        this.updateType = updateType != null ? updateType.toString() : null;
+        this.currentStatus = currentStatus != null ? currentStatus.toString() : null;
+        this.message = message;
+        this.notes = notes;
+        this.timestamp = timestamp;
+        if (updatedById != null) {
+            this.updatedById = updatedById;
+            this.updatedByName = updatedByFirstName + " " + updatedByLastName;
+            this.updatedByEmail = updatedByEmail;
+            this.updatedByRole = updatedByRole != null ? updatedByRole.toString() : null;
+        }
+    }
+
     // Getters and Setters
     public UUID getId() {
         return id;
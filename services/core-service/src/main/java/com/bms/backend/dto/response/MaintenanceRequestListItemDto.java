@@ -0,0 +1,352 @@
+package com.bms.backend.dto.response;
+
+import com.bms.backend.entity.MaintenanceRequest;
+import com.bms.backend.enums.UserRole;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "Maintenance request list row: flat fields, photo count and a thumbnail reference instead of photo data")
+public class MaintenanceRequestListItemDto {
+
+    @Schema(description = "Maintenance request ID")
+    private UUID id;
+
+    @Schema(description = "Title", example = "Leaking kitchen faucet")
+    private String title;
+
+    @Schema(description = "Description")
+    private String description;
+
+    @Schema(description = "Priority", example = "HIGH")
+    private String priority;
+
+    @Schema(description = "Status", example = "IN_PROGRESS")
+    private String status;
+
+    @Schema(description = "Apartment ID")
+    private UUID apartmentId;
+
+    @Schema(description = "Unit number", example = "4B")
+    private String apartmentUnitNumber;
+
+    @Schema(description = "Unit type", example = "2BHK")
+    private String apartmentUnitType;
+
+    @Schema(description = "Building name", example = "Sunset Towers")
+    private String propertyName;
+
+    @Schema(description = "Service category ID")
+    private UUID serviceCategoryId;
+
+    @Schema(description = "Service category name", example = "Plumbing")
+    private String serviceCategoryName;
+
+    @Schema(description = "Requester user ID")
+    private UUID requesterId;
+
+    @Schema(description = "Requester name", example = "John Doe")
+    private String requesterName;
+
+    @Schema(description = "Tenant user ID")
+    private UUID tenantId;
+
+    @Schema(description = "Tenant name", example = "John Doe")
+    private String tenantName;
+
+    @Schema(description = "Tenant profile image URL")
+    private String tenantPhoto;
+
+    @Schema(description = "Assignee user ID")
+    private UUID assignedToId;
+
+    @Schema(description = "Assignee name")
+    private String assignedToName;
+
+    @Schema(description = "Whether a manager opened the request", example = "false")
+    private boolean managerInitiated;
+
+    @Schema(description = "Scheduled time")
+    private Instant scheduledAt;
+
+    @Schema(description = "Submitted time")
+    private Instant submittedAt;
+
+    @Schema(description = "Resolved time")
+    private Instant resolvedAt;
+
+    @Schema(description = "Creation time")
+    private Instant createdAt;
+
+    @Schema(description = "Last update time")
+    private Instant updatedAt;
+
+    @Schema(description = "Number of photos attached; fetch them from /requests/{id}/photos", example = "2")
+    private long photoCount;
+
+    @Schema(description = "ID of the first photo, if any")
+    private UUID thumbnailPhotoId;
+
+    @Schema(description = "URL of the first photo when it is stored in object storage")
+    private String thumbnailUrl;
+
+    // Constructors
+    public MaintenanceRequestListItemDto() {}
+
+    // Used by the list query's constructor expression
+    public MaintenanceRequestListItemDto(UUID id, String title, String description,
+                                         MaintenanceRequest.Priority priority, MaintenanceRequest.Status status,
+                                         UUID apartmentId, String apartmentUnitNumber, String apartmentUnitType,
+                                         String propertyName, UUID serviceCategoryId, String serviceCategoryName,
+                                         UUID requesterId, String requesterFirstName, String requesterLastName,
+                                         UserRole requesterRole, UUID tenantId, String tenantFirstName,
+                                         String tenantLastName, String tenantPhoto, UUID assignedToId,
+                                         String assignedToFirstName, String assignedToLastName,
+                                         Boolean managerInitiated, Instant scheduledAt, Instant submittedAt,
+                                         Instant resolvedAt, Instant createdAt, Instant updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priority = priority != null ? priority.toString() : null;
+        this.status = status != null ? status.toString() : null;
+        this.apartmentId = apartmentId;
+        this.apartmentUnitNumber = apartmentUnitNumber;
+        this.apartmentUnitType = apartmentUnitType;
+        this.propertyName = propertyName;
+        this.serviceCategoryId = serviceCategoryId;
+        this.serviceCategoryName = serviceCategoryName;
+        this.requesterId = requesterId;
+        this.requesterName = requesterId != null ? requesterFirstName + " " + requesterLastName : null;
+        this.tenantId = tenantId;
+        this.tenantName = tenantId != null ? tenantFirstName + " " + tenantLastName : null;
+        this.tenantPhoto = tenantPhoto;
+        this.assignedToId = assignedToId;
+        this.assignedToName = assignedToId != null ? assignedToFirstName + " " + assignedToLastName : null;
+        this.managerInitiated = Boolean.TRUE.equals(managerInitiated)
+                || requesterRole == UserRole.PROPERTY_MANAGER || requesterRole == UserRole.BUILDING_OWNER;
+        this.scheduledAt = scheduledAt;
+        this.submittedAt = submittedAt;
+        this.resolvedAt = resolvedAt;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public UUID getApartmentId() {
+        return apartmentId;
+    }
+
+    public void setApartmentId(UUID apartmentId) {
+        this.apartmentId = apartmentId;
+    }
+
+    public String getApartmentUnitNumber() {
+        return apartmentUnitNumber;
+    }
+
+    public void setApartmentUnitNumber(String apartmentUnitNumber) {
+        this.apartmentUnitNumber = apartmentUnitNumber;
+    }
+
+    public String getApartmentUnitType() {
+        return apartmentUnitType;
+    }
+
+    public void setApartmentUnitType(String apartmentUnitType) {
+        this.apartmentUnitType = apartmentUnitType;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public void setPropertyName(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public UUID getServiceCategoryId() {
+        return serviceCategoryId;
+    }
+
+    public void setServiceCategoryId(UUID serviceCategoryId) {
+        this.serviceCategoryId = serviceCategoryId;
+    }
+
+    public String getServiceCategoryName() {
+        return serviceCategoryName;
+    }
+
+    public void setServiceCategoryName(String serviceCategoryName) {
+        this.serviceCategoryName = serviceCategoryName;
+    }
+
+    public UUID getRequesterId() {
+        return requesterId;
+    }
+
+    public void setRequesterId(UUID requesterId) {
+        this.requesterId = requesterId;
+    }
+
+    public String getRequesterName() {
+        return requesterName;
+    }
+
+    public void setRequesterName(String requesterName) {
+        this.requesterName = requesterName;
+    }
+
+    public UUID getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(UUID tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getTenantName() {
+        return tenantName;
+    }
+
+    public void setTenantName(String tenantName) {
+        this.tenantName = tenantName;
+    }
+
+    public String getTenantPhoto() {
+        return tenantPhoto;
+    }
+
+    public void setTenantPhoto(String tenantPhoto) {
+        this.tenantPhoto = tenantPhoto;
+    }
+
+    public UUID getAssignedToId() {
+        return assignedToId;
+    }
+
+    public void setAssignedToId(UUID assignedToId) {
+        this.assignedToId = assignedToId;
+    }
+
+    public String getAssignedToName() {
+        return assignedToName;
+    }
+
+    public void setAssignedToName(String assignedToName) {
+        this.assignedToName = assignedToName;
+    }
+
+    public boolean isManagerInitiated() {
+        return managerInitiated;
+    }
+
+    public void setManagerInitiated(boolean managerInitiated) {
+        this.managerInitiated = managerInitiated;
+    }
+
+    public Instant getScheduledAt() {
+        return scheduledAt;
+    }
+
+    public void setScheduledAt(Instant scheduledAt) {
+        this.scheduledAt = scheduledAt;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(Instant resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getPhotoCount() {
+        return photoCount;
+    }
+
+    public void setPhotoCount(long photoCount) {
+        this.photoCount = photoCount;
+    }
+
+    public UUID getThumbnailPhotoId() {
+        return thumbnailPhotoId;
+    }
+
+    public void setThumbnailPhotoId(UUID thumbnailPhotoId) {
+        this.thumbnailPhotoId = thumbnailPhotoId;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+}
@@ -0,0 +1,52 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Keyset-paginated maintenance request list")
+public class MaintenanceRequestPageResponse {
+
+    @Schema(description = "Requests on this page, newest first")
+    private List<MaintenanceRequestListItemDto> requests;
+
+    @Schema(description = "Cursor to pass back for the next page (null when there are no more rows)")
+    private String nextCursor;
+
+    @Schema(description = "Whether another page is available", example = "true")
+    private boolean hasMore;
+
+    // Constructors
+    public MaintenanceRequestPageResponse() {}
+
+    public MaintenanceRequestPageResponse(List<MaintenanceRequestListItemDto> requests, String nextCursor) {
+        this.requests = requests;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    // Getters and Setters
+    public List<MaintenanceRequestListItemDto> getRequests() {
+        return requests;
+    }
+
+    public void setRequests(List<MaintenanceRequestListItemDto> requests) {
+        this.requests = requests;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
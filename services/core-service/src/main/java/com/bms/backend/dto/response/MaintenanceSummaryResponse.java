@@ -0,0 +1,67 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Tenant maintenance dashboard summary")
+public class MaintenanceSummaryResponse {
+
+    @Schema(description = "Total number of maintenance requests", example = "12")
+    private long totalRequests;
+
+    @Schema(description = "Request count per status")
+    private Map<String, Long> statusBreakdown;
+
+    @Schema(description = "Request count per priority")
+    private Map<String, Long> priorityBreakdown;
+
+    @Schema(description = "Five most recent requests, newest first")
+    private List<MaintenanceRequestListItemDto> recentRequests;
+
+    // Constructors
+    public MaintenanceSummaryResponse() {}
+
+    public MaintenanceSummaryResponse(long totalRequests, Map<String, Long> statusBreakdown,
+                                      Map<String, Long> priorityBreakdown,
+                                      List<MaintenanceRequestListItemDto> recentRequests) {
+        this.totalRequests = totalRequests;
+        this.statusBreakdown = statusBreakdown;
+        this.priorityBreakdown = priorityBreakdown;
+        this.recentRequests = recentRequests;
+    }
+
+    // Getters and Setters
+    public long getTotalRequests() {
+        return totalRequests;
+    }
+
+    public void setTotalRequests(long totalRequests) {
+        this.totalRequests = totalRequests;
+    }
+
+    public Map<String, Long> getStatusBreakdown() {
+        return statusBreakdown;
+    }
+
+    public void setStatusBreakdown(Map<String, Long> statusBreakdown) {
+        this.statusBreakdown = statusBreakdown;
+    }
+
+    public Map<String, Long> getPriorityBreakdown() {
+        return priorityBreakdown;
+    }
+
+    public void setPriorityBreakdown(Map<String, Long> priorityBreakdown) {
+        this.priorityBreakdown = priorityBreakdown;
+    }
+
+    public List<MaintenanceRequestListItemDto> getRecentRequests() {
+        return recentRequests;
+    }
+
+    public void setRecentRequests(List<MaintenanceRequestListItemDto> recentRequests) {
+        this.recentRequests = recentRequests;
+    }
+}
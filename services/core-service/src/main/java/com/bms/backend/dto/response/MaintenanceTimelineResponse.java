@@ -0,0 +1,52 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Keyset-paginated maintenance request timeline")
+public class MaintenanceTimelineResponse {
+
+    @Schema(description = "Updates on this page, newest first")
+    private List<MaintenanceProgressResponse> updates;
+
+    @Schema(description = "Cursor to pass back for older updates (null when there are no more)")
+    private String nextCursor;
+
+    @Schema(description = "Whether older updates are available", example = "false")
+    private boolean hasMore;
+
+    // Constructors
+    public MaintenanceTimelineResponse() {}
+
+    public MaintenanceTimelineResponse(List<MaintenanceProgressResponse> updates, String nextCursor) {
+        this.updates = updates;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    // Getters and Setters
+    public List<MaintenanceProgressResponse> getUpdates() {
+        return updates;
+    }
+
+    public void setUpdates(List<MaintenanceProgressResponse> updates) {
+        this.updates = updates;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,99 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Keyset-paginated work queue of open maintenance requests with SLA age buckets")
+public class MaintenanceWorkQueueResponse {
+
+    @Schema(description = "Open requests on this page, highest priority first and oldest first within a priority")
+    private List<MaintenanceRequestListItemDto> requests;
+
+    @Schema(description = "Cursor to pass back for the next page (null when there are no more rows)")
+    private String nextCursor;
+
+    @Schema(description = "Whether another page is available", example = "true")
+    private boolean hasMore;
+
+    @Schema(description = "Time the age buckets were computed against")
+    private Instant asOf;
+
+    @Schema(description = "Total number of open requests; only returned with the first page", example = "17")
+    private Long totalOpen;
+
+    @Schema(description = "Open request count per age bucket (UNDER_24H, ONE_TO_THREE_DAYS, OVER_3_DAYS); only returned with the first page")
+    private Map<String, Long> ageBuckets;
+
+    @Schema(description = "Open request count per priority and age bucket; only returned with the first page")
+    private Map<String, Map<String, Long>> ageBucketsByPriority;
+
+    // Constructors
+    public MaintenanceWorkQueueResponse() {}
+
+    public MaintenanceWorkQueueResponse(List<MaintenanceRequestListItemDto> requests, String nextCursor, Instant asOf) {
+        this.requests = requests;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+        this.asOf = asOf;
+    }
+
+    // Getters and Setters
+    public List<MaintenanceRequestListItemDto> getRequests() {
+        return requests;
+    }
+
+    public void setRequests(List<MaintenanceRequestListItemDto> requests) {
+        this.requests = requests;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(Instant asOf) {
+        this.asOf = asOf;
+    }
+
+    public Long getTotalOpen() {
+        return totalOpen;
+    }
+
+    public void setTotalOpen(Long totalOpen) {
+        this.totalOpen = totalOpen;
+    }
+
+    public Map<String, Long> getAgeBuckets() {
+        return ageBuckets;
+    }
+
+    public void setAgeBuckets(Map<String, Long> ageBuckets) {
+        this.ageBuckets = ageBuckets;
+    }
+
+    public Map<String, Map<String, Long>> getAgeBucketsByPriority() {
+        return ageBucketsByPriority;
+    }
+
+    public void setAgeBucketsByPriority(Map<String, Map<String, Long>> ageBucketsByPriority) {
+        this.ageBucketsByPriority = ageBucketsByPriority;
+    }
+}
@@ -0,0 +1,205 @@
+package com.bms.backend.dto.response;
+
+import com.bms.backend.entity.PaymentTransaction;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "One line of a payment export (CSV row or NDJSON object)")
+public class PaymentExportRowDto {
+
+    @Schema(description = "Payment transaction ID")
+    private UUID paymentId;
+
+    @Schema(description = "Lease/Connection ID")
+    private UUID leaseId;
+
+    @Schema(description = "Building name", example = "Sunset Towers")
+    private String buildingName;
+
+    @Schema(description = "Property name on the lease", example = "Sunset Towers - 4B")
+    private String propertyName;
+
+    @Schema(description = "Unit number", example = "4B")
+    private String unitNumber;
+
+    @Schema(description = "Tenant user ID")
+    private UUID tenantId;
+
+    @Schema(description = "Tenant name", example = "John Doe")
+    private String tenantName;
+
+    @Schema(description = "Tenant email", example = "john@example.com")
+    private String tenantEmail;
+
+    @Schema(description = "Due date")
+    private Instant dueDate;
+
+    @Schema(description = "Date the payment was made")
+    private Instant paymentDate;
+
+    @Schema(description = "Amount", example = "1200.00")
+    private BigDecimal amount;
+
+    @Schema(description = "Currency", example = "USD")
+    private String currency;
+
+    @Schema(description = "Payment status", example = "PAID")
+    private PaymentTransaction.PaymentStatus status;
+
+    @Schema(description = "Payment method", example = "CARD")
+    private PaymentTransaction.PaymentMethod paymentMethod;
+
+    @Schema(description = "Stripe payment intent ID")
+    private String stripePaymentIntentId;
+
+    // Constructors
+    public PaymentExportRowDto() {}
+
+    // Used by the export query's constructor expression
+    public PaymentExportRowDto(UUID paymentId, UUID leaseId, String buildingName, String propertyName,
+                               String unitNumber, UUID tenantId, String tenantFirstName, String tenantLastName,
+                               String tenantEmail, Instant dueDate, Instant paymentDate, BigDecimal amount,
+                               String currency, PaymentTransaction.PaymentStatus status,
+                               PaymentTransaction.PaymentMethod paymentMethod, String stripePaymentIntentId) {
+        this.paymentId = paymentId;
+        this.leaseId = leaseId;
+        this.buildingName = buildingName;
+        this.propertyName = propertyName;
+        this.unitNumber = unitNumber;
+        this.tenantId = tenantId;
+        this.tenantName = ((tenantFirstName != null ? tenantFirstName : "") + " "
+                + (tenantLastName != null ? tenantLastName : "")).trim();
+        this.tenantEmail = tenantEmail;
+        this.dueDate = dueDate;
+        this.paymentDate = paymentDate;
+        this.amount = amount;
+        this.currency = currency;
+        this.status = status;
+        this.paymentMethod = paymentMethod;
+        this.stripePaymentIntentId = stripePaymentIntentId;
+    }
+
+    // Getters and Setters
+    public UUID getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(UUID paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public UUID getLeaseId() {
+        return leaseId;
+    }
+
+    public void setLeaseId(UUID leaseId) {
+        this.leaseId = leaseId;
+    }
+
+    public String getBuildingName() {
+        return buildingName;
+    }
+
+    public void setBuildingName(String buildingName) {
+        this.buildingName = buildingName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public void setPropertyName(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String getUnitNumber() {
+        return unitNumber;
+    }
+
+    public void setUnitNumber(String unitNumber) {
+        this.unitNumber = unitNumber;
+    }
+
+    public UUID getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(UUID tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getTenantName() {
+        return tenantName;
+    }
+
+    public void setTenantName(String tenantName) {
+        this.tenantName = tenantName;
+    }
+
+    public String getTenantEmail() {
+        return tenantEmail;
+    }
+
+    public void setTenantEmail(String tenantEmail) {
+        this.tenantEmail = tenantEmail;
+    }
+
+    public Instant getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(Instant dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public Instant getPaymentDate() {
+        return paymentDate;
+    }
+
+    public void setPaymentDate(Instant paymentDate) {
+        this.paymentDate = paymentDate;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public PaymentTransaction.PaymentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PaymentTransaction.PaymentStatus status) {
+        this.status = status;
+    }
+
+    public PaymentTransaction.PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(PaymentTransaction.PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getStripePaymentIntentId() {
+        return stripePaymentIntentId;
+    }
+
+    public void setStripePaymentIntentId(String stripePaymentIntentId) {
+        this.stripePaymentIntentId = stripePaymentIntentId;
+    }
+}
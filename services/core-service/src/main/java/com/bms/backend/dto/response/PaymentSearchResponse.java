@@ -0,0 +1,64 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Keyset-paginated payment search result")
+public class PaymentSearchResponse {
+
+    @Schema(description = "Payments on this page")
+    private List<PaymentTransactionDto> payments;
+
+    @Schema(description = "Cursor to pass back for the next page (null when there are no more rows)")
+    private String nextCursor;
+
+    @Schema(description = "Whether another page is available", example = "true")
+    private boolean hasMore;
+
+    @Schema(description = "Totals for the whole search; only returned with the first page")
+    private PaymentTotalsDto totals;
+
+    // Constructors
+    public PaymentSearchResponse() {}
+
+    public PaymentSearchResponse(List<PaymentTransactionDto> payments, String nextCursor, PaymentTotalsDto totals) {
+        this.payments = payments;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+        this.totals = totals;
+    }
+
+    // Getters and Setters
+    public List<PaymentTransactionDto> getPayments() {
+        return payments;
+    }
+
+    public void setPayments(List<PaymentTransactionDto> payments) {
+        this.payments = payments;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public PaymentTotalsDto getTotals() {
+        return totals;
+    }
+
+    public void setTotals(PaymentTotalsDto totals) {
+        this.totals = totals;
+    }
+}
@@ -0,0 +1,59 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Schema(description = "Aggregate payment totals for a search, computed in the database")
+public class PaymentTotalsDto {
+
+    @Schema(description = "Number of payments matching the requested status filter", example = "42")
+    private long totalCount;
+
+    @Schema(description = "Sum of amounts matching the requested status filter", example = "25200.00")
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Schema(description = "Payment counts keyed by status, including the derived OVERDUE bucket")
+    private Map<String, Long> countByStatus = new LinkedHashMap<>();
+
+    @Schema(description = "Payment amounts keyed by status, including the derived OVERDUE bucket")
+    private Map<String, BigDecimal> amountByStatus = new LinkedHashMap<>();
+
+    // Constructors
+    public PaymentTotalsDto() {}
+
+    // Getters and Setters
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Map<String, Long> getCountByStatus() {
+        return countByStatus;
+    }
+
+    public void setCountByStatus(Map<String, Long> countByStatus) {
+        this.countByStatus = countByStatus;
+    }
+
+    public Map<String, BigDecimal> getAmountByStatus() {
+        return amountByStatus;
+    }
+
+    public void setAmountByStatus(Map<String, BigDecimal> amountByStatus) {
+        this.amountByStatus = amountByStatus;
+    }
+}
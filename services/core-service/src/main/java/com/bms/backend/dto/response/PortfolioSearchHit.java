@@ -0,0 +1,112 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "A building, unit, tenant or maintenance request matching a portfolio search")
+public class PortfolioSearchHit {
+
+    public enum Type {
+        BUILDING, APARTMENT, TENANT, MAINTENANCE_REQUEST
+    }
+
+    @Schema(description = "Kind of record; for TENANT the id is the tenant-property connection (lease) id", example = "APARTMENT")
+    private Type type;
+
+    @Schema(description = "Record id")
+    private UUID id;
+
+    @Schema(description = "Primary label: building name, unit number, tenant name or request title", example = "4B")
+    private String title;
+
+    @Schema(description = "Secondary label: building address, current tenant or tenant email", example = "Jane Doe")
+    private String subtitle;
+
+    @Schema(description = "Building the record belongs to")
+    private UUID buildingId;
+
+    @Schema(description = "Name of the building the record belongs to", example = "Maple Court")
+    private String buildingName;
+
+    @Schema(description = "Unit the record belongs to")
+    private UUID apartmentId;
+
+    @Schema(description = "Unit number of the record's unit", example = "4B")
+    private String unitNumber;
+
+    // Constructors
+    public PortfolioSearchHit() {}
+
+    public PortfolioSearchHit(Type type, UUID id, String title, String subtitle) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.subtitle = subtitle;
+    }
+
+    // Getters and Setters
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getSubtitle() {
+        return subtitle;
+    }
+
+    public void setSubtitle(String subtitle) {
+        this.subtitle = subtitle;
+    }
+
+    public UUID getBuildingId() {
+        return buildingId;
+    }
+
+    public void setBuildingId(UUID buildingId) {
+        this.buildingId = buildingId;
+    }
+
+    public String getBuildingName() {
+        return buildingName;
+    }
+
+    public void setBuildingName(String buildingName) {
+        this.buildingName = buildingName;
+    }
+
+    public UUID getApartmentId() {
+        return apartmentId;
+    }
+
+    public void setApartmentId(UUID apartmentId) {
+        this.apartmentId = apartmentId;
+    }
+
+    public String getUnitNumber() {
+        return unitNumber;
+    }
+
+    public void setUnitNumber(String unitNumber) {
+        this.unitNumber = unitNumber;
+    }
+}
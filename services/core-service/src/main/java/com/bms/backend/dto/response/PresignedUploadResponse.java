@@ -0,0 +1,78 @@
+package com.bms.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Schema(description = "Short-lived URL for uploading one file straight to storage")
+public class PresignedUploadResponse {
+
+    @Schema(description = "URL to send the file body to")
+    private String uploadUrl;
+
+    @Schema(description = "HTTP method to use", example = "PUT")
+    private String method;
+
+    @Schema(description = "Headers that must be sent with exactly these values; they are part of the signature")
+    private Map<String, String> headers;
+
+    @Schema(description = "Storage key to pass to the completion call", example = "users/2f1c.../profile/1718000000000_ab12cd34.jpg")
+    private String key;
+
+    @Schema(description = "Time after which the upload URL is rejected")
+    private Instant expiresAt;
+
+    // Constructors
+    public PresignedUploadResponse() {}
+
+    public PresignedUploadResponse(String uploadUrl, String method, Map<String, String> headers, String key,
+                                   Instant expiresAt) {
+        this.uploadUrl = uploadUrl;
+        this.method = method;
+        this.headers = headers;
+        this.key = key;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public String getUploadUrl() {
+        return uploadUrl;
+    }
+
+    public void setUploadUrl(String uploadUrl) {
+        this.uploadUrl = uploadUrl;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
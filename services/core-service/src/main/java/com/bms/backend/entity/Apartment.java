@@ -94,6 +94,18 @@ public class Apartment {
     @Transient
     private java.util.List<String> imageUrls; // Deserialized list of image URLs for API response
 
+    @Column(name = "thumbnail_images", columnDefinition = "TEXT")
+    private String thumbnailImages; // JSON array parallel to images; null entries are still being generated
+
+    @Column(name = "medium_images", columnDefinition = "TEXT")
+    private String mediumImages; // JSON array parallel to images, web-optimized variants
+
+    @Transient
+    private java.util.List<String> thumbnailUrls; // Thumbnail per image, falling back to the original
+
+    @Transient
+    private java.util.List<String> mediumUrls; // Medium variant per image, falling back to the original
+
     @Column(name = "documents", columnDefinition = "TEXT")
     private String documents; // JSON string for document URLs/metadata: [{"name":"lease.pdf","url":"s3://...","type":"lease"}]
 
@@ -305,6 +317,38 @@ public class Apartment {
         this.imageUrls = imageUrls;
     }
 
+    public String getThumbnailImages() {
+        return thumbnailImages;
+    }
+
+    public void setThumbnailImages(String thumbnailImages) {
+        this.thumbnailImages = thumbnailImages;
+    }
+
+    public String getMediumImages() {
+        return mediumImages;
+    }
+
+    public void setMediumImages(String mediumImages) {
+        this.mediumImages = mediumImages;
+    }
+
+    public java.util.List<String> getThumbnailUrls() {
+        return thumbnailUrls;
+    }
+
+    public void setThumbnailUrls(java.util.List<String> thumbnailUrls) {
+        this.thumbnailUrls = thumbnailUrls;
+    }
+
+    public java.util.List<String> getMediumUrls() {
+        return mediumUrls;
+    }
+
+    public void setMediumUrls(java.util.List<String> mediumUrls) {
+        this.mediumUrls = mediumUrls;
+    }
+
     public String getImages() {
         return images;
     }
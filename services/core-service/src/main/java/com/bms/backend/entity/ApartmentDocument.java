@@ -9,7 +9,10 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "apartment_documents")
+@Table(name = "apartment_documents", indexes = {
+    // Covers the per-unit listing and the active-document count without reading the rows
+    @Index(name = "idx_apartment_documents_apartment_active", columnList = "apartment_id, is_active")
+})
 public class ApartmentDocument {
     
     @Id
@@ -32,6 +35,12 @@ public class ApartmentDocument {
     
     @Column(name = "document_data", columnDefinition = "TEXT")
     private String documentData; // Optional: base64 for testing without S3
+
+    @Column(name = "storage_key", length = 500)
+    private String storageKey; // Object storage key once document_data has been moved out of the row
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // SHA-256 of the stored bytes
     
     @Column(name = "mime_type")
     private String mimeType; // application/pdf, image/jpeg, etc.
@@ -163,4 +172,20 @@ public class ApartmentDocument {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
-}
\ No newline at end of file
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+}
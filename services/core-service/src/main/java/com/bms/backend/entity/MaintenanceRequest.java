@@ -10,7 +10,13 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "maintenance_requests")
+@Table(name = "maintenance_requests", indexes = {
+        @Index(name = "idx_maintenance_requests_apartment_created", columnList = "apartment_id, created_at DESC, id DESC"),
+        @Index(name = "idx_maintenance_requests_tenant_created", columnList = "tenant_id, created_at DESC, id DESC"),
+        @Index(name = "idx_maintenance_requests_requester_created", columnList = "requester_id, created_at DESC, id DESC"),
+        @Index(name = "idx_maintenance_requests_assigned_to", columnList = "assigned_to")
+        // The open work queue has a partial index on PostgreSQL, built by MaintenanceQueueInitializer
+})
 public class MaintenanceRequest {
     
     @Id
@@ -68,6 +74,19 @@ public class MaintenanceRequest {
     @Column(name = "manager_initiated", nullable = false)
     private Boolean managerInitiated = false;
 
+    // Work-queue position kept in step with status and priority: 0 = HIGH, 1 = MEDIUM, 2 = LOW, null once closed
+    @Column(name = "queue_rank")
+    @JsonIgnore
+    private Integer queueRank;
+
+    // Earlier open request of the same unit this one likely repeats, set when it was reported
+    @Column(name = "possible_duplicate_of")
+    private UUID possibleDuplicateOfId;
+
+    // Set on the response when a repeat report was merged into this request instead of creating a new one
+    @Transient
+    private boolean mergedDuplicate;
+
     @OneToMany(mappedBy = "maintenanceRequest", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<MaintenanceRequestPhoto> photos;
     
@@ -94,6 +113,26 @@ public class MaintenanceRequest {
     // Default constructor
     public MaintenanceRequest() {}
 
+    public static boolean isOpen(Status status) {
+        return status != Status.RESOLVED && status != Status.CANCELLED;
+    }
+
+    public static Integer queueRankFor(Status status, Priority priority) {
+        if (!isOpen(status)) {
+            return null;
+        }
+        if (priority == Priority.HIGH) {
+            return 0;
+        }
+        return priority == Priority.LOW ? 2 : 1;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void syncQueueRank() {
+        queueRank = queueRankFor(status, priority);
+    }
+
     // Getters and Setters
     public UUID getId() {
         return id;
@@ -207,6 +246,26 @@ public class MaintenanceRequest {
         this.managerInitiated = managerInitiated;
     }
 
+    public Integer getQueueRank() {
+        return queueRank;
+    }
+
+    public UUID getPossibleDuplicateOfId() {
+        return possibleDuplicateOfId;
+    }
+
+    public void setPossibleDuplicateOfId(UUID possibleDuplicateOfId) {
+        this.possibleDuplicateOfId = possibleDuplicateOfId;
+    }
+
+    public boolean isMergedDuplicate() {
+        return mergedDuplicate;
+    }
+
+    public void setMergedDuplicate(boolean mergedDuplicate) {
+        this.mergedDuplicate = mergedDuplicate;
+    }
+
     public List<MaintenanceRequestPhoto> getPhotos() {
         return photos;
     }
@@ -8,7 +8,9 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "maintenance_request_photos")
+@Table(name = "maintenance_request_photos", indexes = {
+        @Index(name = "idx_maintenance_request_photos_request", columnList = "maintenance_request_id, uploaded_at, id")
+})
 public class MaintenanceRequestPhoto {
     
     @Id
@@ -25,6 +27,20 @@ public class MaintenanceRequestPhoto {
     
     @Column(name = "photo_data", columnDefinition = "TEXT")
     private String photoData;
+
+    // Object storage reference; photo_data is only set on rows not yet moved to storage
+    @Column(name = "storage_key", length = 500)
+    private String storageKey;
+
+    // Small JPEG derivative for list rows, set once generated
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl;
+
+    @Column(name = "photo_size")
+    private Long photoSize;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
     
     @CreationTimestamp
     @Column(name = "uploaded_at", updatable = false)
@@ -90,4 +106,36 @@ public class MaintenanceRequestPhoto {
     public void setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
     }
-}
\ No newline at end of file
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public Long getPhotoSize() {
+        return photoSize;
+    }
+
+    public void setPhotoSize(Long photoSize) {
+        this.photoSize = photoSize;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+}
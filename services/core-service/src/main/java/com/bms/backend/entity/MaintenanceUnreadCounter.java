@@ -0,0 +1,59 @@
+package com.bms.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Number of maintenance updates a user has not seen yet. One row per user, keyed by user id,
+ * so the polled unread badge is a primary-key lookup.
+ */
+@Entity
+@Table(name = "maintenance_unread_counters")
+public class MaintenanceUnreadCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    // Default constructor
+    public MaintenanceUnreadCounter() {}
+
+    public MaintenanceUnreadCounter(UUID userId, int unreadCount) {
+        this.userId = userId;
+        this.unreadCount = unreadCount;
+        this.updatedAt = Instant.now();
+    }
+
+    // Getters and Setters
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -8,7 +8,9 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "maintenance_updates")
+@Table(name = "maintenance_updates", indexes = {
+        @Index(name = "idx_maintenance_updates_request_created", columnList = "maintenance_request_id, created_at DESC, id DESC")
+})
 public class MaintenanceUpdate {
     
     @Id
@@ -10,7 +10,12 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "payment_transactions")
+@Table(name = "payment_transactions", indexes = {
+        @Index(name = "idx_payment_transactions_tenant_created", columnList = "tenant_id, created_at DESC, id DESC"),
+        @Index(name = "idx_payment_transactions_tenant_due", columnList = "tenant_id, due_date, id"),
+        @Index(name = "idx_payment_transactions_connection_due", columnList = "connection_id, due_date"),
+        @Index(name = "uk_payment_transactions_stripe_intent", columnList = "stripe_payment_intent_id", unique = true)
+})
 public class PaymentTransaction {
 
     @Id
@@ -65,6 +70,15 @@ public class PaymentTransaction {
     @Column(name = "due_date")
     private Instant dueDate;
 
+    @Column(name = "last_idempotency_key")
+    @JsonIgnore
+    private String lastIdempotencyKey; // Key of the last recorded webhook/confirmation applied to this row
+
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    @JsonIgnore
+    private Long version; // Optimistic lock only; not part of the API
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private Instant createdAt;
@@ -224,6 +238,22 @@ public class PaymentTransaction {
         this.dueDate = dueDate;
     }
 
+    public String getLastIdempotencyKey() {
+        return lastIdempotencyKey;
+    }
+
+    public void setLastIdempotencyKey(String lastIdempotencyKey) {
+        this.lastIdempotencyKey = lastIdempotencyKey;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -69,6 +69,9 @@ public class PropertyBuilding {
     @Transient
     private List<String> imageUrls;
 
+    @Transient
+    private List<String> thumbnailUrls;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private Instant createdAt;
@@ -232,4 +235,12 @@ public class PropertyBuilding {
     public void setImageUrls(List<String> imageUrls) {
         this.imageUrls = imageUrls;
     }
+
+    public List<String> getThumbnailUrls() {
+        return thumbnailUrls;
+    }
+
+    public void setThumbnailUrls(List<String> thumbnailUrls) {
+        this.thumbnailUrls = thumbnailUrls;
+    }
 }
\ No newline at end of file
@@ -25,7 +25,19 @@ public class PropertyImage {
     
     @Column(name = "image_data", columnDefinition = "TEXT")
     private String imageData; // Optional: base64 for testing without S3
+
+    @Column(name = "storage_key", length = 500)
+    private String storageKey; // Object storage key once image_data has been moved out of the row
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // SHA-256 of the stored bytes
     
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl; // Fixed-size JPEG thumbnail for list screens, set once generated
+
+    @Column(name = "medium_url", length = 500)
+    private String mediumUrl; // Web-optimized JPEG for detail screens, set once generated
+
     @Column(name = "image_name")
     private String imageName; // Original filename
     
@@ -139,4 +151,36 @@ public class PropertyImage {
     public void setUploadedAt(Instant uploadedAt) {
         this.uploadedAt = uploadedAt;
     }
-}
\ No newline at end of file
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public String getMediumUrl() {
+        return mediumUrl;
+    }
+
+    public void setMediumUrl(String mediumUrl) {
+        this.mediumUrl = mediumUrl;
+    }
+}
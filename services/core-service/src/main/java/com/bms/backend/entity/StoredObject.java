@@ -0,0 +1,125 @@
+package com.bms.backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A stored object indexed by the SHA-256 of its content, so an owner uploading the same bytes again to the same
+ * folder gets the existing object. The reference count tracks how many rows point at it; the object is only deleted when the
+ * last of them is released.
+ */
+@Entity
+@Table(name = "stored_objects",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stored_objects_owner_folder_hash", columnNames = {"owner_id", "folder", "content_hash"}),
+        @UniqueConstraint(name = "uk_stored_objects_key", columnNames = {"object_key"})
+    })
+public class StoredObject {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "owner_id", nullable = false)
+    private UUID ownerId;
+
+    // Folder of the file type the object was stored under, e.g. "documents"
+    @Column(name = "folder", nullable = false, length = 50)
+    private String folder;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "object_key", nullable = false, length = 500)
+    private String objectKey;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "reference_count", nullable = false)
+    private int referenceCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    // Default constructor
+    public StoredObject() {}
+
+    public StoredObject(UUID ownerId, String folder, String contentHash, String objectKey, Long sizeBytes) {
+        this.ownerId = ownerId;
+        this.folder = folder;
+        this.contentHash = contentHash;
+        this.objectKey = objectKey;
+        this.sizeBytes = sizeBytes;
+        this.referenceCount = 1;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(UUID ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getFolder() {
+        return folder;
+    }
+
+    public void setFolder(String folder) {
+        this.folder = folder;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getObjectKey() {
+        return objectKey;
+    }
+
+    public void setObjectKey(String objectKey) {
+        this.objectKey = objectKey;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public int getReferenceCount() {
+        return referenceCount;
+    }
+
+    public void setReferenceCount(int referenceCount) {
+        this.referenceCount = referenceCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
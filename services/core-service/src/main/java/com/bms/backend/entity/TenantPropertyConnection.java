@@ -10,7 +10,9 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tenant_property_connections")
+@Table(name = "tenant_property_connections", indexes = {
+        @Index(name = "idx_tenant_property_connections_manager", columnList = "manager_id")
+})
 public class TenantPropertyConnection {
 
     @Id
@@ -1,13 +1,17 @@
 package com.bms.backend.repository;
 
+import com.bms.backend.dto.response.ApartmentDocumentResponse;
 import com.bms.backend.entity.Apartment;
 import com.bms.backend.entity.ApartmentDocument;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -28,4 +32,37 @@ public interface ApartmentDocumentRepository extends JpaRepository<ApartmentDocu
     
     @Query("SELECT COUNT(ad) FROM ApartmentDocument ad WHERE ad.apartment.id = :apartmentId AND ad.isActive = true")
     Long countActiveDocumentsByApartmentId(@Param("apartmentId") UUID apartmentId);
-}
\ No newline at end of file
+
+    // Vault metadata: every column except document_data, so listings never read document bytes
+    String METADATA_SELECT = "SELECT new com.bms.backend.dto.response.ApartmentDocumentResponse(" +
+            "ad.id, ad.documentName, ad.documentType, ad.mimeType, ad.fileSize, ad.contentHash, ad.description, " +
+            "ad.documentUrl, ad.uploadedBy, ad.uploadedAt) FROM ApartmentDocument ad";
+
+    @Query(METADATA_SELECT + " WHERE ad.apartment.id = :apartmentId AND ad.isActive = true ORDER BY ad.uploadedAt DESC")
+    List<ApartmentDocumentResponse> findActiveMetadataByApartmentId(@Param("apartmentId") UUID apartmentId);
+
+    @Query(METADATA_SELECT + " WHERE ad.id = :id AND ad.apartment.id = :apartmentId AND ad.isActive = true")
+    Optional<ApartmentDocumentResponse> findActiveMetadataById(@Param("id") UUID id,
+                                                               @Param("apartmentId") UUID apartmentId);
+
+    @Query("SELECT ad.documentUrl FROM ApartmentDocument ad WHERE ad.apartment.id = :apartmentId AND ad.documentUrl IS NOT NULL")
+    List<String> findDocumentUrlsByApartmentId(@Param("apartmentId") UUID apartmentId);
+
+    // Blob offload migration: rows still holding base64 data as {documentId, ownerId, mimeType}, in id order.
+    // Owner is the uploader, or the building manager for rows without one.
+    @Query("SELECT ad.id, COALESCE(ad.uploadedBy, m.id), ad.mimeType FROM ApartmentDocument ad " +
+           "JOIN ad.apartment a JOIN a.property p JOIN p.manager m " +
+           "WHERE ad.documentData IS NOT NULL AND ad.id > :afterId ORDER BY ad.id")
+    List<Object[]> findPendingOffload(@Param("afterId") UUID afterId, Pageable pageable);
+
+    @Query("SELECT ad.documentData FROM ApartmentDocument ad WHERE ad.id = :id")
+    Optional<String> findDocumentDataById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE ApartmentDocument ad SET ad.documentData = NULL, ad.storageKey = :storageKey, ad.documentUrl = :url, " +
+           "ad.fileSize = COALESCE(CAST(:size AS Long), ad.fileSize), " +
+           "ad.contentHash = COALESCE(CAST(:contentHash AS String), ad.contentHash) " +
+           "WHERE ad.id = :id AND ad.documentData IS NOT NULL")
+    int markOffloaded(@Param("id") UUID id, @Param("storageKey") String storageKey, @Param("url") String url,
+                      @Param("size") Long size, @Param("contentHash") String contentHash);
+}
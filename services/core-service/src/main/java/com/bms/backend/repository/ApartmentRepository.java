@@ -3,7 +3,10 @@ package com.bms.backend.repository;
 import com.bms.backend.entity.Apartment;
 import com.bms.backend.entity.PropertyBuilding;
 import com.bms.backend.entity.User;
+import com.bms.backend.util.SearchTerms;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,20 +30,18 @@ public interface ApartmentRepository extends JpaRepository<Apartment, UUID> {
     @Query("SELECT a FROM Apartment a WHERE a.tenantEmail = :email")
     List<Apartment> findByTenantEmail(@Param("email") String email);
     
-    @Query("SELECT a FROM Apartment a WHERE a.property.manager = :manager " +
-           "AND (LOWER(a.unitNumber) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(a.tenantName) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(a.tenantEmail) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(a.property.name) LIKE LOWER(CONCAT('%', :searchText, '%')))")
-    List<Apartment> findByManagerAndSearchText(@Param("manager") User manager, 
-                                              @Param("searchText") String searchText);
-    
-    @Query("SELECT a FROM Apartment a WHERE " +
-           "LOWER(a.unitNumber) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(a.tenantName) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(a.tenantEmail) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(a.property.name) LIKE LOWER(CONCAT('%', :searchText, '%'))")
-    List<Apartment> findByGlobalSearch(@Param("searchText") String searchText);
+    // Exact matches first, then prefix matches; see SearchTerms
+    @Query("SELECT a FROM Apartment a JOIN a.property p WHERE p.manager = :manager " +
+           "AND (LOWER(a.unitNumber) LIKE :#{#search.pattern} ESCAPE '!' " +
+           "OR LOWER(a.tenantName) LIKE :#{#search.pattern} ESCAPE '!' " +
+           "OR LOWER(a.tenantEmail) LIKE :#{#search.pattern} ESCAPE '!' " +
+           "OR LOWER(p.name) LIKE :#{#search.pattern} ESCAPE '!') " +
+           "ORDER BY CASE WHEN LOWER(a.unitNumber) = :#{#search.term} OR LOWER(a.tenantEmail) = :#{#search.term} THEN 0 " +
+           "WHEN LOWER(a.unitNumber) LIKE :#{#search.prefix} ESCAPE '!' OR LOWER(a.tenantName) LIKE :#{#search.prefix} ESCAPE '!' " +
+           "OR LOWER(a.tenantEmail) LIKE :#{#search.prefix} ESCAPE '!' THEN 1 " +
+           "WHEN LOWER(p.name) LIKE :#{#search.prefix} ESCAPE '!' THEN 2 ELSE 3 END, p.name, a.unitNumber")
+    List<Apartment> findByManagerAndSearchText(@Param("manager") User manager,
+                                              @Param("search") SearchTerms search, Pageable pageable);
     
     Optional<Apartment> findByPropertyAndUnitNumber(PropertyBuilding property, String unitNumber);
     
@@ -65,4 +66,26 @@ public interface ApartmentRepository extends JpaRepository<Apartment, UUID> {
     List<Apartment> findByTenantPhone(String tenantPhone);
     
     List<Apartment> findByTenantNameContaining(String tenantName);
-}
\ No newline at end of file
+
+    // Portfolio search index rows: id, manager id, building id, unit number, tenant name, email, phone
+    String SEARCH_INDEX_SELECT = "SELECT a.id, p.manager.id, p.id, a.unitNumber, a.tenantName, a.tenantEmail, a.tenantPhone " +
+            "FROM Apartment a JOIN a.property p";
+
+    @Query(SEARCH_INDEX_SELECT)
+    List<Object[]> findSearchIndexRows();
+
+    @Query(SEARCH_INDEX_SELECT + " WHERE a.id = :id")
+    List<Object[]> findSearchIndexRowsById(@Param("id") UUID id);
+
+    @Query("SELECT COUNT(a) > 0 FROM Apartment a WHERE a.id = :id AND a.property.manager.id = :managerId")
+    boolean isManagedBy(@Param("id") UUID id, @Param("managerId") UUID managerId);
+
+    // {images, thumbnailImages, mediumImages} JSON columns of one unit
+    @Query("SELECT a.images, a.thumbnailImages, a.mediumImages FROM Apartment a WHERE a.id = :id")
+    List<Object[]> findImageColumnsById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE Apartment a SET a.thumbnailImages = :thumbnailImages, a.mediumImages = :mediumImages WHERE a.id = :id")
+    int setImageDerivatives(@Param("id") UUID id, @Param("thumbnailImages") String thumbnailImages,
+                            @Param("mediumImages") String mediumImages);
+}
@@ -0,0 +1,140 @@
+package com.bms.backend.repository;
+
+import com.bms.backend.entity.MaintenanceRequest;
+import com.bms.backend.entity.User;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Scope, filters and keyset position for a maintenance request list.
+ * Exactly one scope is set: the managing user, the tenant/requester email, or the assignee.
+ * Lists are ordered by creation date descending; the cursor holds createdAt and id of the last row.
+ * The open work queue instead holds only open requests, highest priority first and oldest first within
+ * a priority; its cursor also carries the queue rank of the last row.
+ */
+public class MaintenanceListCriteria {
+
+    private User manager;
+    private String participantEmail;
+    private User assignee;
+    private MaintenanceRequest.Status status;
+    private MaintenanceRequest.Priority priority;
+    private UUID serviceCategoryId;
+    private UUID apartmentId;
+    private String searchText;
+    private boolean openQueue;
+    private Integer cursorQueueRank;
+    private Instant cursorCreatedAt;
+    private UUID cursorId;
+
+    private MaintenanceListCriteria() {}
+
+    public static MaintenanceListCriteria forManager(User manager) {
+        MaintenanceListCriteria criteria = new MaintenanceListCriteria();
+        criteria.manager = manager;
+        return criteria;
+    }
+
+    // Requests where the user is the tenant or the requester
+    public static MaintenanceListCriteria forParticipant(String email) {
+        MaintenanceListCriteria criteria = new MaintenanceListCriteria();
+        criteria.participantEmail = email;
+        return criteria;
+    }
+
+    public static MaintenanceListCriteria openQueueForManager(User manager) {
+        MaintenanceListCriteria criteria = forManager(manager);
+        criteria.openQueue = true;
+        return criteria;
+    }
+
+    public static MaintenanceListCriteria forAssignee(User assignee) {
+        MaintenanceListCriteria criteria = new MaintenanceListCriteria();
+        criteria.assignee = assignee;
+        return criteria;
+    }
+
+    public boolean hasCursor() {
+        return cursorCreatedAt != null && cursorId != null && (!openQueue || cursorQueueRank != null);
+    }
+
+    public void setCursor(Instant createdAt, UUID id) {
+        this.cursorCreatedAt = createdAt;
+        this.cursorId = id;
+    }
+
+    public void setQueueCursor(int queueRank, Instant createdAt, UUID id) {
+        this.cursorQueueRank = queueRank;
+        setCursor(createdAt, id);
+    }
+
+    // Getters and Setters
+    public User getManager() {
+        return manager;
+    }
+
+    public String getParticipantEmail() {
+        return participantEmail;
+    }
+
+    public User getAssignee() {
+        return assignee;
+    }
+
+    public MaintenanceRequest.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(MaintenanceRequest.Status status) {
+        this.status = status;
+    }
+
+    public MaintenanceRequest.Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(MaintenanceRequest.Priority priority) {
+        this.priority = priority;
+    }
+
+    public UUID getServiceCategoryId() {
+        return serviceCategoryId;
+    }
+
+    public void setServiceCategoryId(UUID serviceCategoryId) {
+        this.serviceCategoryId = serviceCategoryId;
+    }
+
+    public UUID getApartmentId() {
+        return apartmentId;
+    }
+
+    public void setApartmentId(UUID apartmentId) {
+        this.apartmentId = apartmentId;
+    }
+
+    public String getSearchText() {
+        return searchText;
+    }
+
+    public void setSearchText(String searchText) {
+        this.searchText = searchText;
+    }
+
+    public boolean isOpenQueue() {
+        return openQueue;
+    }
+
+    public Integer getCursorQueueRank() {
+        return cursorQueueRank;
+    }
+
+    public Instant getCursorCreatedAt() {
+        return cursorCreatedAt;
+    }
+
+    public UUID getCursorId() {
+        return cursorId;
+    }
+}
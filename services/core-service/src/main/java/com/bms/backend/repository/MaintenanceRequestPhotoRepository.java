@@ -2,10 +2,17 @@ package com.bms.backend.repository;
 
 import com.bms.backend.entity.MaintenanceRequest;
 import com.bms.backend.entity.MaintenanceRequestPhoto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -14,6 +21,37 @@ public interface MaintenanceRequestPhotoRepository extends JpaRepository<Mainten
     List<MaintenanceRequestPhoto> findByMaintenanceRequest(MaintenanceRequest maintenanceRequest);
     
     List<MaintenanceRequestPhoto> findByMaintenanceRequestId(UUID maintenanceRequestId);
+
+    long countByMaintenanceRequestId(UUID maintenanceRequestId);
     
     List<MaintenanceRequestPhoto> findByMaintenanceRequestOrderByCreatedAtAsc(MaintenanceRequest maintenanceRequest);
-}
\ No newline at end of file
+
+    // Photos of one request, paged, oldest first
+    Page<MaintenanceRequestPhoto> findByMaintenanceRequestIdOrderByUploadedAtAscIdAsc(UUID maintenanceRequestId, Pageable pageable);
+
+    // Photo references (no photo data) for a page of list rows: {requestId, photoId, thumbnail or photo url}, oldest first
+    @Query("SELECT p.maintenanceRequest.id, p.id, COALESCE(p.thumbnailUrl, p.photoUrl) FROM MaintenanceRequestPhoto p " +
+           "WHERE p.maintenanceRequest.id IN :requestIds ORDER BY p.uploadedAt ASC, p.id ASC")
+    List<Object[]> findPhotoRefsByMaintenanceRequestIdIn(@Param("requestIds") Collection<UUID> requestIds);
+
+    // Blob offload migration: rows still holding base64 data as {photoId, requesterId}, in id order
+    @Query("SELECT p.id, r.id FROM MaintenanceRequestPhoto p JOIN p.maintenanceRequest m LEFT JOIN m.requester r " +
+           "WHERE p.photoData IS NOT NULL AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findPendingOffload(@Param("afterId") UUID afterId, Pageable pageable);
+
+    @Query("SELECT p.photoData FROM MaintenanceRequestPhoto p WHERE p.id = :id")
+    Optional<String> findPhotoDataById(@Param("id") UUID id);
+
+    // A blob that was only a URL has no size or hash; the row keeps what it had
+    @Modifying
+    @Query("UPDATE MaintenanceRequestPhoto p SET p.photoData = NULL, p.storageKey = :storageKey, p.photoUrl = :url, " +
+           "p.photoSize = COALESCE(CAST(:size AS Long), p.photoSize), " +
+           "p.contentHash = COALESCE(CAST(:contentHash AS String), p.contentHash) " +
+           "WHERE p.id = :id AND p.photoData IS NOT NULL")
+    int markOffloaded(@Param("id") UUID id, @Param("storageKey") String storageKey, @Param("url") String url,
+                      @Param("size") Long size, @Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query("UPDATE MaintenanceRequestPhoto p SET p.thumbnailUrl = :thumbnailUrl WHERE p.id = :id")
+    int setThumbnailUrl(@Param("id") UUID id, @Param("thumbnailUrl") String thumbnailUrl);
+}
@@ -6,9 +6,11 @@ import com.bms.backend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -16,7 +18,8 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceRequest, UUID> {
+public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceRequest, UUID>,
+        MaintenanceRequestRepositoryCustom {
     
     List<MaintenanceRequest> findByTenant(User tenant);
     
@@ -46,14 +49,6 @@ public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceR
     List<MaintenanceRequest> findByManagerAndPriority(@Param("manager") User manager, 
                                                      @Param("priority") MaintenanceRequest.Priority priority);
     
-    @Query("SELECT mr FROM MaintenanceRequest mr WHERE mr.apartment.property.manager = :manager " +
-           "AND (LOWER(mr.title) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(mr.description) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(mr.apartment.unitNumber) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(mr.serviceCategory.name) LIKE LOWER(CONCAT('%', :searchText, '%')))")
-    List<MaintenanceRequest> findByManagerAndSearchText(@Param("manager") User manager, 
-                                                       @Param("searchText") String searchText);
-    
     @Query("SELECT mr FROM MaintenanceRequest mr WHERE mr.createdAt >= :startDate " +
            "AND mr.createdAt <= :endDate ORDER BY mr.createdAt DESC")
     List<MaintenanceRequest> findByDateRange(@Param("startDate") Instant startDate, 
@@ -80,90 +75,52 @@ public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceR
     Page<MaintenanceRequest> findByTenantOrderByCreatedAtDesc(@Param("tenant") User tenant, 
                                                              Pageable pageable);
     
-    // Additional methods needed by MaintenanceRequestService
-    @Query("SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.photos " +
-           "LEFT JOIN FETCH mr.serviceCategory " +
-           "WHERE mr.apartment.property.manager = :manager")
-    List<MaintenanceRequest> findByApartmentPropertyManager(@Param("manager") User manager);
-    
-    @Query("SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.photos " +
-           "LEFT JOIN FETCH mr.serviceCategory " +
-           "WHERE mr.apartment.tenantEmail = :tenantEmail")
-    List<MaintenanceRequest> findByApartmentTenantEmail(@Param("tenantEmail") String tenantEmail);
-    
-    @Query("SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.photos " +
-           "LEFT JOIN FETCH mr.serviceCategory " +
-           "WHERE mr.status = :status " +
-           "AND mr.apartment.property.manager = :manager")
-    List<MaintenanceRequest> findByStatusAndApartmentPropertyManager(@Param("status") MaintenanceRequest.Status status,
-                                                                   @Param("manager") User manager);
-    
-    @Query("SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.photos " +
-           "LEFT JOIN FETCH mr.serviceCategory " +
-           "WHERE mr.priority = :priority " +
-           "AND mr.apartment.property.manager = :manager")
-    List<MaintenanceRequest> findByPriorityAndApartmentPropertyManager(@Param("priority") MaintenanceRequest.Priority priority,
-                                                                      @Param("manager") User manager);
-    
-    @Query("SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.photos " +
-           "LEFT JOIN FETCH mr.serviceCategory " +
-           "WHERE mr.serviceCategory.id = :serviceCategoryId " +
-           "AND mr.apartment.property.manager = :manager")
-    List<MaintenanceRequest> findByServiceCategoryIdAndApartmentPropertyManager(@Param("serviceCategoryId") UUID serviceCategoryId,
-                                                                               @Param("manager") User manager);
+    // List endpoints use findListPage (flat projection, keyset pagination) from MaintenanceRequestRepositoryCustom
 
-    @Query("SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.photos " +
-           "LEFT JOIN FETCH mr.serviceCategory " +
-           "WHERE mr.apartment.id = :apartmentId " +
-           "AND mr.apartment.property.manager = :manager")
-    List<MaintenanceRequest> findByApartmentIdAndApartmentPropertyManager(@Param("apartmentId") UUID apartmentId,
-                                                                          @Param("manager") User manager);
-    
-    @Query("SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.photos " +
-           "LEFT JOIN FETCH mr.serviceCategory " +
-           "WHERE mr.apartment.property.manager = :manager " +
-           "AND (LOWER(mr.title) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(mr.description) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(mr.apartment.unitNumber) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(mr.serviceCategory.name) LIKE LOWER(CONCAT('%', :searchText, '%')))")
-    List<MaintenanceRequest> findBySearchTextAndManager(@Param("searchText") String searchText,
-                                                       @Param("manager") User manager);
+    // Tenant dashboard summary counts as {status, priority, count} for requests the user is tenant or requester of
+    @Query("SELECT mr.status, mr.priority, COUNT(mr) FROM MaintenanceRequest mr " +
+           "LEFT JOIN mr.tenant t LEFT JOIN mr.requester r " +
+           "WHERE t.email = :email OR r.email = :email " +
+           "GROUP BY mr.status, mr.priority")
+    List<Object[]> countByStatusAndPriorityForParticipant(@Param("email") String email);
 
-    // Tenant-specific query methods for dashboard
-    @Query("SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.photos " +
-           "LEFT JOIN FETCH mr.serviceCategory " +
-           "WHERE " +
-           "(mr.tenant IS NOT NULL AND mr.tenant.email = :tenantEmail) OR " +
-           "mr.requester.email = :tenantEmail")
-    List<MaintenanceRequest> findByTenantEmail(@Param("tenantEmail") String tenantEmail);
+    // Dashboard counter seed as {manager id, status, priority, category id, count} for every manager
+    @Query("SELECT p.manager.id, mr.status, mr.priority, mr.serviceCategory.id, COUNT(mr) " +
+           "FROM MaintenanceRequest mr JOIN mr.apartment a JOIN a.property p " +
+           "GROUP BY p.manager.id, mr.status, mr.priority, mr.serviceCategory.id")
+    List<Object[]> countByManagerStatusPriorityAndCategory();
 
-    @Query("SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.photos " +
-           "LEFT JOIN FETCH mr.serviceCategory " +
-           "WHERE " +
-           "((mr.tenant IS NOT NULL AND mr.tenant.email = :tenantEmail) OR " +
-           "mr.requester.email = :tenantEmail) AND mr.status = :status " +
-           "ORDER BY mr.createdAt DESC")
-    List<MaintenanceRequest> findByTenantEmailAndStatus(@Param("tenantEmail") String tenantEmail,
-                                                       @Param("status") MaintenanceRequest.Status status);
+    @Query("SELECT mr.status, mr.priority, mr.serviceCategory.id, COUNT(mr) " +
+           "FROM MaintenanceRequest mr JOIN mr.apartment a JOIN a.property p WHERE p.manager.id = :managerId " +
+           "GROUP BY mr.status, mr.priority, mr.serviceCategory.id")
+    List<Object[]> countByStatusPriorityAndCategoryForManager(@Param("managerId") UUID managerId);
 
-    @Query("SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.photos " +
-           "LEFT JOIN FETCH mr.serviceCategory " +
-           "WHERE " +
-           "((mr.tenant IS NOT NULL AND mr.tenant.email = :tenantEmail) OR " +
-           "mr.requester.email = :tenantEmail) AND mr.priority = :priority " +
-           "ORDER BY mr.createdAt DESC")
-    List<MaintenanceRequest> findByTenantEmailAndPriority(@Param("tenantEmail") String tenantEmail,
-                                                         @Param("priority") MaintenanceRequest.Priority priority);
+    // Open work-queue counts as {priority, under 24h, 1-3 days, over 3 days}, read from the queue index only
+    @Query("SELECT mr.priority, " +
+           "SUM(CASE WHEN mr.createdAt > :dayAgo THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN mr.createdAt <= :dayAgo AND mr.createdAt > :threeDaysAgo THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN mr.createdAt <= :threeDaysAgo THEN 1 ELSE 0 END) " +
+           "FROM MaintenanceRequest mr " +
+           "WHERE mr.apartment.property.manager = :manager AND mr.queueRank IS NOT NULL " +
+           "GROUP BY mr.priority")
+    List<Object[]> countOpenQueueByPriorityAndAge(@Param("manager") User manager,
+                                                  @Param("dayAgo") Instant dayAgo,
+                                                  @Param("threeDaysAgo") Instant threeDaysAgo);
+
+    // Fills queue_rank for rows written before the column existed; later writes keep it current
+    @Modifying
+    @Transactional
+    @Query("UPDATE MaintenanceRequest mr SET mr.queueRank = " +
+           "CASE mr.priority WHEN com.bms.backend.entity.MaintenanceRequest$Priority.HIGH THEN 0 " +
+           "WHEN com.bms.backend.entity.MaintenanceRequest$Priority.LOW THEN 2 ELSE 1 END " +
+           "WHERE mr.queueRank IS NULL AND mr.status NOT IN " +
+           "(com.bms.backend.entity.MaintenanceRequest$Status.RESOLVED, com.bms.backend.entity.MaintenanceRequest$Status.CANCELLED)")
+    int backfillQueueRanks();
+
+    // Duplicate detection candidates: {id, service category id, title, description, created at} of open requests
+    @Query("SELECT mr.id, mr.serviceCategory.id, mr.title, mr.description, mr.createdAt FROM MaintenanceRequest mr " +
+           "WHERE mr.apartment.id = :apartmentId AND mr.queueRank IS NOT NULL AND mr.createdAt >= :since")
+    List<Object[]> findOpenDuplicateCandidates(@Param("apartmentId") UUID apartmentId, @Param("since") Instant since);
 
     // Method for lease details to check if tenant has maintenance requests for apartment
     @Query("SELECT CASE WHEN COUNT(mr) > 0 THEN true ELSE false END FROM MaintenanceRequest mr " +
@@ -184,16 +141,13 @@ public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceR
            "WHERE mr.id = :id")
     Optional<MaintenanceRequest> findByIdWithDetails(@Param("id") UUID id);
 
-    // Method to fetch all maintenance requests with related entities for a manager
-    @Query("SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.apartment a " +
-           "LEFT JOIN FETCH a.property p " +
-           "LEFT JOIN FETCH p.manager " +
-           "LEFT JOIN FETCH mr.photos " +
-           "LEFT JOIN FETCH mr.serviceCategory " +
-           "LEFT JOIN FETCH mr.requester " +
-           "LEFT JOIN FETCH mr.tenant " +
-           "LEFT JOIN FETCH mr.assignedTo " +
-           "WHERE mr.apartment.property.manager = :manager")
-    List<MaintenanceRequest> findByManagerWithDetails(@Param("manager") User manager);
-}
\ No newline at end of file
+    // Portfolio search index rows: id, manager id, building id, apartment id, title
+    String SEARCH_INDEX_SELECT = "SELECT mr.id, p.manager.id, p.id, a.id, mr.title " +
+            "FROM MaintenanceRequest mr JOIN mr.apartment a JOIN a.property p";
+
+    @Query(SEARCH_INDEX_SELECT)
+    List<Object[]> findSearchIndexRows();
+
+    @Query(SEARCH_INDEX_SELECT + " WHERE mr.id = :id")
+    List<Object[]> findSearchIndexRowsById(@Param("id") UUID id);
+}
@@ -0,0 +1,14 @@
+package com.bms.backend.repository;
+
+import com.bms.backend.dto.response.MaintenanceRequestListItemDto;
+
+import java.util.List;
+
+public interface MaintenanceRequestRepositoryCustom {
+
+    /**
+     * Fetch one keyset page of list rows as a flat projection: request columns plus apartment, building,
+     * category and user names, without photos or updates. Returns at most {@code limit} rows.
+     */
+    List<MaintenanceRequestListItemDto> findListPage(MaintenanceListCriteria criteria, int limit);
+}
@@ -0,0 +1,118 @@
+package com.bms.backend.repository;
+
+import com.bms.backend.dto.response.MaintenanceRequestListItemDto;
+import com.bms.backend.entity.MaintenanceRequest;
+import com.bms.backend.util.SearchTerms;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class MaintenanceRequestRepositoryCustomImpl implements MaintenanceRequestRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<MaintenanceRequestListItemDto> findListPage(MaintenanceListCriteria criteria, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MaintenanceRequestListItemDto> query = cb.createQuery(MaintenanceRequestListItemDto.class);
+        Root<MaintenanceRequest> root = query.from(MaintenanceRequest.class);
+
+        Join<Object, Object> apartment = root.join("apartment", JoinType.INNER);
+        Join<Object, Object> building = apartment.join("property", JoinType.LEFT);
+        Join<Object, Object> category = root.join("serviceCategory", JoinType.LEFT);
+        Join<Object, Object> requester = root.join("requester", JoinType.LEFT);
+        Join<Object, Object> tenant = root.join("tenant", JoinType.LEFT);
+        Join<Object, Object> assignee = root.join("assignedTo", JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getManager() != null) {
+            predicates.add(cb.equal(building.get("manager"), criteria.getManager()));
+        } else if (criteria.getParticipantEmail() != null) {
+            predicates.add(cb.or(
+                    cb.equal(tenant.get("email"), criteria.getParticipantEmail()),
+                    cb.equal(requester.get("email"), criteria.getParticipantEmail())));
+        } else if (criteria.getAssignee() != null) {
+            predicates.add(cb.equal(root.get("assignedTo"), criteria.getAssignee()));
+        } else {
+            throw new IllegalArgumentException("Maintenance list scope is required");
+        }
+
+        if (criteria.getStatus() != null) {
+            predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+        }
+        if (criteria.getPriority() != null) {
+            predicates.add(cb.equal(root.get("priority"), criteria.getPriority()));
+        }
+        if (criteria.getServiceCategoryId() != null) {
+            predicates.add(cb.equal(category.get("id"), criteria.getServiceCategoryId()));
+        }
+        if (criteria.getApartmentId() != null) {
+            predicates.add(cb.equal(apartment.get("id"), criteria.getApartmentId()));
+        }
+        SearchTerms search = SearchTerms.of(criteria.getSearchText());
+        if (search != null) {
+            String pattern = search.getPattern();
+            predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("title")), pattern, SearchTerms.LIKE_ESCAPE),
+                    cb.like(cb.lower(root.get("description")), pattern, SearchTerms.LIKE_ESCAPE),
+                    cb.like(cb.lower(apartment.get("unitNumber")), pattern, SearchTerms.LIKE_ESCAPE),
+                    cb.like(cb.lower(category.get("name")), pattern, SearchTerms.LIKE_ESCAPE)));
+        }
+
+        Path<Instant> createdAt = root.get("createdAt");
+        Path<UUID> id = root.get("id");
+        Path<Integer> queueRank = root.get("queueRank");
+        if (criteria.isOpenQueue()) {
+            predicates.add(cb.isNotNull(queueRank));
+            if (criteria.hasCursor()) {
+                Integer rank = criteria.getCursorQueueRank();
+                Instant since = criteria.getCursorCreatedAt();
+                predicates.add(cb.or(
+                        cb.greaterThan(queueRank, rank),
+                        cb.and(cb.equal(queueRank, rank), cb.greaterThan(createdAt, since)),
+                        cb.and(cb.equal(queueRank, rank), cb.equal(createdAt, since),
+                                cb.greaterThan(id, criteria.getCursorId()))));
+            }
+        } else if (criteria.hasCursor()) {
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, criteria.getCursorCreatedAt()),
+                    cb.and(cb.equal(createdAt, criteria.getCursorCreatedAt()), cb.lessThan(id, criteria.getCursorId()))));
+        }
+
+        Expression<?>[] columns = {
+                id, root.get("title"), root.get("description"), root.get("priority"), root.get("status"),
+                apartment.get("id"), apartment.get("unitNumber"), apartment.get("unitType"), building.get("name"),
+                category.get("id"), category.get("name"),
+                requester.get("id"), requester.get("firstName"), requester.get("lastName"), requester.get("role"),
+                tenant.get("id"), tenant.get("firstName"), tenant.get("lastName"), tenant.get("profileImageUrl"),
+                assignee.get("id"), assignee.get("firstName"), assignee.get("lastName"),
+                root.get("managerInitiated"), root.get("scheduledAt"), root.get("submittedAt"),
+                root.get("resolvedAt"), createdAt, root.get("updatedAt")
+        };
+
+        query.select(cb.construct(MaintenanceRequestListItemDto.class, columns))
+                .where(predicates.toArray(new Predicate[0]));
+        if (criteria.isOpenQueue()) {
+            query.orderBy(cb.asc(queueRank), cb.asc(createdAt), cb.asc(id));
+        } else {
+            query.orderBy(cb.desc(createdAt), cb.desc(id));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
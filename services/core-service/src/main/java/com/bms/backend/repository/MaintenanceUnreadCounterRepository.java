@@ -0,0 +1,31 @@
+package com.bms.backend.repository;
+
+import com.bms.backend.entity.MaintenanceUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MaintenanceUnreadCounterRepository extends JpaRepository<MaintenanceUnreadCounter, UUID> {
+
+    @Query("SELECT c.unreadCount FROM MaintenanceUnreadCounter c WHERE c.userId = :userId")
+    Optional<Integer> findUnreadCountByUserId(@Param("userId") UUID userId);
+
+    // Atomic in the database, so concurrent updates never lose an increment. Returns 0 when the user has no row yet.
+    @Transactional
+    @Modifying
+    @Query("UPDATE MaintenanceUnreadCounter c SET c.unreadCount = c.unreadCount + 1, c.updatedAt = :now WHERE c.userId = :userId")
+    int increment(@Param("userId") UUID userId, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MaintenanceUnreadCounter c SET c.unreadCount = 0, c.updatedAt = :now WHERE c.userId = :userId AND c.unreadCount <> 0")
+    int reset(@Param("userId") UUID userId, @Param("now") Instant now);
+}
@@ -1,5 +1,6 @@
 package com.bms.backend.repository;
 
+import com.bms.backend.dto.response.MaintenanceProgressResponse;
 import com.bms.backend.entity.MaintenanceRequest;
 import com.bms.backend.entity.MaintenanceUpdate;
 import com.bms.backend.entity.User;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -33,4 +35,22 @@ public interface MaintenanceUpdateRepository extends JpaRepository<MaintenanceUp
            "ORDER BY mu.createdAt DESC")
     List<MaintenanceUpdate> findRecentUpdatesByTenantEmail(@Param("tenantEmail") String tenantEmail, 
                                                           Pageable pageable);
-}
\ No newline at end of file
+
+    // Timeline rows with the author's name in the same query, newest first, keyset-paginated by (createdAt, id)
+    String TIMELINE_SELECT = "SELECT new com.bms.backend.dto.response.MaintenanceProgressResponse(" +
+            "mu.id, mu.maintenanceRequest.id, mu.updateType, mu.currentStatus, mu.message, mu.notes, " +
+            "u.id, u.firstName, u.lastName, u.email, u.role, mu.createdAt) " +
+            "FROM MaintenanceUpdate mu LEFT JOIN mu.updatedBy u " +
+            "WHERE mu.maintenanceRequest.id = :requestId ";
+
+    @Query(TIMELINE_SELECT + "ORDER BY mu.createdAt DESC, mu.id DESC")
+    List<MaintenanceProgressResponse> findTimeline(@Param("requestId") UUID requestId, Pageable pageable);
+
+    @Query(TIMELINE_SELECT +
+           "AND (mu.createdAt < :createdAt OR (mu.createdAt = :createdAt AND mu.id < :id)) " +
+           "ORDER BY mu.createdAt DESC, mu.id DESC")
+    List<MaintenanceProgressResponse> findTimelineBefore(@Param("requestId") UUID requestId,
+                                                         @Param("createdAt") Instant createdAt,
+                                                         @Param("id") UUID id,
+                                                         Pageable pageable);
+}
@@ -0,0 +1,42 @@
+package com.bms.backend.repository;
+
+import com.bms.backend.entity.User;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Filter for a manager's payment export: every payment on the manager's leases whose due date falls in
+ * [startDate, endDate), optionally narrowed to one building.
+ */
+public class PaymentExportCriteria {
+
+    private final User manager;
+    private final UUID buildingId;
+    private final Instant startDate;
+    private final Instant endDate;
+
+    public PaymentExportCriteria(User manager, UUID buildingId, Instant startDate, Instant endDate) {
+        this.manager = manager;
+        this.buildingId = buildingId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Getters
+    public User getManager() {
+        return manager;
+    }
+
+    public UUID getBuildingId() {
+        return buildingId;
+    }
+
+    public Instant getStartDate() {
+        return startDate;
+    }
+
+    public Instant getEndDate() {
+        return endDate;
+    }
+}
@@ -0,0 +1,79 @@
+package com.bms.backend.repository;
+
+import com.bms.backend.entity.User;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Filter and keyset position for a tenant payment search.
+ * OVERDUE pages are ordered by due date ascending, every other status by creation date descending;
+ * the cursor fields hold the sort value and id of the last row of the previous page.
+ */
+public class PaymentSearchCriteria {
+
+    private final User tenant;
+    private final String status; // ALL, PAID, PENDING, OVERDUE
+    private final UUID connectionId;
+    private final Instant startDate;
+    private final Instant endDate;
+    private final Instant asOf;
+    private Instant cursorValue;
+    private UUID cursorId;
+
+    public PaymentSearchCriteria(User tenant, String status, UUID connectionId,
+                                 Instant startDate, Instant endDate, Instant asOf) {
+        this.tenant = tenant;
+        this.status = status;
+        this.connectionId = connectionId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.asOf = asOf;
+    }
+
+    public boolean isOverdue() {
+        return "OVERDUE".equals(status);
+    }
+
+    public boolean hasCursor() {
+        return cursorValue != null && cursorId != null;
+    }
+
+    public void setCursor(Instant cursorValue, UUID cursorId) {
+        this.cursorValue = cursorValue;
+        this.cursorId = cursorId;
+    }
+
+    // Getters
+    public User getTenant() {
+        return tenant;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public UUID getConnectionId() {
+        return connectionId;
+    }
+
+    public Instant getStartDate() {
+        return startDate;
+    }
+
+    public Instant getEndDate() {
+        return endDate;
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    public Instant getCursorValue() {
+        return cursorValue;
+    }
+
+    public UUID getCursorId() {
+        return cursorId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bms.backend.repository;
+
+import com.bms.backend.dto.response.PaymentExportRowDto;
+import com.bms.backend.entity.PaymentTransaction;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface PaymentTransactionRepositoryCustom {
+
+    /**
+     * Fetch one keyset page of payments matching the criteria, with connection, apartment and building
+     * fetched in the same statement. Returns at most {@code limit} rows.
+     */
+    List<PaymentTransaction> searchPage(PaymentSearchCriteria criteria, int limit);
+
+    /**
+     * Aggregate totals for the criteria date range and connection, ignoring status and cursor.
+     * Each row is {status, count, sum(amount), overdueCount, overdueAmount} grouped by status.
+     */
+    List<Object[]> summarizeByStatus(PaymentSearchCriteria criteria);
+
+    /**
+     * Forward-only stream of export rows ordered by due date, read through a JDBC cursor of
+     * {@code fetchSize} rows. Rows are unmanaged projections, so memory does not grow with the result.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    Stream<PaymentExportRowDto> streamExportRows(PaymentExportCriteria criteria, int fetchSize);
+}
@@ -0,0 +1,176 @@
+package com.bms.backend.repository;
+
+import com.bms.backend.dto.response.PaymentExportRowDto;
+import com.bms.backend.entity.PaymentTransaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.AvailableHints;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class PaymentTransactionRepositoryCustomImpl implements PaymentTransactionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PaymentTransaction> searchPage(PaymentSearchCriteria criteria, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PaymentTransaction> query = cb.createQuery(PaymentTransaction.class);
+        Root<PaymentTransaction> root = query.from(PaymentTransaction.class);
+
+        // Everything convertToDto touches, so a page costs one statement instead of one per row
+        Fetch<Object, Object> connection = root.fetch("connection", JoinType.INNER);
+        connection.fetch("apartment", JoinType.LEFT).fetch("property", JoinType.LEFT);
+
+        List<Predicate> predicates = basePredicates(cb, root, criteria);
+        predicates.add(statusPredicate(cb, root, criteria));
+
+        Path<Instant> sortPath = criteria.isOverdue() ? root.get("dueDate") : root.get("createdAt");
+        Path<UUID> idPath = root.get("id");
+
+        if (criteria.hasCursor()) {
+            Instant value = criteria.getCursorValue();
+            UUID id = criteria.getCursorId();
+            if (criteria.isOverdue()) {
+                predicates.add(cb.or(
+                        cb.greaterThan(sortPath, value),
+                        cb.and(cb.equal(sortPath, value), cb.greaterThan(idPath, id))));
+            } else {
+                predicates.add(cb.or(
+                        cb.lessThan(sortPath, value),
+                        cb.and(cb.equal(sortPath, value), cb.lessThan(idPath, id))));
+            }
+        }
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(criteria.isOverdue()
+                        ? List.of(cb.asc(sortPath), cb.asc(idPath))
+                        : List.of(cb.desc(sortPath), cb.desc(idPath)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Object[]> summarizeByStatus(PaymentSearchCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<PaymentTransaction> root = query.from(PaymentTransaction.class);
+
+        Path<BigDecimal> amount = root.get("amount");
+        Predicate overdue = overduePredicate(cb, root, criteria.getAsOf());
+        Expression<Long> overdueFlag = cb.<Long>selectCase().when(overdue, 1L).otherwise(0L);
+        Expression<BigDecimal> overdueAmount = cb.<BigDecimal>selectCase().when(overdue, amount).otherwise(BigDecimal.ZERO);
+
+        query.multiselect(
+                        root.get("status"),
+                        cb.count(root),
+                        cb.sum(amount),
+                        cb.sum(overdueFlag),
+                        cb.sum(overdueAmount))
+                .where(basePredicates(cb, root, criteria).toArray(new Predicate[0]))
+                .groupBy(root.get("status"));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public Stream<PaymentExportRowDto> streamExportRows(PaymentExportCriteria criteria, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PaymentExportRowDto> query = cb.createQuery(PaymentExportRowDto.class);
+        Root<PaymentTransaction> root = query.from(PaymentTransaction.class);
+
+        Join<Object, Object> connection = root.join("connection", JoinType.INNER);
+        Join<Object, Object> tenant = root.join("tenant", JoinType.INNER);
+        Join<Object, Object> apartment = connection.join("apartment", JoinType.LEFT);
+        Join<Object, Object> building = apartment.join("property", JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(connection.get("manager"), criteria.getManager()));
+        predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), criteria.getStartDate()));
+        predicates.add(cb.lessThan(root.get("dueDate"), criteria.getEndDate()));
+        if (criteria.getBuildingId() != null) {
+            predicates.add(cb.equal(building.get("id"), criteria.getBuildingId()));
+        }
+
+        // Constructor expression: scalar columns only, nothing enters the persistence context
+        query.select(cb.construct(PaymentExportRowDto.class,
+                        root.get("id"),
+                        connection.get("id"),
+                        building.get("name"),
+                        connection.get("propertyName"),
+                        apartment.get("unitNumber"),
+                        tenant.get("id"),
+                        tenant.get("firstName"),
+                        tenant.get("lastName"),
+                        tenant.get("email"),
+                        root.get("dueDate"),
+                        root.get("paymentDate"),
+                        root.get("amount"),
+                        root.get("currency"),
+                        root.get("status"),
+                        root.get("paymentMethod"),
+                        root.get("stripePaymentIntentId")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("dueDate")), cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private List<Predicate> basePredicates(CriteriaBuilder cb, Root<PaymentTransaction> root,
+                                           PaymentSearchCriteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("tenant"), criteria.getTenant()));
+        if (criteria.getConnectionId() != null) {
+            predicates.add(cb.equal(root.get("connection").get("id"), criteria.getConnectionId()));
+        }
+        if (criteria.getStartDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), criteria.getStartDate()));
+        }
+        if (criteria.getEndDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), criteria.getEndDate()));
+        }
+        return predicates;
+    }
+
+    private Predicate statusPredicate(CriteriaBuilder cb, Root<PaymentTransaction> root,
+                                      PaymentSearchCriteria criteria) {
+        switch (criteria.getStatus()) {
+            case "PAID":
+                return cb.equal(root.get("status"), PaymentTransaction.PaymentStatus.PAID);
+            case "PENDING":
+                return cb.equal(root.get("status"), PaymentTransaction.PaymentStatus.PENDING);
+            case "OVERDUE":
+                return overduePredicate(cb, root, criteria.getAsOf());
+            default:
+                return cb.conjunction();
+        }
+    }
+
+    // Pending/failed and past due date
+    private Predicate overduePredicate(CriteriaBuilder cb, Root<PaymentTransaction> root, Instant asOf) {
+        return cb.and(
+                root.get("status").in(PaymentTransaction.PaymentStatus.PENDING, PaymentTransaction.PaymentStatus.FAILED),
+                cb.lessThan(root.get("dueDate"), asOf));
+    }
+}
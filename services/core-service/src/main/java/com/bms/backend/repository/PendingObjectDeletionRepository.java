@@ -0,0 +1,25 @@
+package com.bms.backend.repository;
+
+import com.bms.backend.entity.PendingObjectDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PendingObjectDeletionRepository extends JpaRepository<PendingObjectDeletion, UUID> {
+
+    @Query("SELECT d FROM PendingObjectDeletion d WHERE d.nextAttemptAt <= :now ORDER BY d.nextAttemptAt ASC, d.id ASC")
+    List<PendingObjectDeletion> findDue(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM PendingObjectDeletion d WHERE d.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+}
@@ -2,6 +2,8 @@ package com.bms.backend.repository;
 
 import com.bms.backend.entity.PropertyBuilding;
 import com.bms.backend.entity.User;
+import com.bms.backend.util.SearchTerms;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,19 +14,20 @@ import java.util.UUID;
 
 @Repository
 public interface PropertyBuildingRepository extends JpaRepository<PropertyBuilding, UUID> {
+
+    String RANK_BY_RELEVANCE = "CASE WHEN LOWER(pb.name) = :#{#search.term} THEN 0 " +
+            "WHEN LOWER(pb.name) LIKE :#{#search.prefix} ESCAPE '!' THEN 1 " +
+            "WHEN LOWER(pb.address) LIKE :#{#search.prefix} ESCAPE '!' THEN 2 ELSE 3 END, pb.name";
     
     List<PropertyBuilding> findByManager(User manager);
     
+    // Exact matches first, then prefix matches; see SearchTerms
     @Query("SELECT pb FROM PropertyBuilding pb WHERE pb.manager = :manager " +
-           "AND (LOWER(pb.name) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(pb.address) LIKE LOWER(CONCAT('%', :searchText, '%')))")
-    List<PropertyBuilding> findByManagerAndSearchText(@Param("manager") User manager, 
-                                                     @Param("searchText") String searchText);
-    
-    @Query("SELECT pb FROM PropertyBuilding pb WHERE " +
-           "LOWER(pb.name) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(pb.address) LIKE LOWER(CONCAT('%', :searchText, '%'))")
-    List<PropertyBuilding> findByGlobalSearch(@Param("searchText") String searchText);
+           "AND (LOWER(pb.name) LIKE :#{#search.pattern} ESCAPE '!' " +
+           "OR LOWER(pb.address) LIKE :#{#search.pattern} ESCAPE '!') " +
+           "ORDER BY " + RANK_BY_RELEVANCE)
+    List<PropertyBuilding> findByManagerAndSearchText(@Param("manager") User manager,
+                                                     @Param("search") SearchTerms search, Pageable pageable);
     
     List<PropertyBuilding> findByPropertyType(String propertyType);
     
@@ -33,7 +36,17 @@ public interface PropertyBuildingRepository extends JpaRepository<PropertyBuildi
     
     // Additional method needed by PropertyBuildingService
     @Query("SELECT pb FROM PropertyBuilding pb WHERE " +
-           "LOWER(pb.name) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "OR LOWER(pb.address) LIKE LOWER(CONCAT('%', :searchText, '%'))")
-    List<PropertyBuilding> findBySearchText(@Param("searchText") String searchText);
-}
\ No newline at end of file
+           "LOWER(pb.name) LIKE :#{#search.pattern} ESCAPE '!' " +
+           "OR LOWER(pb.address) LIKE :#{#search.pattern} ESCAPE '!' " +
+           "ORDER BY " + RANK_BY_RELEVANCE)
+    List<PropertyBuilding> findBySearchText(@Param("search") SearchTerms search, Pageable pageable);
+
+    // Portfolio search index rows: id, manager id, name, address
+    String SEARCH_INDEX_SELECT = "SELECT pb.id, pb.manager.id, pb.name, pb.address FROM PropertyBuilding pb";
+
+    @Query(SEARCH_INDEX_SELECT)
+    List<Object[]> findSearchIndexRows();
+
+    @Query(SEARCH_INDEX_SELECT + " WHERE pb.id = :id")
+    List<Object[]> findSearchIndexRowsById(@Param("id") UUID id);
+}
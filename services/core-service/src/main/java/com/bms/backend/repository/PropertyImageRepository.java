@@ -2,7 +2,9 @@ package com.bms.backend.repository;
 
 import com.bms.backend.entity.PropertyBuilding;
 import com.bms.backend.entity.PropertyImage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -28,4 +30,25 @@ public interface PropertyImageRepository extends JpaRepository<PropertyImage, UU
     
     @Query("SELECT COUNT(pi) FROM PropertyImage pi WHERE pi.property.id = :propertyId")
     Long countByPropertyId(@Param("propertyId") UUID propertyId);
-}
\ No newline at end of file
+
+    // Blob offload migration: rows still holding base64 data as {imageId, managerId, imageType}, in id order
+    @Query("SELECT pi.id, m.id, pi.imageType FROM PropertyImage pi JOIN pi.property p JOIN p.manager m " +
+           "WHERE pi.imageData IS NOT NULL AND pi.id > :afterId ORDER BY pi.id")
+    List<Object[]> findPendingOffload(@Param("afterId") UUID afterId, Pageable pageable);
+
+    @Query("SELECT pi.imageData FROM PropertyImage pi WHERE pi.id = :id")
+    Optional<String> findImageDataById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE PropertyImage pi SET pi.imageData = NULL, pi.storageKey = :storageKey, pi.imageUrl = :url, " +
+           "pi.imageSize = COALESCE(CAST(:size AS Long), pi.imageSize), " +
+           "pi.contentHash = COALESCE(CAST(:contentHash AS String), pi.contentHash) " +
+           "WHERE pi.id = :id AND pi.imageData IS NOT NULL")
+    int markOffloaded(@Param("id") UUID id, @Param("storageKey") String storageKey, @Param("url") String url,
+                      @Param("size") Long size, @Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query("UPDATE PropertyImage pi SET pi.thumbnailUrl = :thumbnailUrl, pi.mediumUrl = :mediumUrl WHERE pi.id = :id")
+    int setDerivatives(@Param("id") UUID id, @Param("thumbnailUrl") String thumbnailUrl,
+                       @Param("mediumUrl") String mediumUrl);
+}
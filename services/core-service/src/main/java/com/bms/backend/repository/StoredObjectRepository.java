@@ -0,0 +1,32 @@
+package com.bms.backend.repository;
+
+import com.bms.backend.entity.StoredObject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StoredObjectRepository extends JpaRepository<StoredObject, UUID> {
+
+    Optional<StoredObject> findByOwnerIdAndFolderAndContentHash(UUID ownerId, String folder, String contentHash);
+
+    boolean existsByObjectKey(String objectKey);
+
+    // Only objects that are still referenced can gain a reference; a zero count means a delete is under way
+    @Modifying
+    @Query("UPDATE StoredObject o SET o.referenceCount = o.referenceCount + 1 WHERE o.id = :id AND o.referenceCount > 0")
+    int addReference(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE StoredObject o SET o.referenceCount = o.referenceCount - 1 WHERE o.objectKey = :key AND o.referenceCount > 1")
+    int releaseShared(@Param("key") String objectKey);
+
+    @Modifying
+    @Query("DELETE FROM StoredObject o WHERE o.objectKey = :key AND o.referenceCount <= 1")
+    int removeLastReference(@Param("key") String objectKey);
+}
@@ -2,11 +2,14 @@ package com.bms.backend.repository;
 
 import com.bms.backend.entity.TenantPropertyConnection;
 import com.bms.backend.entity.User;
+import com.bms.backend.util.SearchTerms;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,13 +24,23 @@ public interface TenantPropertyConnectionRepository extends JpaRepository<Tenant
 
     List<TenantPropertyConnection> findByTenantAndIsActive(User tenant, Boolean isActive);
 
-    @Query("SELECT tpc FROM TenantPropertyConnection tpc WHERE tpc.manager = :manager AND tpc.isActive = true AND " +
-           "(LOWER(tpc.tenant.firstName) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-           "LOWER(tpc.tenant.lastName) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-           "LOWER(tpc.tenant.email) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-           "LOWER(tpc.propertyName) LIKE LOWER(CONCAT('%', :searchText, '%')))")
-    List<TenantPropertyConnection> findByManagerAndSearchText(@Param("manager") User manager, 
-                                                              @Param("searchText") String searchText);
+    // Exact matches first, then prefix matches; see SearchTerms
+    @Query("SELECT tpc FROM TenantPropertyConnection tpc JOIN tpc.tenant t WHERE tpc.manager = :manager AND tpc.isActive = true AND " +
+           "(LOWER(t.firstName) LIKE :#{#search.pattern} ESCAPE '!' OR " +
+           "LOWER(t.lastName) LIKE :#{#search.pattern} ESCAPE '!' OR " +
+           "LOWER(t.email) LIKE :#{#search.pattern} ESCAPE '!' OR " +
+           "LOWER(tpc.propertyName) LIKE :#{#search.pattern} ESCAPE '!') " +
+           "ORDER BY CASE WHEN LOWER(t.email) = :#{#search.term} " +
+           "OR LOWER(t.lastName) = :#{#search.term} OR LOWER(t.firstName) = :#{#search.term} THEN 0 " +
+           "WHEN LOWER(t.firstName) LIKE :#{#search.prefix} ESCAPE '!' OR LOWER(t.lastName) LIKE :#{#search.prefix} ESCAPE '!' " +
+           "OR LOWER(t.email) LIKE :#{#search.prefix} ESCAPE '!' THEN 1 " +
+           "WHEN LOWER(tpc.propertyName) LIKE :#{#search.prefix} ESCAPE '!' THEN 2 ELSE 3 END, t.lastName, t.firstName")
+    List<TenantPropertyConnection> findByManagerAndSearchText(@Param("manager") User manager,
+                                                              @Param("search") SearchTerms search, Pageable pageable);
+
+    @Query("SELECT tpc FROM TenantPropertyConnection tpc JOIN FETCH tpc.tenant JOIN FETCH tpc.manager " +
+           "LEFT JOIN FETCH tpc.apartment WHERE tpc.id IN :ids")
+    List<TenantPropertyConnection> findAllWithPartiesByIdIn(@Param("ids") Collection<UUID> ids);
 
     boolean existsByTenantAndPropertyNameAndIsActive(User tenant, String propertyName, Boolean isActive);
 
@@ -38,4 +51,16 @@ public interface TenantPropertyConnectionRepository extends JpaRepository<Tenant
     @Query("SELECT tpc FROM TenantPropertyConnection tpc WHERE tpc.apartment.property = :property AND tpc.isActive = :isActive ORDER BY tpc.createdAt DESC")
     List<TenantPropertyConnection> findByPropertyAndIsActiveOrderByCreatedAtDesc(@Param("property") com.bms.backend.entity.PropertyBuilding property,
                                                                                  @Param("isActive") Boolean isActive);
-}
\ No newline at end of file
+
+    // Portfolio search index rows for active connections: id, manager id, building id, apartment id,
+    // tenant first name, last name, email, phone, property name
+    String SEARCH_INDEX_SELECT = "SELECT tpc.id, tpc.manager.id, p.id, a.id, t.firstName, t.lastName, t.email, t.phone, " +
+            "tpc.propertyName FROM TenantPropertyConnection tpc JOIN tpc.tenant t " +
+            "LEFT JOIN tpc.apartment a LEFT JOIN a.property p WHERE tpc.isActive = true";
+
+    @Query(SEARCH_INDEX_SELECT)
+    List<Object[]> findSearchIndexRows();
+
+    @Query(SEARCH_INDEX_SELECT + " AND tpc.id = :id")
+    List<Object[]> findSearchIndexRowsById(@Param("id") UUID id);
+}
@@ -3,6 +3,8 @@ package com.bms.backend.repository;
 import com.bms.backend.entity.User;
 import com.bms.backend.enums.AccountStatus;
 import com.bms.backend.enums.UserRole;
+import com.bms.backend.util.SearchTerms;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -57,10 +59,16 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("SELECT u FROM User u WHERE u.lastLogin IS NULL AND u.createdAt < :cutoffDate")
     List<User> findNeverLoggedInUsersOlderThan(@Param("cutoffDate") Instant cutoffDate);
     
+    // Exact matches first, then prefix matches; see SearchTerms
     @Query("SELECT u FROM User u WHERE u.role = 'TENANT' AND u.accountStatus = 'ACTIVE' AND " +
-           "(LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-           "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-           "u.phone LIKE CONCAT('%', :searchText, '%'))")
-    List<User> findTenantsBySearchText(@Param("searchText") String searchText);
+           "(LOWER(u.firstName) LIKE :#{#search.pattern} ESCAPE '!' OR " +
+           "LOWER(u.lastName) LIKE :#{#search.pattern} ESCAPE '!' OR " +
+           "LOWER(u.email) LIKE :#{#search.pattern} ESCAPE '!' OR " +
+           "u.phone LIKE :#{#search.pattern} ESCAPE '!') " +
+           "ORDER BY CASE WHEN LOWER(u.email) = :#{#search.term} OR u.phone = :#{#search.term} " +
+           "OR LOWER(u.lastName) = :#{#search.term} OR LOWER(u.firstName) = :#{#search.term} THEN 0 " +
+           "WHEN LOWER(u.firstName) LIKE :#{#search.prefix} ESCAPE '!' OR LOWER(u.lastName) LIKE :#{#search.prefix} ESCAPE '!' " +
+           "OR LOWER(u.email) LIKE :#{#search.prefix} ESCAPE '!' OR u.phone LIKE :#{#search.prefix} ESCAPE '!' THEN 1 " +
+           "ELSE 2 END, u.lastName, u.firstName")
+    List<User> findTenantsBySearchText(@Param("search") SearchTerms search, Pageable pageable);
 }
\ No newline at end of file
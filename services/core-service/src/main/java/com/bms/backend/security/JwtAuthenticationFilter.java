@@ -12,8 +12,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -27,6 +30,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
     @Autowired
     private JwtService jwtService;
 
@@ -94,7 +99,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                             // Set authentication in security context
-                            SecurityContextHolder.getContext().setAuthentication(authToken);
+                            SecurityContext context = SecurityContextHolder.createEmptyContext();
+                            context.setAuthentication(authToken);
+                            SecurityContextHolder.setContext(context);
+                            // Kept on the request so async dispatches (streamed responses, SSE) are authorized
+                            // with the same authentication; this filter does not run again for them
+                            securityContextRepository.saveContext(context, request, response);
 
                             logger.debug("Successfully authenticated user: {} with role: {}",
                                     user.getEmail(), user.getRole());
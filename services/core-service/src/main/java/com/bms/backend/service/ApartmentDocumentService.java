@@ -0,0 +1,219 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.response.ApartmentDocumentResponse;
+import com.bms.backend.entity.ApartmentDocument;
+import com.bms.backend.entity.User;
+import com.bms.backend.repository.ApartmentDocumentRepository;
+import com.bms.backend.repository.ApartmentRepository;
+import com.bms.backend.util.MultipartStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Document vault of a unit: leases, IDs and other files kept in apartment_documents.
+ *
+ * Listings and lookups read metadata only (name, type, size, hash), never the document_data column. Content is
+ * uploaded as a streamed multipart body straight into object storage and served by id through the file proxy, so
+ * bytes are only read when a document is actually opened. A document still held as base64 in its row is moved to
+ * storage the first time it is opened, the same way the background blob migration does it.
+ */
+@Service
+public class ApartmentDocumentService {
+
+    private static final String DOCUMENT_TYPE_FIELD = "documentType";
+    private static final String DESCRIPTION_FIELD = "description";
+    private static final String FILE_FIELD = "file";
+
+    private static final int MAX_FIELD_BYTES = 255;
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    @Autowired
+    private ApartmentDocumentRepository apartmentDocumentRepository;
+
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+
+    @Autowired
+    private StreamingUploadService streamingUploadService;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Autowired
+    private BlobOffloadService blobOffloadService;
+
+    @Autowired
+    private FileProxyService fileProxyService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public List<ApartmentDocumentResponse> listDocuments(UUID apartmentId, User manager) {
+        checkManaged(apartmentId, manager);
+        return apartmentDocumentRepository.findActiveMetadataByApartmentId(apartmentId);
+    }
+
+    public Optional<ApartmentDocumentResponse> getDocument(UUID apartmentId, UUID documentId, User manager) {
+        checkManaged(apartmentId, manager);
+        return apartmentDocumentRepository.findActiveMetadataById(documentId, apartmentId);
+    }
+
+    /**
+     * Stores the file of a multipart body and records it for the unit. The optional {@code documentType} and
+     * {@code description} fields must come before the {@code file} field; anything after it is ignored.
+     */
+    public ApartmentDocumentResponse uploadDocument(UUID apartmentId, String requestContentType, InputStream body,
+                                                    User manager) throws IOException {
+        checkManaged(apartmentId, manager);
+
+        MultipartStream multipart = streamingUploadService.open(requestContentType, body);
+        String documentType = null;
+        String description = null;
+        MultipartStream.Part part;
+        while ((part = multipart.nextPart()) != null) {
+            if (DOCUMENT_TYPE_FIELD.equals(part.getName())) {
+                documentType = blankToNull(part.readString(MAX_FIELD_BYTES));
+            } else if (DESCRIPTION_FIELD.equals(part.getName())) {
+                description = blankToNull(part.readString(MAX_FIELD_BYTES));
+            } else if (FILE_FIELD.equals(part.getName())) {
+                return storeDocument(apartmentId, part, documentType, description, manager);
+            }
+        }
+        throw new IllegalArgumentException("No file in the request");
+    }
+
+    private ApartmentDocumentResponse storeDocument(UUID apartmentId, MultipartStream.Part part, String documentType,
+                                                    String description, User manager) throws IOException {
+        if (part.getFileName() == null || part.getFileName().isBlank()) {
+            throw new IllegalArgumentException("File name is required");
+        }
+        S3Service.StoredFile stored = streamingUploadService.store(part, manager.getId(), S3Service.FileType.DOCUMENT);
+
+        ApartmentDocument document = new ApartmentDocument();
+        document.setApartment(apartmentRepository.getReferenceById(apartmentId));
+        document.setDocumentName(part.getFileName());
+        document.setDocumentType(documentType);
+        document.setDocumentUrl(stored.getUrl());
+        document.setStorageKey(stored.getKey());
+        document.setContentHash(stored.getContentHash());
+        document.setMimeType(stored.getContentType());
+        document.setFileSize(stored.getSize());
+        document.setDescription(description);
+        document.setUploadedBy(manager.getId());
+
+        ApartmentDocument saved;
+        try {
+            saved = apartmentDocumentRepository.save(document);
+        } catch (RuntimeException e) {
+            s3Service.deleteFile(stored.getUrl());
+            throw e;
+        }
+        return new ApartmentDocumentResponse(saved.getId(), saved.getDocumentName(), saved.getDocumentType(),
+                saved.getMimeType(), saved.getFileSize(), saved.getContentHash(), saved.getDescription(),
+                saved.getDocumentUrl(), saved.getUploadedBy(), saved.getUploadedAt());
+    }
+
+    /**
+     * Content of one document, or null if the document or its bytes do not exist. Documents in this bucket are
+     * proxied (or, with {@code redirect}, handed out as a download URL); documents kept elsewhere are redirected to.
+     */
+    public DocumentContent getContent(UUID apartmentId, UUID documentId, User manager, boolean redirect,
+                                      String ifNoneMatch, String range) throws IOException {
+        checkManaged(apartmentId, manager);
+        Optional<ApartmentDocumentResponse> document = apartmentDocumentRepository.findActiveMetadataById(documentId, apartmentId);
+        if (document.isEmpty()) {
+            return null;
+        }
+
+        String url = document.get().getDocumentUrl();
+        if (url == null) {
+            url = offload(document.get(), apartmentId, manager);
+            if (url == null) {
+                return null;
+            }
+        }
+
+        if (!isStored(url)) {
+            return new DocumentContent(null, url);
+        }
+        if (redirect) {
+            return new DocumentContent(null, s3Service.getDownloadUrl(url).getUrl());
+        }
+        FileProxyService.ProxiedFile file = fileProxyService.fetch(url, ifNoneMatch, range);
+        return file != null ? new DocumentContent(file, null) : null;
+    }
+
+    // Moves a document still held as base64 into storage; returns its URL, or null if the row has no data
+    private String offload(ApartmentDocumentResponse document, UUID apartmentId, User manager) throws IOException {
+        Optional<String> data = apartmentDocumentRepository.findDocumentDataById(document.getId());
+        if (data.isEmpty() || data.get().isBlank()) {
+            return null;
+        }
+
+        UUID ownerId = document.getUploadedBy() != null ? document.getUploadedBy() : manager.getId();
+        String contentType = document.getMimeType() != null ? document.getMimeType() : DEFAULT_CONTENT_TYPE;
+        BlobOffloadService.StoredBlob blob = blobOffloadService.store(data.get(), ownerId,
+                S3Service.FileType.DOCUMENT, contentType);
+        Integer updated = transactionTemplate.execute(status -> apartmentDocumentRepository.markOffloaded(
+                document.getId(), blob.getKey(), blob.getUrl(), blob.getSize(), blob.getSha256()));
+        if (updated != null && updated > 0) {
+            return blob.getUrl();
+        }
+
+        // Moved concurrently, e.g. by the background migration; use that copy instead of ours
+        if (!blob.isReference()) {
+            s3Service.deleteFile(blob.getUrl());
+        }
+        return apartmentDocumentRepository.findActiveMetadataById(document.getId(), apartmentId)
+                .map(ApartmentDocumentResponse::getDocumentUrl)
+                .orElse(null);
+    }
+
+    private boolean isStored(String url) {
+        try {
+            s3Service.getKeyFromUrl(url);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void checkManaged(UUID apartmentId, User manager) {
+        if (!apartmentRepository.isManagedBy(apartmentId, manager.getId())) {
+            throw new IllegalArgumentException("Apartment not found or not authorized");
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Either the proxied file or a URL to send the client to.
+     */
+    public static final class DocumentContent {
+        private final FileProxyService.ProxiedFile file;
+        private final String redirectUrl;
+
+        private DocumentContent(FileProxyService.ProxiedFile file, String redirectUrl) {
+            this.file = file;
+            this.redirectUrl = redirectUrl;
+        }
+
+        public FileProxyService.ProxiedFile getFile() {
+            return file;
+        }
+
+        public String getRedirectUrl() {
+            return redirectUrl;
+        }
+    }
+}
@@ -5,10 +5,13 @@ import com.bms.backend.dto.request.UpdateApartmentRequest;
 import com.bms.backend.entity.Apartment;
 import com.bms.backend.entity.PropertyBuilding;
 import com.bms.backend.entity.User;
+import com.bms.backend.repository.ApartmentDocumentRepository;
 import com.bms.backend.repository.ApartmentRepository;
 import com.bms.backend.repository.PropertyBuildingRepository;
+import com.bms.backend.util.SearchTerms;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -33,6 +36,21 @@ public class ApartmentService {
     @Autowired
     private S3Service s3Service;
 
+    @Autowired
+    private PortfolioSearchService portfolioSearchService;
+
+    @Autowired
+    private ParallelUploadService parallelUploadService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ObjectDeletionService objectDeletionService;
+
+    @Autowired
+    private ApartmentDocumentRepository apartmentDocumentRepository;
+
     public Apartment createApartment(ApartmentRequest request, User manager) {
         Optional<PropertyBuilding> property = propertyBuildingRepository.findById(request.getPropertyId());
         
@@ -92,15 +110,24 @@ public class ApartmentService {
         apartment.setCreatedAt(Instant.now());
         apartment.setUpdatedAt(Instant.now());
 
-        return apartmentRepository.save(apartment);
+        Apartment savedApartment = apartmentRepository.save(apartment);
+        portfolioSearchService.apartmentChanged(savedApartment.getId());
+        if (savedApartment.getImages() != null) {
+            imageDerivativeService.apartmentImagesChanged(savedApartment.getId());
+        }
+        return savedApartment;
     }
 
     public List<Apartment> getApartmentsByManager(User manager) {
         return apartmentRepository.findByPropertyManager(manager);
     }
 
-    public List<Apartment> searchApartmentsByManager(User manager, String searchText) {
-        return apartmentRepository.findByManagerAndSearchText(manager, searchText);
+    public List<Apartment> searchApartmentsByManager(User manager, String searchText, Integer limit) {
+        SearchTerms search = SearchTerms.of(searchText);
+        if (search == null) {
+            return apartmentRepository.findByPropertyManager(manager);
+        }
+        return apartmentRepository.findByManagerAndSearchText(manager, search, SearchTerms.limit(limit));
     }
 
     public List<Apartment> getApartmentsByProperty(UUID propertyId, User manager) {
@@ -165,6 +192,8 @@ public class ApartmentService {
                         new com.fasterxml.jackson.core.type.TypeReference<java.util.List<String>>() {}
                     );
                     apartment.setImageUrls(imageList);
+                    apartment.setThumbnailUrls(imageDerivativeService.withFallback(imageList, apartment.getThumbnailImages()));
+                    apartment.setMediumUrls(imageDerivativeService.withFallback(imageList, apartment.getMediumImages()));
                 } catch (Exception e) {
                     // If deserialization fails, leave imageUrls as null
                 }
@@ -196,6 +225,7 @@ public class ApartmentService {
         return apartmentOpt;
     }
 
+    @Transactional
     public Apartment updateApartment(UUID id, UpdateApartmentRequest request, User manager) {
         Optional<Apartment> existingApartment = apartmentRepository.findById(id);
 
@@ -257,18 +287,11 @@ public class ApartmentService {
             List<String> imagesToDelete = new java.util.ArrayList<>(existingImageUrls);
             imagesToDelete.removeAll(request.getImages());
 
-            // Delete removed images from S3
-            for (String imageUrl : imagesToDelete) {
-                try {
-                    s3Service.deleteFile(imageUrl);
-                    System.out.println("✅ Deleted image from S3: " + imageUrl);
-                } catch (Exception e) {
-                    // Log error but continue - image might not exist in S3
-                    System.err.println("Failed to delete image from S3: " + imageUrl + " - " + e.getMessage());
-                }
-            }
+            // Removed images are deleted from S3 after commit
+            objectDeletionService.deleteImagesLater(imagesToDelete);
 
-            // Update with new images
+            // Update with new images, keeping the variants of images that stay
+            imageDerivativeService.alignApartmentVariants(apartment, request.getImages());
             if (request.getImages().isEmpty()) {
                 // Empty array means remove all images
                 apartment.setImages(null);
@@ -288,9 +311,15 @@ public class ApartmentService {
 
         apartment.setUpdatedAt(Instant.now());
 
-        return apartmentRepository.save(apartment);
+        Apartment savedApartment = apartmentRepository.save(apartment);
+        portfolioSearchService.apartmentChanged(id);
+        if (request.getImages() != null && !request.getImages().isEmpty()) {
+            imageDerivativeService.apartmentImagesChanged(id);
+        }
+        return savedApartment;
     }
 
+    @Transactional
     public void deleteApartment(UUID id, User manager) {
         Optional<Apartment> apartment = apartmentRepository.findById(id);
 
@@ -301,27 +330,8 @@ public class ApartmentService {
 
         Apartment apt = apartment.get();
 
-        // Delete all images from S3 before deleting the apartment
-        if (apt.getImages() != null && !apt.getImages().trim().isEmpty()) {
-            try {
-                com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                List<String> imageUrls = mapper.readValue(
-                    apt.getImages(),
-                    new com.fasterxml.jackson.core.type.TypeReference<java.util.List<String>>() {}
-                );
-
-                for (String imageUrl : imageUrls) {
-                    try {
-                        s3Service.deleteFile(imageUrl);
-                        System.out.println("✅ Deleted apartment image from S3: " + imageUrl);
-                    } catch (Exception e) {
-                        System.err.println("Failed to delete apartment image from S3: " + imageUrl + " - " + e.getMessage());
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Failed to deserialize apartment images for deletion: " + e.getMessage());
-            }
-        }
+        // Images and documents are deleted from S3 after commit
+        scheduleObjectDeletion(apt);
 
         // Delete all tenant connections for this apartment
         List<com.bms.backend.entity.TenantPropertyConnection> connections =
@@ -333,6 +343,7 @@ public class ApartmentService {
 
         // Then delete the apartment
         apartmentRepository.deleteById(id);
+        portfolioSearchService.apartmentChanged(id);
     }
 
     public Apartment assignTenant(UUID apartmentId, String tenantName, String tenantEmail, String tenantPhone, User manager) {
@@ -350,7 +361,9 @@ public class ApartmentService {
         apartment.setOccupancyStatus("OCCUPIED");
         apartment.setUpdatedAt(Instant.now());
 
-        return apartmentRepository.save(apartment);
+        Apartment savedApartment = apartmentRepository.save(apartment);
+        portfolioSearchService.apartmentChanged(apartmentId);
+        return savedApartment;
     }
 
     public Apartment removeTenant(UUID apartmentId, User manager) {
@@ -371,6 +384,7 @@ public class ApartmentService {
             if (connection.getIsActive()) {
                 connection.setIsActive(false);
                 connectionRepository.save(connection);
+                portfolioSearchService.tenantConnectionChanged(connection.getId());
             }
         }
 
@@ -381,7 +395,9 @@ public class ApartmentService {
         apartment.setOccupancyStatus("VACANT");
         apartment.setUpdatedAt(Instant.now());
 
-        return apartmentRepository.save(apartment);
+        Apartment savedApartment = apartmentRepository.save(apartment);
+        portfolioSearchService.apartmentChanged(apartmentId);
+        return savedApartment;
     }
     
     public Apartment uploadApartmentImages(UUID apartmentId, List<org.springframework.web.multipart.MultipartFile> images, User manager) {
@@ -393,24 +409,50 @@ public class ApartmentService {
         }
 
         Apartment apartment = existingApartment.get();
-        List<String> imageUrls = new java.util.ArrayList<>();
 
-        // Upload each image to S3
-        for (org.springframework.web.multipart.MultipartFile image : images) {
-            try {
-                String imageUrl = s3Service.uploadFile(image, manager.getId(), S3Service.FileType.APARTMENT);
-                imageUrls.add(imageUrl);
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to upload image: " + e.getMessage());
-            }
-        }
+        // Upload all images concurrently; none are kept if any fails
+        List<ParallelUploadService.UploadedFile> uploaded =
+                parallelUploadService.uploadAll(images, manager.getId(), S3Service.FileType.APARTMENT);
+        List<String> imageUrls = uploaded.stream().map(ParallelUploadService.UploadedFile::getUrl).toList();
 
-        // Convert image URLs to JSON array string
+        // Convert image URLs to JSON array string; variants are generated in the background
         String imagesJson = new com.fasterxml.jackson.databind.ObjectMapper().valueToTree(imageUrls).toString();
+        imageDerivativeService.alignApartmentVariants(apartment, imageUrls);
         apartment.setImages(imagesJson);
         apartment.setUpdatedAt(Instant.now());
 
-        return apartmentRepository.save(apartment);
+        Apartment savedApartment;
+        try {
+            savedApartment = apartmentRepository.save(apartment);
+        } catch (RuntimeException e) {
+            parallelUploadService.deleteAll(uploaded);
+            throw e;
+        }
+        imageDerivativeService.apartmentImagesChanged(apartmentId);
+        return savedApartment;
+    }
+
+    /**
+     * Records the unit's images and documents for deletion from S3 once the unit's rows are gone.
+     * Used for the unit itself and for every unit of a building being deleted.
+     */
+    public void scheduleObjectDeletion(Apartment apartment) {
+        if (apartment.getImages() != null && !apartment.getImages().trim().isEmpty()) {
+            try {
+                com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
+                List<String> imageUrls = mapper.readValue(
+                    apartment.getImages(),
+                    new com.fasterxml.jackson.core.type.TypeReference<java.util.List<String>>() {}
+                );
+                objectDeletionService.deleteImagesLater(imageUrls);
+            } catch (Exception e) {
+                System.err.println("Failed to deserialize apartment images for deletion: " + e.getMessage());
+            }
+        }
+        // URLs only; loading the document entities would read every document_data blob
+        if (apartment.getId() != null) {
+            objectDeletionService.deleteLater(apartmentDocumentRepository.findDocumentUrlsByApartmentId(apartment.getId()));
+        }
     }
 
     /**
@@ -0,0 +1,156 @@
+package com.bms.backend.service;
+
+import com.bms.backend.repository.ApartmentDocumentRepository;
+import com.bms.backend.repository.MaintenanceRequestPhotoRepository;
+import com.bms.backend.repository.PropertyImageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Background migration of base64 columns (maintenance_request_photos.photo_data, property_images.image_data,
+ * apartment_documents.document_data) into object storage. Columns holding an http(s) URL instead of base64 only
+ * have it moved to the URL column.
+ *
+ * Rows are walked in id order in small batches. Each row is uploaded, then updated in its own short
+ * transaction that sets the storage reference and nulls the blob column. Migrated rows drop out of the
+ * pending query, so a restart resumes where the last run stopped. A row that fails is logged and skipped
+ * until the next run.
+ */
+@Service
+public class BlobMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobMigrationService.class);
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Autowired
+    private MaintenanceRequestPhotoRepository maintenanceRequestPhotoRepository;
+
+    @Autowired
+    private PropertyImageRepository propertyImageRepository;
+
+    @Autowired
+    private ApartmentDocumentRepository apartmentDocumentRepository;
+
+    @Autowired
+    private BlobOffloadService blobOffloadService;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.storage.blob-migration.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.storage.blob-migration.batch-size:50}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @FunctionalInterface
+    private interface OffloadUpdate {
+        int apply(UUID id, String storageKey, String url, Long size, String contentHash);
+    }
+
+    @Scheduled(initialDelayString = "${app.storage.blob-migration.initial-delay-ms:60000}",
+               fixedDelayString = "${app.storage.blob-migration.interval-ms:300000}")
+    public void runScheduledMigration() {
+        if (enabled) {
+            migratePending();
+        }
+    }
+
+    /**
+     * Moves every row still holding base64 data. Returns the number of rows migrated,
+     * or 0 if a migration is already running.
+     */
+    public int migratePending() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int migrated = migrateTable("maintenance_request_photos",
+                    maintenanceRequestPhotoRepository::findPendingOffload,
+                    maintenanceRequestPhotoRepository::findPhotoDataById,
+                    maintenanceRequestPhotoRepository::markOffloaded,
+                    S3Service.FileType.MAINTENANCE, "image/jpeg");
+            migrated += migrateTable("property_images",
+                    propertyImageRepository::findPendingOffload,
+                    propertyImageRepository::findImageDataById,
+                    propertyImageRepository::markOffloaded,
+                    S3Service.FileType.PROPERTY, "image/jpeg");
+            migrated += migrateTable("apartment_documents",
+                    apartmentDocumentRepository::findPendingOffload,
+                    apartmentDocumentRepository::findDocumentDataById,
+                    apartmentDocumentRepository::markOffloaded,
+                    S3Service.FileType.DOCUMENT, "application/octet-stream");
+            return migrated;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Pending rows are {id, ownerId[, contentType]}
+    private int migrateTable(String table,
+                             BiFunction<UUID, Pageable, List<Object[]>> pendingRows,
+                             Function<UUID, Optional<String>> blobLoader,
+                             OffloadUpdate offloadUpdate,
+                             S3Service.FileType fileType,
+                             String defaultContentType) {
+        int migrated = 0;
+        int failed = 0;
+        UUID afterId = FIRST_ID;
+
+        List<Object[]> batch = pendingRows.apply(afterId, PageRequest.of(0, batchSize));
+        while (!batch.isEmpty()) {
+            for (Object[] row : batch) {
+                UUID id = (UUID) row[0];
+                afterId = id;
+                UUID ownerId = row[1] != null ? (UUID) row[1] : id;
+                String contentType = row.length > 2 && row[2] != null ? (String) row[2] : defaultContentType;
+
+                try {
+                    // Blobs are loaded one row at a time so a batch never holds more than one in memory
+                    Optional<String> data = blobLoader.apply(id);
+                    if (data.isEmpty() || data.get().isBlank()) {
+                        continue;
+                    }
+                    BlobOffloadService.StoredBlob blob = blobOffloadService.store(data.get(), ownerId, fileType, contentType);
+                    Integer updated = transactionTemplate.execute(status -> offloadUpdate.apply(
+                            id, blob.getKey(), blob.getUrl(), blob.getSize(), blob.getSha256()));
+                    if (updated != null && updated > 0) {
+                        migrated++;
+                    } else if (!blob.isReference()) {
+                        // Row was deleted or migrated concurrently; don't leave an orphan object behind
+                        s3Service.deleteFile(blob.getUrl());
+                    }
+                } catch (Exception e) {
+                    failed++;
+                    logger.warn("Failed to migrate {} row {} to object storage: {}", table, id, e.getMessage());
+                }
+            }
+            batch = pendingRows.apply(afterId, PageRequest.of(0, batchSize));
+        }
+
+        if (migrated > 0 || failed > 0) {
+            logger.info("Blob migration for {}: {} rows moved to object storage, {} failed", table, migrated, failed);
+        }
+        return migrated;
+    }
+}
@@ -0,0 +1,220 @@
+package com.bms.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Moves base64 payloads (maintenance photos, property images, apartment documents) out of the database.
+ * The payload is decoded as a stream into a temp file while its size and SHA-256 are computed, then
+ * uploaded to S3 unless the owner already stored the same content; only the key, size and hash are kept on the row.
+ * The same columns and request fields may also hold a plain http(s) URL; {@link #store} keeps those as they are.
+ */
+@Service
+public class BlobOffloadService {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Value("${app.storage.blob-offload.max-size:10485760}")
+    private long maxBlobSize;
+
+    /**
+     * Stores a base64 or data-URL payload, or returns an http(s) URL as a reference without decoding or uploading
+     * anything. A reference carries the key when the URL points into this bucket, and no size or hash.
+     */
+    public StoredBlob store(String payload, UUID ownerId, S3Service.FileType fileType,
+                            String defaultContentType) throws IOException {
+        if (isUrl(payload)) {
+            String url = payload.trim();
+            return new StoredBlob(keyOf(url), url, null, null, null, true);
+        }
+        return storeBase64(payload, ownerId, fileType, defaultContentType);
+    }
+
+    public static boolean isUrl(String payload) {
+        if (payload == null) {
+            return false;
+        }
+        String trimmed = payload.trim();
+        return trimmed.regionMatches(true, 0, "https://", 0, 8) || trimmed.regionMatches(true, 0, "http://", 0, 7);
+    }
+
+    public StoredBlob storeBase64(String payload, UUID ownerId, S3Service.FileType fileType,
+                                  String defaultContentType) throws IOException {
+        if (payload == null || payload.isBlank()) {
+            throw new IllegalArgumentException("File data cannot be empty");
+        }
+
+        // Accept both raw base64 and data URLs ("data:image/png;base64,....")
+        String contentType = defaultContentType;
+        int dataStart = 0;
+        if (payload.startsWith("data:")) {
+            int comma = payload.indexOf(',');
+            if (comma < 0) {
+                throw new IllegalArgumentException("Invalid data URL");
+            }
+            String header = payload.substring(5, comma);
+            int semicolon = header.indexOf(';');
+            String declaredType = semicolon >= 0 ? header.substring(0, semicolon) : header;
+            if (!declaredType.isBlank()) {
+                contentType = declaredType;
+            }
+            dataStart = comma + 1;
+        }
+
+        Path tempFile = Files.createTempFile("blob-offload-", ".bin");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            // MIME decoder skips line breaks and other non-alphabet characters some clients insert
+            try (InputStream in = Base64.getMimeDecoder().wrap(new CharSequenceInputStream(payload, dataStart));
+                 OutputStream out = new DigestOutputStream(Files.newOutputStream(tempFile), digest)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBlobSize) {
+                        throw new IllegalArgumentException("File size cannot exceed " + (maxBlobSize / (1024 * 1024)) + "MB");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("File data cannot be empty");
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String key = s3Service.uploadFile(tempFile, ownerId, fileType, "upload" + extensionFor(contentType), contentType, sha256);
+            return new StoredBlob(key, s3Service.getFileUrl(key), size, sha256, contentType, false);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private String keyOf(String url) {
+        try {
+            return s3Service.getKeyFromUrl(url);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String extensionFor(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+        switch (contentType) {
+            case "image/jpeg":
+            case "image/jpg":
+                return ".jpg";
+            case "image/png":
+                return ".png";
+            case "image/gif":
+                return ".gif";
+            case "image/webp":
+                return ".webp";
+            case "application/pdf":
+                return ".pdf";
+            default:
+                return "";
+        }
+    }
+
+    public static class StoredBlob {
+        private final String key;
+        private final String url;
+        private final Long size;
+        private final String sha256;
+        private final String contentType;
+        private final boolean reference;
+
+        public StoredBlob(String key, String url, Long size, String sha256, String contentType, boolean reference) {
+            this.key = key;
+            this.url = url;
+            this.size = size;
+            this.sha256 = sha256;
+            this.contentType = contentType;
+            this.reference = reference;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public Long getSize() {
+            return size;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        // An existing URL kept as it is; nothing was uploaded, so there is nothing to clean up
+        public boolean isReference() {
+            return reference;
+        }
+    }
+
+    // Reads the (ASCII) characters of a string as bytes without copying it into a byte array first
+    private static class CharSequenceInputStream extends InputStream {
+        private final CharSequence chars;
+        private int position;
+
+        CharSequenceInputStream(CharSequence chars, int start) {
+            this.chars = chars;
+            this.position = start;
+        }
+
+        @Override
+        public int read() {
+            return position < chars.length() ? chars.charAt(position++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int remaining = chars.length() - position;
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = Math.min(length, remaining);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) chars.charAt(position++);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.bms.backend.service;
+
+import com.bms.backend.entity.StoredObject;
+import com.bms.backend.repository.StoredObjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Index of stored objects by content hash, per owner and file type.
+ *
+ * Uploads hash their bytes before sending them; when the owner already has an object with the same content in the
+ * folder of the requested file type, {@link #reuse(UUID, S3Service.FileType, String)} hands out its key with one more reference and nothing is uploaded. New objects
+ * are {@link #register registered} with one reference once stored. Every delete goes through
+ * {@link #release(String)}, which only lets the object go when its last reference is released; objects that were
+ * never indexed (presigned uploads, older rows) are unreferenced by definition.
+ *
+ * Hashes are scoped to the owner so an upload never reveals, or links to, another account's files, and to the
+ * file type so an object is never shared across folders (a document never resolves to a profile picture's key).
+ */
+@Service
+public class ContentIndexService {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Concurrent reuse/release of the same key are retried this often before the object is kept to be safe
+    private static final int RELEASE_ATTEMPTS = 3;
+
+    @Autowired
+    private StoredObjectRepository storedObjectRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.storage.dedup.enabled:true}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Key of the owner's object with this content and file type, now holding one more reference, or null if there
+     * is none.
+     * Runs in its own transaction so the reference survives a rollback of the caller; callers that fail after
+     * this release it again.
+     */
+    public String reuse(UUID ownerId, S3Service.FileType fileType, String contentHash) {
+        if (!enabled || ownerId == null || contentHash == null) {
+            return null;
+        }
+        return inNewTransaction(() -> storedObjectRepository
+                .findByOwnerIdAndFolderAndContentHash(ownerId, fileType.getFolder(), contentHash)
+                .filter(existing -> storedObjectRepository.addReference(existing.getId()) > 0)
+                .map(StoredObject::getObjectKey)
+                .orElse(null));
+    }
+
+    /**
+     * Indexes a newly stored object with one reference and returns the key callers should use. If the same
+     * content was registered concurrently, that object gains the reference instead and its key is returned;
+     * the caller's own copy is then redundant and should be deleted.
+     */
+    public String register(UUID ownerId, S3Service.FileType fileType, String contentHash, String objectKey, long size) {
+        if (!enabled || ownerId == null || contentHash == null) {
+            return objectKey;
+        }
+        try {
+            inNewTransaction(() -> storedObjectRepository.saveAndFlush(
+                    new StoredObject(ownerId, fileType.getFolder(), contentHash, objectKey, size)));
+            return objectKey;
+        } catch (DataIntegrityViolationException e) {
+            String existingKey = reuse(ownerId, fileType, contentHash);
+            return existingKey != null ? existingKey : objectKey;
+        }
+    }
+
+    /**
+     * Drops one reference to the object. Returns true when nothing references it any more and it can be deleted.
+     */
+    @Transactional
+    public boolean release(String objectKey) {
+        for (int attempt = 0; attempt < RELEASE_ATTEMPTS; attempt++) {
+            if (storedObjectRepository.releaseShared(objectKey) > 0) {
+                return false;
+            }
+            if (storedObjectRepository.removeLastReference(objectKey) > 0) {
+                return true;
+            }
+            if (!storedObjectRepository.existsByObjectKey(objectKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static String sha256(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private <T> T inNewTransaction(Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template.execute(status -> work.get());
+    }
+}
@@ -0,0 +1,479 @@
+package com.bms.backend.service;
+
+import com.bms.backend.service.storage.ObjectContent;
+import com.bms.backend.service.storage.ObjectInfo;
+import com.bms.backend.service.storage.ObjectStorage;
+import com.bms.backend.service.storage.ObjectStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Serves stored files through the API for deployments without the CDN.
+ *
+ * Each request is one conditional GET against storage: ETag, Last-Modified, Content-Length and Content-Range
+ * are passed through, If-None-Match is answered with 304 and a single byte range is forwarded as-is. Bodies
+ * are copied with a fixed small buffer. When a cache directory is configured, small objects are kept on local
+ * disk; a cached copy is served without contacting storage until it is due for revalidation and is sent from
+ * a file channel opened while the entry is still held, so a concurrent eviction cannot pull the file away
+ * mid-response.
+ */
+@Service
+public class FileProxyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileProxyService.class);
+
+    private static final String CACHE_CONTROL = "private, max-age=3600";
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Value("${app.storage.proxy.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${app.storage.proxy.cache-max-bytes:268435456}")
+    private long cacheMaxBytes;
+
+    @Value("${app.storage.proxy.cache-max-object-bytes:10485760}")
+    private long cacheMaxObjectBytes;
+
+    @Value("${app.storage.proxy.cache-revalidate-seconds:300}")
+    private long revalidateSeconds;
+
+    private final Path cacheDir;
+
+    // Access-ordered, so iteration starts at the least recently served entry; guarded by itself
+    private final LinkedHashMap<String, CachedBlob> cache = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long cachedBytes;
+
+    public FileProxyService(@Value("${app.storage.proxy.cache-dir:}") String cacheDir) {
+        this.cacheDir = cacheDir == null || cacheDir.isBlank() ? null : Paths.get(cacheDir);
+        if (this.cacheDir != null) {
+            clearCacheDir(this.cacheDir);
+        }
+    }
+
+    /**
+     * Fetches a file for the proxy. Returns null when the object does not exist; throws IllegalArgumentException
+     * for URLs that do not point into this bucket.
+     */
+    public ProxiedFile fetch(String fileUrl, String ifNoneMatch, String range) {
+        String key = s3Service.getKeyFromUrl(fileUrl);
+
+        CachedBlob cached = cacheDir != null ? lookup(key) : null;
+        if (cached != null && cached.validatedAt.plusSeconds(revalidateSeconds).isAfter(Instant.now())) {
+            ProxiedFile hit = fromCache(key, cached, ifNoneMatch, range);
+            if (hit != null) {
+                return hit;
+            }
+            cached = null;
+        }
+
+        String condition;
+        String requestedRange;
+        if (cached != null) {
+            // Revalidate the local copy; a Range is answered from it once it is known to be current
+            condition = cached.etag;
+            requestedRange = null;
+        } else {
+            condition = ifNoneMatch;
+            requestedRange = singleRange(range) != null ? range : null;
+        }
+
+        ObjectContent body;
+        try {
+            body = objectStorage.get(key, condition, requestedRange);
+        } catch (ObjectStorageException e) {
+            if (e.getStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                if (cached != null) {
+                    ProxiedFile hit = fromCache(key, revalidated(key, cached), ifNoneMatch, range);
+                    // The local copy went missing after the lookup; fetch the object again
+                    return hit != null ? hit : fetch(fileUrl, ifNoneMatch, range);
+                }
+                HttpHeaders headers = new HttpHeaders();
+                if (e.getETag() != null) {
+                    headers.set(HttpHeaders.ETAG, e.getETag());
+                }
+                headers.setCacheControl(CACHE_CONTROL);
+                return new ProxiedFile(HttpStatus.NOT_MODIFIED.value(), headers, null);
+            }
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND.value()) {
+                evict(key);
+                return null;
+            }
+            if (e.getStatusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+                return new ProxiedFile(e.getStatusCode(), new HttpHeaders(), null);
+            }
+            throw e;
+        }
+        if (cached != null) {
+            // The object was replaced under the same key
+            evict(key);
+        }
+
+        ObjectInfo object = body.getInfo();
+        HttpHeaders headers = new HttpHeaders();
+        if (object.getETag() != null) {
+            headers.set(HttpHeaders.ETAG, object.getETag());
+        }
+        if (object.getLastModified() != null) {
+            headers.setLastModified(object.getLastModified().toEpochMilli());
+        }
+        headers.set(HttpHeaders.CONTENT_TYPE, object.getContentType() != null ? object.getContentType() : "application/octet-stream");
+        if (object.getContentLength() != null) {
+            headers.setContentLength(object.getContentLength());
+        }
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setCacheControl(CACHE_CONTROL);
+
+        int status = HttpStatus.OK.value();
+        if (body.getContentRange() != null) {
+            status = HttpStatus.PARTIAL_CONTENT.value();
+            headers.set(HttpHeaders.CONTENT_RANGE, body.getContentRange());
+        }
+        if (body.getFile() != null && object.getContentLength() != null) {
+            // Already on local disk: hand the region over for a zero-copy send, no need to cache it
+            closeQuietly(body);
+            Path file = body.getFile();
+            long offset = body.getOffset();
+            long count = object.getContentLength();
+            ProxiedFile proxied = new ProxiedFile(status, headers, output -> transfer(file, offset, count, output));
+            proxied.localFile = file;
+            proxied.start = offset;
+            proxied.length = count;
+            return proxied;
+        }
+        boolean cacheable = cacheDir != null && status == HttpStatus.OK.value() && object.getContentLength() != null
+                && object.getContentLength() <= cacheMaxObjectBytes && object.getETag() != null;
+        CachedBlob pending = cacheable
+                ? new CachedBlob(null, object.getETag(), object.getLastModified(),
+                        headers.getFirst(HttpHeaders.CONTENT_TYPE), object.getContentLength(), Instant.now())
+                : null;
+        return new ProxiedFile(status, headers, output -> copy(key, body, output, pending));
+    }
+
+    private ProxiedFile fromCache(String key, CachedBlob cached, String ifNoneMatch, String range) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ETAG, cached.etag);
+        if (cached.lastModified != null) {
+            headers.setLastModified(cached.lastModified.toEpochMilli());
+        }
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setCacheControl(CACHE_CONTROL);
+        if (etagMatches(ifNoneMatch, cached.etag)) {
+            return new ProxiedFile(HttpStatus.NOT_MODIFIED.value(), headers, null);
+        }
+
+        headers.set(HttpHeaders.CONTENT_TYPE, cached.contentType);
+        long start = 0;
+        long end = cached.length - 1;
+        int status = HttpStatus.OK.value();
+        HttpRange requested = cached.length > 0 ? singleRange(range) : null;
+        if (requested != null) {
+            start = requested.getRangeStart(cached.length);
+            end = requested.getRangeEnd(cached.length);
+            if (start >= cached.length || start > end) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + cached.length);
+                return new ProxiedFile(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value(), headers, null);
+            }
+            status = HttpStatus.PARTIAL_CONTENT.value();
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + cached.length);
+        }
+        headers.setContentLength(end - start + 1);
+
+        FileChannel channel = open(key, cached);
+        if (channel == null) {
+            return null;
+        }
+        long offset = start;
+        long count = end - start + 1;
+        return new ProxiedFile(status, headers, output -> transfer(channel, offset, count, output));
+    }
+
+    // Cached files are only deleted under the cache lock, and an open channel keeps reading a file that is
+    // deleted after it was opened, so the body stays intact whatever the cache does before it is written
+    private FileChannel open(String key, CachedBlob cached) {
+        synchronized (cache) {
+            try {
+                return FileChannel.open(cached.file, StandardOpenOption.READ);
+            } catch (IOException e) {
+                if (cache.get(key) == cached) {
+                    cache.remove(key);
+                    cachedBytes -= cached.length;
+                }
+                return null;
+            }
+        }
+    }
+
+    private void copy(String key, ObjectContent body, OutputStream output,
+                      CachedBlob pending) throws IOException {
+        Path temp = null;
+        OutputStream cacheOut = null;
+        boolean complete = false;
+        try {
+            if (pending != null) {
+                try {
+                    temp = Files.createTempFile(cacheDir, "part-", ".tmp");
+                    cacheOut = Files.newOutputStream(temp);
+                } catch (IOException e) {
+                    logger.warn("Proxy cache unavailable: {}", e.getMessage());
+                    temp = null;
+                }
+            }
+            byte[] buffer = new byte[bufferSize];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+                if (cacheOut != null) {
+                    cacheOut.write(buffer, 0, read);
+                }
+            }
+            complete = true;
+        } finally {
+            if (!complete) {
+                // Client went away: drop the connection instead of draining the rest of the object
+                body.abort();
+            }
+            body.close();
+            if (cacheOut != null) {
+                cacheOut.close();
+            }
+            if (temp != null) {
+                if (complete) {
+                    store(key, temp, pending);
+                } else {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+    }
+
+    private static void transfer(Path file, long offset, long count, OutputStream output) throws IOException {
+        transfer(FileChannel.open(file, StandardOpenOption.READ), offset, count, output);
+    }
+
+    private static void transfer(FileChannel source, long offset, long count, OutputStream output) throws IOException {
+        try (FileChannel channel = source) {
+            WritableByteChannel target = Channels.newChannel(output);
+            long position = offset;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private CachedBlob lookup(String key) {
+        synchronized (cache) {
+            CachedBlob cached = cache.get(key);
+            if (cached != null && !Files.exists(cached.file)) {
+                cache.remove(key);
+                cachedBytes -= cached.length;
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private CachedBlob revalidated(String key, CachedBlob cached) {
+        CachedBlob fresh = new CachedBlob(cached.file, cached.etag, cached.lastModified, cached.contentType,
+                cached.length, Instant.now());
+        synchronized (cache) {
+            if (cache.get(key) == cached) {
+                cache.put(key, fresh);
+            }
+        }
+        return fresh;
+    }
+
+    private void store(String key, Path temp, CachedBlob pending) throws IOException {
+        Path file = cacheDir.resolve("blob-" + UUID.randomUUID());
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        CachedBlob entry = new CachedBlob(file, pending.etag, pending.lastModified, pending.contentType,
+                pending.length, pending.validatedAt);
+        synchronized (cache) {
+            CachedBlob replaced = cache.put(key, entry);
+            if (replaced != null) {
+                cachedBytes -= replaced.length;
+                deleteQuietly(replaced.file);
+            }
+            cachedBytes += entry.length;
+            Iterator<Map.Entry<String, CachedBlob>> eldest = cache.entrySet().iterator();
+            while (cachedBytes > cacheMaxBytes && eldest.hasNext()) {
+                CachedBlob evicted = eldest.next().getValue();
+                eldest.remove();
+                cachedBytes -= evicted.length;
+                deleteQuietly(evicted.file);
+            }
+        }
+    }
+
+    private void evict(String key) {
+        if (cacheDir == null) {
+            return;
+        }
+        synchronized (cache) {
+            CachedBlob removed = cache.remove(key);
+            if (removed != null) {
+                cachedBytes -= removed.length;
+                deleteQuietly(removed.file);
+            }
+        }
+    }
+
+    private static void clearCacheDir(Path dir) {
+        try {
+            Files.createDirectories(dir);
+            // Entries are not tracked across restarts; only remove files this service wrote
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "{blob-*,part-*}")) {
+                for (Path file : files) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Proxy cache directory is not usable: " + dir, e);
+        }
+    }
+
+    private static void closeQuietly(ObjectContent body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            // Only the region is used from here on
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete cached file {}: {}", file, e.getMessage());
+        }
+    }
+
+    // Only single ranges are honoured; anything else is answered with the full body
+    private static HttpRange singleRange(String range) {
+        if (range == null || range.isBlank()) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String current = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class CachedBlob {
+        private final Path file;
+        private final String etag;
+        private final Instant lastModified;
+        private final String contentType;
+        private final long length;
+        private final Instant validatedAt;
+
+        private CachedBlob(Path file, String etag, Instant lastModified, String contentType, long length,
+                           Instant validatedAt) {
+            this.file = file;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+            this.length = length;
+            this.validatedAt = validatedAt;
+        }
+    }
+
+    /**
+     * Status, headers and body for the proxy response. Files that storage already keeps on local disk also expose
+     * the file region, so the caller can hand it to the container for a zero-copy send instead of writing the body.
+     */
+    public static final class ProxiedFile {
+        private final int status;
+        private final HttpHeaders headers;
+        private final StreamingResponseBody body;
+        private Path localFile;
+        private long start;
+        private long length;
+
+        private ProxiedFile(int status, HttpHeaders headers, StreamingResponseBody body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        public StreamingResponseBody getBody() {
+            return body;
+        }
+
+        public Path getLocalFile() {
+            return localFile;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getLength() {
+            return length;
+        }
+    }
+}
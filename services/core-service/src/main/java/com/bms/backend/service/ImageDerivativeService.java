@@ -0,0 +1,455 @@
+package com.bms.backend.service;
+
+import com.bms.backend.entity.Apartment;
+import com.bms.backend.entity.MaintenanceRequestPhoto;
+import com.bms.backend.entity.PropertyImage;
+import com.bms.backend.repository.ApartmentRepository;
+import com.bms.backend.repository.MaintenanceRequestPhotoRepository;
+import com.bms.backend.repository.PropertyImageRepository;
+import com.bms.backend.service.storage.ObjectContent;
+import com.bms.backend.service.storage.ObjectStorage;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates smaller JPEG variants of uploaded images off the request path.
+ *
+ * Once the upload's transaction commits, each original is read back from storage, decoded once and written
+ * as a fixed-size center-cropped thumbnail and, for building and unit images, a medium variant that fits a
+ * bounding box. Variants live under sibling keys ({@code <name>_thumb.jpg}, {@code <name>_medium.jpg}) and
+ * their URLs are recorded on the row; until then readers fall back to the original. Images ImageIO cannot
+ * decode, or larger than the pixel limit, are skipped.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    static final String THUMBNAIL_SUFFIX = "_thumb.jpg";
+    static final String MEDIUM_SUFFIX = "_medium.jpg";
+
+    // Keys are never reused, so variants can be cached indefinitely
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Autowired
+    private PropertyImageRepository propertyImageRepository;
+
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+
+    @Autowired
+    private MaintenanceRequestPhotoRepository maintenanceRequestPhotoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.storage.derivatives.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.storage.derivatives.thumbnail-width:320}")
+    private int thumbnailWidth;
+
+    @Value("${app.storage.derivatives.thumbnail-height:240}")
+    private int thumbnailHeight;
+
+    @Value("${app.storage.derivatives.medium-max-dimension:1280}")
+    private int mediumMaxDimension;
+
+    @Value("${app.storage.derivatives.thumbnail-quality:0.75}")
+    private float thumbnailQuality;
+
+    @Value("${app.storage.derivatives.medium-quality:0.82}")
+    private float mediumQuality;
+
+    @Value("${app.storage.derivatives.max-source-pixels:40000000}")
+    private long maxSourcePixels;
+
+    private final ExecutorService executor;
+
+    public ImageDerivativeService(@Value("${app.storage.derivatives.threads:2}") int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "image-derivatives-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+    }
+
+    public void propertyImagesStored(List<PropertyImage> images) {
+        for (PropertyImage image : images) {
+            UUID id = image.getId();
+            String key = image.getStorageKey() != null ? image.getStorageKey() : keyOf(image.getImageUrl());
+            if (id == null || key == null) {
+                continue;
+            }
+            submitAfterCommit(() -> {
+                Variants variants = generate(key, true);
+                if (variants != null) {
+                    transactionTemplate.execute(status ->
+                            propertyImageRepository.setDerivatives(id, variants.thumbnailUrl, variants.mediumUrl));
+                }
+            });
+        }
+    }
+
+    /**
+     * Aligns the unit's variant lists with the image list it is about to be saved with: variants of images that
+     * are kept carry over, new images get null until {@link #apartmentImagesChanged(UUID)} has generated theirs.
+     */
+    public void alignApartmentVariants(Apartment apartment, List<String> newImageUrls) {
+        if (newImageUrls == null || newImageUrls.isEmpty()) {
+            apartment.setThumbnailImages(null);
+            apartment.setMediumImages(null);
+            return;
+        }
+        List<String> oldUrls = readList(apartment.getImages());
+        List<String> oldThumbnails = readList(apartment.getThumbnailImages());
+        List<String> oldMediums = readList(apartment.getMediumImages());
+        List<String> thumbnails = new ArrayList<>();
+        List<String> mediums = new ArrayList<>();
+        for (String url : newImageUrls) {
+            int previous = oldUrls.indexOf(url);
+            thumbnails.add(previous >= 0 ? at(oldThumbnails, previous) : null);
+            mediums.add(previous >= 0 ? at(oldMediums, previous) : null);
+        }
+        apartment.setThumbnailImages(writeList(thumbnails));
+        apartment.setMediumImages(writeList(mediums));
+    }
+
+    /**
+     * Generates the missing variants of a unit's images after commit. They are only recorded if the unit still
+     * has the same image list by then.
+     */
+    public void apartmentImagesChanged(UUID apartmentId) {
+        submitAfterCommit(() -> generateApartmentVariants(apartmentId));
+    }
+
+    private void generateApartmentVariants(UUID apartmentId) {
+        List<Object[]> rows = apartmentRepository.findImageColumnsById(apartmentId);
+        if (rows.isEmpty()) {
+            return;
+        }
+        String imagesJson = (String) rows.get(0)[0];
+        List<String> urls = readList(imagesJson);
+        List<String> thumbnails = new ArrayList<>();
+        List<String> mediums = new ArrayList<>();
+        List<String> oldThumbnails = readList((String) rows.get(0)[1]);
+        List<String> oldMediums = readList((String) rows.get(0)[2]);
+        boolean generated = false;
+        for (int i = 0; i < urls.size(); i++) {
+            String thumbnail = at(oldThumbnails, i);
+            String medium = at(oldMediums, i);
+            if (thumbnail == null) {
+                Variants variants = generate(keyOf(urls.get(i)), true);
+                if (variants != null) {
+                    thumbnail = variants.thumbnailUrl;
+                    medium = variants.mediumUrl;
+                    generated = true;
+                }
+            }
+            thumbnails.add(thumbnail);
+            mediums.add(medium);
+        }
+        if (!generated) {
+            return;
+        }
+
+        Integer updated = transactionTemplate.execute(status -> {
+            List<Object[]> current = apartmentRepository.findImageColumnsById(apartmentId);
+            return !current.isEmpty() && Objects.equals(current.get(0)[0], imagesJson)
+                    ? apartmentRepository.setImageDerivatives(apartmentId, writeList(thumbnails), writeList(mediums))
+                    : 0;
+        });
+        if (updated == null || updated == 0) {
+            // The change that replaced the list scheduled its own run
+            logger.info("Images of apartment {} changed while generating variants; discarding them", apartmentId);
+        }
+    }
+
+    // Maintenance photos only get a thumbnail for list rows; detail views show the original
+    public void maintenancePhotosStored(List<MaintenanceRequestPhoto> photos) {
+        for (MaintenanceRequestPhoto photo : photos) {
+            UUID id = photo.getId();
+            String key = photo.getStorageKey();
+            if (id == null || key == null) {
+                continue;
+            }
+            submitAfterCommit(() -> {
+                Variants variants = generate(key, false);
+                if (variants != null) {
+                    transactionTemplate.execute(status ->
+                            maintenanceRequestPhotoRepository.setThumbnailUrl(id, variants.thumbnailUrl));
+                }
+            });
+        }
+    }
+
+    /**
+     * Per-image variant URLs parallel to {@code originals}, using the original where no variant exists yet.
+     */
+    public List<String> withFallback(List<String> originals, String variantsJson) {
+        List<String> variants = readList(variantsJson);
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < originals.size(); i++) {
+            String variant = at(variants, i);
+            urls.add(variant != null ? variant : originals.get(i));
+        }
+        return urls;
+    }
+
+    Variants generate(String key, boolean withMedium) {
+        if (key == null) {
+            return null;
+        }
+        // Deduplicated uploads share the original, so its variants usually exist already
+        String thumbnailKey = derivativeKey(key, THUMBNAIL_SUFFIX);
+        String mediumKey = derivativeKey(key, MEDIUM_SUFFIX);
+        if (exists(thumbnailKey) && (!withMedium || exists(mediumKey))) {
+            return new Variants(s3Service.getFileUrl(thumbnailKey), withMedium ? s3Service.getFileUrl(mediumKey) : null);
+        }
+
+        BufferedImage source;
+        try (ObjectContent body = objectStorage.get(key)) {
+            source = decode(body, maxSourcePixels);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read {} for image variants: {}", key, e.getMessage());
+            return null;
+        }
+        if (source == null) {
+            logger.info("Skipping image variants for {}: unsupported format or too large", key);
+            return null;
+        }
+
+        try {
+            put(thumbnailKey, encodeJpeg(thumbnail(source, thumbnailWidth, thumbnailHeight), thumbnailQuality));
+            String mediumUrl = null;
+            if (withMedium) {
+                put(mediumKey, encodeJpeg(fitWithin(source, mediumMaxDimension), mediumQuality));
+                mediumUrl = s3Service.getFileUrl(mediumKey);
+            }
+            return new Variants(s3Service.getFileUrl(thumbnailKey), mediumUrl);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to store image variants for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    // Object key of an image in this bucket, or null for images hosted elsewhere
+    private String keyOf(String url) {
+        try {
+            return url != null ? s3Service.getKeyFromUrl(url) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private List<String> readList(String json) {
+        if (json == null || json.isBlank()) {
+            return new ArrayList<>();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<List<String>>() {});
+        } catch (IOException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    private String writeList(List<String> values) {
+        return objectMapper.valueToTree(values).toString();
+    }
+
+    private static String at(List<String> values, int index) {
+        return index < values.size() ? values.get(index) : null;
+    }
+
+    private boolean exists(String key) {
+        try {
+            return objectStorage.head(key) != null;
+        } catch (RuntimeException e) {
+            // Any failure just means regenerating
+            return false;
+        }
+    }
+
+    private void put(String key, byte[] body) {
+        objectStorage.put(key, new ByteArrayInputStream(body), body.length, "image/jpeg", CACHE_CONTROL);
+    }
+
+    private void submitAfterCommit(Runnable task) {
+        if (!enabled) {
+            return;
+        }
+        Runnable submit = () -> {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Image variant generation rejected: {}", e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // users/u/apartments/17_ab.png -> users/u/apartments/17_ab_thumb.jpg; works the same on full URLs
+    static String derivativeKey(String key, String suffix) {
+        int slash = key.lastIndexOf('/');
+        int dot = key.lastIndexOf('.');
+        String base = dot > slash ? key.substring(0, dot) : key;
+        return base + suffix;
+    }
+
+    // Reads the dimensions from the header first so oversized images are rejected before decoding
+    static BufferedImage decode(InputStream in, long maxPixels) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            if (stream == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Scales to cover width x height and crops the overflow evenly from both sides
+    static BufferedImage thumbnail(BufferedImage source, int width, int height) {
+        double scale = Math.max((double) width / source.getWidth(), (double) height / source.getHeight());
+        int cropWidth = Math.min(source.getWidth(), Math.max(1, (int) Math.round(width / scale)));
+        int cropHeight = Math.min(source.getHeight(), Math.max(1, (int) Math.round(height / scale)));
+        int x = (source.getWidth() - cropWidth) / 2;
+        int y = (source.getHeight() - cropHeight) / 2;
+        return scale(source, x, y, cropWidth, cropHeight, width, height);
+    }
+
+    // Never upscales; images already inside the box are only re-encoded
+    static BufferedImage fitWithin(BufferedImage source, int maxDimension) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        return scale(source, 0, 0, source.getWidth(), source.getHeight(), width, height);
+    }
+
+    static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            // Progressive scans let slow connections render a coarse image early
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static BufferedImage scale(BufferedImage source, int x, int y, int width, int height,
+                                       int targetWidth, int targetHeight) {
+        BufferedImage current = source;
+        // Halve first: a single bilinear pass from far above the target size drops detail unevenly
+        while (width / 2 >= targetWidth && height / 2 >= targetHeight) {
+            current = draw(current, x, y, width, height, width / 2, height / 2);
+            x = 0;
+            y = 0;
+            width /= 2;
+            height /= 2;
+        }
+        return draw(current, x, y, width, height, targetWidth, targetHeight);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int x, int y, int width, int height,
+                                      int targetWidth, int targetHeight) {
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no alpha; transparent areas become white rather than black
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, x, y, x + width, y + height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    static final class Variants {
+        final String thumbnailUrl;
+        final String mediumUrl;
+
+        Variants(String thumbnailUrl, String mediumUrl) {
+            this.thumbnailUrl = thumbnailUrl;
+            this.mediumUrl = mediumUrl;
+        }
+    }
+}
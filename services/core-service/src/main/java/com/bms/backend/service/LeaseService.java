@@ -1,28 +1,38 @@
 package com.bms.backend.service;
 
+import com.bms.backend.dto.request.BatchPaymentScheduleRequest;
 import com.bms.backend.dto.request.LeaseUpdateRequest;
 import com.bms.backend.dto.response.LeaseDetailsDto;
+import com.bms.backend.dto.response.LeasePaymentBatchItemDto;
 import com.bms.backend.dto.response.LeaseListingDto;
 import com.bms.backend.dto.response.LeasePaymentDetailsDto;
 import com.bms.backend.dto.response.LeasePaymentScheduleDto;
 import com.bms.backend.dto.response.LeasePaymentScheduleResponse;
 import com.bms.backend.dto.response.LeasePaymentSummaryDto;
+import com.bms.backend.entity.PaymentTransaction;
 import com.bms.backend.entity.TenantPropertyConnection;
 import com.bms.backend.entity.User;
 import com.bms.backend.enums.UserRole;
 import com.bms.backend.repository.TenantPropertyConnectionRepository;
+import com.bms.backend.util.SearchTerms;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.Instant;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -30,9 +40,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class LeaseService {
 
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
     @Autowired
     private TenantPropertyConnectionRepository connectionRepository;
 
+    @Autowired
+    private PortfolioSearchService portfolioSearchService;
+
     @Autowired
     @org.springframework.context.annotation.Lazy
     private TenantService tenantService;
@@ -109,12 +125,19 @@ public class LeaseService {
         // Soft delete - set isActive to false
         connection.setIsActive(false);
         connectionRepository.save(connection);
+        portfolioSearchService.tenantConnectionChanged(id);
+        if (connection.getApartment() != null) {
+            portfolioSearchService.apartmentChanged(connection.getApartment().getId());
+        }
     }
 
-    public List<LeaseListingDto> searchLeases(User user, String searchText) {
+    public List<LeaseListingDto> searchLeases(User user, String searchText, Integer limit) {
         validateManagerAccess(user);
 
-        List<TenantPropertyConnection> connections = connectionRepository.findByManagerAndSearchText(user, searchText);
+        SearchTerms search = SearchTerms.of(searchText);
+        List<TenantPropertyConnection> connections = search == null
+                ? connectionRepository.findByManagerAndIsActive(user, true)
+                : connectionRepository.findByManagerAndSearchText(user, search, SearchTerms.limit(limit));
 
         return connections.stream()
                 .map(LeaseListingDto::new)
@@ -231,7 +254,12 @@ public class LeaseService {
 
         // Reactivate lease
         connection.setIsActive(true);
-        return connectionRepository.save(connection);
+        TenantPropertyConnection savedConnection = connectionRepository.save(connection);
+        portfolioSearchService.tenantConnectionChanged(id);
+        if (connection.getApartment() != null) {
+            portfolioSearchService.apartmentChanged(connection.getApartment().getId());
+        }
+        return savedConnection;
     }
 
     /**
@@ -332,49 +360,13 @@ public class LeaseService {
         // Verify user has access to this lease
         validateLeaseAccess(user, connection);
 
-        // Parse dates or use defaults
-        YearMonth start;
-        YearMonth end;
-
-        if (startMonth != null) {
-            start = YearMonth.parse(startMonth);
-        } else {
-            // Default: current month
-            start = YearMonth.now();
-        }
-
-        if (endMonth != null) {
-            end = YearMonth.parse(endMonth);
-        } else if (limit != null && limit > 0) {
-            // Use limit to determine end month
-            end = start.plusMonths(limit - 1);
-        } else {
-            // Default: current month + next 2 months (3 months total)
-            end = start.plusMonths(2);
-        }
-
-        // Calculate total months in lease
-        LocalDate leaseStart = connection.getStartDate();
-        LocalDate leaseEnd = connection.getEndDate();
-        int totalMonths = (int) ChronoUnit.MONTHS.between(
-            YearMonth.from(leaseStart),
-            YearMonth.from(leaseEnd)
-        ) + 1;
+        YearMonth start = resolveScheduleStart(startMonth);
+        YearMonth end = resolveScheduleEnd(start, endMonth, limit);
 
         // Generate schedule for the requested period
         List<LeasePaymentScheduleDto> schedule = generatePaymentSchedule(connection, start, end);
 
-        // Build response
-        LeasePaymentScheduleResponse response = new LeasePaymentScheduleResponse();
-        response.setLeaseId(connection.getId());
-        response.setPropertyName(connection.getPropertyName());
-        response.setTenantName(connection.getTenant().getFirstName() + " " + connection.getTenant().getLastName());
-        response.setSchedule(schedule);
-        response.setTotalMonths(totalMonths);
-        response.setCurrentPage(0); // Can be enhanced for actual pagination
-        response.setItemsReturned(schedule.size());
-
-        return response;
+        return buildScheduleResponse(connection, schedule);
     }
 
     /**
@@ -388,10 +380,216 @@ public class LeaseService {
         validateLeaseAccess(user, connection);
 
         LocalDate today = LocalDate.now();
+
+        // Fetch ALL payment transactions for this connection to calculate real counts
+        List<PaymentTransaction> allPayments =
+                new ArrayList<>(paymentTransactionRepository.findByConnectionOrderByCreatedAtDesc(connection));
+
+        // Ensure payment records exist for all months from lease start to current + 2 months
+        // This is optimized to create missing records in bulk
+        allPayments.addAll(ensurePaymentRecordsExist(connection,
+                YearMonth.from(connection.getStartDate()), YearMonth.from(today).plusMonths(2), allPayments));
+
+        return summarizePayments(connection, allPayments, today);
+    }
+
+    /**
+     * Get payment schedules (and optionally summaries) for many leases in one call.
+     * Leases and their payments are loaded with one query each, missing monthly records are
+     * created in a single bulk insert, and everything else is computed in memory.
+     * Leases that are missing or not visible to the user are returned with an error instead
+     * of failing the whole batch.
+     */
+    public List<LeasePaymentBatchItemDto> getLeasePaymentSchedules(User user, BatchPaymentScheduleRequest request) {
+        List<UUID> leaseIds = new ArrayList<>(new LinkedHashSet<>(request.getLeaseIds()));
+        if (leaseIds.size() > BatchPaymentScheduleRequest.MAX_LEASES) {
+            throw new IllegalArgumentException("At most " + BatchPaymentScheduleRequest.MAX_LEASES +
+                    " leases can be requested at once");
+        }
+
+        YearMonth start = resolveScheduleStart(request.getStartMonth());
+        YearMonth end = resolveScheduleEnd(start, request.getEndMonth(), request.getLimit());
+        LocalDate today = LocalDate.now();
+        YearMonth summaryEnd = YearMonth.from(today).plusMonths(2);
+
+        Map<UUID, TenantPropertyConnection> connections = new HashMap<>();
+        for (TenantPropertyConnection connection : connectionRepository.findAllWithPartiesByIdIn(leaseIds)) {
+            connections.put(connection.getId(), connection);
+        }
+
+        List<UUID> accessibleIds = new ArrayList<>();
+        for (UUID leaseId : leaseIds) {
+            TenantPropertyConnection connection = connections.get(leaseId);
+            if (connection != null && hasLeaseAccess(user, connection)) {
+                accessibleIds.add(leaseId);
+            }
+        }
+
+        // One IN (...) query for every lease's payments, grouped per lease in memory
+        Map<UUID, List<PaymentTransaction>> paymentsByLease = new HashMap<>();
+        if (!accessibleIds.isEmpty()) {
+            for (PaymentTransaction payment : paymentTransactionRepository.findByConnectionIdInOrderByCreatedAtDesc(accessibleIds)) {
+                paymentsByLease.computeIfAbsent(payment.getConnection().getId(), id -> new ArrayList<>()).add(payment);
+            }
+        }
+
+        // Collect missing monthly records across all leases and insert them together
+        List<PaymentTransaction> newPayments = new ArrayList<>();
+        for (UUID leaseId : accessibleIds) {
+            TenantPropertyConnection connection = connections.get(leaseId);
+            Set<YearMonth> existingMonths = dueMonths(paymentsByLease.getOrDefault(leaseId, List.of()));
+            YearMonth leaseStartMonth = YearMonth.from(connection.getStartDate());
+            if (request.isIncludeSummary()) {
+                collectMissingPaymentRecords(connection, leaseStartMonth, summaryEnd, existingMonths, newPayments);
+            }
+            collectMissingPaymentRecords(connection, start.isBefore(leaseStartMonth) ? leaseStartMonth : start, end,
+                    existingMonths, newPayments);
+        }
+        if (!newPayments.isEmpty()) {
+            for (PaymentTransaction payment : paymentTransactionRepository.saveAll(newPayments)) {
+                paymentsByLease.computeIfAbsent(payment.getConnection().getId(), id -> new ArrayList<>()).add(payment);
+            }
+        }
+
+        List<LeasePaymentBatchItemDto> items = new ArrayList<>(leaseIds.size());
+        for (UUID leaseId : leaseIds) {
+            TenantPropertyConnection connection = connections.get(leaseId);
+            if (connection == null) {
+                items.add(LeasePaymentBatchItemDto.failed(leaseId, "Lease not found"));
+                continue;
+            }
+            if (!hasLeaseAccess(user, connection)) {
+                items.add(LeasePaymentBatchItemDto.failed(leaseId, "You don't have permission to view this lease"));
+                continue;
+            }
+
+            List<PaymentTransaction> payments = paymentsByLease.getOrDefault(leaseId, List.of());
+            LeasePaymentBatchItemDto item = new LeasePaymentBatchItemDto();
+            item.setLeaseId(leaseId);
+            item.setSchedule(buildScheduleResponse(connection,
+                    buildPaymentSchedule(connection, start, end, indexByDueMonth(payments), today)));
+            if (request.isIncludeSummary()) {
+                item.setSummary(summarizePayments(connection, payments, today));
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Generate payment schedule items for a given date range
+     * NOW CHECKS ACTUAL PAYMENT RECORDS to determine status
+     */
+    public List<LeasePaymentScheduleDto> generatePaymentSchedule(TenantPropertyConnection connection,
+                                                                   YearMonth start, YearMonth end) {
+        YearMonth leaseStartMonth = YearMonth.from(connection.getStartDate());
+        YearMonth leaseEndMonth = YearMonth.from(connection.getEndDate());
+
+        // Ensure start and end are within lease period
+        if (start.isBefore(leaseStartMonth)) {
+            start = leaseStartMonth;
+        }
+        if (end.isAfter(leaseEndMonth)) {
+            end = leaseEndMonth;
+        }
+
+        // Fetch all payment transactions for this connection
+        List<PaymentTransaction> paymentTransactions =
+                new ArrayList<>(paymentTransactionRepository.findByConnectionOrderByCreatedAtDesc(connection));
+
+        // If no payment record exists for a month, create one
+        paymentTransactions.addAll(ensurePaymentRecordsExist(connection, start, end, paymentTransactions));
+
+        return buildPaymentSchedule(connection, start, end, indexByDueMonth(paymentTransactions), LocalDate.now());
+    }
+
+    /**
+     * Build schedule items from payment records already indexed by due month
+     */
+    private List<LeasePaymentScheduleDto> buildPaymentSchedule(TenantPropertyConnection connection,
+                                                               YearMonth start, YearMonth end,
+                                                               Map<YearMonth, PaymentTransaction> paymentsByMonth,
+                                                               LocalDate today) {
+        List<LeasePaymentScheduleDto> schedule = new ArrayList<>();
+
+        YearMonth leaseStartMonth = YearMonth.from(connection.getStartDate());
+        YearMonth leaseEndMonth = YearMonth.from(connection.getEndDate());
+        BigDecimal monthlyRent = BigDecimal.valueOf(connection.getMonthlyRent());
+        BigDecimal lateFee = monthlyRent.multiply(BigDecimal.valueOf(0.10))
+                .setScale(2, RoundingMode.HALF_UP);
+        YearMonth currentMonth = YearMonth.from(today);
+
+        // Ensure start and end are within lease period
+        if (start.isBefore(leaseStartMonth)) {
+            start = leaseStartMonth;
+        }
+        if (end.isAfter(leaseEndMonth)) {
+            end = leaseEndMonth;
+        }
+
+        YearMonth current = start;
+        while (!current.isAfter(end)) {
+            LeasePaymentScheduleDto item = new LeasePaymentScheduleDto();
+
+            // Format month as YYYY-MM
+            item.setMonth(current.format(MONTH_FORMAT));
+
+            // Due date is 1st of the month
+            item.setDueDate(current.atDay(1));
+            item.setRentAmount(monthlyRent);
+
+            // Payment record for this month (to get ID and status)
+            PaymentTransaction matchingPayment = paymentsByMonth.get(current);
+            if (matchingPayment != null) {
+                item.setPaymentTransactionId(matchingPayment.getId());
+            }
+
+            // Check if paid
+            boolean isPaid = matchingPayment != null &&
+                matchingPayment.getStatus() == PaymentTransaction.PaymentStatus.PAID;
+
+            // Determine status and calculate late charges
+            String status;
+            BigDecimal lateCharges = BigDecimal.ZERO;
+
+            if (isPaid) {
+                // Payment has been made
+                status = "PAID";
+            } else if (current.isBefore(currentMonth)) {
+                // Past month - mark as overdue
+                status = "OVERDUE";
+                lateCharges = lateFee;
+            } else if (current.equals(currentMonth) && today.getDayOfMonth() > 5) {
+                // Current month past the grace period
+                status = "OVERDUE";
+                lateCharges = lateFee;
+            } else {
+                // Current month within grace period, or future month
+                status = "PENDING";
+            }
+
+            item.setLateCharges(lateCharges);
+            item.setTotalAmount(monthlyRent.add(lateCharges));
+            item.setStatus(status);
+
+            schedule.add(item);
+            current = current.plusMonths(1);
+        }
+
+        return schedule;
+    }
+
+    /**
+     * Compute overdue/upcoming counts and amounts from a lease's payment records
+     */
+    private LeasePaymentSummaryDto summarizePayments(TenantPropertyConnection connection,
+                                                     List<PaymentTransaction> allPayments, LocalDate today) {
         LocalDate leaseStart = connection.getStartDate();
         LocalDate leaseEnd = connection.getEndDate();
 
         BigDecimal monthlyRent = BigDecimal.valueOf(connection.getMonthlyRent());
+        BigDecimal lateCharges = monthlyRent.multiply(BigDecimal.valueOf(0.10))
+            .setScale(2, RoundingMode.HALF_UP);
 
         // Calculate total months in lease
         int totalMonths = (int) ChronoUnit.MONTHS.between(
@@ -399,20 +597,6 @@ public class LeaseService {
             YearMonth.from(leaseEnd)
         ) + 1;
 
-        // Fetch ALL payment transactions for this connection to calculate real counts
-        var allPayments = paymentTransactionRepository.findByConnectionOrderByCreatedAtDesc(connection);
-
-        YearMonth leaseStartMonth = YearMonth.from(leaseStart);
-        YearMonth currentYearMonth = YearMonth.from(today);
-        YearMonth endPeriod = currentYearMonth.plusMonths(2);
-
-        // Ensure payment records exist for all months from lease start to current + 2 months
-        // This is optimized to create missing records in bulk
-        ensurePaymentRecordsExist(connection, leaseStartMonth, endPeriod, allPayments);
-
-        // Fetch again after ensuring records exist
-        allPayments = paymentTransactionRepository.findByConnectionOrderByCreatedAtDesc(connection);
-
         // Count ACTUAL overdue and pending payments from database
         int overdueCount = 0;
         int upcomingCount = 0;
@@ -422,17 +606,17 @@ public class LeaseService {
 
         YearMonth currentMonth = YearMonth.from(today);
 
-        for (var payment : allPayments) {
+        for (PaymentTransaction payment : allPayments) {
             if (payment.getDueDate() == null) continue;
 
-            LocalDate paymentDueDate = LocalDate.ofInstant(payment.getDueDate(), java.time.ZoneId.of("UTC"));
-            YearMonth paymentMonth = YearMonth.from(paymentDueDate);
-
             // Skip PAID payments
-            if (payment.getStatus() == com.bms.backend.entity.PaymentTransaction.PaymentStatus.PAID) {
+            if (payment.getStatus() == PaymentTransaction.PaymentStatus.PAID) {
                 continue;
             }
 
+            LocalDate paymentDueDate = LocalDate.ofInstant(payment.getDueDate(), UTC);
+            YearMonth paymentMonth = YearMonth.from(paymentDueDate);
+
             // Determine if payment is overdue
             boolean isOverdue = false;
             if (paymentMonth.isBefore(currentMonth)) {
@@ -443,8 +627,6 @@ public class LeaseService {
 
             if (isOverdue) {
                 overdueCount++;
-                BigDecimal lateCharges = monthlyRent.multiply(BigDecimal.valueOf(0.10))
-                    .setScale(2, java.math.RoundingMode.HALF_UP);
                 BigDecimal paymentWithLateCharges = payment.getAmount().add(lateCharges);
                 totalPending = totalPending.add(paymentWithLateCharges);
                 overdueAmount = overdueAmount.add(paymentWithLateCharges);
@@ -486,138 +668,70 @@ public class LeaseService {
         return summary;
     }
 
-    /**
-     * Generate payment schedule items for a given date range
-     * NOW CHECKS ACTUAL PAYMENT RECORDS to determine status
-     */
-    public List<LeasePaymentScheduleDto> generatePaymentSchedule(TenantPropertyConnection connection,
-                                                                   YearMonth start, YearMonth end) {
-        List<LeasePaymentScheduleDto> schedule = new ArrayList<>();
-
-        YearMonth leaseStartMonth = YearMonth.from(connection.getStartDate());
-        YearMonth leaseEndMonth = YearMonth.from(connection.getEndDate());
-        BigDecimal monthlyRent = BigDecimal.valueOf(connection.getMonthlyRent());
-        LocalDate today = LocalDate.now();
-        YearMonth currentMonth = YearMonth.from(today);
-
-        // Ensure start and end are within lease period
-        if (start.isBefore(leaseStartMonth)) {
-            start = leaseStartMonth;
-        }
-        if (end.isAfter(leaseEndMonth)) {
-            end = leaseEndMonth;
-        }
-
-        // Fetch all payment transactions for this connection
-        var paymentTransactions = paymentTransactionRepository.findByConnectionOrderByCreatedAtDesc(connection);
-
-        YearMonth current = start;
-        while (!current.isAfter(end)) {
-            LeasePaymentScheduleDto item = new LeasePaymentScheduleDto();
-
-            // Format month as YYYY-MM
-            String monthStr = current.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-            item.setMonth(monthStr);
-
-            // Due date is 1st of the month
-            LocalDate dueDate = current.atDay(1);
-            item.setDueDate(dueDate);
-
-            item.setRentAmount(monthlyRent);
-
-            // Find payment record for this month (to get ID and status)
-            final YearMonth monthToCheck = current; // Capture for lambda
-            var matchingPayment = paymentTransactions.stream()
-                .filter(payment -> {
-                    // Check if payment's due date matches this month
-                    Instant dueDateInstant = payment.getDueDate();
-                    if (dueDateInstant != null) {
-                        LocalDate paymentDueDate = LocalDate.ofInstant(dueDateInstant, java.time.ZoneId.of("UTC"));
-                        YearMonth paymentMonth = YearMonth.from(paymentDueDate);
-                        return paymentMonth.equals(monthToCheck);
-                    }
-                    return false;
-                })
-                .findFirst();
-
-            // If no payment record exists for this month, create one
-            if (matchingPayment.isEmpty()) {
-                com.bms.backend.entity.PaymentTransaction newPayment = new com.bms.backend.entity.PaymentTransaction();
-                newPayment.setTenant(connection.getTenant());
-                newPayment.setConnection(connection);
-                newPayment.setAmount(monthlyRent);
-                newPayment.setCurrency("USD");
-                newPayment.setStatus(com.bms.backend.entity.PaymentTransaction.PaymentStatus.PENDING);
-                newPayment.setDescription("Monthly rent for " + connection.getPropertyName() + " - " +
-                    current.getMonth() + " " + current.getYear());
-
-                // Set due date to 1st of the month in UTC
-                Instant dueDateInstant = dueDate.atStartOfDay(java.time.ZoneId.of("UTC")).toInstant();
-                newPayment.setDueDate(dueDateInstant);
-
-                // Save the new payment record
-                newPayment = paymentTransactionRepository.save(newPayment);
-                matchingPayment = java.util.Optional.of(newPayment);
-
-                System.out.println("✅ Created new payment record for month: " + monthStr + ", ID: " + newPayment.getId());
-            }
+    private LeasePaymentScheduleResponse buildScheduleResponse(TenantPropertyConnection connection,
+                                                               List<LeasePaymentScheduleDto> schedule) {
+        // Calculate total months in lease
+        int totalMonths = (int) ChronoUnit.MONTHS.between(
+            YearMonth.from(connection.getStartDate()),
+            YearMonth.from(connection.getEndDate())
+        ) + 1;
 
-            // Set payment transaction ID
-            item.setPaymentTransactionId(matchingPayment.get().getId());
+        LeasePaymentScheduleResponse response = new LeasePaymentScheduleResponse();
+        response.setLeaseId(connection.getId());
+        response.setPropertyName(connection.getPropertyName());
+        response.setTenantName(connection.getTenant().getFirstName() + " " + connection.getTenant().getLastName());
+        response.setSchedule(schedule);
+        response.setTotalMonths(totalMonths);
+        response.setCurrentPage(0); // Can be enhanced for actual pagination
+        response.setItemsReturned(schedule.size());
+        return response;
+    }
 
-            // Check if paid
-            boolean isPaid = matchingPayment.isPresent() &&
-                matchingPayment.get().getStatus() == com.bms.backend.entity.PaymentTransaction.PaymentStatus.PAID;
+    private YearMonth resolveScheduleStart(String startMonth) {
+        // Default: current month
+        return startMonth != null ? YearMonth.parse(startMonth) : YearMonth.now();
+    }
 
-            // Determine status and calculate late charges
-            String status;
-            BigDecimal lateCharges = BigDecimal.ZERO;
+    private YearMonth resolveScheduleEnd(YearMonth start, String endMonth, Integer limit) {
+        if (endMonth != null) {
+            return YearMonth.parse(endMonth);
+        } else if (limit != null && limit > 0) {
+            // Use limit to determine end month
+            return start.plusMonths(limit - 1);
+        }
+        // Default: current month + next 2 months (3 months total)
+        return start.plusMonths(2);
+    }
 
-            if (isPaid) {
-                // Payment has been made
-                status = "PAID";
-            } else if (current.isBefore(currentMonth)) {
-                // Past month - mark as overdue
-                status = "OVERDUE";
-                lateCharges = monthlyRent.multiply(BigDecimal.valueOf(0.10))
-                    .setScale(2, BigDecimal.ROUND_HALF_UP);
-            } else if (current.equals(currentMonth)) {
-                // Current month
-                if (today.getDayOfMonth() > 5) {
-                    status = "OVERDUE";
-                    lateCharges = monthlyRent.multiply(BigDecimal.valueOf(0.10))
-                        .setScale(2, BigDecimal.ROUND_HALF_UP);
-                } else {
-                    status = "PENDING";
-                }
-            } else {
-                // Future month
-                status = "PENDING";
+    /**
+     * Index payment records by due month. Records are expected newest first, so the most
+     * recently created record wins when a month has more than one.
+     */
+    private Map<YearMonth, PaymentTransaction> indexByDueMonth(List<PaymentTransaction> payments) {
+        Map<YearMonth, PaymentTransaction> byMonth = new HashMap<>();
+        for (PaymentTransaction payment : payments) {
+            if (payment.getDueDate() != null) {
+                byMonth.putIfAbsent(YearMonth.from(LocalDate.ofInstant(payment.getDueDate(), UTC)), payment);
             }
-
-            item.setLateCharges(lateCharges);
-            item.setTotalAmount(monthlyRent.add(lateCharges));
-            item.setStatus(status);
-
-            schedule.add(item);
-            current = current.plusMonths(1);
         }
-
-        return schedule;
+        return byMonth;
     }
 
     /**
      * Validate that user has access to view this lease
      */
     private void validateLeaseAccess(User user, TenantPropertyConnection connection) {
-        boolean isTenant = connection.getTenant().getId().equals(user.getId());
-        boolean isManager = connection.getManager().getId().equals(user.getId());
-
-        if (!isTenant && !isManager) {
+        if (!hasLeaseAccess(user, connection)) {
             throw new IllegalArgumentException("You don't have permission to view this lease");
         }
     }
 
+    private boolean hasLeaseAccess(User user, TenantPropertyConnection connection) {
+        boolean isTenant = connection.getTenant().getId().equals(user.getId());
+        boolean isManager = connection.getManager().getId().equals(user.getId());
+        return isTenant || isManager;
+    }
+
     // Helper methods
     private void validateManagerAccess(User user) {
         if (user.getRole() != UserRole.PROPERTY_MANAGER) {
@@ -692,49 +806,64 @@ public class LeaseService {
 
     /**
      * Optimized method to ensure payment records exist for a given date range
-     * Creates missing records in bulk to improve performance
+     * Creates missing records in bulk to improve performance and returns the created records
      */
-    private void ensurePaymentRecordsExist(TenantPropertyConnection connection,
-                                          YearMonth start, YearMonth end,
-                                          List<com.bms.backend.entity.PaymentTransaction> existingPayments) {
-        // Build a set of existing payment months for fast lookup
-        java.util.Set<YearMonth> existingMonths = existingPayments.stream()
-            .filter(p -> p.getDueDate() != null)
-            .map(p -> YearMonth.from(LocalDate.ofInstant(p.getDueDate(), java.time.ZoneId.of("UTC"))))
-            .collect(java.util.stream.Collectors.toSet());
-
-        // Collect missing months
-        List<com.bms.backend.entity.PaymentTransaction> newPayments = new ArrayList<>();
+    private List<PaymentTransaction> ensurePaymentRecordsExist(TenantPropertyConnection connection,
+                                                               YearMonth start, YearMonth end,
+                                                               List<PaymentTransaction> existingPayments) {
+        List<PaymentTransaction> newPayments = new ArrayList<>();
+        collectMissingPaymentRecords(connection, start, end, dueMonths(existingPayments), newPayments);
+
+        // Bulk save all new payment records
+        if (newPayments.isEmpty()) {
+            return newPayments;
+        }
+        List<PaymentTransaction> saved = paymentTransactionRepository.saveAll(newPayments);
+        System.out.println("✅ Created " + saved.size() + " payment records in bulk for lease " + connection.getId());
+        return saved;
+    }
+
+    // Build a set of existing payment months for fast lookup
+    private Set<YearMonth> dueMonths(List<PaymentTransaction> payments) {
+        Set<YearMonth> months = new HashSet<>();
+        for (PaymentTransaction payment : payments) {
+            if (payment.getDueDate() != null) {
+                months.add(YearMonth.from(LocalDate.ofInstant(payment.getDueDate(), UTC)));
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Add a PENDING record to {@code newPayments} for every month in range (capped at lease end)
+     * that is not in {@code existingMonths}; the months are then marked as existing.
+     */
+    private void collectMissingPaymentRecords(TenantPropertyConnection connection,
+                                              YearMonth start, YearMonth end,
+                                              Set<YearMonth> existingMonths,
+                                              List<PaymentTransaction> newPayments) {
         BigDecimal monthlyRent = BigDecimal.valueOf(connection.getMonthlyRent());
         YearMonth leaseEndMonth = YearMonth.from(connection.getEndDate());
 
         YearMonth current = start;
         while (!current.isAfter(end) && !current.isAfter(leaseEndMonth)) {
-            if (!existingMonths.contains(current)) {
+            if (existingMonths.add(current)) {
                 // Create new payment record
-                com.bms.backend.entity.PaymentTransaction newPayment = new com.bms.backend.entity.PaymentTransaction();
+                PaymentTransaction newPayment = new PaymentTransaction();
                 newPayment.setTenant(connection.getTenant());
                 newPayment.setConnection(connection);
                 newPayment.setAmount(monthlyRent);
                 newPayment.setCurrency("USD");
-                newPayment.setStatus(com.bms.backend.entity.PaymentTransaction.PaymentStatus.PENDING);
+                newPayment.setStatus(PaymentTransaction.PaymentStatus.PENDING);
                 newPayment.setDescription("Monthly rent for " + connection.getPropertyName() + " - " +
                     current.getMonth() + " " + current.getYear());
 
                 // Set due date to 1st of the month in UTC
-                LocalDate dueDate = current.atDay(1);
-                Instant dueDateInstant = dueDate.atStartOfDay(java.time.ZoneId.of("UTC")).toInstant();
-                newPayment.setDueDate(dueDateInstant);
+                newPayment.setDueDate(current.atDay(1).atStartOfDay(UTC).toInstant());
 
                 newPayments.add(newPayment);
             }
             current = current.plusMonths(1);
         }
-
-        // Bulk save all new payment records
-        if (!newPayments.isEmpty()) {
-            paymentTransactionRepository.saveAll(newPayments);
-            System.out.println("✅ Created " + newPayments.size() + " payment records in bulk for lease " + connection.getId());
-        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,168 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.response.MaintenanceCountsResponse;
+import com.bms.backend.entity.MaintenanceRequest;
+import com.bms.backend.repository.MaintenanceRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-manager maintenance request counts by status, priority and service category, held in memory.
+ *
+ * All managers are seeded from one grouped query once the application is ready and reconciled the same way
+ * on a schedule. In between, the service methods that create, delete or change the status of requests
+ * report the change and the counts are adjusted after commit, so reading a manager's counts never touches
+ * the database. Until the first seed has finished, counts are read with a grouped query for that manager.
+ */
+@Service
+public class MaintenanceCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceCounterService.class);
+
+    @Autowired
+    private MaintenanceRequestRepository maintenanceRequestRepository;
+
+    private volatile Map<UUID, ManagerCounts> counts = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    // A change committed while the query runs can be off by one until the next reconcile
+    @Scheduled(fixedDelayString = "${app.maintenance.counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.maintenance.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            Map<UUID, ManagerCounts> seeded = new ConcurrentHashMap<>();
+            for (Object[] row : maintenanceRequestRepository.countByManagerStatusPriorityAndCategory()) {
+                seeded.computeIfAbsent((UUID) row[0], id -> new ManagerCounts())
+                        .add((MaintenanceRequest.Status) row[1], (MaintenanceRequest.Priority) row[2],
+                                (UUID) row[3], (Long) row[4]);
+            }
+            counts = seeded;
+            ready = true;
+        } catch (RuntimeException e) {
+            logger.warn("Maintenance counter reconcile failed: {}", e.getMessage());
+        }
+    }
+
+    public MaintenanceCountsResponse getCounts(UUID managerId) {
+        if (!ready) {
+            ManagerCounts loaded = new ManagerCounts();
+            for (Object[] row : maintenanceRequestRepository.countByStatusPriorityAndCategoryForManager(managerId)) {
+                loaded.add((MaintenanceRequest.Status) row[0], (MaintenanceRequest.Priority) row[1],
+                        (UUID) row[2], (Long) row[3]);
+            }
+            return loaded.toResponse();
+        }
+        ManagerCounts managerCounts = counts.get(managerId);
+        return managerCounts == null ? new ManagerCounts().toResponse() : managerCounts.toResponse();
+    }
+
+    public void requestCreated(MaintenanceRequest request) {
+        UUID managerId = managerOf(request);
+        MaintenanceRequest.Status status = request.getStatus();
+        MaintenanceRequest.Priority priority = request.getPriority();
+        UUID categoryId = categoryOf(request);
+        afterCommit(() -> counts.computeIfAbsent(managerId, id -> new ManagerCounts())
+                .add(status, priority, categoryId, 1));
+    }
+
+    public void requestDeleted(MaintenanceRequest request) {
+        UUID managerId = managerOf(request);
+        MaintenanceRequest.Status status = request.getStatus();
+        MaintenanceRequest.Priority priority = request.getPriority();
+        UUID categoryId = categoryOf(request);
+        afterCommit(() -> counts.computeIfAbsent(managerId, id -> new ManagerCounts())
+                .add(status, priority, categoryId, -1));
+    }
+
+    public void statusChanged(MaintenanceRequest request, MaintenanceRequest.Status oldStatus) {
+        MaintenanceRequest.Status newStatus = request.getStatus();
+        if (oldStatus == newStatus) {
+            return;
+        }
+        UUID managerId = managerOf(request);
+        afterCommit(() -> counts.computeIfAbsent(managerId, id -> new ManagerCounts()).move(oldStatus, newStatus));
+    }
+
+    private static UUID managerOf(MaintenanceRequest request) {
+        return request.getApartment().getProperty().getManager().getId();
+    }
+
+    private static UUID categoryOf(MaintenanceRequest request) {
+        return request.getServiceCategory() != null ? request.getServiceCategory().getId() : null;
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private static final class ManagerCounts {
+        private final AtomicLong total = new AtomicLong();
+        private final Map<String, AtomicLong> byStatus = new ConcurrentHashMap<>();
+        private final Map<String, AtomicLong> byPriority = new ConcurrentHashMap<>();
+        private final Map<String, AtomicLong> byCategory = new ConcurrentHashMap<>();
+
+        private void add(MaintenanceRequest.Status status, MaintenanceRequest.Priority priority, UUID categoryId,
+                         long delta) {
+            total.addAndGet(delta);
+            increment(byStatus, status, delta);
+            increment(byPriority, priority, delta);
+            increment(byCategory, categoryId, delta);
+        }
+
+        private void move(MaintenanceRequest.Status from, MaintenanceRequest.Status to) {
+            increment(byStatus, from, -1);
+            increment(byStatus, to, 1);
+        }
+
+        private static void increment(Map<String, AtomicLong> counters, Object key, long delta) {
+            if (key != null) {
+                counters.computeIfAbsent(key.toString(), k -> new AtomicLong()).addAndGet(delta);
+            }
+        }
+
+        private MaintenanceCountsResponse toResponse() {
+            return new MaintenanceCountsResponse(total.get(), snapshot(byStatus), snapshot(byPriority),
+                    snapshot(byCategory));
+        }
+
+        private static Map<String, Long> snapshot(Map<String, AtomicLong> counters) {
+            Map<String, Long> snapshot = new TreeMap<>();
+            counters.forEach((key, value) -> {
+                long count = value.get();
+                if (count > 0) {
+                    snapshot.put(key, count);
+                }
+            });
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.bms.backend.service;
+
+import com.bms.backend.entity.MaintenanceRequest;
+import com.bms.backend.repository.MaintenanceRequestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Spots maintenance reports that repeat a recent open request of the same unit.
+ *
+ * Each apartment's open requests from the detection window are held in memory as category plus the
+ * character trigrams ("shingles") of the normalized title, or of the description when there is no title.
+ * A new report is a duplicate of the candidate in the same category whose shingle sets overlap the most
+ * (Jaccard similarity), provided that overlap reaches the configured minimum. An apartment is loaded from
+ * the database the first time it is checked and reloaded after a few minutes; requests created, closed or
+ * deleted through the service update the loaded entries after commit. Least recently checked apartments
+ * are dropped once the cache is full.
+ */
+@Service
+public class MaintenanceDuplicateDetector {
+
+    private static final int SHINGLE_SIZE = 3;
+    private static final Duration RELOAD_AFTER = Duration.ofMinutes(10);
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Autowired
+    private MaintenanceRequestRepository maintenanceRequestRepository;
+
+    @Value("${app.maintenance.duplicates.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.maintenance.duplicates.merge:false}")
+    private boolean merge;
+
+    @Value("${app.maintenance.duplicates.window-hours:72}")
+    private long windowHours;
+
+    @Value("${app.maintenance.duplicates.min-similarity:0.6}")
+    private double minSimilarity;
+
+    @Value("${app.maintenance.duplicates.max-apartments:10000}")
+    private int maxApartments;
+
+    private final Map<UUID, ApartmentRequests> apartments = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, ApartmentRequests> eldest) {
+                    return size() > maxApartments;
+                }
+            });
+
+    /**
+     * Whether a duplicate should be merged into the original request instead of being created and flagged.
+     */
+    public boolean isMergeEnabled() {
+        return merge;
+    }
+
+    /**
+     * The open request in the apartment and category that the report most likely repeats, oldest first on ties.
+     */
+    public Optional<UUID> findDuplicate(UUID apartmentId, UUID serviceCategoryId, String title, String description) {
+        if (!enabled || apartmentId == null || serviceCategoryId == null) {
+            return Optional.empty();
+        }
+        Set<String> shingles = shingles(title, description);
+        if (shingles.isEmpty()) {
+            return Optional.empty();
+        }
+        Instant now = Instant.now();
+        return load(apartmentId, now).bestMatch(serviceCategoryId, shingles, now.minus(window()), minSimilarity);
+    }
+
+    /**
+     * Records a created or changed request: open requests become (or stay) candidates, closed ones are dropped.
+     */
+    public void requestChanged(MaintenanceRequest request) {
+        if (!enabled || request.getId() == null || request.getApartment() == null) {
+            return;
+        }
+        UUID apartmentId = request.getApartment().getId();
+        UUID requestId = request.getId();
+        if (!MaintenanceRequest.isOpen(request.getStatus()) || request.getServiceCategory() == null) {
+            afterCommit(() -> forget(apartmentId, requestId));
+            return;
+        }
+        Candidate candidate = new Candidate(requestId, request.getServiceCategory().getId(),
+                request.getCreatedAt() != null ? request.getCreatedAt() : Instant.now(),
+                shingles(request.getTitle(), request.getDescription()));
+        afterCommit(() -> {
+            ApartmentRequests loaded = apartments.get(apartmentId);
+            if (loaded != null) {
+                loaded.put(candidate);
+            }
+        });
+    }
+
+    public void requestRemoved(UUID apartmentId, UUID requestId) {
+        if (enabled && apartmentId != null) {
+            afterCommit(() -> forget(apartmentId, requestId));
+        }
+    }
+
+    private ApartmentRequests load(UUID apartmentId, Instant now) {
+        ApartmentRequests loaded = apartments.get(apartmentId);
+        if (loaded != null && loaded.loadedAt.isAfter(now.minus(RELOAD_AFTER))) {
+            return loaded;
+        }
+        ApartmentRequests fresh = new ApartmentRequests(now);
+        for (Object[] row : maintenanceRequestRepository.findOpenDuplicateCandidates(apartmentId, now.minus(window()))) {
+            fresh.put(new Candidate((UUID) row[0], (UUID) row[1], (Instant) row[4],
+                    shingles((String) row[2], (String) row[3])));
+        }
+        apartments.put(apartmentId, fresh);
+        return fresh;
+    }
+
+    private void forget(UUID apartmentId, UUID requestId) {
+        ApartmentRequests loaded = apartments.get(apartmentId);
+        if (loaded != null) {
+            loaded.remove(requestId);
+        }
+    }
+
+    private Duration window() {
+        return Duration.ofHours(windowHours);
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    static Set<String> shingles(String title, String description) {
+        String text = title != null && !title.isBlank() ? title : description;
+        if (text == null) {
+            return Set.of();
+        }
+        String normalized = NON_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        if (normalized.isEmpty()) {
+            return Set.of();
+        }
+        if (normalized.length() < SHINGLE_SIZE) {
+            return Set.of(normalized);
+        }
+        Set<String> shingles = new HashSet<>();
+        for (int i = 0; i + SHINGLE_SIZE <= normalized.length(); i++) {
+            shingles.add(normalized.substring(i, i + SHINGLE_SIZE));
+        }
+        return shingles;
+    }
+
+    static double similarity(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int shared = 0;
+        for (String shingle : smaller) {
+            if (larger.contains(shingle)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    private static final class Candidate {
+        private final UUID id;
+        private final UUID serviceCategoryId;
+        private final Instant createdAt;
+        private final Set<String> shingles;
+
+        private Candidate(UUID id, UUID serviceCategoryId, Instant createdAt, Set<String> shingles) {
+            this.id = id;
+            this.serviceCategoryId = serviceCategoryId;
+            this.createdAt = createdAt;
+            this.shingles = shingles;
+        }
+    }
+
+    private static final class ApartmentRequests {
+        private final Instant loadedAt;
+        private final Map<UUID, Candidate> candidates = new HashMap<>();
+
+        private ApartmentRequests(Instant loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        private synchronized void put(Candidate candidate) {
+            candidates.put(candidate.id, candidate);
+        }
+
+        private synchronized void remove(UUID requestId) {
+            candidates.remove(requestId);
+        }
+
+        private synchronized Optional<UUID> bestMatch(UUID serviceCategoryId, Set<String> shingles,
+                                                      Instant since, double minSimilarity) {
+            candidates.values().removeIf(candidate -> candidate.createdAt.isBefore(since));
+            Candidate best = null;
+            double bestScore = minSimilarity;
+            for (Candidate candidate : candidates.values()) {
+                if (!candidate.serviceCategoryId.equals(serviceCategoryId)) {
+                    continue;
+                }
+                double score = similarity(shingles, candidate.shingles);
+                if (score > bestScore || (score == bestScore && (best == null || candidate.createdAt.isBefore(best.createdAt)))) {
+                    best = candidate;
+                    bestScore = score;
+                }
+            }
+            return best == null ? Optional.empty() : Optional.of(best.id);
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.response.MaintenanceProgressResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process event bus that pushes maintenance progress updates to connected clients as server-sent events.
+ *
+ * Each user has a stream holding an event sequence, a bounded replay log and the open connections. Publishing
+ * never blocks on a client: the event is appended to the log and offered to each connection's bounded queue,
+ * and a delivery pool drains the queues. A connection whose queue overflows is closed and catches up
+ * through Last-Event-ID when it reconnects. Writes to a client whose socket is full block, so every send has a
+ * deadline: a once-a-second sweep closes connections stuck in a send past it, and the pool grows while threads
+ * are stuck so other clients keep receiving events. Heartbeats go through the same queues. Sequences start from the wall clock, so ids issued after a restart
+ * are greater than any id a client saw before it; a client whose next event is no longer in the log gets a
+ * "resync" event and should reload its data.
+ */
+@Service
+public class MaintenanceEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceEventService.class);
+
+    private static final int DELIVERY_THREADS = 2;
+    // Upper bound while some threads are stuck writing to slow clients
+    private static final int MAX_DELIVERY_THREADS = 32;
+
+    public static final String UPDATE_EVENT = "maintenance-update";
+    public static final String RESYNC_EVENT = "resync";
+
+    @Value("${app.maintenance.events.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${app.maintenance.events.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.maintenance.events.replay-size:100}")
+    private int replaySize;
+
+    @Value("${app.maintenance.events.replay-ttl-ms:3600000}")
+    private long replayTtlMs;
+
+    @Value("${app.maintenance.events.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${app.maintenance.events.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    private final Map<UUID, UserStream> streams = new ConcurrentHashMap<>();
+
+    private final ExecutorService deliveryExecutor = new ThreadPoolExecutor(DELIVERY_THREADS, MAX_DELIVERY_THREADS,
+            60, TimeUnit.SECONDS, new SynchronousQueue<>(), daemonThreads("maintenance-events"));
+    private final ScheduledExecutorService heartbeatExecutor =
+            Executors.newSingleThreadScheduledExecutor(daemonThreads("maintenance-events-heartbeat"));
+
+    public MaintenanceEventService(@Value("${app.maintenance.events.heartbeat-seconds:20}") long heartbeatSeconds) {
+        heartbeatExecutor.scheduleAtFixedRate(this::heartbeatAndPrune, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        heartbeatExecutor.scheduleAtFixedRate(this::sweepSends, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens a stream for the user, first replaying anything after {@code lastEventId} that is still in the log.
+     * When the user already has the maximum number of open streams, the oldest one is closed.
+     */
+    public SseEmitter subscribe(UUID userId, Long lastEventId) {
+        SseEmitter emitter = createEmitter(emitterTimeoutMs);
+        // Room for a full replay on top of the live buffer
+        Subscriber subscriber = new Subscriber(userId, emitter, bufferSize + replaySize + 1);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        List<Subscriber> evicted = new ArrayList<>(1);
+        // compute() keeps this atomic with pruning, which removes idle streams through the same map
+        streams.compute(userId, (id, existing) -> {
+            UserStream stream = existing != null ? existing : new UserStream();
+            synchronized (stream) {
+                if (stream.subscribers.size() >= maxConnectionsPerUser) {
+                    evicted.add(stream.subscribers.remove(0));
+                }
+                stream.subscribers.add(subscriber);
+
+                if (lastEventId != null) {
+                    long firstAvailable = stream.log.isEmpty() ? stream.sequence + 1 : stream.log.peekFirst().id;
+                    if (lastEventId + 1 < firstAvailable) {
+                        subscriber.queue.offer(new Event(stream.sequence, RESYNC_EVENT,
+                                "Missed events are no longer available; reload"));
+                    }
+                    for (Event event : stream.log) {
+                        if (event.id > lastEventId) {
+                            subscriber.queue.offer(event);
+                        }
+                    }
+                }
+            }
+            return stream;
+        });
+        evicted.forEach(Subscriber::close);
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Publishes an update to each recipient. Inside a transaction the event is held until commit,
+     * so clients never see an update that was rolled back.
+     */
+    public void publish(Collection<UUID> recipientIds, MaintenanceProgressResponse update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<UUID> recipients = new ArrayList<>(recipientIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(recipients, update);
+                }
+            });
+        } else {
+            dispatch(recipientIds, update);
+        }
+    }
+
+    public int getConnectionCount(UUID userId) {
+        UserStream stream = streams.get(userId);
+        if (stream == null) {
+            return 0;
+        }
+        synchronized (stream) {
+            return stream.subscribers.size();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        deliveryExecutor.shutdownNow();
+        for (UserStream stream : streams.values()) {
+            for (Subscriber subscriber : stream.snapshot()) {
+                subscriber.close();
+            }
+        }
+        streams.clear();
+    }
+
+    // Seam for tests, which capture what is sent instead of writing to a response
+    SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void dispatch(Collection<UUID> recipientIds, MaintenanceProgressResponse update) {
+        for (UUID userId : recipientIds) {
+            List<Subscriber> overflowed = new ArrayList<>();
+            List<Subscriber> ready = new ArrayList<>();
+            streams.compute(userId, (id, existing) -> {
+                UserStream stream = existing != null ? existing : new UserStream();
+                synchronized (stream) {
+                    Event event = new Event(++stream.sequence, UPDATE_EVENT, update);
+                    stream.lastEventAt = System.currentTimeMillis();
+                    stream.log.addLast(event);
+                    while (stream.log.size() > replaySize) {
+                        stream.log.removeFirst();
+                    }
+                    for (Subscriber subscriber : stream.subscribers) {
+                        if (subscriber.queue.offer(event)) {
+                            ready.add(subscriber);
+                        } else {
+                            overflowed.add(subscriber);
+                        }
+                    }
+                }
+                return stream;
+            });
+            ready.forEach(this::scheduleDrain);
+            for (Subscriber subscriber : overflowed) {
+                // Slow consumer; it resumes from its Last-Event-ID after reconnecting
+                logger.debug("Event buffer full for user {}, closing stream", userId);
+                subscriber.close();
+            }
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                deliveryExecutor.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                // Pool saturated; the sweep schedules it again
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Event event;
+            while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                subscriber.sendStartedAt = System.currentTimeMillis();
+                if (event == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.id))
+                            .name(event.name)
+                            .data(event.data, MediaType.APPLICATION_JSON));
+                }
+                subscriber.sendStartedAt = 0;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            subscriber.close();
+        } finally {
+            subscriber.sendStartedAt = 0;
+            subscriber.draining.set(false);
+        }
+        // An event may have been queued after the last poll but before the flag was released
+        if (!subscriber.closed.get() && !subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void heartbeatAndPrune() {
+        long pruneBefore = System.currentTimeMillis() - replayTtlMs;
+        for (Map.Entry<UUID, UserStream> entry : streams.entrySet()) {
+            UserStream stream = entry.getValue();
+            for (Subscriber subscriber : stream.snapshot()) {
+                // A full queue already means the client is behind; it is closed on the next publish
+                if (subscriber.queue.offer(HEARTBEAT)) {
+                    scheduleDrain(subscriber);
+                }
+            }
+            // Forget idle users; a later reconnect with an old id gets a resync
+            streams.computeIfPresent(entry.getKey(), (id, current) -> {
+                synchronized (current) {
+                    return current.subscribers.isEmpty() && current.lastEventAt < pruneBefore ? null : current;
+                }
+            });
+        }
+    }
+
+    // Closes connections stuck in one send past the deadline and restarts drains the pool turned away
+    private void sweepSends() {
+        long stalledBefore = System.currentTimeMillis() - sendTimeoutMs;
+        for (UserStream stream : streams.values()) {
+            for (Subscriber subscriber : stream.snapshot()) {
+                long started = subscriber.sendStartedAt;
+                if (started != 0 && started < stalledBefore) {
+                    logger.debug("Send to user {} exceeded {} ms, closing stream", subscriber.userId, sendTimeoutMs);
+                    subscriber.fail(new IOException("Send timed out"));
+                } else if (!subscriber.draining.get() && !subscriber.queue.isEmpty()) {
+                    scheduleDrain(subscriber);
+                }
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        UserStream stream = streams.get(subscriber.userId);
+        if (stream != null) {
+            synchronized (stream) {
+                stream.subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Guarded by its own monitor
+    private static final class UserStream {
+        private long sequence = System.currentTimeMillis() << 10;
+        private long lastEventAt = System.currentTimeMillis();
+        private final Deque<Event> log = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+
+        private synchronized List<Subscriber> snapshot() {
+            return new ArrayList<>(subscribers);
+        }
+    }
+
+    private static final Event HEARTBEAT = new Event(-1, null, null);
+
+    private static final class Event {
+        private final long id;
+        private final String name;
+        private final Object data;
+
+        private Event(long id, String name, Object data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private final class Subscriber {
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        // When the send in progress started, 0 when idle
+        private volatile long sendStartedAt;
+
+        private Subscriber(UUID userId, SseEmitter emitter, int capacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                unsubscribe(this);
+                try {
+                    emitter.complete();
+                } catch (RuntimeException ignored) {
+                    // Already completed
+                }
+            }
+        }
+
+        // Ends the response with an error so the container drops the connection and a blocked write fails
+        private void fail(Throwable error) {
+            if (closed.compareAndSet(false, true)) {
+                unsubscribe(this);
+                try {
+                    emitter.completeWithError(error);
+                } catch (RuntimeException ignored) {
+                    // Already completed
+                }
+            }
+        }
+    }
+}
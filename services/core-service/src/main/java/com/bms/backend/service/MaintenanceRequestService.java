@@ -5,26 +5,59 @@ import com.bms.backend.dto.request.MaintenanceRequestUpdateRequest;
 import com.bms.backend.dto.request.MaintenanceUpdateRequest;
 import com.bms.backend.dto.request.MaintenanceStatusUpdateRequest;
 import com.bms.backend.dto.request.BulkMaintenanceRequestCreateRequest;
+import com.bms.backend.dto.response.MaintenanceCountsResponse;
 import com.bms.backend.dto.response.MaintenanceDetailsResponse;
+import com.bms.backend.dto.response.MaintenancePhotoPageResponse;
+import com.bms.backend.dto.response.MaintenanceRequestListItemDto;
+import com.bms.backend.dto.response.MaintenanceRequestPageResponse;
+import com.bms.backend.dto.response.MaintenanceSummaryResponse;
+import com.bms.backend.dto.response.MaintenanceTimelineResponse;
+import com.bms.backend.dto.response.MaintenanceWorkQueueResponse;
 import com.bms.backend.dto.response.MaintenanceProgressResponse;
 import com.bms.backend.dto.response.MaintenancePhotoResponse;
 import com.bms.backend.dto.response.BulkMaintenanceRequestResponse;
 import com.bms.backend.entity.*;
 import com.bms.backend.enums.UserRole;
 import com.bms.backend.repository.*;
+import com.bms.backend.util.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class MaintenanceRequestService {
 
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceRequestService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_PHOTO_PAGE_SIZE = 10;
+    private static final int MAX_PHOTO_PAGE_SIZE = 50;
+    private static final int SUMMARY_RECENT_REQUESTS = 5;
+    private static final int DEFAULT_TIMELINE_PAGE_SIZE = 20;
+    private static final int MAX_TIMELINE_PAGE_SIZE = 100;
+    private static final int DETAIL_RECENT_UPDATES = 5;
+    private static final String[] AGE_BUCKETS = {"UNDER_24H", "ONE_TO_THREE_DAYS", "OVER_3_DAYS"};
+
     @Autowired
     private MaintenanceRequestRepository maintenanceRequestRepository;
 
@@ -46,6 +79,30 @@ public class MaintenanceRequestService {
     @Autowired
     private S3Service s3Service;
 
+    @Autowired
+    private BlobOffloadService blobOffloadService;
+
+    @Autowired
+    private MaintenanceUnreadCounterRepository unreadCounterRepository;
+
+    @Autowired
+    private MaintenanceEventService maintenanceEventService;
+
+    @Autowired
+    private PortfolioSearchService portfolioSearchService;
+
+    @Autowired
+    private MaintenanceDuplicateDetector duplicateDetector;
+
+    @Autowired
+    private MaintenanceCounterService counterService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ObjectDeletionService objectDeletionService;
+
     public MaintenanceRequest createMaintenanceRequest(MaintenanceRequestCreateRequest request, User requester) {
         Optional<Apartment> apartment = apartmentRepository.findById(request.getApartmentId());
         Optional<ServiceCategory> serviceCategory = serviceCategoryRepository.findById(request.getServiceCategoryId());
@@ -57,6 +114,17 @@ public class MaintenanceRequestService {
             throw new RuntimeException("Service category not found");
         }
 
+        // A report repeating a recent open request of the unit is flagged, or merged into it when configured
+        Optional<UUID> duplicateOf = Boolean.TRUE.equals(request.getAllowDuplicate()) ? Optional.empty()
+                : duplicateDetector.findDuplicate(apartment.get().getId(), serviceCategory.get().getId(),
+                        request.getTitle(), request.getDescription());
+        if (duplicateOf.isPresent() && duplicateDetector.isMergeEnabled()) {
+            Optional<MaintenanceRequest> original = mergeRepeatedReport(duplicateOf.get(), request, requester);
+            if (original.isPresent()) {
+                return original.get();
+            }
+        }
+
         MaintenanceRequest maintenanceRequest = new MaintenanceRequest();
         maintenanceRequest.setApartment(apartment.get());
         maintenanceRequest.setServiceCategory(serviceCategory.get());
@@ -73,51 +141,232 @@ public class MaintenanceRequestService {
             maintenanceRequest.setTenant(requester);
         }
         
+        maintenanceRequest.setPossibleDuplicateOfId(duplicateOf.orElse(null));
         maintenanceRequest.setCreatedAt(Instant.now());
         maintenanceRequest.setUpdatedAt(Instant.now());
 
+        // Upload photos first so a failed upload doesn't leave a request behind
+        List<BlobOffloadService.StoredBlob> photos = storePhotos(request.getPhotos(), requester);
+
         MaintenanceRequest savedRequest = maintenanceRequestRepository.save(maintenanceRequest);
+        savePhotoRows(savedRequest, photos);
+        portfolioSearchService.maintenanceRequestChanged(savedRequest.getId());
+        duplicateDetector.requestChanged(savedRequest);
+        counterService.requestCreated(savedRequest);
 
-        // Save photos if provided
-        if (request.getPhotos() != null && !request.getPhotos().isEmpty()) {
-            for (String photoData : request.getPhotos()) {
-                MaintenanceRequestPhoto photo = new MaintenanceRequestPhoto();
-                photo.setMaintenanceRequest(savedRequest);
-                photo.setPhotoData(photoData);
-                photo.setCreatedAt(Instant.now());
-                maintenanceRequestPhotoRepository.save(photo);
+        return savedRequest;
+    }
+
+    /**
+     * Adds a repeated report to the original open request as a note instead of creating a new request.
+     * Its photos are only stored when the original has none. Empty when the original has closed meanwhile, or
+     * when the reporter cannot open it (another tenant's request for the unit); the report then becomes a request
+     * of its own, flagged as a possible duplicate.
+     */
+    private Optional<MaintenanceRequest> mergeRepeatedReport(UUID originalId, MaintenanceRequestCreateRequest request,
+                                                             User requester) {
+        Optional<MaintenanceRequest> existing = maintenanceRequestRepository.findById(originalId);
+        if (existing.isEmpty() || !MaintenanceRequest.isOpen(existing.get().getStatus())) {
+            return Optional.empty();
+        }
+        MaintenanceRequest original = existing.get();
+        if (!canViewRequest(original, requester)) {
+            return Optional.empty();
+        }
+
+        if (maintenanceRequestPhotoRepository.countByMaintenanceRequestId(originalId) == 0) {
+            savePhotoRows(original, storePhotos(request.getPhotos(), requester));
+        }
+
+        MaintenanceUpdate update = new MaintenanceUpdate();
+        update.setMaintenanceRequest(original);
+        update.setUser(requester);
+        update.setUpdatedBy(requester);
+        update.setUpdateType(MaintenanceUpdate.UpdateType.NOTE);
+        update.setMessage("Reported again: " + request.getDescription());
+        update.setCreatedAt(Instant.now());
+        MaintenanceUpdate savedUpdate = maintenanceUpdateRepository.save(update);
+        onUpdateWritten(original, savedUpdate, requester);
+
+        original.setMergedDuplicate(true);
+        return Optional.of(original);
+    }
+
+    /**
+     * Decodes base64 photos straight into object storage; photos given as http(s) URLs are kept as links.
+     * If any photo fails, the ones already uploaded are removed again and the error is rethrown.
+     */
+    private List<BlobOffloadService.StoredBlob> storePhotos(List<String> photos, User uploader) {
+        List<BlobOffloadService.StoredBlob> stored = new ArrayList<>();
+        if (photos == null || photos.isEmpty()) {
+            return stored;
+        }
+        try {
+            for (String photoData : photos) {
+                stored.add(blobOffloadService.store(photoData, uploader.getId(),
+                        S3Service.FileType.MAINTENANCE, "image/jpeg"));
             }
+            return stored;
+        } catch (IOException | RuntimeException e) {
+            for (BlobOffloadService.StoredBlob blob : stored) {
+                if (blob.isReference()) {
+                    continue;
+                }
+                try {
+                    s3Service.deleteFile(blob.getUrl());
+                } catch (Exception cleanupError) {
+                    logger.warn("Failed to remove maintenance photo {} after failed upload", blob.getKey(), cleanupError);
+                }
+            }
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new RuntimeException("Failed to store maintenance photo: " + e.getMessage(), e);
         }
+    }
 
-        return savedRequest;
+    private void savePhotoRows(MaintenanceRequest maintenanceRequest, List<BlobOffloadService.StoredBlob> photos) {
+        List<MaintenanceRequestPhoto> saved = new ArrayList<>();
+        for (BlobOffloadService.StoredBlob blob : photos) {
+            MaintenanceRequestPhoto photo = new MaintenanceRequestPhoto(maintenanceRequest, blob.getUrl());
+            photo.setStorageKey(blob.getKey());
+            photo.setPhotoSize(blob.getSize());
+            photo.setContentHash(blob.getSha256());
+            photo.setCreatedAt(Instant.now());
+            saved.add(maintenanceRequestPhotoRepository.save(photo));
+        }
+        // List rows show a thumbnail once it has been generated
+        imageDerivativeService.maintenancePhotosStored(saved);
     }
 
-    public List<MaintenanceRequest> getMaintenanceRequestsByManager(User manager) {
-        return maintenanceRequestRepository.findByManagerWithDetails(manager);
+    /**
+     * One keyset page of maintenance requests for the criteria scope and filters.
+     * Rows are flat projections; photos are summarized as a count and the first photo reference,
+     * loaded for the whole page in one query without photo data.
+     */
+    @Transactional(readOnly = true)
+    public MaintenanceRequestPageResponse listMaintenanceRequests(MaintenanceListCriteria criteria,
+                                                                  String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            criteria.setCursor(position.getPosition(), position.getId());
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<MaintenanceRequestListItemDto> rows = maintenanceRequestRepository.findListPage(criteria, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+        }
+
+        attachPhotoRefs(rows);
+
+        MaintenanceRequestListItemDto last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        String nextCursor = hasMore ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null;
+        return new MaintenanceRequestPageResponse(rows, nextCursor);
     }
 
-    public List<MaintenanceRequest> getMaintenanceRequestsByTenant(String tenantEmail) {
-        return maintenanceRequestRepository.findByTenantEmail(tenantEmail);
+    public MaintenanceCountsResponse getManagerMaintenanceCounts(User manager) {
+        return counterService.getCounts(manager.getId());
     }
 
-    public List<MaintenanceRequest> getMaintenanceRequestsByStatus(MaintenanceRequest.Status status, User manager) {
-        return maintenanceRequestRepository.findByStatusAndApartmentPropertyManager(status, manager);
+    /**
+     * One keyset page of a manager's open requests, highest priority first and oldest first within a priority.
+     * Closed requests carry no queue rank, so the page and the counts read only open rows. The first page also
+     * carries SLA age bucket counts (age since creation) from one GROUP BY query.
+     */
+    @Transactional(readOnly = true)
+    public MaintenanceWorkQueueResponse getMaintenanceWorkQueue(User manager, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        MaintenanceListCriteria criteria = MaintenanceListCriteria.openQueueForManager(manager);
+        boolean firstPage = cursor == null || cursor.isBlank();
+        if (!firstPage) {
+            KeysetCursor position = KeysetCursor.decodeRanked(cursor);
+            criteria.setQueueCursor(position.getRank(), position.getPosition(), position.getId());
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<MaintenanceRequestListItemDto> rows = maintenanceRequestRepository.findListPage(criteria, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+        }
+
+        attachPhotoRefs(rows);
+
+        MaintenanceRequestListItemDto last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        String nextCursor = hasMore ? encodeQueueCursor(last) : null;
+        Instant now = Instant.now();
+        MaintenanceWorkQueueResponse response = new MaintenanceWorkQueueResponse(rows, nextCursor, now);
+        if (firstPage) {
+            attachAgeBuckets(response, manager, now);
+        }
+        return response;
     }
 
-    public List<MaintenanceRequest> getMaintenanceRequestsByPriority(MaintenanceRequest.Priority priority, User manager) {
-        return maintenanceRequestRepository.findByPriorityAndApartmentPropertyManager(priority, manager);
+    private void attachAgeBuckets(MaintenanceWorkQueueResponse response, User manager, Instant now) {
+        Map<String, Long> totals = emptyAgeBuckets();
+        Map<String, Map<String, Long>> byPriority = new LinkedHashMap<>();
+        long totalOpen = 0;
+        List<Object[]> counts = maintenanceRequestRepository.countOpenQueueByPriorityAndAge(
+                manager, now.minus(Duration.ofDays(1)), now.minus(Duration.ofDays(3)));
+        for (Object[] row : counts) {
+            Map<String, Long> buckets = emptyAgeBuckets();
+            for (int i = 0; i < AGE_BUCKETS.length; i++) {
+                long count = row[i + 1] == null ? 0 : ((Number) row[i + 1]).longValue();
+                buckets.put(AGE_BUCKETS[i], count);
+                totals.merge(AGE_BUCKETS[i], count, Long::sum);
+                totalOpen += count;
+            }
+            byPriority.put(row[0].toString(), buckets);
+        }
+        response.setTotalOpen(totalOpen);
+        response.setAgeBuckets(totals);
+        response.setAgeBucketsByPriority(byPriority);
     }
 
-    public List<MaintenanceRequest> getMaintenanceRequestsByServiceCategory(UUID serviceCategoryId, User manager) {
-        return maintenanceRequestRepository.findByServiceCategoryIdAndApartmentPropertyManager(serviceCategoryId, manager);
+    private static Map<String, Long> emptyAgeBuckets() {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (String bucket : AGE_BUCKETS) {
+            buckets.put(bucket, 0L);
+        }
+        return buckets;
+    }
+
+    /**
+     * Dashboard summary for a tenant: status/priority counts from one GROUP BY query
+     * plus the most recent requests as list rows.
+     */
+    @Transactional(readOnly = true)
+    public MaintenanceSummaryResponse getTenantMaintenanceSummary(User tenant) {
+        Map<String, Long> statusCounts = new HashMap<>();
+        Map<String, Long> priorityCounts = new HashMap<>();
+        long total = 0;
+        for (Object[] row : maintenanceRequestRepository.countByStatusAndPriorityForParticipant(tenant.getEmail())) {
+            long count = (Long) row[2];
+            total += count;
+            if (row[0] != null) {
+                statusCounts.merge(row[0].toString(), count, Long::sum);
+            }
+            if (row[1] != null) {
+                priorityCounts.merge(row[1].toString(), count, Long::sum);
+            }
+        }
+
+        List<MaintenanceRequestListItemDto> recentRequests = total == 0 ? new ArrayList<>()
+                : listMaintenanceRequests(MaintenanceListCriteria.forParticipant(tenant.getEmail()), null,
+                        SUMMARY_RECENT_REQUESTS).getRequests();
+
+        return new MaintenanceSummaryResponse(total, statusCounts, priorityCounts, recentRequests);
     }
 
-    public List<MaintenanceRequest> getMaintenanceRequestsByApartment(UUID apartmentId, User manager) {
-        return maintenanceRequestRepository.findByApartmentIdAndApartmentPropertyManager(apartmentId, manager);
+    public int getUnreadUpdateCount(User user) {
+        return unreadCounterRepository.findUnreadCountByUserId(user.getId()).orElse(0);
     }
 
-    public List<MaintenanceRequest> getMaintenanceRequestsByAssignee(User assignee) {
-        return maintenanceRequestRepository.findByAssignedTo(assignee);
+    public void markUpdatesRead(User user) {
+        unreadCounterRepository.reset(user.getId(), Instant.now());
     }
 
     public Optional<MaintenanceRequest> getMaintenanceRequestById(UUID id) {
@@ -141,10 +390,14 @@ public class MaintenanceRequestService {
         }
 
         // Update status
+        MaintenanceRequest.Status oldStatus = maintenanceRequest.getStatus();
         maintenanceRequest.setStatus(request.getStatus());
         maintenanceRequest.setUpdatedAt(Instant.now());
         
         MaintenanceRequest updatedRequest = maintenanceRequestRepository.save(maintenanceRequest);
+        portfolioSearchService.maintenanceRequestChanged(id);
+        duplicateDetector.requestChanged(updatedRequest);
+        counterService.statusChanged(updatedRequest, oldStatus);
         
         // Add description as maintenance update if provided
         if (request.getDescription() != null && !request.getDescription().trim().isEmpty()) {
@@ -154,7 +407,8 @@ public class MaintenanceRequestService {
             update.setUpdateType(MaintenanceUpdate.UpdateType.STATUS_CHANGE);
             update.setUpdatedBy(updater);
             update.setCreatedAt(Instant.now());
-            maintenanceUpdateRepository.save(update);
+            MaintenanceUpdate savedUpdate = maintenanceUpdateRepository.save(update);
+            onUpdateWritten(updatedRequest, savedUpdate, updater);
         }
 
         return updatedRequest;
@@ -185,17 +439,65 @@ public class MaintenanceRequestService {
         update.setUpdatedBy(updater);
         update.setCreatedAt(Instant.now());
 
-        return maintenanceUpdateRepository.save(update);
+        MaintenanceUpdate savedUpdate = maintenanceUpdateRepository.save(update);
+        onUpdateWritten(request1, savedUpdate, updater);
+        return savedUpdate;
+    }
+
+    /**
+     * One keyset page of a request's updates, newest first, with author names from the same query
+     */
+    @Transactional(readOnly = true)
+    public MaintenanceTimelineResponse getMaintenanceTimeline(UUID id, User user, String cursor, Integer limit) {
+        MaintenanceRequest request = maintenanceRequestRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Maintenance request not found"));
+        if (!canViewRequest(request, user)) {
+            throw new IllegalArgumentException("You don't have permission to view this maintenance request progress");
+        }
+
+        int pageSize = limit == null ? DEFAULT_TIMELINE_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_TIMELINE_PAGE_SIZE));
+        return loadTimelinePage(id, cursor, pageSize);
     }
 
-    public List<MaintenanceUpdate> getUpdatesForMaintenanceRequest(UUID maintenanceRequestId) {
-        return maintenanceUpdateRepository.findByMaintenanceRequestIdOrderByCreatedAtDesc(maintenanceRequestId);
+    /**
+     * Throws IllegalArgumentException for a timeline cursor that was not issued by this service, so callers can
+     * reject it before the lookup, whose IllegalArgumentException means the request is not found
+     */
+    public void validateTimelineCursor(String cursor) {
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor.decode(cursor);
+        }
     }
 
-    public List<MaintenanceRequestPhoto> getPhotosForMaintenanceRequest(UUID maintenanceRequestId) {
-        return maintenanceRequestPhotoRepository.findByMaintenanceRequestId(maintenanceRequestId);
+    /**
+     * One page of photos for a request the user can see (manager, tenant, requester or assignee)
+     */
+    @Transactional(readOnly = true)
+    public MaintenancePhotoPageResponse getPhotosForMaintenanceRequest(UUID maintenanceRequestId, User user,
+                                                                      int page, Integer size) {
+        MaintenanceRequest request = maintenanceRequestRepository.findById(maintenanceRequestId)
+                .orElseThrow(() -> new IllegalArgumentException("Maintenance request not found"));
+
+        boolean hasAccess = request.getApartment().getProperty().getManager().getId().equals(user.getId()) ||
+                (request.getTenant() != null && request.getTenant().getId().equals(user.getId())) ||
+                request.getRequester().getId().equals(user.getId()) ||
+                (request.getAssignedTo() != null && request.getAssignedTo().getId().equals(user.getId()));
+        if (!hasAccess) {
+            throw new IllegalArgumentException("You don't have permission to view this maintenance request");
+        }
+
+        int pageSize = size == null ? DEFAULT_PHOTO_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PHOTO_PAGE_SIZE));
+        Page<MaintenanceRequestPhoto> photos = maintenanceRequestPhotoRepository
+                .findByMaintenanceRequestIdOrderByUploadedAtAscIdAsc(maintenanceRequestId,
+                        PageRequest.of(Math.max(page, 0), pageSize));
+
+        List<MaintenancePhotoResponse> responses = photos.getContent().stream()
+                .map(MaintenancePhotoResponse::new)
+                .toList();
+        return new MaintenancePhotoPageResponse(responses, photos.getNumber(), pageSize, photos.getTotalElements());
     }
 
+    @Transactional
     public void deleteMaintenanceRequest(UUID id, User deleter) {
         Optional<MaintenanceRequest> maintenanceRequest = maintenanceRequestRepository.findById(id);
 
@@ -204,23 +506,18 @@ public class MaintenanceRequestService {
 
             // Only manager can delete
             if (request.getApartment().getProperty().getManager().getId().equals(deleter.getId())) {
-                // Delete all maintenance request photos from S3 before deleting the request
+                // Photos are deleted from S3 after commit
                 List<MaintenanceRequestPhoto> photos = maintenanceRequestPhotoRepository.findByMaintenanceRequestId(id);
-
-                for (MaintenanceRequestPhoto photo : photos) {
-                    if (photo.getPhotoUrl() != null && !photo.getPhotoUrl().trim().isEmpty()) {
-                        try {
-                            s3Service.deleteFile(photo.getPhotoUrl());
-                            System.out.println("✅ Deleted maintenance photo from S3: " + photo.getPhotoUrl());
-                        } catch (Exception e) {
-                            // Log error but continue - photo might not exist in S3
-                            System.err.println("Failed to delete maintenance photo from S3: " + photo.getPhotoUrl() + " - " + e.getMessage());
-                        }
-                    }
-                }
+                objectDeletionService.deleteImagesLater(photos.stream()
+                        .map(MaintenanceRequestPhoto::getPhotoUrl)
+                        .filter(Objects::nonNull)
+                        .toList());
 
                 // Delete the maintenance request (cascade will delete photos and updates)
                 maintenanceRequestRepository.deleteById(id);
+                portfolioSearchService.maintenanceRequestChanged(id);
+                duplicateDetector.requestRemoved(request.getApartment().getId(), id);
+                counterService.requestDeleted(request);
             } else {
                 throw new RuntimeException("Not authorized to delete this maintenance request");
             }
@@ -229,19 +526,6 @@ public class MaintenanceRequestService {
         }
     }
 
-    public List<MaintenanceRequest> searchMaintenanceRequests(String searchText, User manager) {
-        return maintenanceRequestRepository.findBySearchTextAndManager(searchText, manager);
-    }
-
-    // Tenant-specific methods for dashboard
-    public List<MaintenanceRequest> getMaintenanceRequestsByTenantAndStatus(String tenantEmail, MaintenanceRequest.Status status) {
-        return maintenanceRequestRepository.findByTenantEmailAndStatus(tenantEmail, status);
-    }
-
-    public List<MaintenanceRequest> getMaintenanceRequestsByTenantAndPriority(String tenantEmail, MaintenanceRequest.Priority priority) {
-        return maintenanceRequestRepository.findByTenantEmailAndPriority(tenantEmail, priority);
-    }
-
     public MaintenanceRequest getMaintenanceRequestByIdAndTenant(UUID id, String tenantEmail) {
         Optional<MaintenanceRequest> request = maintenanceRequestRepository.findById(id);
         if (request.isPresent() && 
@@ -252,6 +536,39 @@ public class MaintenanceRequestService {
         return null;
     }
 
+    /**
+     * Fan-out for a newly written update: every party to the request except its author gets one more
+     * unread update, and every party's open event streams (including the author's other devices) receive it.
+     */
+    private void onUpdateWritten(MaintenanceRequest maintenanceRequest, MaintenanceUpdate update, User author) {
+        Set<UUID> participants = new LinkedHashSet<>();
+        if (maintenanceRequest.getTenant() != null) {
+            participants.add(maintenanceRequest.getTenant().getId());
+        }
+        if (maintenanceRequest.getRequester() != null) {
+            participants.add(maintenanceRequest.getRequester().getId());
+        }
+        if (maintenanceRequest.getAssignedTo() != null) {
+            participants.add(maintenanceRequest.getAssignedTo().getId());
+        }
+        participants.add(maintenanceRequest.getApartment().getProperty().getManager().getId());
+
+        Instant now = Instant.now();
+        for (UUID userId : participants) {
+            if (userId.equals(author.getId()) || unreadCounterRepository.increment(userId, now) > 0) {
+                continue;
+            }
+            try {
+                unreadCounterRepository.save(new MaintenanceUnreadCounter(userId, 1));
+            } catch (DataIntegrityViolationException e) {
+                // Another update created the row first
+                unreadCounterRepository.increment(userId, now);
+            }
+        }
+
+        maintenanceEventService.publish(participants, new MaintenanceProgressResponse(update));
+    }
+
     public List<MaintenanceUpdate> getRecentUpdatesByTenant(String tenantEmail, int limit) {
         return maintenanceUpdateRepository.findRecentUpdatesByTenantEmail(tenantEmail, PageRequest.of(0, limit));
     }
@@ -267,18 +584,7 @@ public class MaintenanceRequestService {
 
         MaintenanceRequest request = requestOpt.get();
 
-        // Check access permissions
-        boolean hasAccess = false;
-        if (user.getRole() == UserRole.PROPERTY_MANAGER) {
-            // Manager can see requests for their properties
-            hasAccess = request.getApartment().getProperty().getManager().getId().equals(user.getId());
-        } else if (user.getRole() == UserRole.TENANT) {
-            // Tenant can see their own requests
-            hasAccess = (request.getTenant() != null && request.getTenant().getId().equals(user.getId())) ||
-                       request.getRequester().getId().equals(user.getId());
-        }
-
-        if (!hasAccess) {
+        if (!canViewRequest(request, user)) {
             throw new IllegalArgumentException("You don't have permission to view this maintenance request");
         }
 
@@ -293,45 +599,14 @@ public class MaintenanceRequestService {
             response.setPhotos(photoResponses);
         }
 
-        // Add progress history
-        List<MaintenanceUpdate> updates = maintenanceUpdateRepository.findByMaintenanceRequestOrderByCreatedAtDesc(request);
-        List<MaintenanceProgressResponse> progressResponses = updates.stream()
-                .map(MaintenanceProgressResponse::new)
-                .toList();
-        response.setProgressHistory(progressResponses);
+        // Only the latest updates; older ones are paged through the timeline endpoint
+        MaintenanceTimelineResponse recentUpdates = loadTimelinePage(id, null, DETAIL_RECENT_UPDATES);
+        response.setProgressHistory(recentUpdates.getUpdates());
+        response.setProgressNextCursor(recentUpdates.getNextCursor());
 
         return response;
     }
 
-    public List<MaintenanceProgressResponse> getMaintenanceRequestProgress(UUID id, User user) {
-        Optional<MaintenanceRequest> requestOpt = maintenanceRequestRepository.findByIdWithDetails(id);
-
-        if (requestOpt.isEmpty()) {
-            throw new IllegalArgumentException("Maintenance request not found");
-        }
-
-        MaintenanceRequest request = requestOpt.get();
-
-        // Check access permissions (same logic as above)
-        boolean hasAccess = false;
-        if (user.getRole() == UserRole.PROPERTY_MANAGER) {
-            hasAccess = request.getApartment().getProperty().getManager().getId().equals(user.getId());
-        } else if (user.getRole() == UserRole.TENANT) {
-            hasAccess = (request.getTenant() != null && request.getTenant().getId().equals(user.getId())) ||
-                       request.getRequester().getId().equals(user.getId());
-        }
-
-        if (!hasAccess) {
-            throw new IllegalArgumentException("You don't have permission to view this maintenance request progress");
-        }
-
-        // Get progress updates
-        List<MaintenanceUpdate> updates = maintenanceUpdateRepository.findByMaintenanceRequestOrderByCreatedAtDesc(request);
-        return updates.stream()
-                .map(MaintenanceProgressResponse::new)
-                .toList();
-    }
-
     public MaintenanceProgressResponse updateMaintenanceRequestStatus(UUID id, MaintenanceStatusUpdateRequest request, User manager) {
         Optional<MaintenanceRequest> requestOpt = maintenanceRequestRepository.findByIdWithDetails(id);
 
@@ -361,6 +636,8 @@ public class MaintenanceRequestService {
         }
 
         maintenanceRequestRepository.save(maintenanceRequest);
+        duplicateDetector.requestChanged(maintenanceRequest);
+        counterService.statusChanged(maintenanceRequest, oldStatus);
 
         // Create progress update entry
         MaintenanceUpdate update = new MaintenanceUpdate();
@@ -373,6 +650,7 @@ public class MaintenanceRequestService {
         update.setNotes(request.getNotes());
 
         MaintenanceUpdate savedUpdate = maintenanceUpdateRepository.save(update);
+        onUpdateWritten(maintenanceRequest, savedUpdate, manager);
 
         return new MaintenanceProgressResponse(savedUpdate);
     }
@@ -431,18 +709,13 @@ public class MaintenanceRequestService {
                 maintenanceRequest.setCreatedAt(Instant.now());
                 maintenanceRequest.setUpdatedAt(Instant.now());
 
-                MaintenanceRequest savedRequest = maintenanceRequestRepository.save(maintenanceRequest);
+                List<BlobOffloadService.StoredBlob> photos = storePhotos(request.getPhotos(), manager);
 
-                // Save photos if provided
-                if (request.getPhotos() != null && !request.getPhotos().isEmpty()) {
-                    for (String photoData : request.getPhotos()) {
-                        MaintenanceRequestPhoto photo = new MaintenanceRequestPhoto();
-                        photo.setMaintenanceRequest(savedRequest);
-                        photo.setPhotoData(photoData);
-                        photo.setCreatedAt(Instant.now());
-                        maintenanceRequestPhotoRepository.save(photo);
-                    }
-                }
+                MaintenanceRequest savedRequest = maintenanceRequestRepository.save(maintenanceRequest);
+                savePhotoRows(savedRequest, photos);
+                portfolioSearchService.maintenanceRequestChanged(savedRequest.getId());
+                duplicateDetector.requestChanged(savedRequest);
+                counterService.requestCreated(savedRequest);
 
                 createdRequestIds.add(savedRequest.getId());
                 totalCreated++;
@@ -455,4 +728,59 @@ public class MaintenanceRequestService {
 
         return new BulkMaintenanceRequestResponse(createdRequestIds, totalCreated, totalFailed, failureMessages);
     }
-}
\ No newline at end of file
+
+    // Photo count and first photo reference for each row, from one query over the page's request ids
+    private void attachPhotoRefs(List<MaintenanceRequestListItemDto> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Map<UUID, MaintenanceRequestListItemDto> rowsById = new HashMap<>();
+        for (MaintenanceRequestListItemDto row : rows) {
+            rowsById.put(row.getId(), row);
+        }
+        for (Object[] ref : maintenanceRequestPhotoRepository.findPhotoRefsByMaintenanceRequestIdIn(rowsById.keySet())) {
+            MaintenanceRequestListItemDto row = rowsById.get((UUID) ref[0]);
+            if (row.getPhotoCount() == 0) {
+                row.setThumbnailPhotoId((UUID) ref[1]);
+                row.setThumbnailUrl((String) ref[2]);
+            }
+            row.setPhotoCount(row.getPhotoCount() + 1);
+        }
+    }
+
+    // Manager of the building, or the tenant/requester of the request
+    private boolean canViewRequest(MaintenanceRequest request, User user) {
+        if (user.getRole() == UserRole.PROPERTY_MANAGER) {
+            return request.getApartment().getProperty().getManager().getId().equals(user.getId());
+        } else if (user.getRole() == UserRole.TENANT) {
+            return (request.getTenant() != null && request.getTenant().getId().equals(user.getId())) ||
+                    request.getRequester().getId().equals(user.getId());
+        }
+        return false;
+    }
+
+    private MaintenanceTimelineResponse loadTimelinePage(UUID requestId, String cursor, int pageSize) {
+        // Fetch one extra row to know whether another page exists
+        PageRequest firstRows = PageRequest.of(0, pageSize + 1);
+        List<MaintenanceProgressResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = maintenanceUpdateRepository.findTimeline(requestId, firstRows);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = maintenanceUpdateRepository.findTimelineBefore(requestId, position.getPosition(), position.getId(), firstRows);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+        }
+        MaintenanceProgressResponse last = hasMore ? rows.get(rows.size() - 1) : null;
+        return new MaintenanceTimelineResponse(rows, last != null ? KeysetCursor.encode(last.getTimestamp(), last.getId()) : null);
+    }
+
+    private String encodeQueueCursor(MaintenanceRequestListItemDto last) {
+        Integer rank = MaintenanceRequest.queueRankFor(MaintenanceRequest.Status.OPEN,
+                MaintenanceRequest.Priority.valueOf(last.getPriority()));
+        return KeysetCursor.encode(rank, last.getCreatedAt(), last.getId());
+    }
+}
@@ -0,0 +1,232 @@
+package com.bms.backend.service;
+
+import com.bms.backend.entity.PendingObjectDeletion;
+import com.bms.backend.repository.PendingObjectDeletionRepository;
+import com.bms.backend.service.storage.ObjectStorage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Removes stored objects after the rows that referenced them are gone.
+ *
+ * Callers record the objects in the pending-deletion table inside their own transaction, so the user-facing
+ * delete is only a metadata write. After commit, and on a schedule for anything left over, a worker drains the
+ * table with multi-object deletes of up to 1,000 keys. Keys that fail are retried with exponential backoff and
+ * dropped with a warning after the configured number of attempts. Objects whose content is shared by other rows
+ * only lose a reference (see {@link ContentIndexService}) and are not queued.
+ */
+@Service
+public class ObjectDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObjectDeletionService.class);
+
+    // DeleteObjects limit
+    static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Autowired
+    private ContentIndexService contentIndexService;
+
+    @Autowired
+    private PendingObjectDeletionRepository pendingDeletionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.storage.deletion.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.storage.deletion.retry-base-seconds:30}")
+    private long retryBaseSeconds;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final ExecutorService drainExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "object-deletions");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Releases one reference to each of these file URLs and schedules the objects nothing references any more
+     * for deletion. URLs outside this bucket are ignored.
+     */
+    public void deleteLater(Collection<String> fileUrls) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String url : fileUrls) {
+            String key = keyOf(url);
+            if (key != null && contentIndexService.release(key)) {
+                keys.add(key);
+            }
+        }
+        enqueue(keys);
+    }
+
+    /**
+     * Same as {@link #deleteLater(Collection)}, plus the thumbnail and medium variants that may exist next to
+     * each image.
+     */
+    public void deleteImagesLater(Collection<String> imageUrls) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String url : imageUrls) {
+            String key = keyOf(url);
+            if (key != null && contentIndexService.release(key)) {
+                keys.add(key);
+                keys.add(ImageDerivativeService.derivativeKey(key, ImageDerivativeService.THUMBNAIL_SUFFIX));
+                keys.add(ImageDerivativeService.derivativeKey(key, ImageDerivativeService.MEDIUM_SUFFIX));
+            }
+        }
+        enqueue(keys);
+    }
+
+    private void enqueue(Set<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<PendingObjectDeletion> rows = new ArrayList<>();
+        for (String key : keys) {
+            rows.add(new PendingObjectDeletion(key));
+        }
+        pendingDeletionRepository.saveAll(rows);
+        afterCommit(this::requestDrain);
+    }
+
+    private void requestDrain() {
+        try {
+            drainExecutor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the scheduled drain picks the rows up on the next start
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.deletion.interval-ms:60000}",
+               initialDelayString = "${app.storage.deletion.interval-ms:60000}")
+    public void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (drainBatch()) {
+                // Keep going while full batches are deleted
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Draining pending object deletions failed: {}", e.getMessage());
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    // Deletes one batch of due objects; true when another full batch may be waiting
+    boolean drainBatch() {
+        Instant now = Instant.now();
+        List<PendingObjectDeletion> due = pendingDeletionRepository.findDue(now, PageRequest.of(0, MAX_KEYS_PER_REQUEST));
+        if (due.isEmpty()) {
+            return false;
+        }
+
+        Set<String> keys = new LinkedHashSet<>();
+        due.forEach(row -> keys.add(row.getObjectKey()));
+        Map<String, String> failures = new HashMap<>();
+        boolean requestFailed = false;
+        try {
+            // Only the keys that could not be deleted are reported; missing keys count as deleted
+            failures.putAll(objectStorage.deleteAll(keys));
+        } catch (RuntimeException e) {
+            requestFailed = true;
+            keys.forEach(key -> failures.put(key, e.getMessage()));
+        }
+
+        List<UUID> finished = new ArrayList<>();
+        List<PendingObjectDeletion> retries = new ArrayList<>();
+        for (PendingObjectDeletion row : due) {
+            String error = failures.get(row.getObjectKey());
+            if (error == null) {
+                finished.add(row.getId());
+                continue;
+            }
+            row.setAttempts(row.getAttempts() + 1);
+            if (row.getAttempts() >= maxAttempts) {
+                logger.warn("Giving up deleting {} after {} attempts: {}", row.getObjectKey(), row.getAttempts(), error);
+                finished.add(row.getId());
+            } else {
+                row.setNextAttemptAt(now.plus(backoff(row.getAttempts())));
+                row.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+                retries.add(row);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!finished.isEmpty()) {
+                pendingDeletionRepository.deleteByIdIn(finished);
+            }
+            if (!retries.isEmpty()) {
+                pendingDeletionRepository.saveAll(retries);
+            }
+        });
+        return !requestFailed && due.size() == MAX_KEYS_PER_REQUEST;
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = Duration.ofSeconds(retryBaseSeconds).multipliedBy(1L << Math.min(attempts - 1, 16));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private String keyOf(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        try {
+            return s3Service.getKeyFromUrl(url);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,307 @@
+package com.bms.backend.service;
+
+import com.bms.backend.service.storage.ObjectStorage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uploads a batch of files to object storage concurrently; with S3 this runs on the async client.
+ *
+ * Every file is validated before the first upload starts. A semaphore shared by all requests caps the
+ * uploads in flight, so the caller waits for a permit before starting each one and then for the whole batch.
+ * File bodies are streamed from the spooled multipart parts on a reader pool sized to that cap; files above
+ * the client's multipart threshold go up as parallel parts. If any upload fails, the objects that did
+ * upload are deleted in one request before the error is rethrown.
+ *
+ * Files are hashed first; content the user already stored is not uploaded again, see {@link ContentIndexService}.
+ */
+@Service
+public class ParallelUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelUploadService.class);
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Autowired
+    private ContentIndexService contentIndexService;
+
+    private final Semaphore inFlight;
+
+    private final ExecutorService readers;
+
+    public ParallelUploadService(@Value("${app.storage.upload.max-in-flight:8}") int maxInFlight) {
+        int permits = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(permits);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.readers = Executors.newFixedThreadPool(permits, runnable -> {
+            Thread thread = new Thread(runnable, "upload-reader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Uploads all files and returns them in input order, or uploads none of them. Files whose content the user
+     * already stored (or that repeat an earlier file of the batch) point at that object instead of being uploaded.
+     */
+    public List<UploadedFile> uploadAll(List<MultipartFile> files, UUID userId, S3Service.FileType fileType) {
+        files.forEach(s3Service::validateFile);
+        List<String> hashes = hashAll(files);
+
+        List<UploadedFile> results = new ArrayList<>();
+        List<UploadedFile> started = new ArrayList<>();
+        List<CompletableFuture<Void>> uploads = new ArrayList<>();
+        Map<String, UploadedFile> startedByHash = new HashMap<>();
+        List<UploadedFile> repeats = new ArrayList<>();
+        Throwable failure = null;
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            String hash = hashes.get(i);
+            try {
+                String existingKey = contentIndexService.reuse(userId, fileType, hash);
+                if (existingKey != null) {
+                    results.add(new UploadedFile(existingKey, file.getOriginalFilename(), file.getContentType(),
+                            file.getSize(), hash));
+                    continue;
+                }
+                UploadedFile first = hash != null ? startedByHash.get(hash) : null;
+                if (first != null) {
+                    UploadedFile repeat = new UploadedFile(first.key, file.getOriginalFilename(),
+                            file.getContentType(), file.getSize(), hash);
+                    repeats.add(repeat);
+                    results.add(repeat);
+                    continue;
+                }
+
+                UploadedFile upload = new UploadedFile(s3Service.newObjectKey(userId, fileType, file.getOriginalFilename()),
+                        file.getOriginalFilename(), file.getContentType(), file.getSize(), hash);
+                uploads.add(start(file, upload));
+                started.add(upload);
+                results.add(upload);
+                if (hash != null) {
+                    startedByHash.put(hash, upload);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+                break;
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+                break;
+            }
+        }
+
+        // Wait for everything that started, even after a failure, so cleanup sees every object
+        List<UploadedFile> uploaded = new ArrayList<>();
+        for (int i = 0; i < uploads.size(); i++) {
+            try {
+                uploads.get(i).join();
+                uploaded.add(started.get(i));
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() != null ? e.getCause() : e;
+                }
+            }
+        }
+
+        if (failure == null) {
+            try {
+                register(uploaded, repeats, userId, fileType);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            // Reused objects only lose the reference taken above; fresh uploads that made it are deleted
+            results.removeIf(file -> started.contains(file) && !uploaded.contains(file));
+            deleteAll(results);
+            throw new RuntimeException("Failed to upload image: " + failure.getMessage(), failure);
+        }
+        results.forEach(file -> file.url = s3Service.getFileUrl(file.key));
+        return results;
+    }
+
+    /**
+     * Removes uploaded objects, e.g. when saving the rows that reference them failed. Objects whose content is
+     * still referenced elsewhere only lose this reference. Errors are only logged.
+     */
+    public void deleteAll(List<UploadedFile> files) {
+        Set<String> keys = new LinkedHashSet<>();
+        try {
+            for (UploadedFile file : files) {
+                if (contentIndexService.release(file.key)) {
+                    keys.add(file.key);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to release uploaded objects after a failed upload: {}", e.getMessage());
+            return;
+        }
+        if (!keys.isEmpty()) {
+            deleteObjects(keys);
+        }
+    }
+
+    private void deleteObjects(Collection<String> keys) {
+        try {
+            Map<String, String> failures = objectStorage.deleteAll(keys);
+            if (!failures.isEmpty()) {
+                logger.warn("Failed to remove {} uploaded objects: {}", failures.size(), failures);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to remove {} uploaded objects: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    // SHA-256 of every file, computed concurrently from the spooled parts; nulls when deduplication is off
+    private List<String> hashAll(List<MultipartFile> files) {
+        List<String> hashes = new ArrayList<>();
+        if (!contentIndexService.isEnabled()) {
+            files.forEach(file -> hashes.add(null));
+            return hashes;
+        }
+        List<CompletableFuture<String>> pending = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> {
+                    try (InputStream in = file.getInputStream()) {
+                        return ContentIndexService.sha256(in);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, readers))
+                .toList();
+        try {
+            pending.forEach(hash -> hashes.add(hash.join()));
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Failed to upload image: " + cause.getMessage(), cause);
+        }
+        return hashes;
+    }
+
+    // Indexes the new objects, then gives in-batch repeats their own reference to the same object
+    private void register(List<UploadedFile> uploaded, List<UploadedFile> repeats, UUID userId,
+                          S3Service.FileType fileType) {
+        List<String> redundant = new ArrayList<>();
+        for (UploadedFile file : uploaded) {
+            String key = contentIndexService.register(userId, fileType, file.contentHash, file.key, file.size);
+            if (!key.equals(file.key)) {
+                // Same content finished uploading concurrently elsewhere; ours is a duplicate
+                redundant.add(file.key);
+                file.key = key;
+            }
+        }
+        for (UploadedFile repeat : repeats) {
+            String key = contentIndexService.reuse(userId, fileType, repeat.contentHash);
+            if (key == null) {
+                throw new IllegalStateException("Uploaded object for a repeated file is no longer indexed");
+            }
+            repeat.key = key;
+        }
+        if (!redundant.isEmpty()) {
+            deleteObjects(redundant);
+        }
+    }
+
+    private CompletableFuture<Void> start(MultipartFile file, UploadedFile upload)
+            throws InterruptedException, IOException {
+        inFlight.acquire();
+        InputStream body = null;
+        try {
+            body = file.getInputStream();
+            InputStream opened = body;
+            return objectStorage.putAsync(upload.key, opened, upload.size, upload.contentType, readers)
+                    .whenComplete((response, error) -> {
+                        closeQuietly(opened);
+                        inFlight.release();
+                    });
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(body);
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // Nothing left to read from it
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readers.shutdownNow();
+    }
+
+    public static final class UploadedFile {
+        private String key;
+        private final String originalFilename;
+        private final String contentType;
+        private final long size;
+        private final String contentHash;
+        private String url;
+
+        private UploadedFile(String key, String originalFilename, String contentType, long size, String contentHash) {
+            this.key = key;
+            this.originalFilename = originalFilename;
+            this.contentType = contentType;
+            this.size = size;
+            this.contentHash = contentHash;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getOriginalFilename() {
+            return originalFilename;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public String getContentHash() {
+            return contentHash;
+        }
+    }
+}
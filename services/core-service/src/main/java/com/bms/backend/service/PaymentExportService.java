@@ -0,0 +1,200 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.response.PaymentExportRowDto;
+import com.bms.backend.entity.User;
+import com.bms.backend.enums.UserRole;
+import com.bms.backend.repository.PaymentExportCriteria;
+import com.bms.backend.repository.PaymentTransactionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Streams a manager's payment history straight from a database cursor to the response.
+ * Each running export pins one pooled connection for its whole duration, so the number of concurrent
+ * exports is capped well below the Hikari pool size and extra requests are turned away.
+ */
+@Service
+public class PaymentExportService {
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static ExportFormat fromParam(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + " (use csv or ndjson)");
+            }
+        }
+    }
+
+    private static final String[] CSV_HEADER = {
+            "payment_id", "lease_id", "building", "property", "unit", "tenant_id", "tenant_name", "tenant_email",
+            "due_date", "payment_date", "amount", "currency", "status", "payment_method", "stripe_payment_intent_id"
+    };
+
+    @Autowired
+    private PaymentTransactionRepository paymentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.payments.export.max-concurrent:2}")
+    private int maxConcurrentExports;
+
+    @Value("${app.payments.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${app.payments.export.flush-rows:1000}")
+    private int flushRows;
+
+    private final AtomicInteger activeExports = new AtomicInteger();
+
+    /**
+     * Validate the caller and date range before the response is committed.
+     * Dates default to the twelve months ending now.
+     */
+    public PaymentExportCriteria buildCriteria(User user, UUID buildingId, Instant startDate, Instant endDate) {
+        if (user.getRole() != UserRole.PROPERTY_MANAGER) {
+            throw new IllegalArgumentException("Only property managers can export payments");
+        }
+        Instant end = endDate != null ? endDate : Instant.now();
+        Instant start = startDate != null ? startDate : end.minus(365, ChronoUnit.DAYS);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("startDate must be before endDate");
+        }
+        return new PaymentExportCriteria(user, buildingId, start, end);
+    }
+
+    /**
+     * Reserve an export slot; returns false when the concurrency cap is reached.
+     * Every successful call must be paired with {@link #releaseSlot()}.
+     */
+    public boolean tryAcquireSlot() {
+        while (true) {
+            int current = activeExports.get();
+            if (current >= maxConcurrentExports) {
+                return false;
+            }
+            if (activeExports.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void releaseSlot() {
+        activeExports.decrementAndGet();
+    }
+
+    /**
+     * Write every matching row to {@code out}. Runs in one read-only transaction so the JDBC driver can
+     * use a server-side cursor; output is flushed every {@code flushRows} rows.
+     */
+    @Transactional(readOnly = true)
+    public long writeExport(PaymentExportCriteria criteria, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<PaymentExportRowDto> rows = paymentRepository.streamExportRows(criteria, fetchSize)) {
+            return format == ExportFormat.NDJSON
+                    ? writeNdjson(rows.iterator(), out)
+                    : writeCsv(rows.iterator(), out);
+        }
+    }
+
+    private long writeCsv(Iterator<PaymentExportRowDto> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, (Object[]) CSV_HEADER);
+
+        long count = 0;
+        while (rows.hasNext()) {
+            PaymentExportRowDto row = rows.next();
+            writeCsvLine(writer, row.getPaymentId(), row.getLeaseId(), row.getBuildingName(), row.getPropertyName(),
+                    row.getUnitNumber(), row.getTenantId(), row.getTenantName(), row.getTenantEmail(),
+                    row.getDueDate(), row.getPaymentDate(),
+                    row.getAmount(),
+                    row.getCurrency(), row.getStatus(), row.getPaymentMethod(), row.getStripePaymentIntentId());
+            if (++count % flushRows == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<PaymentExportRowDto> rows, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long count = 0;
+        while (rows.hasNext()) {
+            generator.writeObject(rows.next());
+            generator.writeRaw('\n');
+            if (++count % flushRows == 0) {
+                generator.flush();
+            }
+        }
+        generator.flush();
+        return count;
+    }
+
+    private void writeCsvLine(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvEscape(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180 quoting; a leading formula character is prefixed so spreadsheets don't evaluate it
+    static String csvEscape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0 && !(value instanceof Number)) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -2,6 +2,8 @@ package com.bms.backend.service;
 
 import com.bms.backend.dto.request.PaymentSearchRequest;
 import com.bms.backend.dto.request.RecordPaymentRequest;
+import com.bms.backend.dto.response.PaymentSearchResponse;
+import com.bms.backend.dto.response.PaymentTotalsDto;
 import com.bms.backend.dto.response.PaymentTransactionDto;
 import com.bms.backend.entity.Apartment;
 import com.bms.backend.entity.PaymentTransaction;
@@ -9,14 +11,22 @@ import com.bms.backend.entity.PropertyImage;
 import com.bms.backend.entity.TenantPropertyConnection;
 import com.bms.backend.entity.User;
 import com.bms.backend.enums.UserRole;
+import com.bms.backend.repository.PaymentSearchCriteria;
 import com.bms.backend.repository.PaymentTransactionRepository;
 import com.bms.backend.repository.TenantPropertyConnectionRepository;
 import com.bms.backend.repository.UserRepository;
+import com.bms.backend.util.KeysetCursor;
+import com.bms.backend.util.StripedLocks;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.text.NumberFormat;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -25,7 +35,6 @@ import java.time.temporal.TemporalAdjusters;
 import java.util.Currency;
 import java.util.List;
 import java.util.Locale;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -33,6 +42,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class PaymentTransactionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int RECORD_PAYMENT_ATTEMPTS = 3;
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+    private static final int PAYMENT_LOCK_STRIPES = 64;
+
+    // Serializes recordPayment per lease without a global lock
+    private final StripedLocks paymentStripes = new StripedLocks(PAYMENT_LOCK_STRIPES);
+
     @Autowired
     private PaymentTransactionRepository paymentRepository;
 
@@ -42,6 +60,9 @@ public class PaymentTransactionService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     /**
      * Auto-generate pending rent payments when lease is created
      * Generates payment records for the duration of the lease based on payment frequency
@@ -86,167 +107,161 @@ public class PaymentTransactionService {
     }
 
     /**
-     * Record a payment transaction from payment service webhook
+     * Record a payment transaction from payment service webhook or client confirmation.
+     * Replays of an already applied event (same idempotency key) return the stored row without
+     * writing, and a payment never moves back out of PAID, REFUNDED or CANCELED.
+     * Recording is serialized per lease in-process by connection id; races with other instances
+     * are caught by the version column and the unique Stripe intent id, then retried.
      */
-    public PaymentTransaction recordPayment(RecordPaymentRequest request) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PaymentTransaction recordPayment(RecordPaymentRequest request, String idempotencyKey) {
+        if (request.getConnectionId() == null) {
+            throw new IllegalArgumentException("Lease/Connection ID is required");
+        }
+        String key = resolveIdempotencyKey(request, idempotencyKey);
+
+        return paymentStripes.withLock(request.getConnectionId(), () -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    // Lock is held until after commit so the next writer for this lease sees our row
+                    return transactionTemplate.execute(status -> applyPaymentRecord(request, key));
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    if (attempt >= RECORD_PAYMENT_ATTEMPTS) {
+                        throw e;
+                    }
+                } catch (DataIntegrityViolationException e) {
+                    // Another instance inserted the row for this intent first; the retry finds and updates it
+                    if (attempt >= RECORD_PAYMENT_ATTEMPTS || !isDuplicateIntent(e, request)) {
+                        throw e;
+                    }
+                }
+            }
+        });
+    }
+
+    // A unique violation while the request carries a Stripe intent id; NOT NULL, FK and length violations are not
+    private static boolean isDuplicateIntent(DataIntegrityViolationException e, RecordPaymentRequest request) {
+        if (request.getStripePaymentIntentId() == null) {
+            return false;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private PaymentTransaction applyPaymentRecord(RecordPaymentRequest request, String idempotencyKey) {
         User tenant = userRepository.findById(request.getTenantId())
                 .orElseThrow(() -> new IllegalArgumentException("Tenant not found"));
 
         TenantPropertyConnection connection = connectionRepository.findById(request.getConnectionId())
                 .orElseThrow(() -> new IllegalArgumentException("Lease/Connection not found"));
 
-        PaymentTransaction payment;
+        PaymentTransaction payment = null;
 
         // PRIORITY 1: If paymentTransactionId is provided, update that specific record
         if (request.getPaymentTransactionId() != null) {
             payment = paymentRepository.findById(request.getPaymentTransactionId())
                     .orElseThrow(() -> new IllegalArgumentException("Payment transaction not found with ID: " + request.getPaymentTransactionId()));
+        }
+        // PRIORITY 2: Check if payment already exists by Stripe Payment Intent ID
+        else if (request.getStripePaymentIntentId() != null) {
+            payment = paymentRepository.findByStripePaymentIntentId(request.getStripePaymentIntentId()).orElse(null);
+        }
 
-            // Update the existing payment record
+        if (payment == null) {
+            // Create new payment
+            payment = new PaymentTransaction();
+            payment.setTenant(tenant);
+            payment.setConnection(connection);
             payment.setStripePaymentIntentId(request.getStripePaymentIntentId());
+            payment.setStripePaymentMethodId(request.getStripePaymentMethodId());
+            payment.setAmount(request.getAmount());
+            payment.setCurrency(request.getCurrency());
             payment.setStatus(request.getStatus());
             payment.setPaymentMethod(request.getPaymentMethod());
-            payment.setStripePaymentMethodId(request.getStripePaymentMethodId());
-            payment.setReceiptUrl(request.getReceiptUrl());
+            payment.setDescription(request.getDescription());
             payment.setReceiptEmail(request.getReceiptEmail());
+            payment.setReceiptUrl(request.getReceiptUrl());
             payment.setFailureReason(request.getFailureReason());
             payment.setPaymentDate(request.getPaymentDate());
+            payment.setLastIdempotencyKey(idempotencyKey);
 
-            System.out.println("✅ Updated specific payment record with ID: " + request.getPaymentTransactionId());
-        }
-        // PRIORITY 2: Check if payment already exists by Stripe Payment Intent ID
-        else {
-            Optional<PaymentTransaction> existingPayment =
-                    paymentRepository.findByStripePaymentIntentId(request.getStripePaymentIntentId());
-
-            if (existingPayment.isPresent()) {
-                // Update existing payment
-                payment = existingPayment.get();
-                payment.setStatus(request.getStatus());
-                payment.setPaymentMethod(request.getPaymentMethod());
-                payment.setStripePaymentMethodId(request.getStripePaymentMethodId());
-                payment.setReceiptUrl(request.getReceiptUrl());
-                payment.setReceiptEmail(request.getReceiptEmail());
-                payment.setFailureReason(request.getFailureReason());
-                payment.setPaymentDate(request.getPaymentDate());
+            // Set due date (if not provided, use first of next month)
+            if (request.getPaymentDate() != null) {
+                payment.setDueDate(request.getPaymentDate());
             } else {
-                // Create new payment
-                payment = new PaymentTransaction();
-                payment.setTenant(tenant);
-                payment.setConnection(connection);
-                payment.setStripePaymentIntentId(request.getStripePaymentIntentId());
-                payment.setStripePaymentMethodId(request.getStripePaymentMethodId());
-                payment.setAmount(request.getAmount());
-                payment.setCurrency(request.getCurrency());
-                payment.setStatus(request.getStatus());
-                payment.setPaymentMethod(request.getPaymentMethod());
-                payment.setDescription(request.getDescription());
-                payment.setReceiptEmail(request.getReceiptEmail());
-                payment.setReceiptUrl(request.getReceiptUrl());
-                payment.setFailureReason(request.getFailureReason());
-                payment.setPaymentDate(request.getPaymentDate());
-
-                // Set due date (if not provided, use first of next month)
-                if (request.getPaymentDate() != null) {
-                    payment.setDueDate(request.getPaymentDate());
-                } else {
-                    LocalDate nextMonth = LocalDate.now().plusMonths(1).with(TemporalAdjusters.firstDayOfMonth());
-                    payment.setDueDate(nextMonth.atStartOfDay(ZoneId.systemDefault()).toInstant());
-                }
+                LocalDate nextMonth = LocalDate.now().plusMonths(1).with(TemporalAdjusters.firstDayOfMonth());
+                payment.setDueDate(nextMonth.atStartOfDay(ZoneId.systemDefault()).toInstant());
             }
+            return paymentRepository.save(payment);
         }
 
-        return paymentRepository.save(payment);
-    }
-
-    /**
-     * Get all payments for a tenant with filters
-     * ONLY returns payments that were actually initiated (have Stripe PaymentIntent ID)
-     */
-    public List<PaymentTransactionDto> getTenantPayments(User user, PaymentSearchRequest searchRequest) {
-        validateTenantAccess(user);
-
-        List<PaymentTransaction> payments;
-        Instant startDate = searchRequest != null ? searchRequest.getStartDate() : null;
-        Instant endDate = searchRequest != null ? searchRequest.getEndDate() : null;
-        String status = searchRequest != null ? searchRequest.getStatus() : "ALL";
-
-        System.out.println("🔍 getTenantPayments called with status: " + status);
-        System.out.println("   User: " + user.getId() + ", startDate: " + startDate + ", endDate: " + endDate);
-
-        if (status == null || "ALL".equalsIgnoreCase(status)) {
-            payments = paymentRepository.findByTenantWithDateRange(user, startDate, endDate);
-        } else if ("PAID".equalsIgnoreCase(status)) {
-            payments = paymentRepository.findPaidByTenantWithDateRange(user, startDate, endDate);
-        } else if ("PENDING".equalsIgnoreCase(status)) {
-            payments = paymentRepository.findPendingByTenantWithDateRange(user, startDate, endDate);
-        } else if ("OVERDUE".equalsIgnoreCase(status)) {
-            System.out.println("   🚨 OVERDUE filter requested! Calling findOverdueByTenantWithDateRange...");
-            System.out.println("   currentDate (for overdue check): " + Instant.now());
-            payments = paymentRepository.findOverdueByTenantWithDateRange(user, Instant.now(), startDate, endDate);
-            System.out.println("   Found " + payments.size() + " overdue payment records");
-            for (PaymentTransaction payment : payments) {
-                System.out.println("      - ID: " + payment.getId() + ", Status: " + payment.getStatus() +
-                                 ", Due: " + payment.getDueDate() + ", Amount: " + payment.getAmount());
-            }
-        } else {
-            payments = paymentRepository.findByTenantWithDateRange(user, startDate, endDate);
+        // Webhook retry or duplicate confirmation - already applied
+        if (idempotencyKey != null && idempotencyKey.equals(payment.getLastIdempotencyKey())) {
+            return payment;
         }
 
-        System.out.println("   Total payments returned: " + payments.size());
+        // Out-of-order event (e.g. "processing" arriving after "succeeded") - keep the later state
+        if (!isAllowedStatusTransition(payment.getStatus(), request.getStatus())) {
+            return payment;
+        }
 
-        // Return all payment records (including auto-generated ones for rent tracking)
-        return payments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-    }
+        // Update the existing payment record
+        if (request.getPaymentTransactionId() != null) {
+            payment.setStripePaymentIntentId(request.getStripePaymentIntentId());
+        }
+        if (request.getStatus() != null) {
+            payment.setStatus(request.getStatus());
+        }
+        payment.setPaymentMethod(request.getPaymentMethod());
+        payment.setStripePaymentMethodId(request.getStripePaymentMethodId());
+        payment.setReceiptUrl(request.getReceiptUrl());
+        payment.setReceiptEmail(request.getReceiptEmail());
+        payment.setFailureReason(request.getFailureReason());
+        payment.setPaymentDate(request.getPaymentDate());
+        payment.setLastIdempotencyKey(idempotencyKey);
 
-    /**
-     * Get paid payments for a tenant
-     */
-    public List<PaymentTransactionDto> getPaidPayments(User user, Instant startDate, Instant endDate) {
-        validateTenantAccess(user);
-        List<PaymentTransaction> payments = paymentRepository.findPaidByTenantWithDateRange(user, startDate, endDate);
-        return payments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return paymentRepository.save(payment);
     }
 
     /**
-     * Get pending payments for a tenant
-     * Returns all pending payments including auto-generated rent payment records
+     * Search payments for a tenant with status, date range and lease filters.
+     * Results are keyset-paginated; totals per status are aggregated in the database
+     * and only computed for the first page.
      */
-    public List<PaymentTransactionDto> getPendingPayments(User user, Instant startDate, Instant endDate) {
+    @Transactional(readOnly = true)
+    public PaymentSearchResponse searchPayments(User user, PaymentSearchRequest searchRequest) {
         validateTenantAccess(user);
-        List<PaymentTransaction> payments = paymentRepository.findPendingByTenantWithDateRange(user, startDate, endDate);
 
-        // Return all pending payment records (including auto-generated ones for rent tracking)
-        return payments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-    }
+        PaymentSearchRequest request = searchRequest != null ? searchRequest : new PaymentSearchRequest();
+        String status = normalizeSearchStatus(request.getStatus());
+        int limit = request.getLimit() != null && request.getLimit() > 0
+                ? Math.min(request.getLimit(), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
 
-    /**
-     * Get overdue payments for a tenant
-     */
-    public List<PaymentTransactionDto> getOverduePayments(User user, Instant startDate, Instant endDate) {
-        System.out.println("🔍 getOverduePayments called for user: " + user.getId());
-        System.out.println("   startDate: " + startDate + ", endDate: " + endDate);
-        System.out.println("   currentDate (for overdue check): " + Instant.now());
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria(user, status, request.getConnectionId(),
+                request.getStartDate(), request.getEndDate(), Instant.now());
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(request.getCursor());
+            criteria.setCursor(position.getPosition(), position.getId());
+        }
 
-        validateTenantAccess(user);
-        List<PaymentTransaction> payments = paymentRepository.findOverdueByTenantWithDateRange(
-                user, Instant.now(), startDate, endDate);
+        // Fetch one extra row to learn whether another page exists
+        List<PaymentTransaction> rows = paymentRepository.searchPage(criteria, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<PaymentTransaction> page = hasMore ? rows.subList(0, limit) : rows;
 
-        System.out.println("   Found " + payments.size() + " overdue payment records");
-        for (PaymentTransaction payment : payments) {
-            System.out.println("      - ID: " + payment.getId() + ", Status: " + payment.getStatus() +
-                             ", Due: " + payment.getDueDate() + ", Amount: " + payment.getAmount());
-        }
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1), criteria) : null;
+        PaymentTotalsDto totals = criteria.hasCursor() ? null : buildTotals(criteria);
 
-        return payments.stream()
+        List<PaymentTransactionDto> payments = page.stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
+
+        return new PaymentSearchResponse(payments, nextCursor, totals);
     }
 
     /**
@@ -290,6 +305,90 @@ public class PaymentTransactionService {
 
     // Helper Methods
 
+    // Explicit Idempotency-Key header wins; otherwise a Stripe event is identified by intent + status
+    private String resolveIdempotencyKey(RecordPaymentRequest request, String idempotencyKey) {
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            return idempotencyKey.trim();
+        }
+        String subject = request.getStripePaymentIntentId() != null
+                ? request.getStripePaymentIntentId()
+                : (request.getPaymentTransactionId() != null ? request.getPaymentTransactionId().toString() : null);
+        if (subject == null) {
+            return null;
+        }
+        return subject + ":" + request.getStatus();
+    }
+
+    private boolean isAllowedStatusTransition(PaymentTransaction.PaymentStatus current,
+                                              PaymentTransaction.PaymentStatus next) {
+        if (next == null || current == null || current == next) {
+            return true;
+        }
+        switch (current) {
+            case PAID:
+                return next == PaymentTransaction.PaymentStatus.REFUNDED;
+            case REFUNDED:
+            case CANCELED:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private String normalizeSearchStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return "ALL";
+        }
+        String normalized = status.trim().toUpperCase();
+        switch (normalized) {
+            case "ALL":
+            case "PAID":
+            case "PENDING":
+            case "OVERDUE":
+                return normalized;
+            default:
+                // Unknown filters have always listed every payment; clients rely on that
+                return "ALL";
+        }
+    }
+
+    private String encodeCursor(PaymentTransaction last, PaymentSearchCriteria criteria) {
+        Instant sortValue = criteria.isOverdue() ? last.getDueDate() : last.getCreatedAt();
+        return KeysetCursor.encode(sortValue, last.getId());
+    }
+
+    private PaymentTotalsDto buildTotals(PaymentSearchCriteria criteria) {
+        PaymentTotalsDto totals = new PaymentTotalsDto();
+        long allCount = 0;
+        BigDecimal allAmount = BigDecimal.ZERO;
+        long overdueCount = 0;
+        BigDecimal overdueAmount = BigDecimal.ZERO;
+
+        for (Object[] row : paymentRepository.summarizeByStatus(criteria)) {
+            PaymentTransaction.PaymentStatus status = (PaymentTransaction.PaymentStatus) row[0];
+            long count = ((Number) row[1]).longValue();
+            BigDecimal amount = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+
+            totals.getCountByStatus().put(status.name(), count);
+            totals.getAmountByStatus().put(status.name(), amount);
+            allCount += count;
+            allAmount = allAmount.add(amount);
+            overdueCount += row[3] != null ? ((Number) row[3]).longValue() : 0;
+            overdueAmount = overdueAmount.add(row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO);
+        }
+        totals.getCountByStatus().put("OVERDUE", overdueCount);
+        totals.getAmountByStatus().put("OVERDUE", overdueAmount);
+
+        if ("ALL".equals(criteria.getStatus())) {
+            totals.setTotalCount(allCount);
+            totals.setTotalAmount(allAmount);
+        } else {
+            totals.setTotalCount(totals.getCountByStatus().getOrDefault(criteria.getStatus(), 0L));
+            totals.setTotalAmount(totals.getAmountByStatus().getOrDefault(criteria.getStatus(), BigDecimal.ZERO));
+        }
+        return totals;
+    }
+
     private void validateTenantAccess(User user) {
         if (user.getRole() != UserRole.TENANT) {
             throw new IllegalArgumentException("Only tenants can access payment transactions");
@@ -309,7 +408,8 @@ public class PaymentTransactionService {
         if (apartment != null && apartment.getProperty() != null) {
             List<PropertyImage> images = apartment.getProperty().getImages();
             if (images != null && !images.isEmpty()) {
-                propertyImage = images.get(0).getImageUrl();
+                PropertyImage image = images.get(0);
+                propertyImage = image.getThumbnailUrl() != null ? image.getThumbnailUrl() : image.getImageUrl();
             }
         }
 
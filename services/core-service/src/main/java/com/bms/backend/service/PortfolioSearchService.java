@@ -0,0 +1,457 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.response.PortfolioSearchHit;
+import com.bms.backend.dto.response.PortfolioSearchHit.Type;
+import com.bms.backend.repository.ApartmentRepository;
+import com.bms.backend.repository.MaintenanceRequestRepository;
+import com.bms.backend.repository.PropertyBuildingRepository;
+import com.bms.backend.repository.TenantPropertyConnectionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over each manager's portfolio: building names and addresses, unit numbers,
+ * tenant names, emails and phones, and maintenance request titles.
+ *
+ * Every indexed value is split into lower-case tokens, and each manager has a sorted map from token to the
+ * records containing it, so a query token is answered by a range scan over the tokens it prefixes without
+ * touching the database. The index is built once the application is ready and kept current by the services
+ * that write these records: they report the changed id, and after commit a single background thread reloads
+ * that row and replaces its entry. Building names and unit numbers shown on hits are looked up in the index
+ * at query time, so renaming a building only touches the building's own entry. A periodic full rebuild picks
+ * up changes made elsewhere, such as a tenant editing their profile.
+ */
+@Service
+public class PortfolioSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSearchService.class);
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+    private static final int MIN_PHONE_DIGITS = 4;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern PHONE_QUERY = Pattern.compile("[\\d\\s+().-]+");
+
+    private static final Comparator<Map.Entry<IndexedRecord, Integer>> RANKING =
+            Map.Entry.<IndexedRecord, Integer>comparingByValue().reversed()
+                    .thenComparing(entry -> entry.getKey().type)
+                    .thenComparing(entry -> entry.getKey().title, String.CASE_INSENSITIVE_ORDER);
+
+    @Autowired
+    private PropertyBuildingRepository propertyBuildingRepository;
+
+    @Autowired
+    private ApartmentRepository apartmentRepository;
+
+    @Autowired
+    private TenantPropertyConnectionRepository connectionRepository;
+
+    @Autowired
+    private MaintenanceRequestRepository maintenanceRequestRepository;
+
+    @Value("${app.search.index.enabled:true}")
+    private boolean enabled;
+
+    private volatile Map<UUID, ManagerIndex> indexes = new ConcurrentHashMap<>();
+
+    // Manager owning each indexed record; only touched on the update thread
+    private Map<String, UUID> owners = new HashMap<>();
+
+    private volatile boolean ready;
+
+    // One thread, so updates apply in commit order and never interleave with a rebuild
+    private final ExecutorService updateExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "portfolio-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (enabled) {
+            submit(this::rebuild);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.index.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.search.index.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            submit(this::rebuild);
+        }
+    }
+
+    /**
+     * Matches every query token as a prefix of some token of a record; records matching whole tokens rank first.
+     * Returns nothing until the initial build has finished.
+     */
+    public List<PortfolioSearchHit> search(UUID managerId, String query, Integer limit) {
+        List<String> terms = queryTerms(query);
+        ManagerIndex index = indexes.get(managerId);
+        if (terms.isEmpty() || index == null) {
+            return List.of();
+        }
+        return index.search(terms, limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void buildingChanged(UUID buildingId) {
+        afterCommit(Type.BUILDING, buildingId);
+    }
+
+    public void apartmentChanged(UUID apartmentId) {
+        afterCommit(Type.APARTMENT, apartmentId);
+    }
+
+    public void tenantConnectionChanged(UUID connectionId) {
+        afterCommit(Type.TENANT, connectionId);
+    }
+
+    public void maintenanceRequestChanged(UUID requestId) {
+        afterCommit(Type.MAINTENANCE_REQUEST, requestId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updateExecutor.shutdownNow();
+    }
+
+    private void afterCommit(Type type, UUID id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(() -> refresh(type, id));
+                }
+            });
+        } else {
+            submit(() -> refresh(type, id));
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            updateExecutor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    // The next rebuild catches up
+                    logger.warn("Portfolio search index update failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private void rebuild() {
+        Map<UUID, ManagerIndex> rebuilt = new ConcurrentHashMap<>();
+        Map<String, UUID> rebuiltOwners = new HashMap<>();
+        for (Type type : Type.values()) {
+            for (Object[] row : loadRows(type, null)) {
+                IndexedRecord record = toRecord(type, row);
+                if (record != null) {
+                    rebuilt.computeIfAbsent(record.managerId, id -> new ManagerIndex()).put(record);
+                    rebuiltOwners.put(record.key, record.managerId);
+                }
+            }
+        }
+        indexes = rebuilt;
+        owners = rebuiltOwners;
+        ready = true;
+        logger.info("Portfolio search index built: {} records for {} managers", rebuiltOwners.size(), rebuilt.size());
+    }
+
+    private void refresh(Type type, UUID id) {
+        String key = key(type, id);
+        List<Object[]> rows = loadRows(type, id);
+        IndexedRecord record = rows.isEmpty() ? null : toRecord(type, rows.get(0));
+
+        UUID previousOwner = owners.get(key);
+        if (previousOwner != null && (record == null || !previousOwner.equals(record.managerId))) {
+            ManagerIndex previous = indexes.get(previousOwner);
+            if (previous != null) {
+                // A deleted building or unit takes everything under it along
+                previous.remove(key, record == null).forEach(owners::remove);
+            }
+            owners.remove(key);
+        }
+        if (record != null) {
+            indexes.computeIfAbsent(record.managerId, managerId -> new ManagerIndex()).put(record);
+            owners.put(key, record.managerId);
+        }
+    }
+
+    private List<Object[]> loadRows(Type type, UUID id) {
+        switch (type) {
+            case BUILDING:
+                return id == null ? propertyBuildingRepository.findSearchIndexRows()
+                        : propertyBuildingRepository.findSearchIndexRowsById(id);
+            case APARTMENT:
+                return id == null ? apartmentRepository.findSearchIndexRows()
+                        : apartmentRepository.findSearchIndexRowsById(id);
+            case TENANT:
+                return id == null ? connectionRepository.findSearchIndexRows()
+                        : connectionRepository.findSearchIndexRowsById(id);
+            default:
+                return id == null ? maintenanceRequestRepository.findSearchIndexRows()
+                        : maintenanceRequestRepository.findSearchIndexRowsById(id);
+        }
+    }
+
+    // Row layouts are documented on each repository's SEARCH_INDEX_SELECT
+    private static IndexedRecord toRecord(Type type, Object[] row) {
+        UUID id = (UUID) row[0];
+        UUID managerId = (UUID) row[1];
+        if (managerId == null) {
+            return null;
+        }
+        Set<String> tokens = new HashSet<>();
+        switch (type) {
+            case BUILDING: {
+                String name = (String) row[2];
+                addTokens(tokens, name);
+                addTokens(tokens, (String) row[3]);
+                return new IndexedRecord(type, id, managerId, id, null, name, (String) row[3], null, tokens);
+            }
+            case APARTMENT: {
+                String unitNumber = (String) row[3];
+                addTokens(tokens, unitNumber);
+                addTokens(tokens, (String) row[4]);
+                addEmailTokens(tokens, (String) row[5]);
+                addPhoneTokens(tokens, (String) row[6]);
+                return new IndexedRecord(type, id, managerId, (UUID) row[2], id, unitNumber, (String) row[4], null, tokens);
+            }
+            case TENANT: {
+                String name = ((row[4] == null ? "" : row[4]) + " " + (row[5] == null ? "" : row[5])).trim();
+                addTokens(tokens, name);
+                addEmailTokens(tokens, (String) row[6]);
+                addPhoneTokens(tokens, (String) row[7]);
+                return new IndexedRecord(type, id, managerId, (UUID) row[2], (UUID) row[3], name, (String) row[6],
+                        (String) row[8], tokens);
+            }
+            default: {
+                String title = row[4] == null ? "Maintenance request" : (String) row[4];
+                addTokens(tokens, (String) row[4]);
+                return new IndexedRecord(type, id, managerId, (UUID) row[2], (UUID) row[3], title, null, null, tokens);
+            }
+        }
+    }
+
+    private static List<String> queryTerms(String query) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        // "+1 (555) 010-2030" is one phone number, not five words
+        String digits = query.replaceAll("\\D", "");
+        if (digits.length() >= MIN_PHONE_DIGITS && PHONE_QUERY.matcher(query.trim()).matches()) {
+            return List.of(digits);
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        addTokens(terms, query);
+        return new ArrayList<>(terms);
+    }
+
+    private static void addTokens(Set<String> tokens, String value) {
+        if (value == null) {
+            return;
+        }
+        for (String token : TOKEN_SEPARATOR.split(value.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+    }
+
+    private static void addEmailTokens(Set<String> tokens, String email) {
+        addTokens(tokens, email);
+        if (email != null && !email.isBlank()) {
+            tokens.add(email.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static void addPhoneTokens(Set<String> tokens, String phone) {
+        addTokens(tokens, phone);
+        if (phone != null) {
+            // Every digit suffix, so numbers typed without the country code or by their last four digits match
+            String digits = phone.replaceAll("\\D", "");
+            for (int start = 0; start <= digits.length() - MIN_PHONE_DIGITS; start++) {
+                tokens.add(digits.substring(start));
+            }
+        }
+    }
+
+    private static String key(Type type, UUID id) {
+        return type.name() + ":" + id;
+    }
+
+    private static final class IndexedRecord {
+        private final String key;
+        private final Type type;
+        private final UUID id;
+        private final UUID managerId;
+        private final UUID buildingId;
+        private final UUID apartmentId;
+        private final String title;
+        private final String subtitle;
+        // Shown when the record has no building, e.g. a lease created before units were linked
+        private final String propertyName;
+        private final Set<String> tokens;
+
+        private IndexedRecord(Type type, UUID id, UUID managerId, UUID buildingId, UUID apartmentId,
+                              String title, String subtitle, String propertyName, Set<String> tokens) {
+            this.key = key(type, id);
+            this.type = type;
+            this.id = id;
+            this.managerId = managerId;
+            this.buildingId = buildingId;
+            this.apartmentId = apartmentId;
+            this.title = title == null ? "" : title;
+            this.subtitle = subtitle;
+            this.propertyName = propertyName;
+            this.tokens = tokens;
+        }
+    }
+
+    private static final class ManagerIndex {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final NavigableMap<String, Set<IndexedRecord>> postings = new TreeMap<>();
+        private final Map<String, IndexedRecord> records = new HashMap<>();
+
+        private void put(IndexedRecord record) {
+            lock.writeLock().lock();
+            try {
+                IndexedRecord previous = records.get(record.key);
+                if (previous != null) {
+                    unlink(previous);
+                }
+                records.put(record.key, record);
+                for (String token : record.tokens) {
+                    postings.computeIfAbsent(token, t -> new HashSet<>()).add(record);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Returns the keys of all removed records
+        private List<String> remove(String key, boolean withDependents) {
+            lock.writeLock().lock();
+            try {
+                List<IndexedRecord> removed = new ArrayList<>();
+                IndexedRecord record = records.get(key);
+                if (record != null) {
+                    removed.add(record);
+                    if (withDependents && (record.type == Type.BUILDING || record.type == Type.APARTMENT)) {
+                        for (IndexedRecord candidate : records.values()) {
+                            if (candidate != record && (record.type == Type.BUILDING
+                                    ? record.id.equals(candidate.buildingId)
+                                    : record.id.equals(candidate.apartmentId))) {
+                                removed.add(candidate);
+                            }
+                        }
+                    }
+                }
+                removed.forEach(this::unlink);
+                return removed.stream().map(r -> r.key).collect(Collectors.toList());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void unlink(IndexedRecord record) {
+            records.remove(record.key);
+            for (String token : record.tokens) {
+                Set<IndexedRecord> posting = postings.get(token);
+                if (posting != null) {
+                    posting.remove(record);
+                    if (posting.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+
+        private List<PortfolioSearchHit> search(List<String> terms, int limit) {
+            lock.readLock().lock();
+            try {
+                Map<IndexedRecord, Integer> scores = null;
+                for (String term : terms) {
+                    Map<IndexedRecord, Integer> matches = new HashMap<>();
+                    for (Map.Entry<String, Set<IndexedRecord>> posting
+                            : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+                        int score = posting.getKey().length() == term.length() ? 2 : 1;
+                        for (IndexedRecord record : posting.getValue()) {
+                            matches.merge(record, score, Math::max);
+                        }
+                    }
+                    if (scores == null) {
+                        scores = matches;
+                    } else {
+                        scores.keySet().retainAll(matches.keySet());
+                        scores.replaceAll((record, score) -> score + matches.get(record));
+                    }
+                    if (scores.isEmpty()) {
+                        return List.of();
+                    }
+                }
+                return scores.entrySet().stream()
+                        .sorted(RANKING)
+                        .limit(limit)
+                        .map(entry -> toHit(entry.getKey()))
+                        .collect(Collectors.toList());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private PortfolioSearchHit toHit(IndexedRecord record) {
+            PortfolioSearchHit hit = new PortfolioSearchHit(record.type, record.id, record.title, record.subtitle);
+            hit.setBuildingId(record.buildingId);
+            hit.setApartmentId(record.apartmentId);
+            IndexedRecord building = record.buildingId == null ? null : records.get(key(Type.BUILDING, record.buildingId));
+            hit.setBuildingName(building != null ? building.title : record.propertyName);
+            IndexedRecord apartment = record.apartmentId == null ? null : records.get(key(Type.APARTMENT, record.apartmentId));
+            if (apartment != null) {
+                hit.setUnitNumber(apartment.title);
+            }
+            return hit;
+        }
+    }
+}
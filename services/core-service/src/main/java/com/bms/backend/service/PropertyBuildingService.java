@@ -4,8 +4,10 @@ import com.bms.backend.dto.request.PropertyBuildingRequest;
 import com.bms.backend.entity.PropertyBuilding;
 import com.bms.backend.entity.User;
 import com.bms.backend.repository.PropertyBuildingRepository;
+import com.bms.backend.util.SearchTerms;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -34,6 +36,21 @@ PropertyBuildingService {
     @Autowired
     private com.bms.backend.repository.MaintenanceRequestRepository maintenanceRequestRepository;
 
+    @Autowired
+    private PortfolioSearchService portfolioSearchService;
+
+    @Autowired
+    private ParallelUploadService parallelUploadService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ObjectDeletionService objectDeletionService;
+
+    @Autowired
+    private ApartmentService apartmentService;
+
     public PropertyBuilding createProperty(PropertyBuildingRequest request, User manager) {
         PropertyBuilding property = new PropertyBuilding();
         property.setName(request.getName());
@@ -50,6 +67,7 @@ PropertyBuildingService {
 
         // Save property first to get the ID
         PropertyBuilding savedProperty = propertyBuildingRepository.save(property);
+        portfolioSearchService.buildingChanged(savedProperty.getId());
 
         // Save image URLs if provided (already uploaded to S3 by UI)
         if (request.getImages() != null && !request.getImages().isEmpty()) {
@@ -65,7 +83,7 @@ PropertyBuildingService {
                     propertyImage.setIsPrimary(true);
                 }
 
-                propertyImageRepository.save(propertyImage);
+                imageDerivativeService.propertyImagesStored(List.of(propertyImageRepository.save(propertyImage)));
                 displayOrder++;
             }
         }
@@ -84,16 +102,24 @@ PropertyBuildingService {
         return properties;
     }
 
-    public List<PropertyBuilding> searchPropertiesByManager(User manager, String searchText) {
-        return propertyBuildingRepository.findByManagerAndSearchText(manager, searchText);
+    public List<PropertyBuilding> searchPropertiesByManager(User manager, String searchText, Integer limit) {
+        SearchTerms search = SearchTerms.of(searchText);
+        if (search == null) {
+            return propertyBuildingRepository.findByManager(manager);
+        }
+        return propertyBuildingRepository.findByManagerAndSearchText(manager, search, SearchTerms.limit(limit));
     }
 
     public List<PropertyBuilding> getAllProperties() {
         return propertyBuildingRepository.findAll();
     }
 
-    public List<PropertyBuilding> searchAllProperties(String searchText) {
-        return propertyBuildingRepository.findBySearchText(searchText);
+    public List<PropertyBuilding> searchAllProperties(String searchText, Integer limit) {
+        SearchTerms search = SearchTerms.of(searchText);
+        if (search == null) {
+            return propertyBuildingRepository.findAll(SearchTerms.limit(limit)).getContent();
+        }
+        return propertyBuildingRepository.findBySearchText(search, SearchTerms.limit(limit));
     }
 
     public Optional<PropertyBuilding> getPropertyById(UUID id) {
@@ -106,6 +132,7 @@ PropertyBuildingService {
         return property;
     }
 
+    @Transactional
     public PropertyBuilding updateProperty(UUID id, PropertyBuildingRequest request, User manager) {
         Optional<PropertyBuilding> existingProperty = propertyBuildingRepository.findById(id);
         
@@ -127,16 +154,10 @@ PropertyBuildingService {
                 List<com.bms.backend.entity.PropertyImage> existingImages =
                     propertyImageRepository.findByProperty(property);
                 if (!existingImages.isEmpty()) {
-                    // Delete from S3 first
-                    for (com.bms.backend.entity.PropertyImage image : existingImages) {
-                        try {
-                            s3Service.deleteFile(image.getImageUrl());
-                        } catch (Exception e) {
-                            // Log error but continue - image might not exist in S3
-                            System.err.println("Failed to delete image from S3: " + image.getImageUrl() + " - " + e.getMessage());
-                        }
-                    }
-                    // Then delete from database
+                    // S3 objects are deleted after commit
+                    objectDeletionService.deleteImagesLater(existingImages.stream()
+                        .map(com.bms.backend.entity.PropertyImage::getImageUrl)
+                        .toList());
                     propertyImageRepository.deleteAll(existingImages);
                 }
 
@@ -154,40 +175,39 @@ PropertyBuildingService {
                             propertyImage.setIsPrimary(true);
                         }
 
-                        propertyImageRepository.save(propertyImage);
+                        imageDerivativeService.propertyImagesStored(List.of(propertyImageRepository.save(propertyImage)));
                         displayOrder++;
                     }
                 }
             }
 
-            return propertyBuildingRepository.save(property);
+            PropertyBuilding savedProperty = propertyBuildingRepository.save(property);
+            portfolioSearchService.buildingChanged(id);
+            return savedProperty;
         }
         
         throw new RuntimeException("Property not found or not authorized");
     }
 
+    @Transactional
     public void deleteProperty(UUID id, User manager) {
         Optional<PropertyBuilding> property = propertyBuildingRepository.findById(id);
 
         if (property.isPresent() && property.get().getManager().getId().equals(manager.getId())) {
             PropertyBuilding prop = property.get();
 
-            // Delete all property images from S3 before deleting the property
+            // Building images, and the images and documents of the units cascaded with it,
+            // are deleted from S3 after commit
             List<com.bms.backend.entity.PropertyImage> propertyImages =
                 propertyImageRepository.findByProperty(prop);
-
-            for (com.bms.backend.entity.PropertyImage image : propertyImages) {
-                try {
-                    s3Service.deleteFile(image.getImageUrl());
-                    System.out.println("✅ Deleted property image from S3: " + image.getImageUrl());
-                } catch (Exception e) {
-                    // Log error but continue - image might not exist in S3
-                    System.err.println("Failed to delete property image from S3: " + image.getImageUrl() + " - " + e.getMessage());
-                }
-            }
+            objectDeletionService.deleteImagesLater(propertyImages.stream()
+                .map(com.bms.backend.entity.PropertyImage::getImageUrl)
+                .toList());
+            apartmentRepository.findByProperty(prop).forEach(apartmentService::scheduleObjectDeletion);
 
             // Delete property (cascade will delete PropertyImage records)
             propertyBuildingRepository.deleteById(id);
+            portfolioSearchService.buildingChanged(id);
         } else {
             throw new RuntimeException("Property not found or not authorized");
         }
@@ -207,32 +227,41 @@ PropertyBuildingService {
         Long currentImageCount = propertyImageRepository.countByPropertyId(propertyId);
         int displayOrder = currentImageCount.intValue();
 
-        // Upload each image to S3 and create PropertyImage records
-        for (org.springframework.web.multipart.MultipartFile image : images) {
-            try {
-                String imageUrl = s3Service.uploadFile(image, manager.getId(), S3Service.FileType.PROPERTY);
-
-                com.bms.backend.entity.PropertyImage propertyImage = new com.bms.backend.entity.PropertyImage();
-                propertyImage.setProperty(property);
-                propertyImage.setImageUrl(imageUrl);
-                propertyImage.setImageName(image.getOriginalFilename());
-                propertyImage.setImageType(image.getContentType());
-                propertyImage.setImageSize(image.getSize());
-                propertyImage.setDisplayOrder(displayOrder++);
-
-                // Set first image as primary if no primary exists
-                if (currentImageCount == 0 && displayOrder == 1) {
-                    propertyImage.setIsPrimary(true);
-                }
-
-                propertyImageRepository.save(propertyImage);
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to upload image: " + e.getMessage());
+        // Upload all images concurrently; none are kept if any fails
+        List<ParallelUploadService.UploadedFile> uploaded =
+                parallelUploadService.uploadAll(images, manager.getId(), S3Service.FileType.PROPERTY);
+
+        // Create the PropertyImage records in one batch
+        List<com.bms.backend.entity.PropertyImage> propertyImages = new java.util.ArrayList<>();
+        for (ParallelUploadService.UploadedFile image : uploaded) {
+            com.bms.backend.entity.PropertyImage propertyImage = new com.bms.backend.entity.PropertyImage();
+            propertyImage.setProperty(property);
+            propertyImage.setImageUrl(image.getUrl());
+            propertyImage.setStorageKey(image.getKey());
+            propertyImage.setImageName(image.getOriginalFilename());
+            propertyImage.setImageType(image.getContentType());
+            propertyImage.setImageSize(image.getSize());
+            propertyImage.setDisplayOrder(displayOrder++);
+
+            // Set first image as primary if no primary exists
+            if (currentImageCount == 0 && displayOrder == 1) {
+                propertyImage.setIsPrimary(true);
             }
+            propertyImages.add(propertyImage);
         }
 
-        property.setUpdatedAt(Instant.now());
-        return propertyBuildingRepository.save(property);
+        PropertyBuilding savedProperty;
+        try {
+            propertyImageRepository.saveAll(propertyImages);
+            property.setUpdatedAt(Instant.now());
+            savedProperty = propertyBuildingRepository.save(property);
+        } catch (RuntimeException e) {
+            parallelUploadService.deleteAll(uploaded);
+            throw e;
+        }
+        // Thumbnails and medium variants are generated in the background
+        imageDerivativeService.propertyImagesStored(propertyImages);
+        return savedProperty;
     }
 
     /**
@@ -269,6 +298,9 @@ PropertyBuildingService {
                 .map(com.bms.backend.entity.PropertyImage::getImageUrl)
                 .collect(java.util.stream.Collectors.toList());
             property.setImageUrls(imageUrls);
+            property.setThumbnailUrls(propertyImages.stream()
+                .map(image -> image.getThumbnailUrl() != null ? image.getThumbnailUrl() : image.getImageUrl())
+                .collect(java.util.stream.Collectors.toList()));
         }
     }
 
@@ -1,27 +1,44 @@
 package com.bms.backend.service;
 
+import com.bms.backend.dto.response.FileDownloadUrlResponse;
+import com.bms.backend.dto.response.FileListItem;
+import com.bms.backend.dto.response.FileListPageResponse;
+import com.bms.backend.dto.response.PresignedUploadResponse;
+import com.bms.backend.service.storage.ObjectInfo;
+import com.bms.backend.service.storage.ObjectStorage;
+import com.bms.backend.service.storage.ObjectSummary;
+import com.bms.backend.service.storage.PresignedRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.ResponseInputStream;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.*;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class S3Service {
 
     @Autowired
-    private S3Client s3Client;
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private ContentIndexService contentIndexService;
 
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
@@ -35,7 +52,20 @@ public class S3Service {
     @Value("${aws.cloudfront.enabled:false}")
     private boolean cloudFrontEnabled;
 
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    @Value("${aws.s3.presign.upload-expiry-seconds:300}")
+    private long uploadUrlExpirySeconds;
+
+    @Value("${aws.s3.presign.download-expiry-seconds:900}")
+    private long downloadUrlExpirySeconds;
+
+    private static final int DEFAULT_LIST_PAGE_SIZE = 100;
+    private static final int MAX_LIST_PAGE_SIZE = 1000;
+    // Keys examined per listing call before a filtered page is returned short
+    static final int MAX_LIST_SCAN = 5000;
+
+    static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    // Enough leading bytes to recognise every allowed format by its signature
+    static final int SIGNATURE_BYTES = 12;
     private static final List<String> ALLOWED_IMAGE_TYPES = Arrays.asList(
             "image/jpeg", "image/jpg", "image/png", "image/gif", "image/webp"
     );
@@ -66,86 +96,256 @@ public class S3Service {
     public String uploadFile(MultipartFile file, UUID userId, FileType fileType) throws IOException {
         validateFile(file);
 
+        // Same content uploaded by this user for this file type before: point at that object instead of storing another copy
+        String contentHash = null;
+        if (contentIndexService.isEnabled()) {
+            try (InputStream in = file.getInputStream()) {
+                contentHash = ContentIndexService.sha256(in);
+            }
+            String existingKey = contentIndexService.reuse(userId, fileType, contentHash);
+            if (existingKey != null) {
+                return generateFileUrl(existingKey);
+            }
+        }
+
         String fileName = generateFileName(file.getOriginalFilename());
         String key = generateS3Key(userId, fileType, fileName);
 
+        try (InputStream in = file.getInputStream()) {
+            objectStorage.put(key, in, file.getSize(), file.getContentType(), null);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to upload file to S3: " + e.getMessage(), e);
+        }
+        return generateFileUrl(register(userId, fileType, contentHash, key, file.getSize()));
+    }
+
+    /**
+     * Uploads content of unknown length, such as a multipart part still being received, under a generated key.
+     * The caller validates the content; it is hashed on the way through and, if the user already stored the same
+     * bytes, the new copy is dropped in favour of the existing object.
+     */
+    public StoredFile uploadStream(InputStream content, UUID userId, FileType fileType, String originalFilename,
+                                   String contentType) {
+        String key = generateS3Key(userId, fileType, generateFileName(originalFilename));
+        MessageDigest sha256 = ContentIndexService.newDigest();
+
+        long size;
         try {
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .contentType(file.getContentType())
-                    .contentLength(file.getSize())
-                    .build();
+            size = objectStorage.putStream(key, new DigestInputStream(content, sha256), contentType);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to upload file to S3: " + e.getMessage(), e);
+        }
+        String contentHash = HexFormat.of().formatHex(sha256.digest());
+        String storedKey = register(userId, fileType, contentIndexService.isEnabled() ? contentHash : null, key, size);
+        return new StoredFile(storedKey, generateFileUrl(storedKey), size, contentHash, contentType);
+    }
+
+    /**
+     * Uploads a file already on local disk (e.g. a decoded upload spooled by the caller) under a generated key.
+     * With the SHA-256 of its content, an identical object of the same user and file type is reused instead of
+     * uploading.
+     * Returns the object key; use {@link #getFileUrl(String)} for the public URL.
+     */
+    public String uploadFile(Path source, UUID userId, FileType fileType, String originalFilename, String contentType,
+                             String contentHash) {
+        String existingKey = contentIndexService.reuse(userId, fileType, contentHash);
+        if (existingKey != null) {
+            return existingKey;
+        }
 
-            s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+        String key = generateS3Key(userId, fileType, generateFileName(originalFilename));
 
-            return generateFileUrl(key);
+        try {
+            objectStorage.put(key, source, contentType);
         } catch (Exception e) {
             throw new RuntimeException("Failed to upload file to S3: " + e.getMessage(), e);
         }
+        return register(userId, fileType, contentHash, key, source.toFile().length());
     }
 
-    public InputStream downloadFile(String fileUrl) {
+    // Indexes a fresh upload; if the same content won a concurrent upload, our copy is dropped in favour of it
+    private String register(UUID userId, FileType fileType, String contentHash, String key, long size) {
+        String registeredKey = contentIndexService.register(userId, fileType, contentHash, key, size);
+        if (!registeredKey.equals(key)) {
+            deleteObject(key);
+        }
+        return registeredKey;
+    }
+
+    public String getFileUrl(String key) {
+        return generateFileUrl(key);
+    }
+
+    // Object key behind a URL from getFileUrl; IllegalArgumentException for URLs outside this bucket
+    public String getKeyFromUrl(String fileUrl) {
+        return extractKeyFromUrl(fileUrl);
+    }
+
+    // A fresh key under the user's folder for the file type, keeping the original extension
+    public String newObjectKey(UUID userId, FileType fileType, String originalFilename) {
+        return generateS3Key(userId, fileType, generateFileName(originalFilename));
+    }
+
+    /**
+     * Issues a short-lived PUT URL for the client to upload one file straight to the bucket.
+     * Content type and length are signed, so storage rejects a body that differs from what was declared here.
+     */
+    public PresignedUploadResponse presignUpload(UUID userId, FileType fileType, String originalFilename,
+                                                 String contentType, long contentLength) {
+        validateUpload(contentType, contentLength);
+        String key = generateS3Key(userId, fileType, generateFileName(originalFilename));
+
+        PresignedRequest presigned = objectStorage.presignPut(key, contentType, contentLength,
+                        Duration.ofSeconds(uploadUrlExpirySeconds))
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Direct uploads are not available; upload through /api/v1/files/upload"));
+        return new PresignedUploadResponse(presigned.getUrl(), "PUT", presigned.getHeaders(), key,
+                presigned.getExpiration());
+    }
+
+    /**
+     * Checks a direct upload once the client reports it finished: the key must be one issued to this user and
+     * file type, and the stored object must pass the same type and size rules as a proxied upload. An object
+     * that fails them is deleted.
+     */
+    public ObjectInfo verifyUpload(UUID userId, FileType fileType, String key) {
+        if (!key.startsWith(generateS3Key(userId, fileType, "")) || key.contains("..")) {
+            throw new IllegalArgumentException("Upload key does not belong to this user and file type");
+        }
+
+        ObjectInfo head = objectStorage.head(key);
+        if (head == null) {
+            throw new IllegalArgumentException("Upload not found; the upload URL may have expired");
+        }
+
         try {
-            String key = extractKeyFromUrl(fileUrl);
+            validateUpload(head.getContentType(), head.getContentLength());
+        } catch (IllegalArgumentException e) {
+            deleteFile(generateFileUrl(key));
+            throw e;
+        }
+        return head;
+    }
+
+    /**
+     * A URL the client can fetch the file from without going through this server: the CDN URL when
+     * CloudFront is enabled, otherwise a short-lived presigned GET. Backends that cannot sign URLs get the
+     * plain file URL.
+     */
+    public FileDownloadUrlResponse getDownloadUrl(String fileUrl) {
+        String key = extractKeyFromUrl(fileUrl);
+        if (cloudFrontEnabled && cloudFrontDomain != null && !cloudFrontDomain.isEmpty()) {
+            return new FileDownloadUrlResponse(generateFileUrl(key), null);
+        }
 
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .build();
+        return objectStorage.presignGet(key, Duration.ofSeconds(downloadUrlExpirySeconds))
+                .map(presigned -> new FileDownloadUrlResponse(presigned.getUrl(), presigned.getExpiration()))
+                .orElseGet(() -> new FileDownloadUrlResponse(generateFileUrl(key), null));
+    }
 
-            ResponseInputStream<GetObjectResponse> responseInputStream = s3Client.getObject(getObjectRequest);
-            return responseInputStream;
+    public InputStream downloadFile(String fileUrl) {
+        try {
+            String key = extractKeyFromUrl(fileUrl);
+            return objectStorage.get(key);
         } catch (Exception e) {
             throw new RuntimeException("Failed to download file from S3: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Drops this reference to the file and deletes the object once nothing else references the same content.
+     */
     public void deleteFile(String fileUrl) {
         try {
             String key = extractKeyFromUrl(fileUrl);
-
-            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .build();
-
-            s3Client.deleteObject(deleteObjectRequest);
+            if (contentIndexService.release(key)) {
+                deleteObject(key);
+            }
         } catch (Exception e) {
             throw new RuntimeException("Failed to delete file from S3: " + e.getMessage(), e);
         }
     }
 
-    public List<String> listUserFiles(UUID userId, FileType fileType) {
-        try {
-            String prefix = String.format("users/%s/%s/", userId.toString(), fileType.getFolder());
+    private void deleteObject(String key) {
+        objectStorage.delete(key);
+    }
 
-            ListObjectsV2Request listObjectsV2Request = ListObjectsV2Request.builder()
-                    .bucket(bucketName)
-                    .prefix(prefix)
-                    .build();
+    /**
+     * One page of the user's files in a folder, in key order. Keys start with the upload time, so this is also
+     * upload order. The storage listing is consumed lazily and stops once the page is full; with a date filter
+     * at most {@link #MAX_LIST_SCAN} keys are examined per call, after which the page is returned short with a
+     * cursor to continue from. The cursor is the last examined file name, so it cannot reach outside the folder.
+     */
+    public FileListPageResponse listUserFiles(UUID userId, FileType fileType, String cursor, Integer limit,
+                                              Instant startDate, Instant endDate, boolean includeMetadata) {
+        int pageSize = limit == null ? DEFAULT_LIST_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_LIST_PAGE_SIZE));
+        if (startDate != null && endDate != null && !startDate.isBefore(endDate)) {
+            throw new IllegalArgumentException("startDate must be before endDate");
+        }
+        String prefix = String.format("users/%s/%s/", userId.toString(), fileType.getFolder());
+        String startAfter = cursor == null || cursor.isBlank() ? null : prefix + decodeListCursor(cursor);
+
+        try (Stream<ObjectSummary> objects = objectStorage.list(prefix, startAfter)) {
+            List<FileListItem> files = new ArrayList<>();
+            String lastKey = null;
+            int scanned = 0;
+            boolean hasMore = false;
+            Iterator<ObjectSummary> iterator = objects.iterator();
+            while (iterator.hasNext()) {
+                if (files.size() == pageSize || scanned == MAX_LIST_SCAN) {
+                    hasMore = true;
+                    break;
+                }
+                ObjectSummary object = iterator.next();
+                scanned++;
+                lastKey = object.getKey();
+                Instant modified = object.getLastModified();
+                if ((startDate != null && modified.isBefore(startDate)) || (endDate != null && !modified.isBefore(endDate))) {
+                    continue;
+                }
+                files.add(includeMetadata
+                        ? new FileListItem(generateFileUrl(lastKey), object.getSize(), modified)
+                        : new FileListItem(generateFileUrl(lastKey), null, null));
+            }
+            String nextCursor = hasMore ? encodeListCursor(lastKey.substring(prefix.length())) : null;
+            return new FileListPageResponse(files, nextCursor);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Failed to list files from S3: " + e.getMessage(), e);
+        }
+    }
 
-            ListObjectsV2Response listObjectsV2Response = s3Client.listObjectsV2(listObjectsV2Request);
+    private static String encodeListCursor(String fileName) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fileName.getBytes(StandardCharsets.UTF_8));
+    }
 
-            return listObjectsV2Response.contents().stream()
-                    .map(S3Object::key)
-                    .map(this::generateFileUrl)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to list files from S3: " + e.getMessage(), e);
+    private static String decodeListCursor(String cursor) {
+        try {
+            String fileName = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (fileName.isEmpty() || fileName.contains("/")) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return fileName;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
         }
     }
 
-    private void validateFile(MultipartFile file) {
+    public void validateFile(MultipartFile file) {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File cannot be empty");
         }
+        validateUpload(file.getContentType(), file.getSize());
+    }
+
+    private void validateUpload(String contentType, Long size) {
+        if (size == null || size <= 0) {
+            throw new IllegalArgumentException("File cannot be empty");
+        }
 
-        if (file.getSize() > MAX_FILE_SIZE) {
+        if (size > MAX_FILE_SIZE) {
             throw new IllegalArgumentException("File size cannot exceed 10MB");
         }
 
-        String contentType = file.getContentType();
         if (contentType == null) {
             throw new IllegalArgumentException("File content type cannot be determined");
         }
@@ -158,6 +358,50 @@ public class S3Service {
         }
     }
 
+    /**
+     * Content type of an allowed file, recognised from its first {@link #SIGNATURE_BYTES} bytes rather than from
+     * what the client declared, or null if it is none of them. Word files are containers shared with other
+     * formats (OLE2 and ZIP), so for those the file name extension has to agree.
+     */
+    public static String detectContentType(byte[] head, String originalFilename) {
+        String name = originalFilename == null ? "" : originalFilename.toLowerCase(Locale.ROOT);
+        if (startsWith(head, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(head, 'G', 'I', 'F', '8', '7', 'a') || startsWith(head, 'G', 'I', 'F', '8', '9', 'a')) {
+            return "image/gif";
+        }
+        if (startsWith(head, 'R', 'I', 'F', 'F') && head.length >= 12
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "image/webp";
+        }
+        if (startsWith(head, '%', 'P', 'D', 'F', '-')) {
+            return "application/pdf";
+        }
+        if (startsWith(head, 0xD0, 0xCF, 0x11, 0xE0, 0xA1, 0xB1, 0x1A, 0xE1) && name.endsWith(".doc")) {
+            return "application/msword";
+        }
+        if (startsWith(head, 'P', 'K', 0x03, 0x04) && name.endsWith(".docx")) {
+            return "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int... signature) {
+        if (head.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((head[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private String generateFileName(String originalFilename) {
         String timestamp = String.valueOf(Instant.now().toEpochMilli());
         String randomId = UUID.randomUUID().toString().substring(0, 8);
@@ -205,18 +449,46 @@ public class S3Service {
     public boolean fileExists(String fileUrl) {
         try {
             String key = extractKeyFromUrl(fileUrl);
-
-            HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .build();
-
-            s3Client.headObject(headObjectRequest);
-            return true;
-        } catch (NoSuchKeyException e) {
-            return false;
+            return objectStorage.head(key) != null;
         } catch (Exception e) {
             throw new RuntimeException("Failed to check file existence: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    public static final class StoredFile {
+        private final String key;
+        private final String url;
+        private final long size;
+        private final String contentHash;
+        private final String contentType;
+
+        public StoredFile(String key, String url, long size, String contentHash, String contentType) {
+            this.key = key;
+            this.url = url;
+            this.size = size;
+            this.contentHash = contentHash;
+            this.contentType = contentType;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        // SHA-256 of the content, hex encoded
+        public String getContentHash() {
+            return contentHash;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+}
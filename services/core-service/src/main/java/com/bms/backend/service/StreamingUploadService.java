@@ -0,0 +1,159 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.request.FileUploadRequest;
+import com.bms.backend.dto.response.FileUploadResponse;
+import com.bms.backend.entity.User;
+import com.bms.backend.util.MultipartStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.UUID;
+
+/**
+ * Uploads parsed straight off the request body, without the servlet container spooling them first.
+ *
+ * The body is read part by part through one fixed-size buffer ({@link MultipartStream}); the {@code uploadRequest}
+ * field must come first, so the file part can be piped into storage as it arrives. The type is taken from the
+ * file's leading bytes and the size limit is enforced while reading, so an oversized or disguised file is cut off
+ * as soon as it shows, and its partial upload is discarded. Per upload, memory holds the parse buffer and one
+ * storage chunk; nothing touches local disk.
+ */
+@Service
+public class StreamingUploadService {
+
+    private static final String UPLOAD_REQUEST_FIELD = "uploadRequest";
+    private static final String FILE_FIELD = "file";
+
+    private static final int MAX_UPLOAD_REQUEST_BYTES = 16 * 1024;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.storage.upload.stream-buffer-bytes:65536}")
+    private int bufferSize;
+
+    public FileUploadResponse upload(String requestContentType, InputStream body, User user) throws IOException {
+        MultipartStream multipart = open(requestContentType, body);
+        FileUploadRequest uploadRequest = null;
+        MultipartStream.Part part;
+        while ((part = multipart.nextPart()) != null) {
+            if (UPLOAD_REQUEST_FIELD.equals(part.getName())) {
+                uploadRequest = objectMapper.readValue(part.readString(MAX_UPLOAD_REQUEST_BYTES), FileUploadRequest.class);
+            } else if (FILE_FIELD.equals(part.getName())) {
+                if (uploadRequest == null) {
+                    throw new IllegalArgumentException("The uploadRequest field must be sent before the file");
+                }
+                S3Service.StoredFile stored = store(part, user.getId(), parseFileType(uploadRequest.getFileType()));
+                return new FileUploadResponse(
+                        stored.getUrl(),
+                        part.getFileName(),
+                        uploadRequest.getFileType(),
+                        stored.getSize(),
+                        stored.getContentType(),
+                        user.getId(),
+                        uploadRequest.getDescription(),
+                        uploadRequest.getCategory()
+                );
+            }
+        }
+        throw new IllegalArgumentException("No file in the request");
+    }
+
+    /**
+     * Starts reading a {@code multipart/form-data} request body with the configured buffer.
+     */
+    public MultipartStream open(String requestContentType, InputStream body) {
+        String boundary = MultipartStream.boundaryOf(requestContentType);
+        if (boundary == null) {
+            throw new IllegalArgumentException("Expected a multipart/form-data request");
+        }
+        return new MultipartStream(body, boundary, bufferSize);
+    }
+
+    /**
+     * Pipes a file part into storage under the owner's folder, checking its type and size as it is read.
+     */
+    public S3Service.StoredFile store(MultipartStream.Part part, UUID ownerId, S3Service.FileType fileType)
+            throws IOException {
+        byte[] head = part.getBody().readNBytes(S3Service.SIGNATURE_BYTES);
+        if (head.length == 0) {
+            throw new IllegalArgumentException("File cannot be empty");
+        }
+        String contentType = S3Service.detectContentType(head, part.getFileName());
+        if (contentType == null) {
+            throw new IllegalArgumentException("Invalid file type. Allowed types: Images (JPEG, PNG, GIF, WebP) and Documents (PDF, DOC, DOCX)");
+        }
+
+        SizeLimitedInputStream content = new SizeLimitedInputStream(
+                new SequenceInputStream(new ByteArrayInputStream(head), part.getBody()), S3Service.MAX_FILE_SIZE);
+        try {
+            return s3Service.uploadStream(content, ownerId, fileType, part.getFileName(), contentType);
+        } catch (RuntimeException e) {
+            if (content.isExceeded()) {
+                throw new IllegalArgumentException("File size cannot exceed 10MB");
+            }
+            throw e;
+        }
+    }
+
+    private static S3Service.FileType parseFileType(String fileType) {
+        try {
+            return S3Service.FileType.valueOf(fileType.toUpperCase());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid file type. Allowed: profile, maintenance, property, document, other");
+        }
+    }
+
+    // Fails the read that would go past the limit, which makes the storage backend abandon the upload
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+        private boolean exceeded;
+
+        SizeLimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counted(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                counted(read);
+            }
+            return read;
+        }
+
+        private void counted(int read) throws IOException {
+            count += read;
+            if (count > limit) {
+                exceeded = true;
+                throw new IOException("File size cannot exceed 10MB");
+            }
+        }
+
+        boolean isExceeded() {
+            return exceeded;
+        }
+    }
+}
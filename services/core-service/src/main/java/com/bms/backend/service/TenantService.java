@@ -8,12 +8,14 @@ import com.bms.backend.dto.response.TenantPropertyDto;
 import com.bms.backend.entity.*;
 import com.bms.backend.enums.UserRole;
 import com.bms.backend.repository.*;
+import com.bms.backend.util.SearchTerms;
 
 import java.time.Period;
 import java.util.ArrayList;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,12 +40,18 @@ public class TenantService {
     @Autowired
     private MaintenanceRequestRepository maintenanceRequestRepository;
 
+    @Autowired
+    private ApartmentDocumentRepository apartmentDocumentRepository;
+
     @Autowired
     private PaymentTransactionService paymentTransactionService;
 
     @Autowired
     private PaymentTransactionRepository paymentTransactionRepository;
 
+    @Autowired
+    private PortfolioSearchService portfolioSearchService;
+
     @Autowired
     @org.springframework.context.annotation.Lazy
     private com.bms.backend.service.LeaseService leaseService;
@@ -104,6 +112,8 @@ public class TenantService {
 
         // Save the connection
         TenantPropertyConnection savedConnection = connectionRepository.save(connection);
+        portfolioSearchService.tenantConnectionChanged(savedConnection.getId());
+        portfolioSearchService.apartmentChanged(apartment.getId());
 
         // Auto-generate pending rent payments for the lease duration
         paymentTransactionService.generateRentPaymentsForLease(savedConnection);
@@ -111,16 +121,17 @@ public class TenantService {
         return savedConnection;
     }
 
-    public List<TenantPropertyConnection> searchTenants(User manager, String searchText) {
+    public List<TenantPropertyConnection> searchTenants(User manager, String searchText, Integer limit) {
         if (manager.getRole() != UserRole.PROPERTY_MANAGER) {
             throw new IllegalArgumentException("Only managers can search tenants");
         }
 
-        if (searchText == null || searchText.trim().isEmpty()) {
+        SearchTerms search = SearchTerms.of(searchText);
+        if (search == null) {
             return connectionRepository.findByManagerAndIsActive(manager, true);
         }
 
-        return connectionRepository.findByManagerAndSearchText(manager, searchText.trim());
+        return connectionRepository.findByManagerAndSearchText(manager, search, SearchTerms.limit(limit));
     }
 
     public List<TenantPropertyConnection> getTenantProperties(User tenant) {
@@ -174,18 +185,19 @@ public class TenantService {
                 .toList();
     }
 
-    public List<User> searchTenantsGlobal(User manager, String searchText) {
+    public List<User> searchTenantsGlobal(User manager, String searchText, Integer limit) {
         if (manager.getRole() != UserRole.PROPERTY_MANAGER) {
             throw new IllegalArgumentException("Only managers can search tenants globally");
         }
 
-        if (searchText == null || searchText.trim().isEmpty()) {
+        SearchTerms search = SearchTerms.of(searchText);
+        if (search == null) {
             // Return all active tenants
             return userRepository.findByRoleAndAccountStatus(UserRole.TENANT, com.bms.backend.enums.AccountStatus.ACTIVE);
         }
 
         // Search tenants by name, email, or phone
-        return userRepository.findTenantsBySearchText(searchText.trim());
+        return userRepository.findTenantsBySearchText(search, SearchTerms.limit(limit));
     }
 
     public List<TenantConnectionDto> getManagerTenantConnections(User manager, String searchText) {
@@ -194,10 +206,12 @@ public class TenantService {
         }
 
         List<TenantPropertyConnection> connections;
-        if (searchText == null || searchText.trim().isEmpty()) {
+        SearchTerms search = SearchTerms.of(searchText);
+        if (search == null) {
             connections = connectionRepository.findByManagerAndIsActive(manager, true);
         } else {
-            connections = connectionRepository.findByManagerAndSearchText(manager, searchText.trim());
+            // Full list of the manager's connections, not a type-ahead; only the matching is shared with search
+            connections = connectionRepository.findByManagerAndSearchText(manager, search, Pageable.unpaged());
         }
 
         return connections.stream()
@@ -299,15 +313,20 @@ public class TenantService {
                     return Integer.compare(a.getDisplayOrder() != null ? a.getDisplayOrder() : 999, 
                                          b.getDisplayOrder() != null ? b.getDisplayOrder() : 999);
                 })
-                .map(img -> new LeaseDetailsDto.PropertyImageDto(
-                    img.getId(),
-                    img.getImageUrl(),
-                    img.getImageData(),
-                    img.getImageName(),
-                    img.getDescription(),
-                    Boolean.TRUE.equals(img.getIsPrimary()),
-                    img.getDisplayOrder()
-                ))
+                .map(img -> {
+                    LeaseDetailsDto.PropertyImageDto imageDto = new LeaseDetailsDto.PropertyImageDto(
+                        img.getId(),
+                        img.getImageUrl(),
+                        img.getImageData(),
+                        img.getImageName(),
+                        img.getDescription(),
+                        Boolean.TRUE.equals(img.getIsPrimary()),
+                        img.getDisplayOrder()
+                    );
+                    imageDto.setThumbnailUrl(img.getThumbnailUrl() != null ? img.getThumbnailUrl() : img.getImageUrl());
+                    imageDto.setMediumUrl(img.getMediumUrl() != null ? img.getMediumUrl() : img.getImageUrl());
+                    return imageDto;
+                })
                 .collect(Collectors.toList());
             dto.setPropertyImages(imagesDtos);
         }
@@ -384,9 +403,13 @@ public class TenantService {
         return maintenanceRequestRepository.existsByApartmentIdAndTenantId(apartmentId, tenantId);
     }
     
+    // Counted on the index; touching apartment.getApartmentDocuments() would load every document blob
     private boolean hasDocuments(Apartment apartment) {
-        return apartment.getDocuments() != null && !apartment.getDocuments().trim().isEmpty() ||
-               (apartment.getApartmentDocuments() != null && !apartment.getApartmentDocuments().isEmpty());
+        if (apartment.getDocuments() != null && !apartment.getDocuments().trim().isEmpty()) {
+            return true;
+        }
+        Long count = apartmentDocumentRepository.countActiveDocumentsByApartmentId(apartment.getId());
+        return count != null && count > 0;
     }
 
     public TenantDetailsDto getTenantDetails(User manager, UUID tenantId) {
@@ -0,0 +1,507 @@
+package com.bms.backend.service.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+/**
+ * Objects on the local filesystem, for development and single-box load tests without network access.
+ *
+ * Each key maps to a shard directory derived from the SHA-256 of the key ({@code objects/ab/cd/<hash>}), so no
+ * directory grows past a few thousand entries. An object is a metadata file ({@code <hash>.meta}) naming an
+ * immutable data file ({@code <hash>-<version>.data}). Writes go to a temp file through a file channel, are
+ * renamed into the shard, and become visible when the metadata file is atomically replaced; readers therefore
+ * always see a complete object, old or new. Reads are positional channel reads, and the file region is exposed
+ * so the proxy can send it with {@code transferTo}. ETags are the quoted MD5 of the content, as S3 reports them
+ * for single-part uploads.
+ *
+ * The key set is kept in memory for prefix listing and rebuilt from the metadata files at startup, when
+ * leftovers of interrupted writes are removed.
+ */
+@Service
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local")
+public class LocalObjectStorage implements ObjectStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalObjectStorage.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final long TRANSFER_CHUNK = 1024 * 1024;
+
+    private final Path objectsDir;
+
+    private final Path tempDir;
+
+    private final ConcurrentSkipListSet<String> keys = new ConcurrentSkipListSet<>();
+
+    // Serializes replacing and deleting the same key; reads take no lock
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public LocalObjectStorage(@Value("${app.storage.local.root:./storage}") String root) {
+        Path rootDir = Paths.get(root).toAbsolutePath();
+        this.objectsDir = rootDir.resolve("objects");
+        this.tempDir = rootDir.resolve("tmp");
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        try {
+            Files.createDirectories(objectsDir);
+            Files.createDirectories(tempDir);
+            clearTempDir();
+            loadIndex();
+        } catch (IOException e) {
+            throw new IllegalStateException("Local storage directory is not usable: " + rootDir, e);
+        }
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType, String cacheControl) {
+        store(key, content, contentLength, contentType, cacheControl);
+    }
+
+    // Already streamed through a file channel; the temp file is the only copy and is renamed into place
+    @Override
+    public long putStream(String key, InputStream content, String contentType) {
+        return store(key, content, -1, contentType, null);
+    }
+
+    private long store(String key, InputStream content, long contentLength, String contentType, String cacheControl) {
+        try {
+            Path temp = Files.createTempFile(tempDir, "put-", ".part");
+            try {
+                MessageDigest md5 = md5();
+                long written = 0;
+                try (ReadableByteChannel in = Channels.newChannel(new DigestInputStream(content, md5));
+                     FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    long transferred;
+                    while ((transferred = out.transferFrom(in, written, TRANSFER_CHUNK)) > 0) {
+                        written += transferred;
+                    }
+                }
+                if (contentLength >= 0 && written != contentLength) {
+                    throw new IOException("Expected " + contentLength + " bytes for " + key + " but read " + written);
+                }
+                commit(key, temp, written, contentType, cacheControl, md5);
+                return written;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store " + key, e);
+        }
+    }
+
+    // The source is mapped once; the same pages feed the digest and the copy
+    @Override
+    public void put(String key, Path source, String contentType) {
+        try {
+            Path temp = Files.createTempFile(tempDir, "put-", ".part");
+            try {
+                MessageDigest md5 = md5();
+                long size;
+                try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                     FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        long chunk = Math.min(Integer.MAX_VALUE, size - position);
+                        MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, position, chunk);
+                        md5.update(mapped.duplicate());
+                        while (mapped.hasRemaining()) {
+                            out.write(mapped);
+                        }
+                        position += chunk;
+                    }
+                }
+                commit(key, temp, size, contentType, null, md5);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store " + key, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(String key, InputStream content, long contentLength, String contentType,
+                                            ExecutorService readers) {
+        return CompletableFuture.runAsync(() -> put(key, content, contentLength, contentType, null), readers);
+    }
+
+    @Override
+    public ObjectInfo head(String key) {
+        try {
+            Properties meta = readMeta(key);
+            return meta != null ? info(meta, Long.parseLong(meta.getProperty("length"))) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + key, e);
+        }
+    }
+
+    @Override
+    public ObjectContent get(String key) {
+        return get(key, null, null);
+    }
+
+    @Override
+    public ObjectContent get(String key, String ifNoneMatch, String range) {
+        try {
+            // A concurrent replace may remove the data file named by the metadata we just read; read it again
+            for (int attempt = 0; attempt < 2; attempt++) {
+                Properties meta = readMeta(key);
+                if (meta == null) {
+                    break;
+                }
+                String eTag = meta.getProperty("etag");
+                if (ifNoneMatch != null && etagMatches(ifNoneMatch, eTag)) {
+                    throw new ObjectStorageException(HttpStatus.NOT_MODIFIED.value(), "Not modified", eTag);
+                }
+                Path data = shardDir(key).resolve(meta.getProperty("data"));
+                FileChannel channel;
+                try {
+                    channel = FileChannel.open(data, StandardOpenOption.READ);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                return open(channel, data, meta, range);
+            }
+            throw new ObjectStorageException(HttpStatus.NOT_FOUND.value(), "No such key: " + key, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + key, e);
+        }
+    }
+
+    private ObjectContent open(FileChannel channel, Path data, Properties meta, String range) throws IOException {
+        boolean handedOver = false;
+        try {
+            long size = channel.size();
+            long start = 0;
+            long end = size - 1;
+            String contentRange = null;
+            HttpRange requested = singleRange(range);
+            if (requested != null) {
+                start = requested.getRangeStart(size);
+                end = requested.getRangeEnd(size);
+                if (start >= size || start > end) {
+                    throw new ObjectStorageException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value(),
+                            "Range not satisfiable: " + range, null);
+                }
+                contentRange = "bytes " + start + "-" + end + "/" + size;
+            }
+            long length = end - start + 1;
+            ObjectContent content = new ObjectContent(new ChannelInputStream(channel, start, length),
+                    info(meta, length), contentRange, () -> closeQuietly(channel), data, start);
+            handedOver = true;
+            return content;
+        } finally {
+            if (!handedOver) {
+                channel.close();
+            }
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            synchronized (lockFor(key)) {
+                Properties meta = readMeta(key);
+                // The metadata file is the commit point; without it the object is gone
+                Files.deleteIfExists(metaFile(key));
+                keys.remove(key);
+                if (meta != null) {
+                    Files.deleteIfExists(shardDir(key).resolve(meta.getProperty("data")));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete " + key, e);
+        }
+    }
+
+    @Override
+    public Map<String, String> deleteAll(Collection<String> keys) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        for (String key : keys) {
+            try {
+                delete(key);
+            } catch (UncheckedIOException e) {
+                failures.put(key, e.getCause().getMessage());
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public Stream<ObjectSummary> list(String prefix, String startAfter) {
+        String end = prefix + Character.MAX_VALUE;
+        Set<String> matching = startAfter != null && startAfter.compareTo(prefix) >= 0
+                ? keys.subSet(startAfter, false, end, false)
+                : keys.subSet(prefix, true, end, false);
+        // Metadata is read per entry as the stream is consumed; keys deleted in the meantime are skipped
+        return matching.stream()
+                .map(this::summary)
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public Optional<PresignedRequest> presignPut(String key, String contentType, long contentLength, Duration expiry) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<PresignedRequest> presignGet(String key, Duration expiry) {
+        return Optional.empty();
+    }
+
+    private void commit(String key, Path temp, long length, String contentType, String cacheControl,
+                        MessageDigest md5) throws IOException {
+        Path dir = shardDir(key);
+        Files.createDirectories(dir);
+        String hash = keyHash(key);
+        String dataName = hash + "-" + UUID.randomUUID() + ".data";
+        Files.move(temp, dir.resolve(dataName), StandardCopyOption.ATOMIC_MOVE);
+
+        Properties meta = new Properties();
+        meta.setProperty("key", key);
+        meta.setProperty("data", dataName);
+        meta.setProperty("length", Long.toString(length));
+        meta.setProperty("etag", "\"" + HexFormat.of().formatHex(md5.digest()) + "\"");
+        meta.setProperty("lastModified", Long.toString(Instant.now().toEpochMilli()));
+        if (contentType != null) {
+            meta.setProperty("contentType", contentType);
+        }
+        if (cacheControl != null) {
+            meta.setProperty("cacheControl", cacheControl);
+        }
+        Path metaTemp = Files.createTempFile(tempDir, "meta-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(metaTemp)) {
+                meta.store(out, null);
+            }
+            synchronized (lockFor(key)) {
+                Properties previous = readMeta(key);
+                Files.move(metaTemp, metaFile(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                keys.add(key);
+                if (previous != null) {
+                    // Readers that already opened the old data keep reading it until they close
+                    Files.deleteIfExists(dir.resolve(previous.getProperty("data")));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(metaTemp);
+        }
+    }
+
+    private Properties readMeta(String key) throws IOException {
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(metaFile(key))) {
+            meta.load(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        return meta;
+    }
+
+    private ObjectSummary summary(String key) {
+        try {
+            Properties meta = readMeta(key);
+            return meta == null ? null : new ObjectSummary(key, Long.parseLong(meta.getProperty("length")),
+                    Instant.ofEpochMilli(Long.parseLong(meta.getProperty("lastModified"))));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + key, e);
+        }
+    }
+
+    private static ObjectInfo info(Properties meta, long contentLength) {
+        return new ObjectInfo(meta.getProperty("contentType"), contentLength, meta.getProperty("etag"),
+                Instant.ofEpochMilli(Long.parseLong(meta.getProperty("lastModified"))), meta.getProperty("cacheControl"));
+    }
+
+    private void loadIndex() throws IOException {
+        Set<Path> referenced = new HashSet<>();
+        List<Path> dataFiles;
+        try (Stream<Path> files = Files.walk(objectsDir)) {
+            List<Path> all = files.filter(Files::isRegularFile).toList();
+            for (Path file : all) {
+                if (!file.getFileName().toString().endsWith(".meta")) {
+                    continue;
+                }
+                Properties meta = new Properties();
+                try (InputStream in = Files.newInputStream(file)) {
+                    meta.load(in);
+                }
+                keys.add(meta.getProperty("key"));
+                referenced.add(file.resolveSibling(meta.getProperty("data")));
+            }
+            dataFiles = all.stream().filter(file -> file.getFileName().toString().endsWith(".data")).toList();
+        }
+        // Data written by a replace or delete that did not finish
+        for (Path file : dataFiles) {
+            if (!referenced.contains(file)) {
+                Files.deleteIfExists(file);
+            }
+        }
+        logger.info("Local storage at {} holds {} objects", objectsDir.getParent(), keys.size());
+    }
+
+    private void clearTempDir() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tempDir, "*.part")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private Path shardDir(String key) {
+        String hash = keyHash(key);
+        return objectsDir.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4));
+    }
+
+    private Path metaFile(String key) {
+        return shardDir(key).resolve(keyHash(key) + ".meta");
+    }
+
+    private Object lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), locks.length)];
+    }
+
+    static String keyHash(String key) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+
+    // Only single ranges are honoured, as with S3; anything else reads the whole object
+    private static HttpRange singleRange(String range) {
+        if (range == null || range.isBlank()) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String eTag) {
+        String current = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    // Positional reads of one region; the channel is closed with the stream
+    private static final class ChannelInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private long remaining;
+
+        private ChannelInputStream(FileChannel channel, long start, long length) {
+            this.channel = channel;
+            this.position = start;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (remaining <= 0) {
+                return -1;
+            }
+            int wanted = (int) Math.min(length, remaining);
+            int read = channel.read(ByteBuffer.wrap(buffer, offset, wanted), position);
+            if (read <= 0) {
+                return -1;
+            }
+            position += read;
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.bms.backend.service.storage;
+
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * An open object body. Closing it after a partial read drains nothing: {@link #abort()} drops the underlying
+ * connection instead. Backends that keep objects on local disk also expose the file region, so callers can send
+ * it with a zero-copy transfer rather than reading the stream.
+ */
+public class ObjectContent extends FilterInputStream {
+
+    private final ObjectInfo info;
+    private final String contentRange;
+    private final Runnable abort;
+    private final Path file;
+    private final long offset;
+
+    public ObjectContent(InputStream body, ObjectInfo info, String contentRange, Runnable abort) {
+        this(body, info, contentRange, abort, null, 0);
+    }
+
+    public ObjectContent(InputStream body, ObjectInfo info, String contentRange, Runnable abort, Path file,
+                         long offset) {
+        super(body);
+        this.info = info;
+        this.contentRange = contentRange;
+        this.abort = abort;
+        this.file = file;
+        this.offset = offset;
+    }
+
+    public ObjectInfo getInfo() {
+        return info;
+    }
+
+    // "bytes start-end/total" for ranged reads, otherwise null
+    public String getContentRange() {
+        return contentRange;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void abort() {
+        if (abort != null) {
+            abort.run();
+        }
+    }
+}
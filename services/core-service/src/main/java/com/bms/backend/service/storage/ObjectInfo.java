@@ -0,0 +1,43 @@
+package com.bms.backend.service.storage;
+
+import java.time.Instant;
+
+/**
+ * Metadata of a stored object, or of the part of it a ranged read returns.
+ */
+public final class ObjectInfo {
+
+    private final String contentType;
+    private final Long contentLength;
+    private final String eTag;
+    private final Instant lastModified;
+    private final String cacheControl;
+
+    public ObjectInfo(String contentType, Long contentLength, String eTag, Instant lastModified, String cacheControl) {
+        this.contentType = contentType;
+        this.contentLength = contentLength;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+        this.cacheControl = cacheControl;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public Long getContentLength() {
+        return contentLength;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public String getCacheControl() {
+        return cacheControl;
+    }
+}
@@ -0,0 +1,78 @@
+package com.bms.backend.service.storage;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+/**
+ * Where stored files live. Keys are the bucket-relative paths built by {@link com.bms.backend.service.S3Service}
+ * ({@code users/{id}/{folder}/{file}}); every backend accepts the same keys and reports the same metadata, so
+ * callers do not know whether objects sit in S3 or on local disk.
+ *
+ * Missing objects are never an error on delete. Conditional and ranged reads signal 304, 404 and 416 with an
+ * {@link ObjectStorageException} carrying that status.
+ */
+public interface ObjectStorage {
+
+    void put(String key, InputStream content, long contentLength, String contentType, String cacheControl);
+
+    void put(String key, Path source, String contentType);
+
+    /**
+     * Stores content of unknown length, read to the end of the stream, and returns its size. Content goes out in
+     * fixed-size chunks as it is read, so neither memory nor local disk holds more than one chunk per upload.
+     * Nothing is stored if reading fails.
+     */
+    long putStream(String key, InputStream content, String contentType);
+
+    /**
+     * Starts an upload and completes when it is stored. The content is read on {@code readers}, so the calling
+     * thread only waits for a slot and never for the transfer.
+     */
+    CompletableFuture<Void> putAsync(String key, InputStream content, long contentLength, String contentType,
+                                     ExecutorService readers);
+
+    /**
+     * Metadata of the object, or null if it does not exist.
+     */
+    ObjectInfo head(String key);
+
+    ObjectContent get(String key);
+
+    /**
+     * Reads the object if its ETag does not match {@code ifNoneMatch}, limited to a single {@code range}
+     * ({@code bytes=...}) when one is given. Either condition may be null.
+     */
+    ObjectContent get(String key, String ifNoneMatch, String range);
+
+    void delete(String key);
+
+    /**
+     * Deletes the objects in one request where the backend supports it. Returns the keys that could not be
+     * deleted with the reason; throws if the request as a whole failed.
+     */
+    Map<String, String> deleteAll(Collection<String> keys);
+
+    /**
+     * Objects under {@code prefix} in key order, starting after {@code startAfter} when it is not null. Pages
+     * are fetched as the stream is consumed, so reading only the first few entries costs one request.
+     */
+    Stream<ObjectSummary> list(String prefix, String startAfter);
+
+    /**
+     * A signed URL for the client to upload this object directly, with content type and length bound to it, or
+     * empty when the backend cannot sign URLs and uploads have to go through this server.
+     */
+    Optional<PresignedRequest> presignPut(String key, String contentType, long contentLength, Duration expiry);
+
+    /**
+     * A signed URL for the client to download this object directly, or empty when the backend cannot sign URLs.
+     */
+    Optional<PresignedRequest> presignGet(String key, Duration expiry);
+}
@@ -0,0 +1,26 @@
+package com.bms.backend.service.storage;
+
+/**
+ * A storage request answered with an HTTP-style status instead of content: 304 for a matching If-None-Match,
+ * 404 for a missing object and 416 for a range outside the object.
+ */
+public class ObjectStorageException extends RuntimeException {
+
+    private final int statusCode;
+    private final String eTag;
+
+    public ObjectStorageException(int statusCode, String message, String eTag) {
+        super(message);
+        this.statusCode = statusCode;
+        this.eTag = eTag;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    // Current ETag of the object for 304 answers, when the backend reports it
+    public String getETag() {
+        return eTag;
+    }
+}
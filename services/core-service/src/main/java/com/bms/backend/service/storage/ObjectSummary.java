@@ -0,0 +1,31 @@
+package com.bms.backend.service.storage;
+
+import java.time.Instant;
+
+/**
+ * One entry of a listing: the key with the size and modification time the backend reports alongside it.
+ */
+public final class ObjectSummary {
+
+    private final String key;
+    private final long size;
+    private final Instant lastModified;
+
+    public ObjectSummary(String key, long size, Instant lastModified) {
+        this.key = key;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,32 @@
+package com.bms.backend.service.storage;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A signed URL the client calls directly, with the headers it has to send along.
+ */
+public final class PresignedRequest {
+
+    private final String url;
+    private final Map<String, String> headers;
+    private final Instant expiration;
+
+    public PresignedRequest(String url, Map<String, String> headers, Instant expiration) {
+        this.url = url;
+        this.headers = headers;
+        this.expiration = expiration;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public Instant getExpiration() {
+        return expiration;
+    }
+}
@@ -0,0 +1,319 @@
+package com.bms.backend.service.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+/**
+ * The bucket configured in {@link com.bms.backend.config.S3Config}; the default backend.
+ */
+@Service
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3ObjectStorage implements ObjectStorage {
+
+    // S3 rejects multipart parts below 5 MiB (except the last); larger parts only cost memory here
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final long MAX_PART_SIZE = 64L * 1024 * 1024;
+
+    @Autowired
+    private S3Client s3Client;
+
+    @Autowired
+    private S3AsyncClient s3AsyncClient;
+
+    @Autowired
+    private S3Presigner s3Presigner;
+
+    @Value("${aws.s3.bucket-name}")
+    private String bucketName;
+
+    @Value("${app.storage.upload.multipart-part-size-bytes:8388608}")
+    private long partSizeBytes;
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType, String cacheControl) {
+        s3Client.putObject(PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .cacheControl(cacheControl)
+                .build(), RequestBody.fromInputStream(content, contentLength));
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) {
+        s3Client.putObject(PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build(), RequestBody.fromFile(source));
+    }
+
+    /**
+     * Content that fits in one chunk is stored with a single PUT; anything larger becomes a multipart upload with
+     * one part per chunk, aborted if reading or any part fails. The chunk buffer is reused for every part.
+     */
+    @Override
+    public long putStream(String key, InputStream content, String contentType) {
+        byte[] chunk = new byte[(int) Math.max(MIN_PART_SIZE, Math.min(partSizeBytes, MAX_PART_SIZE))];
+        int filled = fill(content, chunk);
+        if (filled < chunk.length) {
+            s3Client.putObject(PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .contentLength((long) filled)
+                    .build(), RequestBody.fromInputStream(new ByteArrayInputStream(chunk, 0, filled), filled));
+            return filled;
+        }
+
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build()).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            long total = 0;
+            while (filled > 0) {
+                int partNumber = parts.size() + 1;
+                UploadPartResponse part = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) filled)
+                        .build(), RequestBody.fromInputStream(new ByteArrayInputStream(chunk, 0, filled), filled));
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(part.eTag()).build());
+                total += filled;
+                filled = fill(content, chunk);
+            }
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            return total;
+        } catch (RuntimeException e) {
+            abortQuietly(key, uploadId, e);
+            throw e;
+        }
+    }
+
+    // Reads until the chunk is full or the stream ends
+    private static int fill(InputStream content, byte[] chunk) {
+        try {
+            return content.readNBytes(chunk, 0, chunk.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e.getMessage(), e);
+        }
+    }
+
+    private void abortQuietly(String key, String uploadId, RuntimeException cause) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    // Objects above the client's multipart threshold go up as parallel parts
+    @Override
+    public CompletableFuture<Void> putAsync(String key, InputStream content, long contentLength, String contentType,
+                                            ExecutorService readers) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+        return s3AsyncClient.putObject(request, AsyncRequestBody.fromInputStream(content, contentLength, readers))
+                .thenApply(response -> null);
+    }
+
+    @Override
+    public ObjectInfo head(String key) {
+        try {
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build());
+            return new ObjectInfo(head.contentType(), head.contentLength(), head.eTag(), head.lastModified(),
+                    head.cacheControl());
+        } catch (NoSuchKeyException e) {
+            return null;
+        } catch (S3Exception e) {
+            // HEAD has no body, so a missing object is a bare 404 rather than NoSuchKey
+            if (e.statusCode() == HttpStatus.NOT_FOUND.value()) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public ObjectContent get(String key) {
+        return get(key, null, null);
+    }
+
+    @Override
+    public ObjectContent get(String key, String ifNoneMatch, String range) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder().bucket(bucketName).key(key);
+        if (ifNoneMatch != null) {
+            request.ifNoneMatch(ifNoneMatch);
+        }
+        if (range != null) {
+            request.range(range);
+        }
+
+        ResponseInputStream<GetObjectResponse> body;
+        try {
+            body = s3Client.getObject(request.build());
+        } catch (S3Exception e) {
+            int status = e.statusCode();
+            if (status == HttpStatus.NOT_MODIFIED.value()) {
+                String eTag = e.awsErrorDetails() != null
+                        ? e.awsErrorDetails().sdkHttpResponse().firstMatchingHeader(HttpHeaders.ETAG).orElse(null)
+                        : null;
+                throw new ObjectStorageException(status, "Not modified", eTag);
+            }
+            if (status == HttpStatus.NOT_FOUND.value() || status == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+                throw new ObjectStorageException(status, e.getMessage(), null);
+            }
+            throw e;
+        }
+        GetObjectResponse object = body.response();
+        ObjectInfo info = new ObjectInfo(object.contentType(), object.contentLength(), object.eTag(),
+                object.lastModified(), object.cacheControl());
+        return new ObjectContent(body, info, object.contentRange(), body::abort);
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+    }
+
+    // Quiet mode only reports the keys that could not be deleted; missing keys count as deleted
+    @Override
+    public Map<String, String> deleteAll(Collection<String> keys) {
+        DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder()
+                        .objects(keys.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                        .quiet(true)
+                        .build())
+                .build());
+        Map<String, String> failures = new LinkedHashMap<>();
+        for (S3Error error : response.errors()) {
+            failures.put(error.key(), error.code() + ": " + error.message());
+        }
+        return failures;
+    }
+
+    @Override
+    public Stream<ObjectSummary> list(String prefix, String startAfter) {
+        // The paginator follows continuation tokens only when the stream reaches the end of a page
+        return s3Client.listObjectsV2Paginator(ListObjectsV2Request.builder()
+                        .bucket(bucketName)
+                        .prefix(prefix)
+                        .startAfter(startAfter)
+                        .build())
+                .contents()
+                .stream()
+                .map(object -> new ObjectSummary(object.key(), object.size(), object.lastModified()));
+    }
+
+    @Override
+    public Optional<PresignedRequest> presignPut(String key, String contentType, long contentLength, Duration expiry) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                .signatureDuration(expiry)
+                .putObjectRequest(putObjectRequest)
+                .build());
+
+        // The client's HTTP library sets Host itself
+        Map<String, String> headers = new LinkedHashMap<>();
+        presigned.signedHeaders().forEach((name, values) -> {
+            if (!"host".equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        return Optional.of(new PresignedRequest(presigned.url().toString(), headers, presigned.expiration()));
+    }
+
+    @Override
+    public Optional<PresignedRequest> presignGet(String key, Duration expiry) {
+        PresignedGetObjectRequest presigned = s3Presigner.presignGetObject(GetObjectPresignRequest.builder()
+                .signatureDuration(expiry)
+                .getObjectRequest(GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .build())
+                .build());
+        return Optional.of(new PresignedRequest(presigned.url().toString(), Map.of(), presigned.expiration()));
+    }
+}
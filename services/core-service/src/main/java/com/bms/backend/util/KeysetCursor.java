@@ -0,0 +1,90 @@
+package com.bms.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque cursor for keyset pages ordered by a timestamp and the row id, optionally led by an integer rank.
+ *
+ * Cursors are URL-safe Base64 of {@code instant|uuid}, or {@code rank|instant|uuid} for ranked orderings.
+ * Decoding anything this class did not encode throws IllegalArgumentException, which endpoints answer with 400.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final Integer rank;
+    private final Instant position;
+    private final UUID id;
+
+    private KeysetCursor(Integer rank, Instant position, UUID id) {
+        this.rank = rank;
+        this.position = position;
+        this.id = id;
+    }
+
+    public static String encode(Instant position, UUID id) {
+        return toBase64(position + SEPARATOR + id);
+    }
+
+    public static String encode(int rank, Instant position, UUID id) {
+        return toBase64(rank + SEPARATOR + position + SEPARATOR + id);
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        String[] parts = parts(cursor, 2);
+        try {
+            return new KeysetCursor(null, Instant.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw invalid();
+        }
+    }
+
+    public static KeysetCursor decodeRanked(String cursor) {
+        String[] parts = parts(cursor, 3);
+        try {
+            return new KeysetCursor(Integer.valueOf(parts[0]), Instant.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw invalid();
+        }
+    }
+
+    public Integer getRank() {
+        return rank;
+    }
+
+    public Instant getPosition() {
+        return position;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    private static String toBase64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] parts(String cursor, int count) {
+        if (cursor == null) {
+            throw invalid();
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        String[] parts = raw.split("\\" + SEPARATOR, -1);
+        if (parts.length != count) {
+            throw invalid();
+        }
+        return parts;
+    }
+
+    private static IllegalArgumentException invalid() {
+        return new IllegalArgumentException("Invalid cursor");
+    }
+}
@@ -0,0 +1,338 @@
+package com.bms.backend.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Incremental reader of a {@code multipart/form-data} body.
+ *
+ * Parts are read one after another straight off the request stream through a single fixed-size buffer; nothing is
+ * spooled to memory or disk, so a part body can be piped to storage while the client is still sending it. Each
+ * part body ends just before the next delimiter: the buffer always keeps enough bytes back to recognise a delimiter
+ * split across two reads. Headers are limited to {@link #MAX_HEADER_BYTES} per part.
+ */
+public final class MultipartStream {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    static final int MAX_HEADER_BYTES = 8 * 1024;
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte DASH = '-';
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int head;
+    private int tail;
+    private boolean eof;
+    private boolean finished;
+    private Part current;
+
+    public MultipartStream(InputStream in, String boundary, int bufferSize) {
+        if (boundary == null || boundary.isEmpty() || boundary.length() > 70) {
+            throw new IllegalArgumentException("Invalid multipart boundary");
+        }
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        if (bufferSize < Math.max(delimiter.length * 2, MAX_HEADER_BYTES + 2)) {
+            throw new IllegalArgumentException("Buffer too small for boundary");
+        }
+        this.buffer = new byte[bufferSize];
+        // The first delimiter has no leading line break; pretend it had one so every delimiter looks the same
+        buffer[0] = CR;
+        buffer[1] = LF;
+        this.tail = 2;
+    }
+
+    /**
+     * Boundary parameter of a {@code multipart/form-data} content type, or null if it is not one.
+     */
+    public static String boundaryOf(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+            return null;
+        }
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.toLowerCase(Locale.ROOT).startsWith("boundary=")) {
+                String value = trimmed.substring("boundary=".length());
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                return value.isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The next part, or null after the closing delimiter. Whatever was left unread of the previous part is skipped.
+     */
+    public Part nextPart() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (current != null) {
+            current.body.skipRemaining();
+        } else {
+            // Preamble before the first delimiter is ignored
+            new Body().skipRemaining();
+        }
+        // After a delimiter comes "--" for the end of the body, or a line break and the part headers
+        ensure(2);
+        if (buffer[head] == DASH && buffer[head + 1] == DASH) {
+            finished = true;
+            current = null;
+            return null;
+        }
+        skipLinearWhitespace();
+        ensure(2);
+        if (buffer[head] != CR || buffer[head + 1] != LF) {
+            throw new IllegalArgumentException("Malformed multipart body");
+        }
+        head += 2;
+        current = readHeaders();
+        return current;
+    }
+
+    private void skipLinearWhitespace() throws IOException {
+        while (true) {
+            ensure(1);
+            if (buffer[head] != ' ' && buffer[head] != '\t') {
+                return;
+            }
+            head++;
+        }
+    }
+
+    private Part readHeaders() throws IOException {
+        String name = null;
+        String fileName = null;
+        String contentType = null;
+        int consumed = 0;
+        while (true) {
+            String line = readLine(MAX_HEADER_BYTES - consumed);
+            consumed += line.length() + 2;
+            if (line.isEmpty()) {
+                return new Part(name, fileName, contentType, new Body());
+            }
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Malformed multipart part header");
+            }
+            String header = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if (header.equals("content-disposition")) {
+                name = dispositionParameter(value, "name");
+                fileName = dispositionParameter(value, "filename");
+            } else if (header.equals("content-type")) {
+                contentType = value;
+            }
+        }
+    }
+
+    private String readLine(int limit) throws IOException {
+        int start = head;
+        int scanned = 0;
+        while (true) {
+            if (head + scanned + 1 >= tail) {
+                compact();
+                start = head;
+                if (!fill()) {
+                    throw new IOException("Unexpected end of multipart body");
+                }
+                continue;
+            }
+            if (buffer[start + scanned] == CR && buffer[start + scanned + 1] == LF) {
+                // Header values are ISO-8859-1 by definition; UTF-8 file names are decoded in dispositionParameter
+                String line = new String(buffer, start, scanned, StandardCharsets.ISO_8859_1);
+                head = start + scanned + 2;
+                return line;
+            }
+            if (++scanned > limit) {
+                throw new IllegalArgumentException("Multipart part headers are too large");
+            }
+        }
+    }
+
+    static String dispositionParameter(String disposition, String parameter) {
+        for (String token : disposition.split(";")) {
+            String trimmed = token.trim();
+            int equals = trimmed.indexOf('=');
+            if (equals > 0 && trimmed.substring(0, equals).trim().equalsIgnoreCase(parameter)) {
+                String value = trimmed.substring(equals + 1).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                // Browsers send the raw UTF-8 bytes of the file name
+                return new String(value.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    // Makes at least n unread bytes available, failing if the body ends first
+    private void ensure(int n) throws IOException {
+        while (tail - head < n) {
+            compact();
+            if (!fill()) {
+                throw new IOException("Unexpected end of multipart body");
+            }
+        }
+    }
+
+    private void compact() {
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (eof || tail == buffer.length) {
+            return false;
+        }
+        int read = in.read(buffer, tail, buffer.length - tail);
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        tail += read;
+        return true;
+    }
+
+    // Position of the next delimiter in the unread bytes, or -1
+    private int findDelimiter() {
+        int last = tail - delimiter.length;
+        outer:
+        for (int i = head; i <= last; i++) {
+            for (int j = 0; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * One part: its form field name, the file name if it is a file, the declared content type and the body.
+     * The body is only readable until {@link MultipartStream#nextPart()} is called again.
+     */
+    public static final class Part {
+
+        private final String name;
+        private final String fileName;
+        private final String contentType;
+        private final Body body;
+
+        private Part(String name, String fileName, String contentType, Body body) {
+            this.name = name;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public InputStream getBody() {
+            return body;
+        }
+
+        /**
+         * Reads a small text field, failing if it is longer than {@code maxBytes}.
+         */
+        public String readString(int maxBytes) throws IOException {
+            byte[] bytes = body.readNBytes(maxBytes + 1);
+            if (bytes.length > maxBytes) {
+                throw new IllegalArgumentException("Form field '" + name + "' is too large");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private final class Body extends InputStream {
+
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (done) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            int readable = readable();
+            if (readable == 0) {
+                return -1;
+            }
+            int count = Math.min(length, readable);
+            System.arraycopy(buffer, head, target, offset, count);
+            head += count;
+            return count;
+        }
+
+        // Bytes that certainly belong to this part, reading more if needed; 0 once the delimiter is next
+        private int readable() throws IOException {
+            if (done) {
+                return 0;
+            }
+            while (true) {
+                int delimiterAt = findDelimiter();
+                if (delimiterAt == head) {
+                    head += delimiter.length;
+                    done = true;
+                    return 0;
+                }
+                if (delimiterAt > head) {
+                    return delimiterAt - head;
+                }
+                // A delimiter may start in the last delimiter.length - 1 bytes; hold those back
+                int safe = tail - head - (delimiter.length - 1);
+                if (safe > 0) {
+                    return safe;
+                }
+                compact();
+                if (!fill()) {
+                    throw new IOException("Unexpected end of multipart body");
+                }
+            }
+        }
+
+        void skipRemaining() throws IOException {
+            while (!done) {
+                // readable() moves head past the delimiter itself, so it must run before head is read
+                int skipped = readable();
+                head += skipped;
+            }
+        }
+
+        @Override
+        public void close() {
+            // The request stream stays open for the following parts
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.bms.backend.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Locale;
+
+/**
+ * A normalized search query as bound into repository search queries.
+ *
+ * Queries shorter than {@link #MIN_SUBSTRING_LENGTH} characters only match at the start of a value: substring
+ * matches on one or two characters hit almost every row and cannot be narrowed by a trigram index. Repositories
+ * rank exact matches on {@link #getTerm()} first, then prefix matches on {@link #getPrefix()}, then the rest.
+ * The prefix and pattern are LIKE patterns escaped with {@link #LIKE_ESCAPE}; queries must say {@code ESCAPE '!'}.
+ */
+public final class SearchTerms {
+
+    public static final int MIN_SUBSTRING_LENGTH = 3;
+    public static final int DEFAULT_LIMIT = 25;
+    public static final int MAX_LIMIT = 100;
+    // Not a backslash: its meaning inside string literals differs between databases
+    public static final char LIKE_ESCAPE = '!';
+
+    private final String term;
+    private final String prefix;
+    private final String pattern;
+
+    private SearchTerms(String term) {
+        this.term = term;
+        String literal = escapeLike(term);
+        this.prefix = literal + "%";
+        this.pattern = term.length() < MIN_SUBSTRING_LENGTH ? prefix : "%" + literal + "%";
+    }
+
+    // An underscore is a single-character LIKE wildcard; escaped, it only matches itself
+    private static String escapeLike(String value) {
+        return value.replace(String.valueOf(LIKE_ESCAPE), "" + LIKE_ESCAPE + LIKE_ESCAPE)
+                .replace("_", LIKE_ESCAPE + "_");
+    }
+
+    /**
+     * Lower-cases and trims the query, collapses whitespace and drops {@code %} and backslashes. Underscores are kept
+     * and escaped in the LIKE patterns, so they match only themselves. Returns null when nothing searchable is left.
+     */
+    public static SearchTerms of(String searchText) {
+        if (searchText == null) {
+            return null;
+        }
+        String term = searchText.replace("%", "").replace("\\", "")
+                .trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return term.isEmpty() ? null : new SearchTerms(term);
+    }
+
+    public static Pageable limit(Integer limit) {
+        return PageRequest.of(0, limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+}
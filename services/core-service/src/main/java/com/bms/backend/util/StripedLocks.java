@@ -0,0 +1,51 @@
+package com.bms.backend.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A fixed array of locks picked by key hash, for serializing work per key on the calling thread.
+ * Work for the same key never overlaps; work for different keys only contends when it hashes
+ * to the same stripe, so there is no global lock and memory stays constant however many keys exist.
+ */
+public class StripedLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public StripedLocks(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        // Round up to a power of two so the stripe can be picked with a mask
+        int size = Integer.highestOneBit(stripeCount - 1) << 1;
+        if (stripeCount == 1) {
+            size = 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Runs the task on the calling thread while holding the key's stripe lock
+    public <T> T withLock(Object key, Supplier<T> task) {
+        ReentrantLock lock = stripeFor(key);
+        lock.lock();
+        try {
+            return task.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    ReentrantLock stripeFor(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        // Spread the high bits so keys that differ only there do not share a stripe
+        hash ^= (hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
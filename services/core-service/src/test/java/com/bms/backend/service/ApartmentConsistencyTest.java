@@ -42,6 +42,9 @@ class ApartmentConsistencyTest {
     @Mock
     private TenantPropertyConnectionRepository connectionRepository;
 
+    @Mock
+    private PortfolioSearchService portfolioSearchService;
+
     @InjectMocks
     private ApartmentService apartmentService;
 
@@ -0,0 +1,205 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.response.ApartmentDocumentResponse;
+import com.bms.backend.entity.Apartment;
+import com.bms.backend.entity.ApartmentDocument;
+import com.bms.backend.entity.User;
+import com.bms.backend.repository.ApartmentDocumentRepository;
+import com.bms.backend.repository.ApartmentRepository;
+import com.bms.backend.service.storage.LocalObjectStorage;
+import com.bms.backend.service.storage.ObjectContent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class ApartmentDocumentServiceTest {
+
+    private static final String BOUNDARY = "xYzZY";
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+    private static final String BASE_URL = "http://localhost:9000/bms-app-storage/";
+
+    @TempDir
+    Path root;
+
+    private final UUID apartmentId = UUID.randomUUID();
+    private User manager;
+    private LocalObjectStorage storage;
+    private ApartmentDocumentRepository documentRepository;
+    private ApartmentRepository apartmentRepository;
+    private FileProxyService fileProxyService;
+    private ApartmentDocumentService documentService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        manager = new User();
+        manager.setId(UUID.randomUUID());
+        storage = new LocalObjectStorage(root.toString());
+
+        ContentIndexService contentIndexService = mock(ContentIndexService.class);
+        when(contentIndexService.register(any(), any(), any(), anyString(), anyLong()))
+                .thenAnswer(invocation -> invocation.getArgument(3));
+
+        S3Service s3Service = new S3Service();
+        ReflectionTestUtils.setField(s3Service, "objectStorage", storage);
+        ReflectionTestUtils.setField(s3Service, "contentIndexService", contentIndexService);
+        ReflectionTestUtils.setField(s3Service, "bucketName", "bms-app-storage");
+        ReflectionTestUtils.setField(s3Service, "baseUrl", "http://localhost:9000");
+
+        StreamingUploadService uploadService = new StreamingUploadService();
+        ReflectionTestUtils.setField(uploadService, "s3Service", s3Service);
+        ReflectionTestUtils.setField(uploadService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(uploadService, "bufferSize", 16 * 1024);
+
+        BlobOffloadService blobOffloadService = new BlobOffloadService();
+        ReflectionTestUtils.setField(blobOffloadService, "s3Service", s3Service);
+        ReflectionTestUtils.setField(blobOffloadService, "maxBlobSize", S3Service.MAX_FILE_SIZE);
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        documentRepository = mock(ApartmentDocumentRepository.class);
+        apartmentRepository = mock(ApartmentRepository.class);
+        when(apartmentRepository.isManagedBy(apartmentId, manager.getId())).thenReturn(true);
+        fileProxyService = mock(FileProxyService.class);
+
+        documentService = new ApartmentDocumentService();
+        ReflectionTestUtils.setField(documentService, "apartmentDocumentRepository", documentRepository);
+        ReflectionTestUtils.setField(documentService, "apartmentRepository", apartmentRepository);
+        ReflectionTestUtils.setField(documentService, "streamingUploadService", uploadService);
+        ReflectionTestUtils.setField(documentService, "s3Service", s3Service);
+        ReflectionTestUtils.setField(documentService, "blobOffloadService", blobOffloadService);
+        ReflectionTestUtils.setField(documentService, "fileProxyService", fileProxyService);
+        ReflectionTestUtils.setField(documentService, "transactionTemplate", transactionTemplate);
+    }
+
+    @Test
+    void uploadStoresTheFileAndRecordsItsMetadata() throws IOException {
+        Apartment apartment = new Apartment();
+        when(apartmentRepository.getReferenceById(apartmentId)).thenReturn(apartment);
+        when(documentRepository.save(any(ApartmentDocument.class))).thenAnswer(invocation -> {
+            ApartmentDocument document = invocation.getArgument(0);
+            document.setId(UUID.randomUUID());
+            return document;
+        });
+        byte[] pdf = pdf(200_000);
+
+        ApartmentDocumentResponse response = documentService.uploadDocument(apartmentId, CONTENT_TYPE,
+                new ByteArrayInputStream(body(pdf)), manager);
+
+        ArgumentCaptor<ApartmentDocument> saved = ArgumentCaptor.forClass(ApartmentDocument.class);
+        verify(documentRepository).save(saved.capture());
+        ApartmentDocument document = saved.getValue();
+        assertSame(apartment, document.getApartment());
+        assertNull(document.getDocumentData());
+        assertEquals("lease.pdf", document.getDocumentName());
+        assertEquals("lease", document.getDocumentType());
+        assertEquals("Signed lease", document.getDescription());
+        assertEquals("application/pdf", document.getMimeType());
+        assertEquals(pdf.length, document.getFileSize());
+        assertEquals(ContentIndexService.sha256(new ByteArrayInputStream(pdf)), document.getContentHash());
+        assertEquals(manager.getId(), document.getUploadedBy());
+        assertEquals(document.getDocumentUrl(), response.getDocumentUrl());
+        assertEquals(BASE_URL + document.getStorageKey(), document.getDocumentUrl());
+
+        try (ObjectContent stored = storage.get(document.getStorageKey())) {
+            assertArrayEquals(pdf, stored.readAllBytes());
+        }
+    }
+
+    @Test
+    void legacyDocumentIsMovedToStorageWhenFirstOpened() throws IOException {
+        UUID documentId = UUID.randomUUID();
+        byte[] pdf = pdf(5_000);
+        when(documentRepository.findActiveMetadataById(documentId, apartmentId)).thenReturn(Optional.of(
+                new ApartmentDocumentResponse(documentId, "id.pdf", "id", "application/pdf", null, null, null,
+                        null, null, null)));
+        when(documentRepository.findDocumentDataById(documentId))
+                .thenReturn(Optional.of(Base64.getEncoder().encodeToString(pdf)));
+        when(documentRepository.markOffloaded(eq(documentId), anyString(), anyString(), eq((long) pdf.length), anyString()))
+                .thenReturn(1);
+        FileProxyService.ProxiedFile file = mock(FileProxyService.ProxiedFile.class);
+        when(fileProxyService.fetch(anyString(), isNull(), isNull())).thenReturn(file);
+
+        ApartmentDocumentService.DocumentContent content = documentService.getContent(apartmentId, documentId,
+                manager, false, null, null);
+
+        assertSame(file, content.getFile());
+        ArgumentCaptor<String> key = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> url = ArgumentCaptor.forClass(String.class);
+        verify(documentRepository).markOffloaded(eq(documentId), key.capture(), url.capture(), anyLong(), anyString());
+        verify(fileProxyService).fetch(url.getValue(), null, null);
+        assertTrue(key.getValue().startsWith("users/" + manager.getId() + "/documents/"));
+        try (ObjectContent stored = storage.get(key.getValue())) {
+            assertArrayEquals(pdf, stored.readAllBytes());
+        }
+    }
+
+    @Test
+    void foreignDocumentsAreRedirectedAndOtherManagersAreRejected() throws IOException {
+        UUID documentId = UUID.randomUUID();
+        when(documentRepository.findActiveMetadataById(documentId, apartmentId)).thenReturn(Optional.of(
+                new ApartmentDocumentResponse(documentId, "lease.pdf", "lease", "application/pdf", 10L, null, null,
+                        "https://docs.example.com/lease.pdf", null, null)));
+
+        ApartmentDocumentService.DocumentContent content = documentService.getContent(apartmentId, documentId,
+                manager, false, null, null);
+        assertEquals("https://docs.example.com/lease.pdf", content.getRedirectUrl());
+        verify(documentRepository, never()).findDocumentDataById(any());
+        verifyNoInteractions(fileProxyService);
+
+        User other = new User();
+        other.setId(UUID.randomUUID());
+        assertThrows(IllegalArgumentException.class, () -> documentService.listDocuments(apartmentId, other));
+        InputStream unread = mock(InputStream.class);
+        assertThrows(IllegalArgumentException.class,
+                () -> documentService.uploadDocument(apartmentId, CONTENT_TYPE, unread, other));
+        verifyNoInteractions(unread);
+    }
+
+    private static byte[] pdf(int size) {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) 'x');
+        System.arraycopy("%PDF-1.7".getBytes(StandardCharsets.ISO_8859_1), 0, bytes, 0, 8);
+        return bytes;
+    }
+
+    private static byte[] body(byte[] file) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"documentType\"\r\n\r\n"
+                + "lease\r\n--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"description\"\r\n\r\n"
+                + "Signed lease\r\n--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"lease.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(file);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        return body.toByteArray();
+    }
+}
@@ -0,0 +1,100 @@
+package com.bms.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BlobOffloadServiceTest {
+
+    @Mock
+    private S3Service s3Service;
+
+    @InjectMocks
+    private BlobOffloadService blobOffloadService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(blobOffloadService, "maxBlobSize", 1024L);
+    }
+
+    @Test
+    void dataUrlIsDecodedHashedAndUploaded() throws Exception {
+        byte[] bytes = "not really a png".getBytes(StandardCharsets.UTF_8);
+        // MIME-style line break in the middle of the payload
+        String encoded = Base64.getEncoder().encodeToString(bytes);
+        String payload = "data:image/png;base64," + encoded.substring(0, 8) + "\r\n" + encoded.substring(8);
+        UUID ownerId = UUID.randomUUID();
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        byte[][] uploaded = new byte[1][];
+        when(s3Service.uploadFile(any(Path.class), eq(ownerId), eq(S3Service.FileType.MAINTENANCE), anyString(),
+                eq("image/png"), eq(sha256)))
+                .thenAnswer(invocation -> {
+                    uploaded[0] = Files.readAllBytes(invocation.getArgument(0));
+                    return "users/key.png";
+                });
+        when(s3Service.getFileUrl("users/key.png")).thenReturn("https://cdn/users/key.png");
+
+        BlobOffloadService.StoredBlob blob = blobOffloadService.storeBase64(payload, ownerId,
+                S3Service.FileType.MAINTENANCE, "image/jpeg");
+
+        assertArrayEquals(bytes, uploaded[0]);
+        assertEquals("users/key.png", blob.getKey());
+        assertEquals("https://cdn/users/key.png", blob.getUrl());
+        assertEquals(Long.valueOf(bytes.length), blob.getSize());
+        assertFalse(blob.isReference());
+        assertEquals("image/png", blob.getContentType());
+        assertEquals(sha256, blob.getSha256());
+    }
+
+    @Test
+    void urlsAreKeptAsReferencesWithoutDecoding() throws Exception {
+        String stored = "https://cdn/users/u/maintenance/x.jpg";
+        when(s3Service.getKeyFromUrl(stored)).thenReturn("users/u/maintenance/x.jpg");
+        String external = "http://photos.example.com/leak.jpg";
+        when(s3Service.getKeyFromUrl(external)).thenThrow(new IllegalArgumentException("not in this bucket"));
+
+        BlobOffloadService.StoredBlob inBucket = blobOffloadService.store(" " + stored, UUID.randomUUID(),
+                S3Service.FileType.MAINTENANCE, "image/jpeg");
+        assertTrue(inBucket.isReference());
+        assertEquals(stored, inBucket.getUrl());
+        assertEquals("users/u/maintenance/x.jpg", inBucket.getKey());
+        assertNull(inBucket.getSize());
+        assertNull(inBucket.getSha256());
+
+        BlobOffloadService.StoredBlob elsewhere = blobOffloadService.store(external, UUID.randomUUID(),
+                S3Service.FileType.MAINTENANCE, "image/jpeg");
+        assertTrue(elsewhere.isReference());
+        assertEquals(external, elsewhere.getUrl());
+        assertNull(elsewhere.getKey());
+
+        verify(s3Service, never()).uploadFile(any(Path.class), any(), any(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void oversizedPayloadIsRejectedBeforeUpload() {
+        String payload = Base64.getEncoder().encodeToString(new byte[2048]);
+
+        assertThrows(IllegalArgumentException.class, () -> blobOffloadService.storeBase64(payload,
+                UUID.randomUUID(), S3Service.FileType.MAINTENANCE, "image/jpeg"));
+        verifyNoInteractions(s3Service);
+    }
+}
@@ -0,0 +1,88 @@
+package com.bms.backend.service;
+
+import com.bms.backend.entity.StoredObject;
+import com.bms.backend.repository.StoredObjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ContentIndexServiceTest {
+
+    private static final UUID OWNER = UUID.randomUUID();
+
+    private StoredObjectRepository repository;
+    private ContentIndexService contentIndex;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(StoredObjectRepository.class);
+        contentIndex = new ContentIndexService();
+        ReflectionTestUtils.setField(contentIndex, "storedObjectRepository", repository);
+        ReflectionTestUtils.setField(contentIndex, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(contentIndex, "enabled", true);
+    }
+
+    @Test
+    void hashesContentAsSha256Hex() throws IOException {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                ContentIndexService.sha256(new ByteArrayInputStream("abc".getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    @Test
+    void reusesTheOwnersObjectWithOneMoreReference() {
+        StoredObject existing = stored("users/u/property/1_a.jpg");
+        when(repository.findByOwnerIdAndFolderAndContentHash(OWNER, "property", "h")).thenReturn(Optional.of(existing));
+        when(repository.addReference(existing.getId())).thenReturn(1);
+
+        assertEquals("users/u/property/1_a.jpg", contentIndex.reuse(OWNER, S3Service.FileType.PROPERTY, "h"));
+        assertNull(contentIndex.reuse(OWNER, S3Service.FileType.PROPERTY, "other"));
+        // Same bytes under another file type are stored separately
+        assertNull(contentIndex.reuse(OWNER, S3Service.FileType.DOCUMENT, "h"));
+        verify(repository).findByOwnerIdAndFolderAndContentHash(OWNER, "documents", "h");
+    }
+
+    @Test
+    void concurrentRegistrationFallsBackToTheWinningObject() {
+        StoredObject winner = stored("users/u/property/1_a.jpg");
+        when(repository.saveAndFlush(any(StoredObject.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(repository.findByOwnerIdAndFolderAndContentHash(OWNER, "property", "h")).thenReturn(Optional.of(winner));
+        when(repository.addReference(winner.getId())).thenReturn(1);
+
+        assertEquals("users/u/property/1_a.jpg",
+                contentIndex.register(OWNER, S3Service.FileType.PROPERTY, "h", "users/u/property/2_b.jpg", 10));
+    }
+
+    @Test
+    void onlyTheLastReferenceReleasesTheObject() {
+        when(repository.releaseShared("shared.jpg")).thenReturn(1);
+        assertFalse(contentIndex.release("shared.jpg"));
+        verify(repository, never()).removeLastReference("shared.jpg");
+
+        when(repository.removeLastReference("last.jpg")).thenReturn(1);
+        assertTrue(contentIndex.release("last.jpg"));
+
+        // Objects that were never indexed belong to the caller alone
+        assertTrue(contentIndex.release("unindexed.jpg"));
+    }
+
+    private static StoredObject stored(String key) {
+        StoredObject object = new StoredObject(OWNER, "property", "h", key, 10L);
+        object.setId(UUID.randomUUID());
+        return object;
+    }
+}
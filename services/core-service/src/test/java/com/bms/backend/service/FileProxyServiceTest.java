@@ -0,0 +1,156 @@
+package com.bms.backend.service;
+
+import com.bms.backend.service.storage.S3ObjectStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FileProxyServiceTest {
+
+    private static final String URL = "http://localhost:9000/bms-app-storage/users/u/documents/lease.pdf";
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path cacheDir;
+
+    private S3Client s3Client;
+
+    @BeforeEach
+    void setUp() {
+        s3Client = mock(S3Client.class);
+    }
+
+    @Test
+    void passesThroughStorageHeadersAndRanges() throws IOException {
+        FileProxyService proxy = proxy("");
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(object("bytes 2-4/10", 3));
+
+        FileProxyService.ProxiedFile file = proxy.fetch(URL, null, "bytes=2-4");
+
+        ArgumentCaptor<GetObjectRequest> request = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(s3Client).getObject(request.capture());
+        assertEquals("users/u/documents/lease.pdf", request.getValue().key());
+        assertEquals("bytes=2-4", request.getValue().range());
+        assertEquals(206, file.getStatus());
+        assertEquals("\"abc\"", file.getHeaders().getETag());
+        assertEquals("bytes 2-4/10", file.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(3, file.getHeaders().getContentLength());
+        assertNull(file.getLocalFile());
+    }
+
+    @Test
+    void answersNotModifiedFromStorage() {
+        FileProxyService proxy = proxy("");
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenThrow(S3Exception.builder()
+                .statusCode(304)
+                .awsErrorDetails(AwsErrorDetails.builder()
+                        .sdkHttpResponse(SdkHttpResponse.builder().statusCode(304).putHeader("ETag", "\"abc\"").build())
+                        .build())
+                .build());
+
+        FileProxyService.ProxiedFile file = proxy.fetch(URL, "\"abc\"", null);
+
+        assertEquals(304, file.getStatus());
+        assertEquals("\"abc\"", file.getHeaders().getETag());
+        assertNull(file.getBody());
+    }
+
+    @Test
+    void servesRepeatViewsFromTheLocalCache() throws IOException {
+        FileProxyService proxy = proxy(cacheDir.toString());
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(object(null, CONTENT.length));
+
+        FileProxyService.ProxiedFile first = proxy.fetch(URL, null, null);
+        assertEquals(200, first.getStatus());
+        assertEquals("0123456789", write(first));
+
+        FileProxyService.ProxiedFile range = proxy.fetch(URL, null, "bytes=-4");
+        assertEquals(206, range.getStatus());
+        assertEquals("bytes 6-9/10", range.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(4, range.getHeaders().getContentLength());
+        assertEquals("6789", write(range));
+
+        assertEquals(304, proxy.fetch(URL, "W/\"abc\", \"other\"", null).getStatus());
+        assertEquals(416, proxy.fetch(URL, null, "bytes=20-30").getStatus());
+        verify(s3Client, times(1)).getObject(any(GetObjectRequest.class));
+    }
+
+    @Test
+    void cachedBodyIsStillServedWhenTheEntryIsEvictedBeforeItIsWritten() throws IOException {
+        FileProxyService proxy = proxy(cacheDir.toString());
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(object(null, CONTENT.length));
+        write(proxy.fetch(URL, null, null));
+
+        FileProxyService.ProxiedFile hit = proxy.fetch(URL, null, null);
+        ReflectionTestUtils.invokeMethod(proxy, "evict", "users/u/documents/lease.pdf");
+
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            assertEquals(0, files.count());
+        }
+        assertEquals(200, hit.getStatus());
+        assertEquals("0123456789", write(hit));
+    }
+
+    private FileProxyService proxy(String cacheDir) {
+        S3Service s3Service = new S3Service();
+        ReflectionTestUtils.setField(s3Service, "bucketName", "bms-app-storage");
+        ReflectionTestUtils.setField(s3Service, "baseUrl", "http://localhost:9000");
+
+        FileProxyService proxy = new FileProxyService(cacheDir);
+        S3ObjectStorage storage = new S3ObjectStorage();
+        ReflectionTestUtils.setField(storage, "s3Client", s3Client);
+        ReflectionTestUtils.setField(storage, "bucketName", "bms-app-storage");
+        ReflectionTestUtils.setField(proxy, "objectStorage", storage);
+        ReflectionTestUtils.setField(proxy, "s3Service", s3Service);
+        ReflectionTestUtils.setField(proxy, "bufferSize", 4);
+        ReflectionTestUtils.setField(proxy, "cacheMaxBytes", 1024L);
+        ReflectionTestUtils.setField(proxy, "cacheMaxObjectBytes", 1024L);
+        ReflectionTestUtils.setField(proxy, "revalidateSeconds", 300L);
+        return proxy;
+    }
+
+    private static ResponseInputStream<GetObjectResponse> object(String contentRange, int length) {
+        GetObjectResponse response = GetObjectResponse.builder()
+                .eTag("\"abc\"")
+                .lastModified(Instant.parse("2026-01-01T00:00:00Z"))
+                .contentType("application/pdf")
+                .contentLength((long) length)
+                .contentRange(contentRange)
+                .build();
+        return new ResponseInputStream<>(response,
+                AbortableInputStream.create(new ByteArrayInputStream(CONTENT, 0, length)));
+    }
+
+    private static String write(FileProxyService.ProxiedFile file) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        file.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,94 @@
+package com.bms.backend.service;
+
+import com.bms.backend.entity.Apartment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageDerivativeServiceTest {
+
+    private final ImageDerivativeService derivativeService = new ImageDerivativeService(1);
+
+    @AfterEach
+    void tearDown() {
+        derivativeService.shutdown();
+    }
+
+    @Test
+    void variantsUseSiblingKeys() {
+        assertEquals("users/u/apartments/17_ab_thumb.jpg",
+                ImageDerivativeService.derivativeKey("users/u/apartments/17_ab.png", ImageDerivativeService.THUMBNAIL_SUFFIX));
+        assertEquals("https://cdn.example.com/users/u/properties/17_ab_medium.jpg",
+                ImageDerivativeService.derivativeKey("https://cdn.example.com/users/u/properties/17_ab.jpeg",
+                        ImageDerivativeService.MEDIUM_SUFFIX));
+        assertEquals("users/u.v/photos/17_ab_thumb.jpg",
+                ImageDerivativeService.derivativeKey("users/u.v/photos/17_ab", ImageDerivativeService.THUMBNAIL_SUFFIX));
+    }
+
+    @Test
+    void thumbnailIsFixedSizeAndCroppedFromTheCenter() throws IOException {
+        // Wide image: red margins left and right of a blue middle
+        BufferedImage source = new BufferedImage(1200, 300, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = source.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 1200, 300);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(300, 0, 600, 300);
+        graphics.dispose();
+
+        BufferedImage thumbnail = ImageDerivativeService.thumbnail(source, 320, 240);
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(240, thumbnail.getHeight());
+        assertEquals(Color.BLUE.getRGB(), thumbnail.getRGB(2, 120));
+        assertEquals(Color.BLUE.getRGB(), thumbnail.getRGB(317, 120));
+
+        BufferedImage medium = ImageDerivativeService.fitWithin(source, 600);
+        assertEquals(600, medium.getWidth());
+        assertEquals(150, medium.getHeight());
+        assertEquals(1200, ImageDerivativeService.fitWithin(source, 4000).getWidth());
+
+        byte[] jpeg = ImageDerivativeService.encodeJpeg(thumbnail, 0.75f);
+        BufferedImage decoded = ImageDerivativeService.decode(new ByteArrayInputStream(jpeg), 1_000_000);
+        assertNotNull(decoded);
+        assertEquals(320, decoded.getWidth());
+    }
+
+    @Test
+    void decodeSkipsOversizedAndUnreadableImages() throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(200, 100, BufferedImage.TYPE_INT_ARGB), "png", png);
+
+        assertNotNull(ImageDerivativeService.decode(new ByteArrayInputStream(png.toByteArray()), 20_000));
+        assertNull(ImageDerivativeService.decode(new ByteArrayInputStream(png.toByteArray()), 19_999));
+        assertNull(ImageDerivativeService.decode(new ByteArrayInputStream("%PDF-1.7".getBytes()), 20_000));
+    }
+
+    @Test
+    void apartmentVariantsFollowTheImageList() {
+        Apartment apartment = new Apartment();
+        apartment.setImages("[\"a.jpg\",\"b.jpg\"]");
+        apartment.setThumbnailImages("[\"a_thumb.jpg\",\"b_thumb.jpg\"]");
+        apartment.setMediumImages("[\"a_medium.jpg\",null]");
+
+        derivativeService.alignApartmentVariants(apartment, List.of("b.jpg", "c.jpg", "a.jpg"));
+        assertEquals("[\"b_thumb.jpg\",null,\"a_thumb.jpg\"]", apartment.getThumbnailImages());
+        assertEquals("[null,null,\"a_medium.jpg\"]", apartment.getMediumImages());
+        assertEquals(Arrays.asList("b_thumb.jpg", "c.jpg", "a_thumb.jpg"),
+                derivativeService.withFallback(List.of("b.jpg", "c.jpg", "a.jpg"), apartment.getThumbnailImages()));
+
+        derivativeService.alignApartmentVariants(apartment, List.of());
+        assertNull(apartment.getThumbnailImages());
+        assertNull(apartment.getMediumImages());
+    }
+}
@@ -0,0 +1,131 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.request.BatchPaymentScheduleRequest;
+import com.bms.backend.dto.response.LeasePaymentBatchItemDto;
+import com.bms.backend.entity.PaymentTransaction;
+import com.bms.backend.entity.TenantPropertyConnection;
+import com.bms.backend.entity.User;
+import com.bms.backend.enums.UserRole;
+import com.bms.backend.repository.PaymentTransactionRepository;
+import com.bms.backend.repository.TenantPropertyConnectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeaseServiceBatchScheduleTest {
+
+    @Mock
+    private TenantPropertyConnectionRepository connectionRepository;
+
+    @Mock
+    private PaymentTransactionRepository paymentTransactionRepository;
+
+    @InjectMocks
+    private LeaseService leaseService;
+
+    private User manager;
+    private TenantPropertyConnection ownLease;
+    private TenantPropertyConnection otherLease;
+
+    @BeforeEach
+    void setUp() {
+        manager = user(UserRole.PROPERTY_MANAGER);
+        User otherManager = user(UserRole.PROPERTY_MANAGER);
+        User tenant = user(UserRole.TENANT);
+
+        LocalDate start = LocalDate.now().minusMonths(2).withDayOfMonth(1);
+        ownLease = lease(tenant, manager, start);
+        otherLease = lease(tenant, otherManager, start);
+    }
+
+    @Test
+    void batchLoadsPaymentsOnceAndReportsInaccessibleLeases() {
+        UUID missingId = UUID.randomUUID();
+        when(connectionRepository.findAllWithPartiesByIdIn(anyCollection()))
+                .thenReturn(List.of(ownLease, otherLease));
+
+        // One existing PAID record for the current month
+        PaymentTransaction paid = new PaymentTransaction(ownLease.getTenant(), ownLease,
+                BigDecimal.valueOf(1000.0), "USD", PaymentTransaction.PaymentStatus.PAID);
+        paid.setId(UUID.randomUUID());
+        paid.setDueDate(YearMonth.now().atDay(1).atStartOfDay(ZoneId.of("UTC")).toInstant());
+        when(paymentTransactionRepository.findByConnectionIdInOrderByCreatedAtDesc(anyCollection()))
+                .thenReturn(new ArrayList<>(List.of(paid)));
+        when(paymentTransactionRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<PaymentTransaction> saved = new ArrayList<>();
+            for (PaymentTransaction payment : invocation.<Iterable<PaymentTransaction>>getArgument(0)) {
+                payment.setId(UUID.randomUUID());
+                saved.add(payment);
+            }
+            return saved;
+        });
+
+        BatchPaymentScheduleRequest request = new BatchPaymentScheduleRequest();
+        request.setLeaseIds(List.of(ownLease.getId(), otherLease.getId(), missingId, ownLease.getId()));
+
+        List<LeasePaymentBatchItemDto> items = leaseService.getLeasePaymentSchedules(manager, request);
+
+        // Duplicates collapsed, request order preserved
+        assertEquals(3, items.size());
+        assertEquals(ownLease.getId(), items.get(0).getLeaseId());
+        assertNull(items.get(0).getError());
+        assertEquals("You don't have permission to view this lease", items.get(1).getError());
+        assertEquals("Lease not found", items.get(2).getError());
+
+        LeasePaymentBatchItemDto own = items.get(0);
+        assertEquals(3, own.getSchedule().getSchedule().size());
+        assertEquals("PAID", own.getSchedule().getSchedule().get(0).getStatus());
+        assertEquals(paid.getId(), own.getSchedule().getSchedule().get(0).getPaymentTransactionId());
+        own.getSchedule().getSchedule().forEach(item -> assertNotNull(item.getPaymentTransactionId()));
+        assertEquals(2, own.getSummary().getOverduePaymentsCount());
+
+        verify(paymentTransactionRepository, times(1)).findByConnectionIdInOrderByCreatedAtDesc(List.of(ownLease.getId()));
+        verify(paymentTransactionRepository, times(1)).saveAll(any());
+        verify(paymentTransactionRepository, never()).findByConnectionOrderByCreatedAtDesc(any());
+    }
+
+    @Test
+    void batchRejectsTooManyLeases() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i <= BatchPaymentScheduleRequest.MAX_LEASES; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        BatchPaymentScheduleRequest request = new BatchPaymentScheduleRequest();
+        request.setLeaseIds(ids);
+
+        assertThrows(IllegalArgumentException.class, () -> leaseService.getLeasePaymentSchedules(manager, request));
+        verifyNoInteractions(connectionRepository, paymentTransactionRepository);
+    }
+
+    private User user(UserRole role) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setFirstName("Test");
+        user.setLastName(role.name());
+        user.setRole(role);
+        return user;
+    }
+
+    private TenantPropertyConnection lease(User tenant, User manager, LocalDate start) {
+        TenantPropertyConnection lease = new TenantPropertyConnection(tenant, manager, "Test Property",
+                start, start.plusYears(1).minusDays(1), 1000.0);
+        lease.setId(UUID.randomUUID());
+        lease.setPaymentFrequency("MONTHLY");
+        return lease;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.response.MaintenanceCountsResponse;
+import com.bms.backend.entity.Apartment;
+import com.bms.backend.entity.MaintenanceRequest;
+import com.bms.backend.entity.PropertyBuilding;
+import com.bms.backend.entity.ServiceCategory;
+import com.bms.backend.entity.User;
+import com.bms.backend.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceCounterServiceTest {
+
+    @Mock
+    private MaintenanceRequestRepository maintenanceRequestRepository;
+
+    @InjectMocks
+    private MaintenanceCounterService counterService;
+
+    private final UUID managerId = UUID.randomUUID();
+    private final UUID plumbing = UUID.randomUUID();
+
+    @Test
+    void seedsFromOneQueryThenTracksChangesInMemory() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{managerId, MaintenanceRequest.Status.OPEN, MaintenanceRequest.Priority.HIGH, plumbing, 2L});
+        rows.add(new Object[]{managerId, MaintenanceRequest.Status.RESOLVED, MaintenanceRequest.Priority.LOW, plumbing, 1L});
+        when(maintenanceRequestRepository.countByManagerStatusPriorityAndCategory()).thenReturn(rows);
+        counterService.seed();
+
+        MaintenanceRequest request = request(MaintenanceRequest.Status.OPEN, MaintenanceRequest.Priority.MEDIUM);
+        counterService.requestCreated(request);
+        request.setStatus(MaintenanceRequest.Status.IN_PROGRESS);
+        counterService.statusChanged(request, MaintenanceRequest.Status.OPEN);
+
+        MaintenanceCountsResponse counts = counterService.getCounts(managerId);
+        assertEquals(4, counts.getTotalRequests());
+        assertEquals(Map.of("OPEN", 2L, "IN_PROGRESS", 1L, "RESOLVED", 1L), counts.getByStatus());
+        assertEquals(Map.of("HIGH", 2L, "MEDIUM", 1L, "LOW", 1L), counts.getByPriority());
+        assertEquals(Map.of(plumbing.toString(), 4L), counts.getByCategory());
+
+        counterService.requestDeleted(request);
+        assertEquals(Map.of("OPEN", 2L, "RESOLVED", 1L), counterService.getCounts(managerId).getByStatus());
+        assertEquals(0, counterService.getCounts(UUID.randomUUID()).getTotalRequests());
+
+        // Reads after the seed are answered from memory
+        verifyNoMoreInteractions(maintenanceRequestRepository);
+    }
+
+    private MaintenanceRequest request(MaintenanceRequest.Status status, MaintenanceRequest.Priority priority) {
+        User manager = new User();
+        manager.setId(managerId);
+        PropertyBuilding building = new PropertyBuilding();
+        building.setManager(manager);
+        Apartment apartment = new Apartment();
+        apartment.setProperty(building);
+        ServiceCategory category = new ServiceCategory();
+        category.setId(plumbing);
+
+        MaintenanceRequest request = new MaintenanceRequest();
+        request.setApartment(apartment);
+        request.setServiceCategory(category);
+        request.setStatus(status);
+        request.setPriority(priority);
+        return request;
+    }
+}
@@ -0,0 +1,85 @@
+package com.bms.backend.service;
+
+import com.bms.backend.entity.Apartment;
+import com.bms.backend.entity.MaintenanceRequest;
+import com.bms.backend.entity.ServiceCategory;
+import com.bms.backend.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceDuplicateDetectorTest {
+
+    @Mock
+    private MaintenanceRequestRepository maintenanceRequestRepository;
+
+    @InjectMocks
+    private MaintenanceDuplicateDetector detector;
+
+    private final UUID apartmentId = UUID.randomUUID();
+    private final UUID plumbing = UUID.randomUUID();
+    private final UUID requestId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(detector, "enabled", true);
+        ReflectionTestUtils.setField(detector, "windowHours", 72L);
+        ReflectionTestUtils.setField(detector, "minSimilarity", 0.6);
+        ReflectionTestUtils.setField(detector, "maxApartments", 100);
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{requestId, plumbing, "Leaking kitchen faucet", "Water everywhere",
+                Instant.now().minus(Duration.ofHours(5))});
+        when(maintenanceRequestRepository.findOpenDuplicateCandidates(eq(apartmentId), any())).thenReturn(rows);
+    }
+
+    @Test
+    void flagsSimilarReportsInTheSameCategoryOnly() {
+        assertEquals(Optional.of(requestId),
+                detector.findDuplicate(apartmentId, plumbing, "Kitchen faucet leaking!", "Still dripping"));
+        assertEquals(Optional.empty(),
+                detector.findDuplicate(apartmentId, UUID.randomUUID(), "Leaking kitchen faucet", null));
+        assertEquals(Optional.empty(),
+                detector.findDuplicate(apartmentId, plumbing, "Broken bathroom light", null));
+
+        // The apartment is loaded once and then answered from memory
+        verify(maintenanceRequestRepository, times(1)).findOpenDuplicateCandidates(eq(apartmentId), any());
+    }
+
+    @Test
+    void closedRequestsStopMatching() {
+        assertTrue(detector.findDuplicate(apartmentId, plumbing, "Leaking kitchen faucet", null).isPresent());
+
+        Apartment apartment = new Apartment();
+        apartment.setId(apartmentId);
+        ServiceCategory category = new ServiceCategory();
+        category.setId(plumbing);
+        MaintenanceRequest resolved = new MaintenanceRequest();
+        resolved.setId(requestId);
+        resolved.setApartment(apartment);
+        resolved.setServiceCategory(category);
+        resolved.setStatus(MaintenanceRequest.Status.RESOLVED);
+        detector.requestChanged(resolved);
+
+        assertTrue(detector.findDuplicate(apartmentId, plumbing, "Leaking kitchen faucet", null).isEmpty());
+    }
+}
@@ -0,0 +1,182 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.response.MaintenanceProgressResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaintenanceEventServiceTest {
+
+    private MaintenanceEventService eventService;
+
+    @BeforeEach
+    void setUp() {
+        eventService = new MaintenanceEventService(3600) {
+            @Override
+            SseEmitter createEmitter(long timeoutMs) {
+                return new CapturingEmitter(timeoutMs);
+            }
+        };
+        ReflectionTestUtils.setField(eventService, "maxConnectionsPerUser", 2);
+        ReflectionTestUtils.setField(eventService, "bufferSize", 16);
+        ReflectionTestUtils.setField(eventService, "replaySize", 2);
+        ReflectionTestUtils.setField(eventService, "replayTtlMs", 3_600_000L);
+        ReflectionTestUtils.setField(eventService, "emitterTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(eventService, "sendTimeoutMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventService.shutdown();
+    }
+
+    @Test
+    void connectionsPerUserAreCapped() {
+        UUID userId = UUID.randomUUID();
+        eventService.subscribe(userId, null);
+        eventService.subscribe(userId, null);
+        eventService.subscribe(userId, null);
+
+        assertEquals(2, eventService.getConnectionCount(userId));
+    }
+
+    @Test
+    void reconnectReplaysMissedEventsOrAsksForResync() throws Exception {
+        UUID userId = UUID.randomUUID();
+        CapturingEmitter live = (CapturingEmitter) eventService.subscribe(userId, null);
+        for (int i = 0; i < 3; i++) {
+            eventService.publish(List.of(userId), new MaintenanceProgressResponse());
+        }
+        List<SentEvent> liveEvents = live.take(3);
+        List<String> liveIds = liveEvents.stream().map(SentEvent::id).toList();
+        liveEvents.forEach(event -> assertEquals(MaintenanceEventService.UPDATE_EVENT, event.name()));
+
+        // Last two events are still in the replay log
+        CapturingEmitter resumed = (CapturingEmitter) eventService.subscribe(userId, Long.parseLong(liveIds.get(0)));
+        List<SentEvent> replayed = resumed.take(2);
+        assertEquals(liveIds.subList(1, 3), replayed.stream().map(SentEvent::id).toList());
+        replayed.forEach(event -> assertEquals(MaintenanceEventService.UPDATE_EVENT, event.name()));
+
+        // The event after this id has been dropped from the log
+        CapturingEmitter stale = (CapturingEmitter) eventService.subscribe(userId, Long.parseLong(liveIds.get(0)) - 1);
+        List<SentEvent> resync = stale.take(3);
+        assertEquals(MaintenanceEventService.RESYNC_EVENT, resync.get(0).name());
+        assertEquals(liveIds.subList(1, 3), resync.subList(1, 3).stream().map(SentEvent::id).toList());
+    }
+
+    @Test
+    void clientsStuckInASendAreClosedWithoutHoldingUpOthers() throws Exception {
+        ReflectionTestUtils.setField(eventService, "sendTimeoutMs", 200L);
+        CountDownLatch unblock = new CountDownLatch(1);
+        try {
+            // As many stuck clients as the pool has core threads
+            List<CapturingEmitter> stuck = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                UUID slowUser = UUID.randomUUID();
+                CapturingEmitter emitter = (CapturingEmitter) eventService.subscribe(slowUser, null);
+                emitter.blockSendsUntil(unblock);
+                eventService.publish(List.of(slowUser), new MaintenanceProgressResponse());
+                stuck.add(emitter);
+            }
+            for (CapturingEmitter emitter : stuck) {
+                emitter.awaitSendStarted();
+            }
+
+            UUID fastUser = UUID.randomUUID();
+            CapturingEmitter fast = (CapturingEmitter) eventService.subscribe(fastUser, null);
+            eventService.publish(List.of(fastUser), new MaintenanceProgressResponse());
+            assertEquals(MaintenanceEventService.UPDATE_EVENT, fast.take(1).get(0).name());
+
+            for (CapturingEmitter emitter : stuck) {
+                assertTrue(emitter.failed.await(5, TimeUnit.SECONDS), "Stuck client was not closed");
+            }
+            assertEquals(1, eventService.getConnectionCount(fastUser));
+        } finally {
+            unblock.countDown();
+        }
+    }
+
+    private record SentEvent(String id, String name) {
+    }
+
+    // Records every event the service sends instead of writing it to a response
+    private static final class CapturingEmitter extends SseEmitter {
+        private final BlockingQueue<SentEvent> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch sendStarted = new CountDownLatch(1);
+        private final CountDownLatch failed = new CountDownLatch(1);
+        private volatile CountDownLatch blockSends;
+
+        private CapturingEmitter(long timeoutMs) {
+            super(timeoutMs);
+        }
+
+        // Later sends wait for the latch, like a write to a client whose socket buffer is full
+        private void blockSendsUntil(CountDownLatch latch) {
+            blockSends = latch;
+        }
+
+        private void awaitSendStarted() throws InterruptedException {
+            assertTrue(sendStarted.await(5, TimeUnit.SECONDS), "Send did not start");
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            super.completeWithError(ex);
+            failed.countDown();
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sendStarted.countDown();
+            CountDownLatch latch = blockSends;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Broken pipe");
+            }
+            String id = null;
+            String name = null;
+            for (DataWithMediaType part : builder.build()) {
+                if (!(part.getData() instanceof String text)) {
+                    continue;
+                }
+                for (String line : text.split("\n")) {
+                    if (line.startsWith("id:")) {
+                        id = line.substring(3);
+                    } else if (line.startsWith("event:")) {
+                        name = line.substring(6);
+                    }
+                }
+            }
+            if (id != null) {
+                sent.add(new SentEvent(id, name));
+            }
+        }
+
+        private List<SentEvent> take(int count) throws InterruptedException {
+            List<SentEvent> events = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                SentEvent event = sent.poll(5, TimeUnit.SECONDS);
+                assertNotNull(event, "Expected " + count + " events, got " + events.size());
+                events.add(event);
+            }
+            return events;
+        }
+    }
+}
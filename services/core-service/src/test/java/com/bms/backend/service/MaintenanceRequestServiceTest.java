@@ -0,0 +1,142 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.request.MaintenanceRequestCreateRequest;
+import com.bms.backend.entity.Apartment;
+import com.bms.backend.entity.MaintenanceRequest;
+import com.bms.backend.entity.MaintenanceUpdate;
+import com.bms.backend.entity.PropertyBuilding;
+import com.bms.backend.entity.ServiceCategory;
+import com.bms.backend.entity.User;
+import com.bms.backend.enums.UserRole;
+import com.bms.backend.repository.ApartmentRepository;
+import com.bms.backend.repository.MaintenanceRequestPhotoRepository;
+import com.bms.backend.repository.MaintenanceRequestRepository;
+import com.bms.backend.repository.MaintenanceUnreadCounterRepository;
+import com.bms.backend.repository.MaintenanceUpdateRepository;
+import com.bms.backend.repository.ServiceCategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceRequestServiceTest {
+
+    @Mock
+    private MaintenanceRequestRepository maintenanceRequestRepository;
+    @Mock
+    private ApartmentRepository apartmentRepository;
+    @Mock
+    private ServiceCategoryRepository serviceCategoryRepository;
+    @Mock
+    private MaintenanceUpdateRepository maintenanceUpdateRepository;
+    @Mock
+    private MaintenanceRequestPhotoRepository maintenanceRequestPhotoRepository;
+    @Mock
+    private MaintenanceUnreadCounterRepository unreadCounterRepository;
+    @Mock
+    private MaintenanceEventService maintenanceEventService;
+    @Mock
+    private PortfolioSearchService portfolioSearchService;
+    @Mock
+    private MaintenanceDuplicateDetector duplicateDetector;
+    @Mock
+    private MaintenanceCounterService counterService;
+    @Mock
+    private ImageDerivativeService imageDerivativeService;
+
+    @InjectMocks
+    private MaintenanceRequestService maintenanceRequestService;
+
+    private Apartment apartment;
+    private ServiceCategory plumbing;
+    private MaintenanceRequest original;
+
+    @BeforeEach
+    void setUp() {
+        User manager = user(UserRole.PROPERTY_MANAGER);
+        PropertyBuilding building = new PropertyBuilding();
+        building.setManager(manager);
+        apartment = new Apartment();
+        apartment.setId(UUID.randomUUID());
+        apartment.setProperty(building);
+        plumbing = new ServiceCategory();
+        plumbing.setId(UUID.randomUUID());
+
+        User firstReporter = user(UserRole.TENANT);
+        original = new MaintenanceRequest();
+        original.setId(UUID.randomUUID());
+        original.setApartment(apartment);
+        original.setRequester(firstReporter);
+        original.setTenant(firstReporter);
+        original.setStatus(MaintenanceRequest.Status.OPEN);
+
+        when(apartmentRepository.findById(apartment.getId())).thenReturn(Optional.of(apartment));
+        when(serviceCategoryRepository.findById(plumbing.getId())).thenReturn(Optional.of(plumbing));
+        when(duplicateDetector.findDuplicate(eq(apartment.getId()), eq(plumbing.getId()), anyString(), anyString()))
+                .thenReturn(Optional.of(original.getId()));
+        when(duplicateDetector.isMergeEnabled()).thenReturn(true);
+        when(maintenanceRequestRepository.findById(original.getId())).thenReturn(Optional.of(original));
+    }
+
+    @Test
+    void repeatedReportOfTheSameReporterIsMergedIntoTheOriginal() {
+        when(maintenanceRequestPhotoRepository.countByMaintenanceRequestId(original.getId())).thenReturn(1L);
+        when(maintenanceUpdateRepository.save(any(MaintenanceUpdate.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MaintenanceRequest result = maintenanceRequestService.createMaintenanceRequest(report(), original.getRequester());
+
+        assertSame(original, result);
+        assertTrue(result.isMergedDuplicate());
+        verify(maintenanceRequestRepository, never()).save(any());
+    }
+
+    @Test
+    void reportFromAnotherTenantIsNotMergedIntoARequestTheyCannotOpen() {
+        when(maintenanceRequestRepository.save(any(MaintenanceRequest.class))).thenAnswer(invocation -> {
+            MaintenanceRequest saved = invocation.getArgument(0);
+            saved.setId(UUID.randomUUID());
+            return saved;
+        });
+        User otherTenant = user(UserRole.TENANT);
+
+        MaintenanceRequest result = maintenanceRequestService.createMaintenanceRequest(report(), otherTenant);
+
+        assertNotSame(original, result);
+        assertFalse(result.isMergedDuplicate());
+        assertSame(otherTenant, result.getRequester());
+        assertEquals(original.getId(), result.getPossibleDuplicateOfId());
+        assertFalse(original.isMergedDuplicate());
+        verify(maintenanceUpdateRepository, never()).save(any());
+        verify(maintenanceRequestPhotoRepository, never()).countByMaintenanceRequestId(any());
+    }
+
+    private MaintenanceRequestCreateRequest report() {
+        MaintenanceRequestCreateRequest request = new MaintenanceRequestCreateRequest();
+        request.setApartmentId(apartment.getId());
+        request.setServiceCategoryId(plumbing.getId());
+        request.setTitle("Kitchen faucet leaking");
+        request.setDescription("Still dripping");
+        return request;
+    }
+
+    private static User user(UserRole role) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,160 @@
+package com.bms.backend.service;
+
+import com.bms.backend.entity.PendingObjectDeletion;
+import com.bms.backend.repository.PendingObjectDeletionRepository;
+import com.bms.backend.service.storage.S3ObjectStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ObjectDeletionServiceTest {
+
+    private S3Client s3Client;
+    private PendingObjectDeletionRepository repository;
+    private ContentIndexService contentIndexService;
+    private ObjectDeletionService deletionService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        S3Service s3Service = new S3Service();
+        ReflectionTestUtils.setField(s3Service, "bucketName", "bms-app-storage");
+        ReflectionTestUtils.setField(s3Service, "baseUrl", "http://localhost:9000");
+
+        s3Client = mock(S3Client.class);
+        repository = mock(PendingObjectDeletionRepository.class);
+        contentIndexService = mock(ContentIndexService.class);
+        when(contentIndexService.release(anyString())).thenReturn(true);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        deletionService = new ObjectDeletionService();
+        ReflectionTestUtils.setField(deletionService, "objectStorage", storage(s3Client));
+        ReflectionTestUtils.setField(deletionService, "s3Service", s3Service);
+        ReflectionTestUtils.setField(deletionService, "contentIndexService", contentIndexService);
+        ReflectionTestUtils.setField(deletionService, "pendingDeletionRepository", repository);
+        ReflectionTestUtils.setField(deletionService, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(deletionService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(deletionService, "retryBaseSeconds", 30L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deletionService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void queuesImagesWithTheirVariantsAndSkipsForeignUrls() {
+        deletionService.deleteImagesLater(List.of(
+                "http://localhost:9000/bms-app-storage/users/u/apartments/1_a.png",
+                "https://elsewhere.example.com/photo.jpg"));
+
+        ArgumentCaptor<Iterable<PendingObjectDeletion>> rows = ArgumentCaptor.forClass(Iterable.class);
+        verify(repository).saveAll(rows.capture());
+        List<String> keys = new ArrayList<>();
+        rows.getValue().forEach(row -> keys.add(row.getObjectKey()));
+        assertEquals(List.of("users/u/apartments/1_a.png", "users/u/apartments/1_a_thumb.jpg",
+                "users/u/apartments/1_a_medium.jpg"), keys);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keepsObjectsThatAreStillReferenced() {
+        when(contentIndexService.release("users/u/apartments/shared.png")).thenReturn(false);
+
+        deletionService.deleteImagesLater(List.of(
+                "http://localhost:9000/bms-app-storage/users/u/apartments/shared.png",
+                "http://localhost:9000/bms-app-storage/users/u/apartments/own.png"));
+
+        ArgumentCaptor<Iterable<PendingObjectDeletion>> rows = ArgumentCaptor.forClass(Iterable.class);
+        verify(repository).saveAll(rows.capture());
+        List<String> keys = new ArrayList<>();
+        rows.getValue().forEach(row -> keys.add(row.getObjectKey()));
+        assertEquals(List.of("users/u/apartments/own.png", "users/u/apartments/own_thumb.jpg",
+                "users/u/apartments/own_medium.jpg"), keys);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void removesDeletedRowsAndBacksOffFailedKeys() {
+        PendingObjectDeletion deleted = row("a.jpg", 0);
+        PendingObjectDeletion denied = row("b.jpg", 0);
+        when(repository.findDue(any(Instant.class), any(Pageable.class))).thenReturn(List.of(deleted, denied));
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(DeleteObjectsResponse.builder()
+                .errors(S3Error.builder().key("b.jpg").code("AccessDenied").message("Access Denied").build())
+                .build());
+
+        assertFalse(deletionService.drainBatch());
+
+        ArgumentCaptor<DeleteObjectsRequest> request = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3Client).deleteObjects(request.capture());
+        assertEquals(2, request.getValue().delete().objects().size());
+        ArgumentCaptor<Collection<UUID>> finished = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).deleteByIdIn(finished.capture());
+        assertEquals(List.of(deleted.getId()), List.copyOf(finished.getValue()));
+        verify(repository).saveAll(List.of(denied));
+        assertEquals(1, denied.getAttempts());
+        assertTrue(denied.getNextAttemptAt().isAfter(Instant.now().plusSeconds(20)));
+        assertEquals("AccessDenied: Access Denied", denied.getLastError());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givesUpAfterTheLastAttempt() {
+        PendingObjectDeletion retried = row("a.jpg", 0);
+        PendingObjectDeletion exhausted = row("b.jpg", 2);
+        when(repository.findDue(any(Instant.class), any(Pageable.class))).thenReturn(List.of(retried, exhausted));
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenThrow(S3Exception.builder().statusCode(503).message("Slow Down").build());
+
+        assertFalse(deletionService.drainBatch());
+
+        ArgumentCaptor<Collection<UUID>> finished = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).deleteByIdIn(finished.capture());
+        assertEquals(List.of(exhausted.getId()), List.copyOf(finished.getValue()));
+        verify(repository).saveAll(List.of(retried));
+    }
+
+    private static S3ObjectStorage storage(S3Client s3Client) {
+        S3ObjectStorage storage = new S3ObjectStorage();
+        ReflectionTestUtils.setField(storage, "s3Client", s3Client);
+        ReflectionTestUtils.setField(storage, "bucketName", "bms-app-storage");
+        return storage;
+    }
+
+    private static PendingObjectDeletion row(String key, int attempts) {
+        PendingObjectDeletion row = new PendingObjectDeletion(key);
+        row.setId(UUID.randomUUID());
+        row.setAttempts(attempts);
+        return row;
+    }
+}
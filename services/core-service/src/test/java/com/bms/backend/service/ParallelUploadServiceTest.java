@@ -0,0 +1,160 @@
+package com.bms.backend.service;
+
+import com.bms.backend.service.storage.S3ObjectStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParallelUploadServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+
+    private S3AsyncClient s3AsyncClient;
+    private S3Client s3Client;
+    private ContentIndexService contentIndexService;
+    private ParallelUploadService uploadService;
+
+    @BeforeEach
+    void setUp() {
+        S3Service s3Service = new S3Service();
+        ReflectionTestUtils.setField(s3Service, "bucketName", "bms-app-storage");
+        ReflectionTestUtils.setField(s3Service, "baseUrl", "http://localhost:9000");
+
+        s3AsyncClient = mock(S3AsyncClient.class);
+        s3Client = mock(S3Client.class);
+        contentIndexService = mock(ContentIndexService.class);
+        when(contentIndexService.isEnabled()).thenReturn(true);
+        when(contentIndexService.register(any(UUID.class), any(S3Service.FileType.class), anyString(), anyString(),
+                anyLong())).thenAnswer(invocation -> invocation.getArgument(3));
+        when(contentIndexService.release(anyString())).thenReturn(true);
+
+        uploadService = new ParallelUploadService(2);
+        ReflectionTestUtils.setField(uploadService, "contentIndexService", contentIndexService);
+        S3ObjectStorage storage = new S3ObjectStorage();
+        ReflectionTestUtils.setField(storage, "s3AsyncClient", s3AsyncClient);
+        ReflectionTestUtils.setField(storage, "s3Client", s3Client);
+        ReflectionTestUtils.setField(storage, "bucketName", "bms-app-storage");
+        ReflectionTestUtils.setField(uploadService, "objectStorage", storage);
+        ReflectionTestUtils.setField(uploadService, "s3Service", s3Service);
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploadService.shutdown();
+    }
+
+    @Test
+    void uploadsConcurrentlyWithinTheInFlightLimit() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class))).thenAnswer(invocation -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                active.decrementAndGet();
+                return PutObjectResponse.builder().build();
+            }, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+        });
+
+        List<ParallelUploadService.UploadedFile> uploaded =
+                uploadService.uploadAll(images(5), userId, S3Service.FileType.PROPERTY);
+
+        assertEquals(5, uploaded.size());
+        assertEquals("photo0.jpg", uploaded.get(0).getOriginalFilename());
+        assertTrue(uploaded.get(0).getUrl().startsWith("http://localhost:9000/bms-app-storage/users/" + userId + "/property/"));
+        assertTrue(maxActive.get() > 1, "uploads should overlap");
+        assertTrue(maxActive.get() <= 2, "no more than two uploads in flight");
+    }
+
+    @Test
+    void failedUploadRemovesTheOthers() {
+        AtomicInteger calls = new AtomicInteger();
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class))).thenAnswer(invocation ->
+                calls.incrementAndGet() == 2
+                        ? CompletableFuture.failedFuture(S3Exception.builder().message("Slow down").build())
+                        : CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(DeleteObjectsResponse.builder().build());
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> uploadService.uploadAll(images(3), userId, S3Service.FileType.PROPERTY));
+        assertTrue(error.getMessage().contains("Slow down"));
+
+        ArgumentCaptor<DeleteObjectsRequest> deleted = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3Client).deleteObjects(deleted.capture());
+        assertEquals(2, deleted.getValue().delete().objects().size());
+    }
+
+    @Test
+    void storedAndRepeatedContentIsNotUploadedAgain() throws Exception {
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
+        List<MultipartFile> files = new ArrayList<>(images(2));
+        files.add(new MockMultipartFile("images", "copy.jpg", "image/jpeg", files.get(1).getBytes()));
+        String storedHash = ContentIndexService.sha256(files.get(0).getInputStream());
+        String repeatedHash = ContentIndexService.sha256(files.get(1).getInputStream());
+        when(contentIndexService.reuse(userId, S3Service.FileType.PROPERTY, storedHash))
+                .thenReturn("users/" + userId + "/property/old.jpg");
+        // The repeat takes its reference once the first copy is registered
+        when(contentIndexService.reuse(userId, S3Service.FileType.PROPERTY, repeatedHash)).thenReturn(null)
+                .thenAnswer(invocation -> "users/" + userId + "/property/new.jpg");
+        when(contentIndexService.register(eq(userId), eq(S3Service.FileType.PROPERTY), eq(repeatedHash), anyString(),
+                anyLong()))
+                .thenReturn("users/" + userId + "/property/new.jpg");
+
+        List<ParallelUploadService.UploadedFile> uploaded =
+                uploadService.uploadAll(files, userId, S3Service.FileType.PROPERTY);
+
+        verify(s3AsyncClient, times(1)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+        assertTrue(uploaded.get(0).getUrl().endsWith("/property/old.jpg"));
+        assertTrue(uploaded.get(1).getUrl().endsWith("/property/new.jpg"));
+        assertTrue(uploaded.get(2).getUrl().endsWith("/property/new.jpg"));
+        assertEquals("copy.jpg", uploaded.get(2).getOriginalFilename());
+    }
+
+    @Test
+    void invalidFileFailsBeforeAnythingIsUploaded() {
+        List<MultipartFile> files = new ArrayList<>(images(2));
+        files.add(new MockMultipartFile("images", "notes.txt", "text/plain", new byte[]{1}));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> uploadService.uploadAll(files, userId, S3Service.FileType.PROPERTY));
+        verify(s3AsyncClient, never()).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+    }
+
+    private static List<MultipartFile> images(int count) {
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            files.add(new MockMultipartFile("images", "photo" + i + ".jpg", "image/jpeg", new byte[]{1, 2, (byte) i}));
+        }
+        return files;
+    }
+}
@@ -0,0 +1,123 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.response.PortfolioSearchHit;
+import com.bms.backend.repository.ApartmentRepository;
+import com.bms.backend.repository.MaintenanceRequestRepository;
+import com.bms.backend.repository.PropertyBuildingRepository;
+import com.bms.backend.repository.TenantPropertyConnectionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioSearchServiceTest {
+
+    @Mock
+    private PropertyBuildingRepository propertyBuildingRepository;
+
+    @Mock
+    private ApartmentRepository apartmentRepository;
+
+    @Mock
+    private TenantPropertyConnectionRepository connectionRepository;
+
+    @Mock
+    private MaintenanceRequestRepository maintenanceRequestRepository;
+
+    @InjectMocks
+    private PortfolioSearchService searchService;
+
+    private final UUID managerId = UUID.randomUUID();
+    private final UUID buildingId = UUID.randomUUID();
+    private final UUID apartmentId = UUID.randomUUID();
+    private final UUID connectionId = UUID.randomUUID();
+    private final UUID requestId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        ReflectionTestUtils.setField(searchService, "enabled", true);
+        when(propertyBuildingRepository.findSearchIndexRows()).thenReturn(rows(
+                new Object[]{buildingId, managerId, "Maple Court", "12 Maple Street"}));
+        when(apartmentRepository.findSearchIndexRows()).thenReturn(rows(
+                new Object[]{apartmentId, managerId, buildingId, "4B", "Jane Doe", "jane.doe@example.com", "+15550102030"}));
+        when(connectionRepository.findSearchIndexRows()).thenReturn(rows(
+                new Object[]{connectionId, managerId, buildingId, apartmentId, "Jane", "Doe", "jane.doe@example.com",
+                        "+15550102030", "Maple Court"}));
+        when(maintenanceRequestRepository.findSearchIndexRows()).thenReturn(rows(
+                new Object[]{requestId, managerId, buildingId, apartmentId, "Leaking kitchen faucet"}));
+
+        searchService.buildIndex();
+        awaitUpdates();
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchService.shutdown();
+    }
+
+    @Test
+    void matchesPrefixesAcrossFieldsAndRanksWholeTokensFirst() {
+        assertEquals(List.of(PortfolioSearchHit.Type.APARTMENT, PortfolioSearchHit.Type.TENANT),
+                types(searchService.search(managerId, "jane do", null)));
+
+        List<PortfolioSearchHit> phone = searchService.search(managerId, "(555) 010-2", null);
+        assertEquals(2, phone.size());
+
+        PortfolioSearchHit request = searchService.search(managerId, "faucet", null).get(0);
+        assertEquals(requestId, request.getId());
+        assertEquals("Maple Court", request.getBuildingName());
+        assertEquals("4B", request.getUnitNumber());
+
+        // "maple" is a whole token of the building; nothing else mentions it
+        assertEquals(List.of(PortfolioSearchHit.Type.BUILDING), types(searchService.search(managerId, "maple", null)));
+        assertTrue(searchService.search(UUID.randomUUID(), "maple", null).isEmpty());
+    }
+
+    @Test
+    void appliesUpdatesAndCascadesDeletes() throws InterruptedException {
+        when(propertyBuildingRepository.findSearchIndexRowsById(buildingId)).thenReturn(rows(
+                new Object[]{buildingId, managerId, "Birch House", "12 Maple Street"}));
+        searchService.buildingChanged(buildingId);
+        awaitUpdates();
+
+        assertEquals("Birch House", searchService.search(managerId, "faucet", null).get(0).getBuildingName());
+
+        when(apartmentRepository.findSearchIndexRowsById(apartmentId)).thenReturn(List.of());
+        searchService.apartmentChanged(apartmentId);
+        awaitUpdates();
+
+        assertTrue(searchService.search(managerId, "jane", null).isEmpty());
+        assertTrue(searchService.search(managerId, "faucet", null).isEmpty());
+        assertEquals(1, searchService.search(managerId, "birch", null).size());
+    }
+
+    private void awaitUpdates() throws InterruptedException {
+        // The update thread runs tasks in order, so once this one runs everything before it has been applied
+        CountDownLatch done = new CountDownLatch(1);
+        ReflectionTestUtils.invokeMethod(searchService, "submit", (Runnable) done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private static List<PortfolioSearchHit.Type> types(List<PortfolioSearchHit> hits) {
+        return hits.stream().map(PortfolioSearchHit::getType).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,97 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.response.FileListItem;
+import com.bms.backend.dto.response.FileListPageResponse;
+import com.bms.backend.service.storage.ObjectStorage;
+import com.bms.backend.service.storage.ObjectSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class S3ServiceListingTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final UUID userId = UUID.randomUUID();
+    private final String prefix = "users/" + userId + "/documents/";
+
+    private ObjectStorage objectStorage;
+    private S3Service s3Service;
+
+    @BeforeEach
+    void setUp() {
+        objectStorage = mock(ObjectStorage.class);
+        s3Service = new S3Service();
+        ReflectionTestUtils.setField(s3Service, "objectStorage", objectStorage);
+        ReflectionTestUtils.setField(s3Service, "bucketName", "bms-app-storage");
+        ReflectionTestUtils.setField(s3Service, "baseUrl", "http://localhost:9000");
+    }
+
+    @Test
+    void pagesLazilyAndContinuesAfterTheCursor() {
+        AtomicInteger consumed = new AtomicInteger();
+        when(objectStorage.list(eq(prefix), isNull())).thenReturn(objects(0, 10).peek(object -> consumed.incrementAndGet()));
+
+        FileListPageResponse first = s3Service.listUserFiles(userId, S3Service.FileType.DOCUMENT, null, 3,
+                null, null, false);
+
+        assertEquals(3, first.getFiles().size());
+        assertTrue(first.isHasMore());
+        assertEquals(4, consumed.get());
+        assertEquals("http://localhost:9000/bms-app-storage/" + prefix + "file-00.pdf", first.getFiles().get(0).getUrl());
+        assertNull(first.getFiles().get(0).getSize());
+
+        when(objectStorage.list(prefix, prefix + "file-02.pdf")).thenReturn(objects(3, 10));
+        FileListPageResponse last = s3Service.listUserFiles(userId, S3Service.FileType.DOCUMENT,
+                first.getNextCursor(), 10, null, null, true);
+
+        assertEquals(7, last.getFiles().size());
+        assertFalse(last.isHasMore());
+        assertNull(last.getNextCursor());
+        FileListItem item = last.getFiles().get(0);
+        assertEquals(300L, item.getSize());
+        assertEquals(START.plusSeconds(3 * 86400), item.getLastModified());
+    }
+
+    @Test
+    void filtersByModificationDate() {
+        when(objectStorage.list(eq(prefix), isNull())).thenReturn(objects(0, 10));
+
+        FileListPageResponse page = s3Service.listUserFiles(userId, S3Service.FileType.DOCUMENT, null, null,
+                START.plusSeconds(2 * 86400), START.plusSeconds(5 * 86400), false);
+
+        assertEquals(3, page.getFiles().size());
+        assertTrue(page.getFiles().get(0).getUrl().endsWith("file-02.pdf"));
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void rejectsCursorsOutsideTheFolder() {
+        String cursor = Base64.getUrlEncoder().encodeToString("../other/x".getBytes());
+        when(objectStorage.list(any(), any())).thenReturn(Stream.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> s3Service.listUserFiles(userId,
+                S3Service.FileType.DOCUMENT, cursor, null, null, null, false));
+        assertThrows(IllegalArgumentException.class, () -> s3Service.listUserFiles(userId,
+                S3Service.FileType.DOCUMENT, "not base64!", null, null, null, false));
+    }
+
+    private Stream<ObjectSummary> objects(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> new ObjectSummary(
+                String.format("%sfile-%02d.pdf", prefix, i), i * 100L, START.plusSeconds(i * 86400L)));
+    }
+}
@@ -0,0 +1,122 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.response.FileDownloadUrlResponse;
+import com.bms.backend.dto.response.PresignedUploadResponse;
+import com.bms.backend.service.storage.S3ObjectStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class S3ServicePresignTest {
+
+    private final UUID userId = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    private S3Service s3Service;
+    private S3Client s3Client;
+    private S3Presigner presigner;
+
+    @BeforeEach
+    void setUp() {
+        // Signing happens locally, so a local S3-compatible endpoint is enough; nothing listens on it
+        presigner = S3Presigner.builder()
+                .region(Region.US_EAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .endpointOverride(URI.create("http://localhost:9000"))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .build();
+        s3Client = mock(S3Client.class);
+        ContentIndexService contentIndexService = mock(ContentIndexService.class);
+        when(contentIndexService.release(anyString())).thenReturn(true);
+
+        s3Service = new S3Service();
+        ReflectionTestUtils.setField(s3Service, "contentIndexService", contentIndexService);
+        S3ObjectStorage storage = new S3ObjectStorage();
+        ReflectionTestUtils.setField(storage, "s3Client", s3Client);
+        ReflectionTestUtils.setField(storage, "s3Presigner", presigner);
+        ReflectionTestUtils.setField(storage, "bucketName", "bms-app-storage");
+        ReflectionTestUtils.setField(s3Service, "objectStorage", storage);
+        ReflectionTestUtils.setField(s3Service, "bucketName", "bms-app-storage");
+        ReflectionTestUtils.setField(s3Service, "baseUrl", "http://localhost:9000");
+        ReflectionTestUtils.setField(s3Service, "cloudFrontDomain", "");
+        ReflectionTestUtils.setField(s3Service, "uploadUrlExpirySeconds", 300L);
+        ReflectionTestUtils.setField(s3Service, "downloadUrlExpirySeconds", 900L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        presigner.close();
+    }
+
+    @Test
+    void uploadUrlSignsContentTypeAndLength() {
+        PresignedUploadResponse upload = s3Service.presignUpload(userId, S3Service.FileType.PROFILE, "me.png",
+                "image/png", 2048);
+
+        assertTrue(upload.getKey().startsWith("users/" + userId + "/profile/"));
+        assertTrue(upload.getKey().endsWith(".png"));
+        assertEquals("PUT", upload.getMethod());
+        assertTrue(upload.getUploadUrl().startsWith("http://localhost:9000/bms-app-storage/" + upload.getKey()));
+        assertTrue(upload.getUploadUrl().contains("X-Amz-Expires=300"));
+        assertEquals("image/png", upload.getHeaders().get("content-type"));
+        assertEquals("2048", upload.getHeaders().get("content-length"));
+        assertFalse(upload.getHeaders().containsKey("host"));
+
+        assertThrows(IllegalArgumentException.class, () -> s3Service.presignUpload(userId, S3Service.FileType.PROFILE,
+                "big.png", "image/png", 20L * 1024 * 1024));
+        assertThrows(IllegalArgumentException.class, () -> s3Service.presignUpload(userId, S3Service.FileType.PROFILE,
+                "run.sh", "text/x-shellscript", 10));
+    }
+
+    @Test
+    void completionRejectsForeignKeysAndDeletesInvalidObjects() {
+        assertThrows(IllegalArgumentException.class, () -> s3Service.verifyUpload(userId, S3Service.FileType.PROFILE,
+                "users/" + UUID.randomUUID() + "/profile/x.png"));
+        verify(s3Client, never()).headObject(any(HeadObjectRequest.class));
+
+        String key = "users/" + userId + "/profile/x.png";
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder()
+                .contentType("image/png").contentLength(512L).build());
+        assertEquals(512L, s3Service.verifyUpload(userId, S3Service.FileType.PROFILE, key).getContentLength());
+
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder()
+                .contentType("text/html").contentLength(512L).build());
+        assertThrows(IllegalArgumentException.class, () -> s3Service.verifyUpload(userId, S3Service.FileType.PROFILE, key));
+        verify(s3Client).deleteObject(any(DeleteObjectRequest.class));
+    }
+
+    @Test
+    void downloadUrlIsPresignedUnlessCdnIsEnabled() {
+        String fileUrl = "http://localhost:9000/bms-app-storage/users/" + userId + "/profile/x.png";
+
+        FileDownloadUrlResponse presigned = s3Service.getDownloadUrl(fileUrl);
+        assertTrue(presigned.getUrl().contains("X-Amz-Signature="));
+        assertNotNull(presigned.getExpiresAt());
+
+        ReflectionTestUtils.setField(s3Service, "cloudFrontEnabled", true);
+        ReflectionTestUtils.setField(s3Service, "cloudFrontDomain", "d1234567890abc.cloudfront.net");
+        FileDownloadUrlResponse cdn = s3Service.getDownloadUrl(fileUrl);
+        assertEquals("https://d1234567890abc.cloudfront.net/users/" + userId + "/profile/x.png", cdn.getUrl());
+        assertNull(cdn.getExpiresAt());
+    }
+}
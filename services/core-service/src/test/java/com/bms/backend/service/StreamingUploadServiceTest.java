@@ -0,0 +1,117 @@
+package com.bms.backend.service;
+
+import com.bms.backend.dto.response.FileUploadResponse;
+import com.bms.backend.entity.User;
+import com.bms.backend.service.storage.LocalObjectStorage;
+import com.bms.backend.service.storage.ObjectContent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StreamingUploadServiceTest {
+
+    private static final String BOUNDARY = "xYzZY";
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+
+    @TempDir
+    Path root;
+
+    private User user;
+    private LocalObjectStorage storage;
+    private StreamingUploadService uploadService;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        storage = new LocalObjectStorage(root.toString());
+
+        ContentIndexService contentIndexService = mock(ContentIndexService.class);
+        when(contentIndexService.isEnabled()).thenReturn(true);
+        when(contentIndexService.register(any(UUID.class), any(S3Service.FileType.class), anyString(), anyString(),
+                anyLong())).thenAnswer(invocation -> invocation.getArgument(3));
+
+        S3Service s3Service = new S3Service();
+        ReflectionTestUtils.setField(s3Service, "objectStorage", storage);
+        ReflectionTestUtils.setField(s3Service, "contentIndexService", contentIndexService);
+        ReflectionTestUtils.setField(s3Service, "bucketName", "bms-app-storage");
+        ReflectionTestUtils.setField(s3Service, "baseUrl", "http://localhost:9000");
+
+        uploadService = new StreamingUploadService();
+        ReflectionTestUtils.setField(uploadService, "s3Service", s3Service);
+        ReflectionTestUtils.setField(uploadService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(uploadService, "bufferSize", 16 * 1024);
+    }
+
+    @Test
+    void storesTheFileWithTheSniffedType() throws IOException {
+        byte[] pdf = pdf(300_000);
+
+        FileUploadResponse response = uploadService.upload(CONTENT_TYPE,
+                new ByteArrayInputStream(body("lease.pdf", "image/png", pdf)), user);
+
+        assertEquals("application/pdf", response.getContentType());
+        assertEquals(pdf.length, response.getFileSize());
+        String key = response.getFileUrl().substring("http://localhost:9000/bms-app-storage/".length());
+        assertTrue(key.startsWith("users/" + user.getId() + "/documents/"));
+        try (ObjectContent stored = storage.get(key)) {
+            assertEquals("application/pdf", stored.getInfo().getContentType());
+            assertArrayEquals(pdf, stored.readAllBytes());
+        }
+    }
+
+    @Test
+    void rejectsDisguisedAndOversizedFilesWithoutStoringThem() throws IOException {
+        byte[] script = "#!/bin/sh\necho hi\n".getBytes(StandardCharsets.UTF_8);
+        IllegalArgumentException disguised = assertThrows(IllegalArgumentException.class, () -> uploadService.upload(
+                CONTENT_TYPE, new ByteArrayInputStream(body("photo.jpg", "image/jpeg", script)), user));
+        assertTrue(disguised.getMessage().startsWith("Invalid file type"));
+
+        byte[] huge = pdf((int) S3Service.MAX_FILE_SIZE + 1);
+        IllegalArgumentException oversized = assertThrows(IllegalArgumentException.class, () -> uploadService.upload(
+                CONTENT_TYPE, new ByteArrayInputStream(body("big.pdf", "application/pdf", huge)), user));
+        assertEquals("File size cannot exceed 10MB", oversized.getMessage());
+
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    private static byte[] pdf(int size) {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) 'x');
+        System.arraycopy("%PDF-1.7".getBytes(StandardCharsets.ISO_8859_1), 0, bytes, 0, 8);
+        return bytes;
+    }
+
+    private static byte[] body(String fileName, String declaredType, byte[] file) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"uploadRequest\"\r\n\r\n"
+                + "{\"fileType\":\"document\",\"description\":\"Lease\"}\r\n--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: " + declaredType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(file);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        return body.toByteArray();
+    }
+}
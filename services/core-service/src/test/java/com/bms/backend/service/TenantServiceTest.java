@@ -39,6 +39,9 @@ class TenantServiceTest {
     @Mock
     private MaintenanceRequestRepository maintenanceRequestRepository;
 
+    @Mock
+    private ApartmentDocumentRepository apartmentDocumentRepository;
+
     @InjectMocks
     private TenantService tenantService;
 
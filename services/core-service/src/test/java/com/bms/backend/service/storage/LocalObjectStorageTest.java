@@ -0,0 +1,123 @@
+package com.bms.backend.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalObjectStorageTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    private LocalObjectStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalObjectStorage(root.toString());
+    }
+
+    @Test
+    void storesAndReadsObjectsWithMd5ETags() throws IOException {
+        put("users/u/documents/lease.pdf", CONTENT);
+
+        ObjectInfo info = storage.head("users/u/documents/lease.pdf");
+        assertEquals(10L, info.getContentLength());
+        assertEquals("application/pdf", info.getContentType());
+        assertEquals("\"781e5e245d69b566979b86e28d23f2c7\"", info.getETag());
+        try (ObjectContent content = storage.get("users/u/documents/lease.pdf")) {
+            assertArrayEquals(CONTENT, content.readAllBytes());
+        }
+        assertNull(storage.head("users/u/documents/missing.pdf"));
+    }
+
+    @Test
+    void servesRangesAndConditionalReads() throws IOException {
+        put("users/u/documents/lease.pdf", CONTENT);
+
+        try (ObjectContent content = storage.get("users/u/documents/lease.pdf", null, "bytes=2-4")) {
+            assertEquals("bytes 2-4/10", content.getContentRange());
+            assertEquals(2, content.getOffset());
+            assertEquals("234", new String(content.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        String eTag = storage.head("users/u/documents/lease.pdf").getETag();
+        assertEquals(304, status(() -> storage.get("users/u/documents/lease.pdf", eTag, null)));
+        assertEquals(416, status(() -> storage.get("users/u/documents/lease.pdf", null, "bytes=20-30")));
+        assertEquals(404, status(() -> storage.get("users/u/documents/missing.pdf")));
+    }
+
+    @Test
+    void replacingAnObjectLeavesOnlyTheNewData() throws IOException {
+        put("users/u/profile/me.jpg", CONTENT);
+        put("users/u/profile/me.jpg", "new".getBytes(StandardCharsets.UTF_8));
+
+        try (ObjectContent content = storage.get("users/u/profile/me.jpg")) {
+            assertEquals("new", new String(content.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(1, count(".data"));
+    }
+
+    @Test
+    void listsByPrefixAndSurvivesARestart() {
+        put("users/a/documents/1.pdf", CONTENT);
+        put("users/a/documents/2.pdf", CONTENT);
+        put("users/b/documents/3.pdf", CONTENT);
+
+        LocalObjectStorage restarted = new LocalObjectStorage(root.toString());
+
+        assertEquals(List.of("users/a/documents/1.pdf", "users/a/documents/2.pdf"), keys(restarted.list("users/a/", null)));
+        assertEquals(List.of("users/a/documents/2.pdf"), keys(restarted.list("users/a/", "users/a/documents/1.pdf")));
+        ObjectSummary first = restarted.list("users/a/", null).findFirst().orElseThrow();
+        assertEquals(10, first.getSize());
+        assertNotNull(first.getLastModified());
+    }
+
+    @Test
+    void deletesObjectsAndIgnoresMissingKeys() throws IOException {
+        put("users/u/documents/1.pdf", CONTENT);
+        put("users/u/documents/2.pdf", CONTENT);
+
+        assertTrue(storage.deleteAll(List.of("users/u/documents/1.pdf", "users/u/documents/none.pdf")).isEmpty());
+        storage.delete("users/u/documents/2.pdf");
+
+        assertEquals(List.of(), keys(storage.list("users/u/", null)));
+        assertEquals(0, count(".data"));
+        assertEquals(0, count(".meta"));
+    }
+
+    @Test
+    void cannotSignUrls() {
+        assertTrue(storage.presignPut("users/u/documents/1.pdf", "application/pdf", 10, Duration.ofMinutes(5)).isEmpty());
+        assertTrue(storage.presignGet("users/u/documents/1.pdf", Duration.ofMinutes(5)).isEmpty());
+    }
+
+    private void put(String key, byte[] bytes) {
+        storage.put(key, new ByteArrayInputStream(bytes), bytes.length, "application/pdf", null);
+    }
+
+    private static List<String> keys(Stream<ObjectSummary> objects) {
+        return objects.map(ObjectSummary::getKey).toList();
+    }
+
+    private long count(String suffix) throws IOException {
+        try (Stream<Path> files = Files.walk(root.resolve("objects"))) {
+            return files.filter(file -> file.toString().endsWith(suffix)).count();
+        }
+    }
+
+    private static int status(Runnable read) {
+        return assertThrows(ObjectStorageException.class, read::run).getStatusCode();
+    }
+}
@@ -0,0 +1,47 @@
+package com.bms.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2026-03-01T10:15:30.123456Z");
+    private static final UUID ID = UUID.fromString("7b0c6f4e-2f0e-4a55-9a52-0d8c3c7f1e21");
+
+    @Test
+    void roundTripsPlainAndRankedCursors() {
+        KeysetCursor plain = KeysetCursor.decode(KeysetCursor.encode(CREATED_AT, ID));
+        assertNull(plain.getRank());
+        assertEquals(CREATED_AT, plain.getPosition());
+        assertEquals(ID, plain.getId());
+
+        KeysetCursor ranked = KeysetCursor.decodeRanked(KeysetCursor.encode(2, CREATED_AT, ID));
+        assertEquals(2, ranked.getRank());
+        assertEquals(CREATED_AT, ranked.getPosition());
+        assertEquals(ID, ranked.getId());
+    }
+
+    @Test
+    void rejectsCursorsItDidNotIssue() {
+        String plain = KeysetCursor.encode(CREATED_AT, ID);
+        String ranked = KeysetCursor.encode(2, CREATED_AT, ID);
+        for (String cursor : new String[] {null, "", "not base64!", encoded("2026-03-01T10:15:30Z"),
+                encoded("yesterday|" + ID), encoded(CREATED_AT + "|42"), encoded(CREATED_AT + "|" + ID + "|x"), ranked}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(cursor));
+            assertEquals("Invalid cursor", e.getMessage());
+        }
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decodeRanked(plain));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decodeRanked(encoded("high|" + CREATED_AT + "|" + ID)));
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,90 @@
+package com.bms.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartStreamTest {
+
+    private static final String BOUNDARY = "----form7MA4YWxk";
+
+    @Test
+    void readsFieldsAndFilesInOrder() throws IOException {
+        byte[] file = new byte[200_000];
+        new Random(7).nextBytes(file);
+        // A near-delimiter inside the content must not end the part
+        System.arraycopy(("\r\n--" + BOUNDARY.substring(0, 10)).getBytes(StandardCharsets.ISO_8859_1), 0, file, 5000, 14);
+
+        MultipartStream multipart = new MultipartStream(trickle(body(file)), BOUNDARY, 16 * 1024);
+
+        MultipartStream.Part field = multipart.nextPart();
+        assertEquals("uploadRequest", field.getName());
+        assertNull(field.getFileName());
+        assertEquals("{\"fileType\":\"document\"}", field.readString(1024));
+
+        MultipartStream.Part part = multipart.nextPart();
+        assertEquals("file", part.getName());
+        assertEquals("lease é.pdf", part.getFileName());
+        assertEquals("application/pdf", part.getContentType());
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        part.getBody().transferTo(read);
+        assertArrayEquals(file, read.toByteArray());
+
+        assertNull(multipart.nextPart());
+    }
+
+    @Test
+    void skipsUnreadPartsAndRejectsTruncatedBodies() throws IOException {
+        MultipartStream multipart = new MultipartStream(new ByteArrayInputStream(body(new byte[1000])), BOUNDARY,
+                MultipartStream.DEFAULT_BUFFER_SIZE);
+        multipart.nextPart();
+        multipart.nextPart();
+        assertNull(multipart.nextPart());
+
+        byte[] full = body(new byte[1000]);
+        byte[] truncated = Arrays.copyOf(full, full.length - 100);
+        MultipartStream broken = new MultipartStream(new ByteArrayInputStream(truncated), BOUNDARY,
+                MultipartStream.DEFAULT_BUFFER_SIZE);
+        broken.nextPart();
+        MultipartStream.Part part = broken.nextPart();
+        assertThrows(IOException.class, () -> part.getBody().readAllBytes());
+    }
+
+    @Test
+    void extractsTheBoundaryFromTheContentType() {
+        assertEquals("abc", MultipartStream.boundaryOf("multipart/form-data; boundary=abc"));
+        assertEquals("a b", MultipartStream.boundaryOf("multipart/form-data; charset=UTF-8; boundary=\"a b\""));
+        assertNull(MultipartStream.boundaryOf("application/json"));
+        assertNull(MultipartStream.boundaryOf("multipart/form-data"));
+    }
+
+    private static byte[] body(byte[] file) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("preamble\r\n--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"uploadRequest\"\r\n\r\n"
+                + "{\"fileType\":\"document\"}\r\n--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"lease é.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(file);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        return body.toByteArray();
+    }
+
+    // Hands out the body a few bytes at a time, as a slow client would
+    private static InputStream trickle(byte[] bytes) {
+        return new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                return super.read(buffer, offset, Math.min(length, 7));
+            }
+        };
+    }
+}
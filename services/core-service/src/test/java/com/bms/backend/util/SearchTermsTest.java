@@ -0,0 +1,39 @@
+package com.bms.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTermsTest {
+
+    @Test
+    void normalizesQueryAndStripsWildcards() {
+        SearchTerms search = SearchTerms.of("  Main   %St\\ ");
+        assertEquals("main st", search.getTerm());
+        assertEquals("main st%", search.getPrefix());
+        assertEquals("%main st%", search.getPattern());
+        assertNull(SearchTerms.of(" % "));
+        assertNull(SearchTerms.of(null));
+    }
+
+    @Test
+    void escapesUnderscoresAndTheEscapeCharacter() {
+        SearchTerms search = SearchTerms.of("John_Doe!");
+        assertEquals("john_doe!", search.getTerm());
+        assertEquals("john!_doe!!%", search.getPrefix());
+        assertEquals("%john!_doe!!%", search.getPattern());
+    }
+
+    @Test
+    void shortQueriesOnlyMatchPrefixes() {
+        assertEquals("4b%", SearchTerms.of("4B").getPattern());
+        assertEquals("%4b1%", SearchTerms.of("4B1").getPattern());
+    }
+
+    @Test
+    void limitIsClamped() {
+        assertEquals(SearchTerms.DEFAULT_LIMIT, SearchTerms.limit(null).getPageSize());
+        assertEquals(1, SearchTerms.limit(0).getPageSize());
+        assertEquals(SearchTerms.MAX_LIMIT, SearchTerms.limit(10_000).getPageSize());
+    }
+}
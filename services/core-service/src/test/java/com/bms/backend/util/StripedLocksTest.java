@@ -0,0 +1,59 @@
+package com.bms.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLocksTest {
+
+    @Test
+    void roundsStripeCountUpToPowerOfTwo() {
+        assertEquals(1, new StripedLocks(1).stripeCount());
+        assertEquals(64, new StripedLocks(64).stripeCount());
+        assertEquals(128, new StripedLocks(100).stripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(0));
+    }
+
+    @Test
+    void sameKeyAlwaysMapsToSameStripe() {
+        StripedLocks locks = new StripedLocks(64);
+        UUID key = UUID.randomUUID();
+        assertSame(locks.stripeFor(key), locks.stripeFor(UUID.fromString(key.toString())));
+    }
+
+    @Test
+    void tasksForSameKeyNeverOverlap() throws Exception {
+        StripedLocks locks = new StripedLocks(16);
+        UUID key = UUID.randomUUID();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(pool.submit(() -> locks.withLock(key, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.yield();
+                    return running.decrementAndGet();
+                })));
+            }
+            for (Future<Integer> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, maxRunning.get());
+    }
+}